@@ -0,0 +1,85 @@
+package estructuras.benchmarks;
+
+import estructuras.Grafo;
+import estructuras.Lista;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Algoritmos del Grafo sobre redes aleatorias. Las consultas de rutas usan siempre
+ * el mismo par de proteínas para cada tamaño.
+ *
+ * Cada algoritmo tiene sus propios tamaños por defecto: rutaMasCorta e
+ * identificarHubs tardan unos 7 s por operación con 10k interacciones, así que
+ * llegan solo hasta ahí; rutaDFS y encontrarComplejos llegan a 1M. Para medir
+ * otros tamaños se reemplazan con -p, por ejemplo:
+ * <pre>
+ *   java -jar benchmarks/target/benchmarks.jar AlgoritmosBenchmark.rutaMasCorta -p aristas=100000
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AlgoritmosBenchmark {
+
+    /** Red aleatoria con el par de proteínas de las consultas de rutas. */
+    public abstract static class Red {
+        Grafo grafo;
+        String origen;
+        String destino;
+
+        abstract int aristas();
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            grafo = RedesDePrueba.grafo(aristas());
+            origen = RedesDePrueba.nombre(0);
+            destino = RedesDePrueba.nombre(RedesDePrueba.proteinasPara(aristas()) - 1);
+        }
+    }
+
+    /** Tamaños que terminan en tiempo razonable para los algoritmos cuadráticos. */
+    @State(Scope.Benchmark)
+    public static class RedChica extends Red {
+        @Param({"1000", "10000"})
+        public int aristas;
+
+        @Override
+        int aristas() {
+            return aristas;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RedGrande extends Red {
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int aristas;
+
+        @Override
+        int aristas() {
+            return aristas;
+        }
+    }
+
+    @Benchmark
+    public Grafo.ResultadoDijkstra rutaMasCorta(RedChica red) {
+        return red.grafo.rutaMasCorta(red.origen, red.destino);
+    }
+
+    @Benchmark
+    public Lista<String> rutaDFS(RedGrande red) {
+        return red.grafo.rutaDFS(red.origen, red.destino);
+    }
+
+    @Benchmark
+    public Lista<Lista<String>> encontrarComplejos(RedGrande red) {
+        return red.grafo.encontrarComplejos();
+    }
+
+    @Benchmark
+    public Lista<String> identificarHubs(RedChica red) {
+        return red.grafo.identificarHubs(5);
+    }
+}
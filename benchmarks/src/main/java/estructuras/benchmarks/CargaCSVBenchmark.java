@@ -0,0 +1,45 @@
+package estructuras.benchmarks;
+
+import estructuras.ArchivoCSV;
+import estructuras.Grafo;
+import estructuras.ReporteCarga;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Carga completa de un CSV de interacciones en un Grafo nuevo,
+ * con uno o varios hilos de lectura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CargaCSVBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int aristas;
+
+    @Param({"1", "2", "4"})
+    public int hilos;
+
+    private File archivo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        archivo = RedesDePrueba.csv(aristas);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        archivo.delete();
+    }
+
+    @Benchmark
+    public ReporteCarga cargar() throws IOException {
+        return ArchivoCSV.leer(archivo, new Grafo(), hilos);
+    }
+}
@@ -0,0 +1,70 @@
+package estructuras.benchmarks;
+
+import estructuras.Grafo;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark de contención sobre el Grafo: varios hilos lectores hacen consultas
+ * puntuales (existeProteina, getInteraccionesDe, getNumProteinas) mientras un
+ * único hilo escritor agrega y elimina interacciones.
+ *
+ * Por defecto hay dos hilos por cada consulta y un escritor; se cambia con -tg
+ * en el orden alfabético de los métodos, por ejemplo "-tg 1,5,5,5" (escritor primero).
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContencionGrafo {
+
+    @Param({"2000"})
+    public int aristas;
+
+    private Grafo grafo;
+    private int numProteinas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        grafo = RedesDePrueba.grafo(aristas);
+        numProteinas = RedesDePrueba.proteinasPara(aristas);
+    }
+
+    @Benchmark
+    @Group("contencion")
+    @GroupThreads(2)
+    public boolean existeProteina() {
+        return grafo.existeProteina(RedesDePrueba.nombre(ThreadLocalRandom.current().nextInt(numProteinas)));
+    }
+
+    @Benchmark
+    @Group("contencion")
+    @GroupThreads(2)
+    public int interaccionesDe() {
+        return grafo.getInteraccionesDe(RedesDePrueba.nombre(ThreadLocalRandom.current().nextInt(numProteinas)))
+            .getTamaño();
+    }
+
+    @Benchmark
+    @Group("contencion")
+    @GroupThreads(2)
+    public int numProteinas() {
+        return grafo.getNumProteinas();
+    }
+
+    @Benchmark
+    @Group("contencion")
+    @GroupThreads(1)
+    public boolean escritor() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String a = RedesDePrueba.nombre(rnd.nextInt(numProteinas));
+        String b = RedesDePrueba.nombre(rnd.nextInt(numProteinas));
+        if (!grafo.eliminarInteraccion(a, b)) {
+            return grafo.agregarInteraccion(a, b, 1.0 + rnd.nextDouble());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package estructuras.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada del jar de benchmarks.
+ * Acepta las mismas opciones que org.openjdk.jmh.Main y agrega siempre el perfil
+ * de GC, para que cada resultado incluya la tasa de asignación (gc.alloc.rate.norm).
+ */
+public class EjecutarBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions opciones = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+            .parent(opciones)
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package estructuras.benchmarks;
+
+import estructuras.Lista;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Operaciones básicas de Lista con distintos tamaños.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListaBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int elementos;
+
+    private Lista<String> lista;
+    private String[] datos;
+    private String ausente;
+
+    @Setup
+    public void preparar() {
+        datos = new String[elementos];
+        lista = new Lista<>();
+        for (int i = 0; i < elementos; i++) {
+            datos[i] = RedesDePrueba.nombre(i);
+            lista.agregar(datos[i]);
+        }
+        ausente = "ausente";
+    }
+
+    @Benchmark
+    public Lista<String> agregar() {
+        Lista<String> nueva = new Lista<>();
+        for (String d : datos) {
+            nueva.agregar(d);
+        }
+        return nueva;
+    }
+
+    @Benchmark
+    public Lista<String> agregarAlInicio() {
+        Lista<String> nueva = new Lista<>();
+        for (String d : datos) {
+            nueva.agregarAlInicio(d);
+        }
+        return nueva;
+    }
+
+    @Benchmark
+    public boolean contieneAusente() {
+        return lista.contiene(ausente);
+    }
+
+    @Benchmark
+    public String obtenerMitad() {
+        return lista.obtener(elementos / 2);
+    }
+
+    @Benchmark
+    public Object[] toArray() {
+        return lista.toArray();
+    }
+
+    @Benchmark
+    public void recorrerPorIndice(Blackhole bh) {
+        // Patrón usado en Grafo y MainFrame: obtener(i) dentro de un for
+        for (int i = 0; i < Math.min(elementos, 1000); i++) {
+            bh.consume(lista.obtener(i));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package estructuras.benchmarks;
+
+import estructuras.ArchivoCSV;
+import estructuras.Grafo;
+import java.io.*;
+import java.util.SplittableRandom;
+
+/**
+ * Redes aleatorias reproducibles para los benchmarks.
+ * El número de proteínas es la quinta parte del de interacciones (grado medio 10),
+ * una densidad parecida a la de las redes PPI reales.
+ */
+final class RedesDePrueba {
+    /** Semilla fija: todas las ejecuciones miden la misma red */
+    static final long SEMILLA = 42L;
+
+    private RedesDePrueba() {
+    }
+
+    static int proteinasPara(int aristas) {
+        return Math.max(2, aristas / 5);
+    }
+
+    static String nombre(int i) {
+        return "P" + i;
+    }
+
+    /**
+     * Construye un grafo aleatorio con el número de interacciones pedido.
+     */
+    static Grafo grafo(int aristas) {
+        int n = proteinasPara(aristas);
+        Grafo grafo = new Grafo();
+        for (int i = 0; i < n; i++) {
+            grafo.agregarProteina(nombre(i));
+        }
+        SplittableRandom rnd = new SplittableRandom(SEMILLA);
+        while (grafo.getNumInteracciones() < aristas) {
+            grafo.agregarInteraccion(nombre(rnd.nextInt(n)), nombre(rnd.nextInt(n)),
+                0.1 + rnd.nextDouble() * 9.9);
+        }
+        return grafo;
+    }
+
+    /**
+     * Escribe un CSV aleatorio en el formato de ArchivoCSV (puede repetir aristas).
+     */
+    static File csv(int aristas) throws IOException {
+        int n = proteinasPara(aristas);
+        File archivo = File.createTempFile("biograph-" + aristas + "-", ".csv");
+        archivo.deleteOnExit();
+        SplittableRandom rnd = new SplittableRandom(SEMILLA);
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(archivo), 1 << 16))) {
+            pw.println(ArchivoCSV.ENCABEZADO);
+            for (int i = 0; i < aristas; i++) {
+                pw.println(nombre(rnd.nextInt(n)) + "," + nombre(rnd.nextInt(n)) + ","
+                    + (0.1 + rnd.nextDouble() * 9.9));
+            }
+        }
+        return archivo;
+    }
+}
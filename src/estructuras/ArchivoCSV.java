@@ -0,0 +1,501 @@
+package estructuras;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lectura y escritura de archivos CSV de interacciones sin interfaz gráfica.
+ * El formato es "Proteina_Origen,Proteina_Destino,Peso" con encabezado opcional.
+ * La usan CargadorArchivo (con diálogos) y los modos sin ventana (línea de comandos).
+ * 
+ * Los archivos ".tsv" usan tabulador en lugar de coma, y los terminados en ".gz"
+ * (".csv.gz", ".tsv.gz") se leen y escriben comprimidos sin pasar por el disco.
+ * También se leen archivos de STRING, BioGRID y PSI-MITAB (ver FormatoInteracciones).
+ */
+public class ArchivoCSV {
+    /** Encabezado que se escribe al guardar */
+    public static final String ENCABEZADO = "Proteina_Origen,Proteina_Destino,Peso";
+    /** Tamaño desde el que leer() usa varios hilos */
+    private static final long MINIMO_PARALELO = 8L << 20;
+    /** Bytes que se leen de una vez al buscar el fin de línea de un corte */
+    private static final int BUSQUEDA_FIN_DE_LINEA = 4096;
+    
+    private ArchivoCSV() {
+    }
+    
+    /**
+     * Vacía el grafo y lo carga con el contenido del archivo.
+     * Los archivos grandes se leen en paralelo con un hilo por procesador.
+     * El formato se reconoce por el nombre del archivo (FormatoInteracciones.detectar).
+     * 
+     * @param archivo Archivo CSV a leer
+     * @param grafo Grafo donde cargar los datos
+     * @return Reporte con el resumen de la carga
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static ReporteCarga leer(File archivo, Grafo grafo) throws IOException {
+        return leer(archivo, grafo, FormatoInteracciones.detectar(archivo));
+    }
+    
+    /**
+     * Vacía el grafo y lo carga con el contenido de un archivo en el formato indicado.
+     * Los archivos grandes se leen en paralelo con un hilo por procesador.
+     * 
+     * @param archivo Archivo a leer
+     * @param grafo Grafo donde cargar los datos
+     * @param formato Formato con columnas, o null para un CSV de tres columnas
+     * @return Reporte con el resumen de la carga
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static ReporteCarga leer(File archivo, Grafo grafo, FormatoInteracciones formato)
+            throws IOException {
+        int hilos = archivo.length() >= MINIMO_PARALELO && !CompresionGzip.esComprimido(archivo)
+            ? Runtime.getRuntime().availableProcessors() : 1;
+        return leer(archivo, grafo, formato, hilos);
+    }
+    
+    /**
+     * Vacía el grafo y lo carga con el contenido del archivo usando varios hilos.
+     * El formato se reconoce por el nombre del archivo (FormatoInteracciones.detectar).
+     * 
+     * @param archivo Archivo CSV a leer
+     * @param grafo Grafo donde cargar los datos
+     * @param hilos Número de hilos de lectura (1 para leer de forma secuencial)
+     * @return Reporte con el resumen de la carga
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static ReporteCarga leer(File archivo, Grafo grafo, int hilos) throws IOException {
+        return leer(archivo, grafo, FormatoInteracciones.detectar(archivo), hilos);
+    }
+    
+    /**
+     * Vacía el grafo y lo carga con el contenido del archivo usando varios hilos.
+     * 
+     * El archivo se divide en tantos tramos como hilos, con los cortes movidos al
+     * siguiente fin de línea. Cada hilo lee su tramo con su propio diccionario de
+     * nombres y su propio lote de interacciones, sin compartir nada. Al final los
+     * lotes se agregan al grafo en el orden del archivo: primero sus nombres nuevos
+     * y después sus interacciones, así que el grafo resultante (orden de proteínas,
+     * duplicados descartados, pesos) es el mismo que con una lectura secuencial.
+     * 
+     * Un archivo comprimido no se puede dividir: se descomprime en un hilo y se
+     * interpreta en otro, sin importar el número de hilos pedido.
+     * 
+     * Si el formato busca columnas por nombre, antes de dividir el archivo se lee
+     * su primera línea para ubicarlas, así todos los hilos usan las mismas posiciones.
+     * 
+     * @param archivo Archivo a leer
+     * @param grafo Grafo donde cargar los datos
+     * @param formato Formato con columnas, o null para un CSV de tres columnas
+     * @param hilos Número de hilos de lectura (1 para leer de forma secuencial)
+     * @return Reporte con el resumen de la carga
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static ReporteCarga leer(File archivo, Grafo grafo, FormatoInteracciones formato,
+                                    int hilos) throws IOException {
+        long inicio = System.nanoTime();
+        EventoArchivo evento = new EventoArchivo();
+        evento.begin();
+        int lineasLeidas = 0;
+        long bytesLeidos = 0;
+        if (formato != null && formato.usaNombres()) {
+            formato = formato.resolver(leerPrimeraLinea(archivo));
+        }
+        try (ReadableByteChannel canal = CompresionGzip.esComprimido(archivo)
+                ? CompresionGzip.abrirLectura(archivo)
+                : FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long[] cortes = canal instanceof FileChannel
+                ? cortes((FileChannel) canal, Math.max(1, hilos)) : null;
+            int tramos = cortes != null ? cortes.length - 1 : 1;
+            byte separador = separadorPara(archivo);
+            ParserCSV[] parsers = new ParserCSV[tramos];
+            LoteAristas[] lotes = new LoteAristas[tramos];
+            for (int t = 0; t < tramos; t++) {
+                parsers[t] = formato != null ? new ParserCSV(formato, t == 0)
+                                             : new ParserCSV(separador, t == 0);
+                lotes[t] = new LoteAristas();
+            }
+            
+            grafo.vaciar();
+            if (tramos == 1) {
+                parsers[0].leer(canal, lotes[0], grafo);
+            } else {
+                leerTramos((FileChannel) canal, cortes, parsers, lotes);
+                grafo.agregarLotes(lotes);
+            }
+            
+            int lineasInvalidas = 0;
+            int lineasFiltradas = 0;
+            int proteinasAgregadas = 0;
+            int interaccionesAgregadas = 0;
+            for (int t = 0; t < tramos; t++) {
+                lineasLeidas += parsers[t].getLineasLeidas();
+                lineasInvalidas += parsers[t].getLineasInvalidas();
+                lineasFiltradas += parsers[t].getLineasFiltradas();
+                bytesLeidos += parsers[t].getBytesLeidos();
+                proteinasAgregadas += lotes[t].proteinasAgregadas;
+                interaccionesAgregadas += lotes[t].interaccionesAgregadas;
+            }
+            
+            Metricas.LINEAS_LEIDAS.sumar(lineasLeidas);
+            Metricas.ERRORES_PARSEO.sumar(lineasInvalidas);
+            Metricas.CARGA.detener(inicio);
+            return new ReporteCarga(archivo, lineasLeidas, lineasInvalidas, lineasFiltradas,
+                proteinasAgregadas, interaccionesAgregadas, System.nanoTime() - inicio);
+        } finally {
+            evento.terminar("carga", archivo.getPath(), bytesLeidos, lineasLeidas, grafo);
+        }
+    }
+    
+    /**
+     * Obtiene el separador de campos según el nombre del archivo.
+     * 
+     * @param archivo Archivo de interacciones
+     * @return '\t' para ".tsv" y ".tsv.gz", ',' para los demás
+     */
+    public static byte separadorPara(File archivo) {
+        String nombre = archivo.getName().toLowerCase();
+        if (nombre.endsWith(CompresionGzip.EXTENSION)) {
+            nombre = nombre.substring(0, nombre.length() - CompresionGzip.EXTENSION.length());
+        }
+        return nombre.endsWith(".tsv") ? (byte) '\t' : (byte) ',';
+    }
+    
+    /**
+     * Obtiene el formato del archivo según su nombre, con las columnas ya ubicadas
+     * según el encabezado si el formato las busca por nombre.
+     * 
+     * @param archivo Archivo de interacciones
+     * @return Formato listo para el lector, o null si es un CSV de tres columnas
+     * @throws IOException si hace falta leer el encabezado y no se puede
+     */
+    static FormatoInteracciones formatoPara(File archivo) throws IOException {
+        return formatoPara(archivo, FormatoInteracciones.detectar(archivo));
+    }
+    
+    /**
+     * Ubica las columnas de un formato según el encabezado del archivo, si el
+     * formato las busca por nombre.
+     * 
+     * @param archivo Archivo de interacciones
+     * @param formato Formato elegido, o null para un CSV de tres columnas
+     * @return Formato listo para el lector
+     * @throws IOException si hace falta leer el encabezado y no se puede
+     */
+    static FormatoInteracciones formatoPara(File archivo, FormatoInteracciones formato)
+            throws IOException {
+        if (formato != null && formato.usaNombres()) {
+            formato = formato.resolver(leerPrimeraLinea(archivo));
+        }
+        return formato;
+    }
+    
+    /**
+     * Lee el archivo completo en un lote, sin tocar ningún grafo.
+     * 
+     * @param archivo Archivo a leer (puede estar comprimido)
+     * @param formato Formato obtenido con formatoPara, o null para un CSV de tres columnas
+     * @return Lote con las interacciones en el orden del archivo
+     * @throws IOException si el archivo no se puede leer
+     */
+    static LoteAristas leerLote(File archivo, FormatoInteracciones formato) throws IOException {
+        LoteAristas lote = new LoteAristas();
+        try (ReadableByteChannel canal = CompresionGzip.esComprimido(archivo)
+                ? CompresionGzip.abrirLectura(archivo)
+                : FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            parserPara(archivo, formato, true).leer(canal, lote, null);
+        }
+        return lote;
+    }
+    
+    /**
+     * Lee en un lote las líneas de un tramo de un archivo sin comprimir.
+     * El tramo debe empezar al principio de una línea.
+     * 
+     * @param archivo Archivo a leer
+     * @param formato Formato obtenido con formatoPara, o null para un CSV de tres columnas
+     * @param desde Posición del primer byte
+     * @param hasta Posición siguiente al último byte
+     * @return Lote con las interacciones del tramo
+     * @throws IOException si el archivo no se puede leer
+     */
+    static LoteAristas leerLote(File archivo, FormatoInteracciones formato, long desde, long hasta)
+            throws IOException {
+        LoteAristas lote = new LoteAristas();
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            parserPara(archivo, formato, desde == 0).leer(canal, desde, hasta, lote);
+        }
+        return lote;
+    }
+    
+    private static ParserCSV parserPara(File archivo, FormatoInteracciones formato,
+                                        boolean buscarEncabezado) {
+        return formato != null ? new ParserCSV(formato, buscarEncabezado)
+                               : new ParserCSV(separadorPara(archivo), buscarEncabezado);
+    }
+    
+    /**
+     * Lee la primera línea del archivo, descomprimiéndolo si hace falta.
+     */
+    private static String leerPrimeraLinea(File archivo) throws IOException {
+        try (InputStream entrada = new FileInputStream(archivo)) {
+            InputStream contenido = CompresionGzip.esComprimido(archivo)
+                ? new GZIPInputStream(entrada) : entrada;
+            return new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8))
+                .readLine();
+        }
+    }
+    
+    /**
+     * Calcula los límites de los tramos: cortes[t] es el inicio del tramo t y el
+     * último valor es el tamaño del archivo. Cada corte intermedio queda justo
+     * después de un '\n'; los tramos que quedarían vacíos se descartan.
+     */
+    private static long[] cortes(FileChannel canal, int tramos) throws IOException {
+        long tamaño = canal.size();
+        long[] cortes = new long[tramos + 1];
+        int cantidad = 1;
+        ByteBuffer b = ByteBuffer.allocate(BUSQUEDA_FIN_DE_LINEA);
+        for (int t = 1; t < tramos; t++) {
+            long pos = Math.max(tamaño * t / tramos, cortes[cantidad - 1]);
+            long corte = tamaño;
+            buscar:
+            while (pos < tamaño) {
+                b.clear();
+                int leidos = canal.read(b, pos);
+                if (leidos <= 0) break;
+                for (int i = 0; i < leidos; i++) {
+                    if (b.get(i) == '\n') {
+                        corte = pos + i + 1;
+                        break buscar;
+                    }
+                }
+                pos += leidos;
+            }
+            if (corte > cortes[cantidad - 1] && corte < tamaño) {
+                cortes[cantidad++] = corte;
+            }
+        }
+        cortes[cantidad++] = tamaño;
+        return Arrays.copyOf(cortes, cantidad);
+    }
+    
+    /**
+     * Lee cada tramo en su propio hilo y espera a que terminen todos.
+     */
+    private static void leerTramos(FileChannel canal, long[] cortes, ParserCSV[] parsers,
+                                   LoteAristas[] lotes) throws IOException {
+        int tramos = parsers.length;
+        ExecutorService hilos = Executors.newFixedThreadPool(tramos, r -> {
+            Thread t = new Thread(r, "lectura-csv");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Future<?>[] tareas = new Future<?>[tramos];
+            for (int t = 0; t < tramos; t++) {
+                final int tramo = t;
+                tareas[t] = hilos.submit(() -> {
+                    parsers[tramo].leer(canal, cortes[tramo], cortes[tramo + 1], lotes[tramo]);
+                    return null;
+                });
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Carga interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error al leer el archivo", e.getCause());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+    
+    /**
+     * Escribe todas las interacciones del grafo en el archivo.
+     * Con extensión ".tsv" separa con tabulador; con ".gz" comprime en otro hilo mientras escribe.
+     * 
+     * @param archivo Archivo donde guardar
+     * @param grafo Grafo a guardar
+     * @throws IOException si el archivo no se puede escribir
+     */
+    public static void escribir(File archivo, Grafo grafo) throws IOException {
+        escribir(archivo, grafo.copiarListas(), grafo);
+    }
+    
+    /**
+     * Escribe las interacciones copiadas de un grafo en el archivo.
+     * Se escribe en un archivo temporal que, ya sincronizado con el disco, reemplaza
+     * al anterior con un renombre atómico: si algo falla, el archivo anterior queda intacto.
+     * 
+     * @param archivo Archivo donde guardar
+     * @param listas Proteínas e interacciones, como las devuelve Grafo.copiarListas
+     * @param grafo Grafo del que provienen las listas, para el evento de JFR
+     * @throws IOException si el archivo no se puede escribir
+     */
+    static void escribir(File archivo, Object[][] listas, Grafo grafo) throws IOException {
+        long inicio = Metricas.GUARDADO.iniciar();
+        EventoArchivo evento = new EventoArchivo();
+        evento.begin();
+        Object[] interacciones = listas[1];
+        byte separador = separadorPara(archivo);
+        Path destino = archivo.toPath();
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        boolean movido = false;
+        try {
+            try (SalidaTexto salida = new SalidaTexto(CompresionGzip.esComprimido(archivo)
+                    ? CompresionGzip.abrirEscritura(temporal.toFile())
+                    : new FileOutputStream(temporal.toFile()))) {
+                salida.texto(ENCABEZADO.replace(',', (char) separador));
+                salida.fin();
+                for (Object o : interacciones) {
+                    Proteinas a = (Proteinas) o;
+                    salida.texto(a.getOrigen());
+                    salida.caracter(separador);
+                    salida.texto(a.getDestino());
+                    salida.caracter(separador);
+                    salida.real(a.getPeso());
+                    salida.fin();
+                }
+            }
+            // close() espera al compresor; después el contenido ya está completo en el temporal
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                canal.force(true);
+            }
+            try {
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+            movido = true;
+        } finally {
+            if (!movido) {
+                Files.deleteIfExists(temporal);
+            }
+            Metricas.GUARDADO.detener(inicio);
+            evento.terminar("guardado", archivo.getPath(), archivo.length(),
+                interacciones.length + 1, grafo);
+        }
+    }
+    
+    /**
+     * Salida de texto en UTF-8 con un buffer propio de 1 MiB. Los nombres en ASCII se
+     * copian carácter por carácter y los pesos con pocos decimales se convierten en
+     * dígitos directamente, sin crear objetos por línea.
+     */
+    private static final class SalidaTexto implements Closeable {
+        private static final int TAMAÑO_BUFFER = 1 << 20;
+        /** Espacio que se reserva antes de escribir un número */
+        private static final int LARGO_NUMERO = 32;
+        /** Potencias de diez para los decimales que se prueban al formatear un peso */
+        private static final double[] POTENCIAS = { 1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6 };
+        
+        private final OutputStream salida;
+        private final byte[] buffer = new byte[TAMAÑO_BUFFER];
+        private int posicion;
+        
+        SalidaTexto(OutputStream salida) {
+            this.salida = salida;
+        }
+        
+        void caracter(byte b) throws IOException {
+            if (posicion == buffer.length) vaciar();
+            buffer[posicion++] = b;
+        }
+        
+        void fin() throws IOException {
+            caracter((byte) '\n');
+        }
+        
+        void texto(String s) throws IOException {
+            int largo = s.length();
+            for (int i = 0; i < largo; i++) {
+                char c = s.charAt(i);
+                if (c >= 0x80) {
+                    // Caso poco común: el resto del nombre se codifica de una vez
+                    byte[] resto = s.substring(i).getBytes(StandardCharsets.UTF_8);
+                    for (byte b : resto) {
+                        caracter(b);
+                    }
+                    return;
+                }
+                if (posicion == buffer.length) vaciar();
+                buffer[posicion++] = (byte) c;
+            }
+        }
+        
+        /**
+         * Escribe un peso con los mismos dígitos que Double.toString en los casos
+         * habituales (entre 0.001 y 10^7, hasta seis decimales). El resto pasa por
+         * Double.toString. En todos los casos el texto se vuelve a leer como el mismo double.
+         */
+        void real(double v) throws IOException {
+            double a = Math.abs(v);
+            if (a >= 1e-3 && a < 1e7) {
+                for (int k = 0; k < POTENCIAS.length; k++) {
+                    long m = Math.round(a * POTENCIAS[k]);
+                    // La división redondea igual que la lectura de "m / 10^k" en decimal
+                    if (m / POTENCIAS[k] == a) {
+                        if (buffer.length - posicion < LARGO_NUMERO) vaciar();
+                        if (v < 0) buffer[posicion++] = '-';
+                        long divisor = (long) POTENCIAS[k];
+                        entero(m / divisor, 1);
+                        buffer[posicion++] = '.';
+                        entero(k == 0 ? 0 : m % divisor, Math.max(k, 1));
+                        return;
+                    }
+                }
+            } else if (v == 0 && Double.doubleToRawLongBits(v) == 0) {
+                texto("0.0");
+                return;
+            }
+            texto(Double.toString(v));
+        }
+        
+        /**
+         * Escribe un entero no negativo con al menos la cantidad de dígitos indicada.
+         */
+        private void entero(long valor, int digitos) {
+            int n = 1;
+            for (long resto = valor / 10; resto > 0; resto /= 10) n++;
+            n = Math.max(n, digitos);
+            for (int i = posicion + n - 1; i >= posicion; i--) {
+                buffer[i] = (byte) ('0' + valor % 10);
+                valor /= 10;
+            }
+            posicion += n;
+        }
+        
+        private void vaciar() throws IOException {
+            salida.write(buffer, 0, posicion);
+            posicion = 0;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            try (salida) {
+                vaciar();
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package estructuras;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Punto de entrada sin interfaz gráfica para análisis por lotes.
+ * Carga un CSV, detecta complejos, identifica hubs y calcula rutas más cortas
+ * para una lista de pares, escribiendo cada resultado en un archivo.
+ *
+ * Uso: java -cp ProyectoBiograph.jar estructuras.BioGraphCLI archivo.csv
+ *      [--salida directorio] [--hubs N] [--pares pares.csv]
+ *      [--formato string|biogrid|mitab] [--puntaje columna] [--umbral puntaje]
+ *
+ * Sin --formato, el formato se reconoce por el nombre del archivo. --puntaje toma
+ * el puntaje de otra columna, por nombre o por posición desde 0 (por ejemplo
+ * "experiments" en STRING detallado). --umbral descarta las interacciones con
+ * puntaje menor (por ejemplo 700 en STRING).
+ *
+ * El archivo de pares tiene una línea "origen,destino" por ruta. Si no se indica,
+ * se calculan las rutas desde el hub principal hacia los demás hubs.
+ */
+public class BioGraphCLI {
+
+    private BioGraphCLI() {
+    }
+
+    /**
+     * Ejecuta el análisis por lotes.
+     *
+     * @param args Argumentos de la línea de comandos
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long inicioMain = System.currentTimeMillis();
+        long arranqueJvm = inicioMain - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        File entrada = null;
+        File salida = new File("resultados");
+        File pares = null;
+        int topN = 5;
+        FormatoInteracciones formato = null;
+        String puntaje = null;
+        double umbral = Double.NaN;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--salida": salida = new File(args[++i]); break;
+                    case "--hubs": topN = Integer.parseInt(args[++i]); break;
+                    case "--pares": pares = new File(args[++i]); break;
+                    case "--formato": formato = FormatoInteracciones.porNombre(args[++i]); break;
+                    case "--puntaje":
+                        puntaje = args[++i];
+                        if (puntaje.isBlank()) throw new IllegalArgumentException("Falta la columna de puntaje");
+                        break;
+                    case "--umbral": umbral = Double.parseDouble(args[++i]); break;
+                    default: entrada = new File(args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            entrada = null;
+        }
+
+        if (entrada == null) {
+            System.err.println("Uso: BioGraphCLI archivo.csv [--salida directorio] [--hubs N] [--pares pares.csv]"
+                + " [--formato string|biogrid|mitab] [--puntaje columna] [--umbral puntaje]");
+            System.exit(1);
+        }
+
+        try {
+            if (!salida.isDirectory() && !salida.mkdirs()) {
+                throw new IOException("No se pudo crear el directorio " + salida);
+            }
+
+            Grafo grafo = new Grafo();
+            if (formato == null) formato = FormatoInteracciones.detectar(entrada);
+            if (puntaje != null) {
+                if (formato == null) {
+                    throw new IOException("--puntaje requiere un archivo de STRING, BioGRID o PSI-MITAB");
+                }
+                formato = formato.conPuntaje(puntaje);
+            }
+            if (!Double.isNaN(umbral)) {
+                if (formato == null) {
+                    throw new IOException("--umbral requiere un archivo de STRING, BioGRID o PSI-MITAB");
+                }
+                formato = formato.conUmbral(umbral);
+            }
+            ReporteCarga reporte = ArchivoCSV.leer(entrada, grafo, formato);
+
+            File archivoResumen = new File(salida, "resumen.txt");
+            try (PrintWriter resumen = new PrintWriter(new FileWriter(archivoResumen))) {
+                registrar(resumen, "Arranque de la JVM: " + arranqueJvm + " ms");
+                registrar(resumen, "Carga: " + reporte);
+
+                long t = System.nanoTime();
+                int numComplejos = escribirComplejos(grafo, new File(salida, "complejos.txt"));
+                registrar(resumen, "Complejos: " + numComplejos + " en " + milis(t) + " ms");
+
+                t = System.nanoTime();
+                Lista<Grafo.Hub> hubs = grafo.buscarHubs(topN);
+                escribirHubs(hubs, new File(salida, "hubs.txt"));
+                registrar(resumen, "Hubs: top " + hubs.getTamaño() + " en " + milis(t) + " ms");
+
+                t = System.nanoTime();
+                Lista<String[]> listaPares = pares != null ? leerPares(pares) : paresEntreHubs(hubs);
+                int conRuta = escribirRutas(grafo, listaPares, new File(salida, "rutas.csv"));
+                registrar(resumen, "Rutas: " + conRuta + " de " + listaPares.getTamaño()
+                    + " pares con ruta en " + milis(t) + " ms");
+
+                registrar(resumen, "Total: " + (System.currentTimeMillis() - inicioMain) + " ms desde main");
+                verificar(resumen, archivoResumen);
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private static int escribirComplejos(Grafo grafo, File archivo) throws IOException {
+        // Cada complejo se escribe apenas se encuentra, sin armar la lista completa
+        int[] total = new int[1];
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(archivo)))) {
+            grafo.recorrerComplejos((miembros, desde, hasta, nombres) -> {
+                total[0]++;
+                pw.print("Complejo " + total[0] + " (" + (hasta - desde) + " proteínas): [");
+                for (int i = desde; i < hasta; i++) {
+                    if (i > desde) pw.print(", ");
+                    pw.print(nombres.apply(miembros[i]));
+                }
+                pw.println("]");
+                return true;
+            }, ProgresoAnalisis.NINGUNO);
+            verificar(pw, archivo);
+        }
+        return total[0];
+    }
+
+    private static void escribirHubs(Lista<Grafo.Hub> hubs, File archivo) throws IOException {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(archivo))) {
+            int i = 1;
+            for (Grafo.Hub hub : hubs) {
+                pw.println((i++) + ". " + hub);
+            }
+            verificar(pw, archivo);
+        }
+    }
+
+    private static int escribirRutas(Grafo grafo, Lista<String[]> pares, File archivo) throws IOException {
+        int conRuta = 0;
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(archivo)))) {
+            pw.println("Origen,Destino,Distancia,Ruta");
+            for (int i = 0; i < pares.getTamaño(); i++) {
+                String[] par = pares.obtener(i);
+                Grafo.ResultadoDijkstra r = grafo.rutaMasCorta(par[0], par[1]);
+                if (r.hayRuta()) {
+                    conRuta++;
+                    StringBuilder ruta = new StringBuilder();
+                    for (int j = 0; j < r.getRuta().getTamaño(); j++) {
+                        if (j > 0) ruta.append(' ');
+                        ruta.append(r.getRuta().obtener(j));
+                    }
+                    pw.println(par[0] + "," + par[1] + "," + r.getDistancia() + "," + ruta);
+                } else {
+                    pw.println(par[0] + "," + par[1] + ",,");
+                }
+            }
+            verificar(pw, archivo);
+        }
+        return conRuta;
+    }
+
+    private static Lista<String[]> leerPares(File archivo) throws IOException {
+        Lista<String[]> pares = new Lista<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                String[] partes = linea.split(",");
+                if (partes.length >= 2) {
+                    pares.agregar(new String[] { partes[0].trim(), partes[1].trim() });
+                }
+            }
+        }
+        return pares;
+    }
+
+    /**
+     * Pares desde el hub principal hacia cada uno de los demás hubs.
+     */
+    private static Lista<String[]> paresEntreHubs(Lista<Grafo.Hub> hubs) {
+        Lista<String[]> pares = new Lista<>();
+        for (int i = 1; i < hubs.getTamaño(); i++) {
+            pares.agregar(new String[] { hubs.getPrimero().getProteina(), hubs.obtener(i).getProteina() });
+        }
+        return pares;
+    }
+
+    private static long milis(long inicioNanos) {
+        return (System.nanoTime() - inicioNanos) / 1_000_000;
+    }
+
+    /**
+     * PrintWriter no lanza excepciones: los errores de escritura (por ejemplo, disco
+     * lleno) solo se ven con checkError, que además vacía el buffer.
+     */
+    private static void verificar(PrintWriter pw, File archivo) throws IOException {
+        if (pw.checkError()) {
+            throw new IOException("Error al escribir " + archivo.getName());
+        }
+    }
+
+    private static void registrar(PrintWriter resumen, String mensaje) {
+        System.out.println(mensaje);
+        resumen.println(mensaje);
+    }
+}
@@ -7,15 +7,59 @@ package estructuras;
 
 import javax.swing.*;
 import java.io.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 /**
  * Controlador para la carga y guardado de archivos CSV.
  * Proporciona métodos para seleccionar archivos con JFileChooser,
  * procesar el contenido y actualizar el grafo.
+ * La lectura y escritura en sí, sin diálogos, está en ArchivoCSV.
+ * 
+ * Mientras hay un archivo cargado, las ediciones del grafo quedan en su diario de
+ * mutaciones (DiarioMutaciones) y se recuperan al volver a cargarlo, aunque la
+ * aplicación se haya cerrado sin guardar.
+ * 
+ * El guardado se hace en segundo plano sobre una copia del grafo, así que la
+ * interfaz se puede seguir usando mientras se escribe; los cambios hechos en ese
+ * tiempo quedan en el diario del archivo guardado.
+ * 
+ * Opcionalmente vigila el archivo cargado (VigilanteArchivo) y aplica al grafo lo
+ * que otro programa le agrega o cambia, sin volver a cargarlo.
+ * 
+ * Al cargar un archivo de STRING, BioGRID o PSI-MITAB se pregunta de qué columna
+ * tomar el puntaje y qué puntaje mínimo exigir (ver FormatoInteracciones).
  */
 public class CargadorArchivo {
+    /** Extensiones que se pueden cargar y guardar */
+    private static final String[] EXTENSIONES = { ".csv", ".tsv", ".csv.gz", ".tsv.gz" };
+    private static final javax.swing.filechooser.FileFilter FILTRO =
+        new javax.swing.filechooser.FileFilter() {
+            @Override
+            public boolean accept(File f) {
+                return f.isDirectory() || tieneExtensionConocida(f)
+                    || FormatoInteracciones.detectar(f) != null;
+            }
+            
+            @Override
+            public String getDescription() {
+                return "Archivos de interacciones (*.csv, *.tsv, *.gz, STRING, BioGRID, PSI-MITAB)";
+            }
+        };
+    
     private static File ultimoArchivo;
     private static boolean cambiosPendientes = false;
+    /** Diario del archivo cargado, o null si no hay ninguno */
+    private static DiarioMutaciones diario;
+    /** Guardado en curso, o null si no hay ninguno */
+    private static Guardado guardado;
+    /** Vigilante del archivo cargado, o null si no se vigila */
+    private static VigilanteArchivo vigilante;
+    /** Recibe los cambios que aplica el vigilante, o null si la vigilancia está apagada */
+    private static Consumer<String> alCambiarArchivo;
+    /** Archivo cargado con un formato elegido en el diálogo de puntaje, y ese formato */
+    private static File archivoConFormato;
+    private static FormatoInteracciones formatoElegido;
     
     /**
      * Carga un archivo CSV y construye el grafo.
@@ -27,6 +71,7 @@ public class CargadorArchivo {
      */
     public static boolean cargar(Grafo grafo, JFrame parent) {
         // Verificar cambios pendientes
+        boolean descartarCambios = false;
         if (cambiosPendientes) {
             int opcion = JOptionPane.showConfirmDialog(parent,
                 "Hay cambios sin guardar. ¿Desea guardarlos antes de cargar?",
@@ -34,22 +79,33 @@ public class CargadorArchivo {
                 JOptionPane.YES_NO_CANCEL_OPTION);
             
             if (opcion == JOptionPane.YES_OPTION) {
-                if (!guardar(grafo, parent)) return false;
-            } else if (opcion == JOptionPane.CANCEL_OPTION) {
+                if (!guardar(grafo, parent) || !esperarGuardado()) return false;
+            } else if (opcion == JOptionPane.NO_OPTION) {
+                descartarCambios = true;
+            } else {
                 return false;
             }
         }
         
         JFileChooser fileChooser = new JFileChooser(".");
         fileChooser.setDialogTitle("Seleccionar archivo CSV");
-        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
-            "Archivos CSV (*.csv)", "csv"));
+        fileChooser.setFileFilter(FILTRO);
         
         int resultado = fileChooser.showOpenDialog(parent);
         
         if (resultado == JFileChooser.APPROVE_OPTION) {
             File archivo = fileChooser.getSelectedFile();
+            FormatoInteracciones formato = FormatoInteracciones.detectar(archivo);
+            if (formato != null) {
+                formato = elegirPuntaje(formato, parent);
+                if (formato == null) return false;
+            }
+            if (descartarCambios) {
+                descartarDiario();
+            }
             ultimoArchivo = archivo;
+            archivoConFormato = archivo;
+            formatoElegido = formato;
             return procesarArchivo(archivo, grafo, parent);
         }
         
@@ -65,59 +121,38 @@ public class CargadorArchivo {
      * @return true si se procesó correctamente
      */
     private static boolean procesarArchivo(File archivo, Grafo grafo, JFrame parent) {
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            int lineasLeidas = 0;
-            int proteinasAgregadas = 0;
-            int interaccionesAgregadas = 0;
-            
-            grafo.vaciar();
-            
-            while ((linea = br.readLine()) != null) {
-                lineasLeidas++;
-                
-                if (linea.trim().isEmpty()) continue;
-                
-                // Saltar encabezados
-                if (lineasLeidas == 1 && (linea.contains("Proteina") || 
-                    linea.contains("Origen") || linea.contains("Destino"))) {
-                    continue;
-                }
-                
-                String[] partes = linea.split(",");
-                if (partes.length >= 3) {
-                    String protA = partes[0].trim();
-                    String protB = partes[1].trim();
-                    
-                    double peso = 1.0;
-                    try {
-                        peso = Double.parseDouble(partes[2].trim());
-                    } catch (NumberFormatException e) {
-                        // Usar peso por defecto
-                    }
-                    
-                    if (!grafo.existeProteina(protA)) {
-                        grafo.agregarProteina(protA);
-                        proteinasAgregadas++;
-                    }
-                    if (!grafo.existeProteina(protB)) {
-                        grafo.agregarProteina(protB);
-                        proteinasAgregadas++;
-                    }
-                    
-                    if (grafo.agregarInteraccion(protA, protB, peso)) {
-                        interaccionesAgregadas++;
-                    }
-                }
-            }
+        return procesarArchivo(archivo, grafo, parent, false);
+    }
+    
+    /**
+     * Procesa el archivo y carga los datos en el grafo, opcionalmente desde su instantánea binaria.
+     * 
+     * @param archivo Archivo a procesar
+     * @param grafo Grafo donde cargar los datos
+     * @param parent Ventana padre para los diálogos
+     * @param usarInstantanea true para cargar desde la instantánea si está vigente
+     *                        y reconstruirla si no lo está
+     * @return true si se procesó correctamente
+     */
+    private static boolean procesarArchivo(File archivo, Grafo grafo, JFrame parent,
+                                           boolean usarInstantanea) {
+        try {
+            cerrarVigilante();
+            cerrarDiario();
+            diario = DiarioMutaciones.abrir(archivo, grafo, usarInstantanea, formatoDe(archivo));
+            avisarErrores(diario, parent);
+            reiniciarVigilancia(grafo);
             
-            cambiosPendientes = false;
+            // Los cambios recuperados del diario todavía no están en el archivo
+            cambiosPendientes = diario.hayCambios();
             
             JOptionPane.showMessageDialog(parent,
                 "Archivo cargado exitosamente:\n" +
                 "Archivo: " + archivo.getName() + "\n" +
                 "Proteínas: " + grafo.getNumProteinas() + "\n" +
-                "Interacciones: " + grafo.getNumInteracciones(),
+                "Interacciones: " + grafo.getNumInteracciones() +
+                (diario.getRegistrosRecuperados() > 0
+                    ? "\nCambios recuperados sin guardar: " + diario.getRegistrosRecuperados() : ""),
                 "Carga exitosa",
                 JOptionPane.INFORMATION_MESSAGE);
             
@@ -143,8 +178,7 @@ public class CargadorArchivo {
     public static boolean guardar(Grafo grafo, JFrame parent) {
         JFileChooser fileChooser = new JFileChooser(".");
         fileChooser.setDialogTitle("Guardar archivo CSV");
-        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
-            "Archivos CSV (*.csv)", "csv"));
+        fileChooser.setFileFilter(FILTRO);
         
         if (ultimoArchivo != null) {
             fileChooser.setSelectedFile(ultimoArchivo);
@@ -154,7 +188,8 @@ public class CargadorArchivo {
         
         if (resultado == JFileChooser.APPROVE_OPTION) {
             File archivo = fileChooser.getSelectedFile();
-            if (!archivo.getName().toLowerCase().endsWith(".csv")) {
+            // Se guarda siempre como CSV: no se reemplaza un archivo de STRING, BioGRID o MITAB
+            if (!tieneExtensionConocida(archivo) || FormatoInteracciones.detectar(archivo) != null) {
                 archivo = new File(archivo.getAbsolutePath() + ".csv");
             }
             
@@ -165,44 +200,137 @@ public class CargadorArchivo {
     }
     
     /**
-     * Guarda el archivo en disco.
+     * Empieza a guardar el archivo en segundo plano. El resultado se informa con un
+     * diálogo al terminar; esperarGuardado() permite esperarlo.
      * 
      * @param archivo Archivo donde guardar
      * @param grafo Grafo a guardar
      * @param parent Ventana padre para los diálogos
-     * @return true si se guardó correctamente
+     * @return true si el guardado empezó
      */
     private static boolean guardarArchivo(File archivo, Grafo grafo, JFrame parent) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(archivo))) {
-            pw.println("Proteina_Origen,Proteina_Destino,Peso");
-            
-            Lista<Proteinas> interacciones = grafo.getInteracciones();
-            for (int i = 0; i < interacciones.getTamaño(); i++) {
-                Proteinas a = interacciones.obtener(i);
-                pw.println(a.getOrigen() + "," + a.getDestino() + "," + a.getPeso());
+        if (!esperarGuardado()) return false;
+        if (diario == null) {
+            try {
+                diario = DiarioMutaciones.crear(archivo, grafo);
+                avisarErrores(diario, parent);
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(parent,
+                    "❌ Error al guardar el archivo:\n" + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return false;
             }
-            
-            ultimoArchivo = archivo;
-            cambiosPendientes = false;
-            
-            JOptionPane.showMessageDialog(parent,
-                "✅ Archivo guardado exitosamente:\n" + archivo.getName(),
-                "Guardado exitoso",
-                JOptionPane.INFORMATION_MESSAGE);
-            
-            return true;
-            
-        } catch (IOException e) {
+        }
+        
+        guardado = new Guardado(archivo, grafo, diario, ultimoArchivo, parent);
+        ultimoArchivo = archivo;
+        guardado.execute();
+        return true;
+    }
+    
+    /**
+     * Muestra un diálogo si el diario deja de poder escribirse: desde ahí los
+     * cambios solo se conservan guardando el archivo.
+     * 
+     * @param diario Diario recién abierto
+     * @param parent Ventana padre para el diálogo
+     */
+    private static void avisarErrores(DiarioMutaciones diario, JFrame parent) {
+        diario.alFallar(e -> SwingUtilities.invokeLater(() ->
             JOptionPane.showMessageDialog(parent,
-                "❌ Error al guardar el archivo:\n" + e.getMessage(),
+                "❌ No se pudo escribir el diario de cambios:\n" + e.getMessage() + "\n" +
+                "Los cambios siguientes no se recuperarán si la aplicación se cierra; " +
+                "guarde el archivo para conservarlos.",
                 "Error",
-                JOptionPane.ERROR_MESSAGE);
-            return false;
+                JOptionPane.ERROR_MESSAGE)));
+    }
+    
+    /**
+     * Espera a que termine el guardado en curso, si hay uno, y muestra su resultado.
+     * 
+     * @return true si no había guardado en curso o si terminó bien
+     */
+    private static boolean esperarGuardado() {
+        return guardado == null || guardado.terminar();
+    }
+    
+    /**
+     * Escritura en segundo plano del CSV y su instantánea a partir de una copia del grafo.
+     * El diario toma la copia y, al terminar, pasa a registrar sobre el archivo guardado.
+     */
+    private static final class Guardado extends SwingWorker<Void, Void> {
+        private final File archivo;
+        private final Grafo grafo;
+        private final DiarioMutaciones diario;
+        private final File anterior;
+        private final JFrame parent;
+        
+        Guardado(File archivo, Grafo grafo, DiarioMutaciones diario, File anterior, JFrame parent) {
+            this.archivo = archivo;
+            this.grafo = grafo;
+            this.diario = diario;
+            this.anterior = anterior;
+            this.parent = parent;
+        }
+        
+        @Override
+        protected Void doInBackground() throws IOException {
+            diario.guardar(archivo, listas -> {
+                ArchivoCSV.escribir(archivo, listas, grafo);
+                try {
+                    InstantaneaGrafo.escribir(archivo, InstantaneaGrafo.archivoPara(archivo), listas);
+                } catch (IOException e) {
+                    // Sin instantánea el próximo arranque vuelve a leer el CSV
+                    InstantaneaGrafo.archivoPara(archivo).delete();
+                }
+            });
+            return null;
+        }
+        
+        @Override
+        protected void done() {
+            if (guardado == this) terminar();
+        }
+        
+        /**
+         * Espera el resultado y lo informa. Se llama en el hilo de eventos.
+         * 
+         * @return true si se guardó correctamente
+         */
+        boolean terminar() {
+            guardado = null;
+            try {
+                get();
+                // Lo editado durante el guardado quedó en el diario y sigue pendiente
+                cambiosPendientes = diario.hayCambios();
+                reiniciarVigilancia(grafo);
+                
+                JOptionPane.showMessageDialog(parent,
+                    "✅ Archivo guardado exitosamente:\n" + archivo.getName(),
+                    "Guardado exitoso",
+                    JOptionPane.INFORMATION_MESSAGE);
+                
+                return true;
+                
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                ultimoArchivo = anterior;
+                return false;
+            } catch (ExecutionException e) {
+                ultimoArchivo = anterior;
+                JOptionPane.showMessageDialog(parent,
+                    "❌ Error al guardar el archivo:\n" + e.getCause().getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return false;
+            }
         }
     }
     
     /**
      * Carga el archivo por defecto (datos.csv) si existe en la raíz del proyecto.
+     * Usa la instantánea binaria datos.csv.grafo si corresponde al CSV actual.
      * 
      * @param grafo El grafo donde cargar los datos
      * @param parent Ventana padre para los diálogos
@@ -212,11 +340,170 @@ public class CargadorArchivo {
         File archivo = new File("datos.csv");
         if (archivo.exists()) {
             ultimoArchivo = archivo;
-            return procesarArchivo(archivo, grafo, parent);
+            return procesarArchivo(archivo, grafo, parent, true);
+        }
+        return false;
+    }
+    
+    /**
+     * Pregunta de qué columna tomar el puntaje y qué puntaje mínimo exigir.
+     * Los valores propuestos son los del formato, sin umbral.
+     * 
+     * @param formato Formato reconocido por el nombre del archivo
+     * @param parent Ventana padre para el diálogo
+     * @return Formato con lo elegido, o null si se canceló
+     */
+    private static FormatoInteracciones elegirPuntaje(FormatoInteracciones formato, JFrame parent) {
+        String propuesta = formato.getColumnaPuntaje();
+        JTextField columna = new JTextField(propuesta != null ? propuesta : "", 20);
+        JTextField umbral = new JTextField(10);
+        JPanel panel = new JPanel(new java.awt.GridLayout(0, 1));
+        panel.add(new JLabel("Formato: " + formato.getNombre()));
+        panel.add(new JLabel("Columna de puntaje (nombre o posición desde 0):"));
+        panel.add(columna);
+        panel.add(new JLabel("Puntaje mínimo, en las unidades del archivo (vacío para no filtrar):"));
+        panel.add(umbral);
+        while (true) {
+            int opcion = JOptionPane.showConfirmDialog(parent, panel, "Puntaje de las interacciones",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (opcion != JOptionPane.OK_OPTION) return null;
+            try {
+                FormatoInteracciones elegido = formato;
+                String c = columna.getText().trim();
+                if (!c.isEmpty() && !c.equalsIgnoreCase(propuesta)) {
+                    elegido = elegido.conPuntaje(c);
+                }
+                String u = umbral.getText().trim();
+                if (!u.isEmpty()) {
+                    elegido = elegido.conUmbral(Double.parseDouble(u));
+                }
+                return elegido;
+            } catch (NumberFormatException e) {
+                JOptionPane.showMessageDialog(parent,
+                    "Valor inválido:\n" + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+    
+    /**
+     * Obtiene el formato con que se lee un archivo: el elegido al cargarlo o, si
+     * no se eligió ninguno, el que se reconoce por el nombre.
+     */
+    private static FormatoInteracciones formatoDe(File archivo) {
+        return archivo.equals(archivoConFormato) ? formatoElegido
+                                                 : FormatoInteracciones.detectar(archivo);
+    }
+    
+    /**
+     * Indica si el archivo tiene una de las extensiones que se pueden cargar y guardar.
+     * 
+     * @param archivo Archivo a revisar
+     * @return true si termina en .csv, .tsv, .csv.gz o .tsv.gz
+     */
+    private static boolean tieneExtensionConocida(File archivo) {
+        String nombre = archivo.getName().toLowerCase();
+        for (String extension : EXTENSIONES) {
+            if (nombre.endsWith(extension)) return true;
         }
         return false;
     }
     
+    /**
+     * Empieza a vigilar el archivo cargado: cuando otro programa le agrega líneas o
+     * lo reescribe, las diferencias se aplican al grafo sin volver a cargarlo. Si
+     * después se carga o se guarda otro archivo, se pasa a vigilar ese.
+     * 
+     * @param grafo Grafo cargado desde el archivo
+     * @param alCambiar Recibe en el hilo de eventos la descripción de cada cambio aplicado
+     * @return true si había un archivo que vigilar
+     */
+    public static boolean vigilar(Grafo grafo, Consumer<String> alCambiar) {
+        alCambiarArchivo = alCambiar;
+        return reiniciarVigilancia(grafo);
+    }
+    
+    /**
+     * Deja de vigilar el archivo cargado.
+     */
+    public static void dejarDeVigilar() {
+        alCambiarArchivo = null;
+        cerrarVigilante();
+    }
+    
+    /**
+     * Vigila el último archivo, si la vigilancia está encendida. Los cambios se
+     * aplican en el hilo del vigilante; después el diario pasa a tomar como base
+     * la versión nueva del archivo y se avisa en el hilo de eventos.
+     * 
+     * @return true si se empezó a vigilar
+     */
+    private static boolean reiniciarVigilancia(Grafo grafo) {
+        cerrarVigilante();
+        Consumer<String> aviso = alCambiarArchivo;
+        File archivo = ultimoArchivo;
+        if (aviso == null || archivo == null || !archivo.isFile()) return false;
+        DiarioMutaciones diarioVigilado = diario;
+        try {
+            vigilante = new VigilanteArchivo(archivo, grafo, formatoDe(archivo), cambios -> {
+                if (diarioVigilado != null) {
+                    try {
+                        diarioVigilado.actualizarOrigen();
+                    } catch (IOException e) {
+                        // El diario queda sobre la versión anterior y se descarta en la próxima carga
+                    }
+                }
+                SwingUtilities.invokeLater(() -> aviso.accept(cambios.toString()));
+            }, error -> SwingUtilities.invokeLater(() ->
+                aviso.accept("Error al leer " + archivo.getName() + ": " + error.getMessage())));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private static void cerrarVigilante() {
+        if (vigilante != null) {
+            try {
+                vigilante.close();
+            } catch (IOException e) {
+                // El servicio de vigilancia ya estaba cerrado
+            }
+            vigilante = null;
+        }
+    }
+    
+    /**
+     * Cierra el diario del archivo cargado; sus cambios se recuperan en la próxima carga.
+     */
+    private static void cerrarDiario() {
+        esperarGuardado();
+        if (diario != null) {
+            try {
+                diario.close();
+            } catch (IOException e) {
+                // Lo escrito hasta el error se recupera igual en la próxima carga
+            }
+            diario = null;
+        }
+    }
+    
+    /**
+     * Borra el diario del archivo cargado, junto con los cambios que no se guardaron.
+     */
+    private static void descartarDiario() {
+        esperarGuardado();
+        if (diario != null) {
+            try {
+                diario.descartar();
+            } catch (IOException e) {
+                // Si no se pudo borrar, la próxima carga lo reaplica
+            }
+            diario = null;
+        }
+    }
+    
     /**
      * Marca que hay cambios pendientes en el grafo.
      */
@@ -233,6 +520,15 @@ public class CargadorArchivo {
         return cambiosPendientes; 
     }
     
+    /**
+     * Obtiene el último archivo utilizado.
+     * 
+     * @return Último archivo cargado o guardado, o null si no hay
+     */
+    public static File getUltimoArchivo() { 
+        return ultimoArchivo; 
+    }
+    
     /**
      * Obtiene el nombre del último archivo utilizado.
      * 
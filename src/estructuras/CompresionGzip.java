@@ -0,0 +1,273 @@
+package estructuras;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Lectura y escritura de archivos comprimidos con gzip en dos hilos.
+ *
+ * Al leer, un hilo descomprime el archivo en bloques de 1 MiB y los deja en una
+ * cola acotada; el hilo que interpreta el texto los toma de la cola. Al escribir
+ * ocurre lo inverso: quien genera el texto llena bloques y un hilo aparte los
+ * comprime. Los bloques se reciclan a través de una segunda cola, así que la
+ * memoria usada no depende del tamaño del archivo y nunca se descomprime a disco.
+ */
+public final class CompresionGzip {
+    /** Extensión de los archivos comprimidos */
+    public static final String EXTENSION = ".gz";
+
+    private static final int TAMAÑO_BLOQUE = 1 << 20;
+    /** Bloques en circulación entre los dos hilos */
+    private static final int BLOQUES = 4;
+    /** Buffer de entrada del descompresor y de salida del compresor */
+    private static final int BUFFER_GZIP = 1 << 18;
+
+    private CompresionGzip() {
+    }
+
+    /**
+     * Indica si el nombre del archivo termina en ".gz".
+     *
+     * @param archivo Archivo a revisar
+     * @return true si es un archivo comprimido
+     */
+    public static boolean esComprimido(File archivo) {
+        return archivo.getName().toLowerCase().endsWith(EXTENSION);
+    }
+
+    /**
+     * Abre un archivo comprimido como canal de lectura del contenido descomprimido.
+     * La descompresión empieza de inmediato en otro hilo.
+     *
+     * @param archivo Archivo gzip
+     * @return Canal con el contenido descomprimido; cerrarlo detiene la descompresión
+     * @throws IOException si el archivo no se puede abrir o no es gzip
+     */
+    public static ReadableByteChannel abrirLectura(File archivo) throws IOException {
+        InputStream entrada = new GZIPInputStream(new FileInputStream(archivo), BUFFER_GZIP);
+        return new LecturaEnParalelo(entrada, archivo.getName());
+    }
+
+    /**
+     * Abre un archivo para escribir contenido que se comprime en otro hilo.
+     *
+     * @param archivo Archivo gzip a crear o reemplazar
+     * @return Flujo de salida; close() espera a que termine la compresión
+     * @throws IOException si el archivo no se puede crear
+     */
+    public static OutputStream abrirEscritura(File archivo) throws IOException {
+        OutputStream salida = new GZIPOutputStream(new FileOutputStream(archivo), BUFFER_GZIP);
+        return new EscrituraEnParalelo(salida, archivo.getName());
+    }
+
+    /**
+     * Bloque de bytes que pasa de un hilo al otro.
+     */
+    private static final class Bloque {
+        /** Marca de fin de los datos */
+        static final Bloque FIN = new Bloque(0);
+
+        final byte[] datos;
+        int largo;
+
+        Bloque(int tamaño) {
+            datos = new byte[tamaño];
+        }
+    }
+
+    /**
+     * Canal que entrega lo que un hilo aparte descomprime.
+     */
+    private static final class LecturaEnParalelo implements ReadableByteChannel {
+        private final BlockingQueue<Bloque> llenos = new ArrayBlockingQueue<>(BLOQUES + 1);
+        private final BlockingQueue<Bloque> libres = new ArrayBlockingQueue<>(BLOQUES);
+        private final Thread hilo;
+        private volatile IOException error;
+        private volatile boolean abierto = true;
+        private Bloque actual;
+        private int posicion;
+
+        LecturaEnParalelo(InputStream entrada, String nombre) {
+            for (int i = 0; i < BLOQUES; i++) {
+                libres.add(new Bloque(TAMAÑO_BLOQUE));
+            }
+            hilo = new Thread(() -> descomprimir(entrada), "gzip-lectura-" + nombre);
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+
+        private void descomprimir(InputStream entrada) {
+            try (InputStream in = entrada) {
+                while (true) {
+                    Bloque b = libres.take();
+                    int n = 0;
+                    int leidos;
+                    while (n < b.datos.length && (leidos = in.read(b.datos, n, b.datos.length - n)) > 0) {
+                        n += leidos;
+                    }
+                    if (n == 0) break;
+                    b.largo = n;
+                    llenos.put(b);
+                }
+            } catch (IOException e) {
+                error = e;
+            } catch (InterruptedException e) {
+                // Se cerró el canal antes de terminar
+            } finally {
+                llenos.offer(Bloque.FIN);
+            }
+        }
+
+        @Override
+        public int read(ByteBuffer destino) throws IOException {
+            if (!abierto) throw new IOException("Canal cerrado");
+            if (actual == null) {
+                try {
+                    actual = llenos.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Lectura interrumpida");
+                }
+                posicion = 0;
+            }
+            if (actual == Bloque.FIN) {
+                if (error != null) throw error;
+                return -1;
+            }
+            int n = Math.min(destino.remaining(), actual.largo - posicion);
+            destino.put(actual.datos, posicion, n);
+            posicion += n;
+            if (posicion == actual.largo) {
+                libres.offer(actual);
+                actual = null;
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return abierto;
+        }
+
+        @Override
+        public void close() {
+            abierto = false;
+            hilo.interrupt();
+        }
+    }
+
+    /**
+     * Flujo de salida cuyos bloques comprime y escribe un hilo aparte.
+     */
+    private static final class EscrituraEnParalelo extends OutputStream {
+        private final BlockingQueue<Bloque> llenos = new ArrayBlockingQueue<>(BLOQUES + 1);
+        private final BlockingQueue<Bloque> libres = new ArrayBlockingQueue<>(BLOQUES);
+        private final Thread hilo;
+        private volatile IOException error;
+        private Bloque actual;
+        private boolean cerrado;
+
+        EscrituraEnParalelo(OutputStream salida, String nombre) {
+            for (int i = 0; i < BLOQUES; i++) {
+                libres.add(new Bloque(TAMAÑO_BLOQUE));
+            }
+            hilo = new Thread(() -> comprimir(salida), "gzip-escritura-" + nombre);
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+
+        private void comprimir(OutputStream salida) {
+            try {
+                Bloque b;
+                while ((b = llenos.take()) != Bloque.FIN) {
+                    // Tras un error se siguen reciclando bloques para no bloquear al productor
+                    if (error == null) {
+                        try {
+                            salida.write(b.datos, 0, b.largo);
+                        } catch (IOException e) {
+                            error = e;
+                        }
+                    }
+                    libres.put(b);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                try {
+                    salida.close();
+                } catch (IOException e) {
+                    if (error == null) error = e;
+                }
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (actual == null || actual.largo == actual.datos.length) entregar();
+            actual.datos[actual.largo++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (actual == null || actual.largo == actual.datos.length) entregar();
+                int n = Math.min(len, actual.datos.length - actual.largo);
+                System.arraycopy(b, off, actual.datos, actual.largo, n);
+                actual.largo += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        /**
+         * Pasa el bloque actual al compresor, si tiene datos, y toma uno libre.
+         */
+        private void entregar() throws IOException {
+            if (cerrado) throw new IOException("Flujo cerrado");
+            if (error != null) throw error;
+            try {
+                if (actual != null && actual.largo > 0) {
+                    llenos.put(actual);
+                    actual = null;
+                }
+                if (actual == null) {
+                    actual = libres.take();
+                    actual.largo = 0;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Escritura interrumpida");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (cerrado) return;
+            cerrado = true;
+            try {
+                if (actual != null && actual.largo > 0) {
+                    llenos.put(actual);
+                }
+                actual = null;
+                llenos.put(Bloque.FIN);
+                hilo.join();
+            } catch (InterruptedException e) {
+                hilo.interrupt();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Escritura interrumpida");
+            }
+            if (error != null) throw error;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de aristas no dirigidas identificadas por el par de identificadores
+ * de sus extremos. Permite detectar interacciones duplicadas en tiempo constante.
+ * Usa direccionamiento abierto con sondeo lineal sobre claves long, sin objetos por arista.
+ */
+final class ConjuntoAristas {
+    private static final long VACIO = -1L;
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private long[] ranuras;
+    private int cantidad;
+
+    /**
+     * Constructor que crea un conjunto vacío.
+     */
+    ConjuntoAristas() {
+        vaciar();
+    }
+
+    /**
+     * Calcula la clave de la arista entre dos proteínas, sin importar el orden.
+     *
+     * @param a Identificador de un extremo (no negativo)
+     * @param b Identificador del otro extremo (no negativo)
+     * @return Clave de la arista
+     */
+    static long clave(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    /**
+     * Verifica si la arista está en el conjunto.
+     *
+     * @param clave Clave de la arista
+     * @return true si está, false en caso contrario
+     */
+    boolean contiene(long clave) {
+        long[] r = ranuras;
+        int mascara = r.length - 1;
+        int i = posicion(clave, mascara);
+        for (int sondeos = 0; sondeos <= mascara; sondeos++) {
+            long k = r[i];
+            if (k == VACIO) return false;
+            if (k == clave) return true;
+            i = (i + 1) & mascara;
+        }
+        return false;
+    }
+
+    /**
+     * Agrega una arista si no estaba.
+     *
+     * @param clave Clave de la arista
+     * @return true si se agregó, false si ya estaba
+     */
+    boolean agregar(long clave) {
+        int mascara = ranuras.length - 1;
+        int i = posicion(clave, mascara);
+        long k;
+        while ((k = ranuras[i]) != VACIO) {
+            if (k == clave) return false;
+            i = (i + 1) & mascara;
+        }
+        ranuras[i] = clave;
+        cantidad++;
+        if (cantidad * 2 > ranuras.length) {
+            redimensionar();
+        }
+        return true;
+    }
+
+    /**
+     * Elimina una arista.
+     *
+     * @param clave Clave de la arista
+     * @return true si estaba, false en caso contrario
+     */
+    boolean eliminar(long clave) {
+        int mascara = ranuras.length - 1;
+        int i = posicion(clave, mascara);
+        long k;
+        while ((k = ranuras[i]) != VACIO) {
+            if (k == clave) {
+                cantidad--;
+                int hueco = i;
+                int j = (i + 1) & mascara;
+                while ((k = ranuras[j]) != VACIO) {
+                    int ideal = posicion(k, mascara);
+                    if (((j - ideal) & mascara) >= ((j - hueco) & mascara)) {
+                        ranuras[hueco] = k;
+                        hueco = j;
+                    }
+                    j = (j + 1) & mascara;
+                }
+                ranuras[hueco] = VACIO;
+                return true;
+            }
+            i = (i + 1) & mascara;
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene la cantidad de aristas del conjunto.
+     *
+     * @return Cantidad de aristas
+     */
+    int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Elimina todas las aristas.
+     */
+    void vaciar() {
+        long[] r = new long[CAPACIDAD_INICIAL];
+        Arrays.fill(r, VACIO);
+        ranuras = r;
+        cantidad = 0;
+    }
+
+    private void redimensionar() {
+        long[] nuevas = new long[ranuras.length * 2];
+        Arrays.fill(nuevas, VACIO);
+        int mascara = nuevas.length - 1;
+        for (long k : ranuras) {
+            if (k == VACIO) continue;
+            int i = posicion(k, mascara);
+            while (nuevas[i] != VACIO) {
+                i = (i + 1) & mascara;
+            }
+            nuevas[i] = k;
+        }
+        ranuras = nuevas;
+    }
+
+    private static int posicion(long clave, int mascara) {
+        return (int) ((clave * 0x9E3779B97F4A7C15L) >>> (64 - Integer.bitCount(mascara)));
+    }
+}
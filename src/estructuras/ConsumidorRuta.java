@@ -0,0 +1,24 @@
+package estructuras;
+
+import java.util.function.IntFunction;
+
+/**
+ * Recibe una ruta encontrada en un Grafo como identificadores de proteínas, sin
+ * que el grafo arme una Lista con los nombres.
+ *
+ * Se llama con el cerrojo de lectura del grafo tomado: el arreglo y los nombres solo
+ * valen durante la llamada, el arreglo no debe modificarse y no se debe editar ni
+ * consultar el grafo desde el consumidor.
+ */
+public interface ConsumidorRuta {
+
+    /**
+     * Se encontró una ruta.
+     *
+     * @param proteinas Identificadores de las proteínas, del origen al destino
+     * @param largo Cantidad de proteínas de la ruta
+     * @param peso Suma de los pesos de las interacciones de la ruta
+     * @param nombres Devuelve el nombre de un identificador
+     */
+    void ruta(int[] proteinas, int largo, double peso, IntFunction<String> nombres);
+}
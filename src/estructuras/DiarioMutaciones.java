@@ -0,0 +1,884 @@
+package estructuras;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Diario de mutaciones: registra cada cambio hecho al grafo después de cargar un
+ * archivo, para que las ediciones sobrevivan a un cierre inesperado sin reescribir
+ * el CSV completo.
+ *
+ * El diario se llama como el CSV con ".diario" agregado y solo crece al final.
+ * Todos los valores están en little-endian:
+ * <pre>
+ *   Encabezado (48 bytes)
+ *     "BIODIARI", versión (int), reservado (int), generación (long),
+ *     tamaño, fecha de modificación y hash del CSV de origen (long, long, long)
+ *   Registro
+ *     largo de tipo + datos (int), tipo (byte), datos, CRC32C de tipo + datos (int)
+ * </pre>
+ * Los nombres se guardan como largo (varint) seguido del texto en UTF-8 y los
+ * pesos como double.
+ *
+ * Los registros se codifican en memoria mientras el grafo tiene tomado su cerrojo
+ * de escritura, y un hilo aparte los escribe y hace fsync. Lo que se acumula mientras
+ * dura un fsync se escribe junto en el siguiente (group commit), así que una
+ * edición nunca espera al disco; sincronizar() espera a que todo lo registrado sea
+ * durable. Si una escritura falla, el diario deja de registrar: el error lo lanzan
+ * sincronizar() y close() y se avisa al receptor de alFallar().
+ *
+ * La generación indica sobre qué base se aplican los registros: 0 es el CSV tal
+ * como está en disco y N es el punto de control "&lt;csv&gt;.diario-N.grafo". Cuando
+ * el diario crece se compacta en segundo plano: se escribe el punto de control de
+ * la generación siguiente con el estado del grafo y luego, con un renombre atómico,
+ * un diario nuevo con solo los registros posteriores. Si el proceso se interrumpe
+ * entre los dos pasos, el diario viejo sigue apuntando a su propio punto de control,
+ * que recién se borra después del renombre.
+ *
+ * Al guardar el grafo con guardar() ocurre algo parecido, pero la base nueva es
+ * el CSV guardado: el diario pasa a ese archivo con generación 0 y conserva solo
+ * los registros posteriores a la copia que se escribió.
+ */
+public final class DiarioMutaciones implements Closeable {
+    /** Extensión que se agrega al nombre del CSV */
+    public static final String EXTENSION = ".diario";
+
+    private static final byte[] FIRMA = "BIODIARI".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int TAMAÑO_ENCABEZADO = 48;
+    /** Tamaño del diario desde el que se compacta */
+    private static final long UMBRAL_COMPACTACION = 4L << 20;
+
+    private static final byte AGREGAR_PROTEINA = 1;
+    private static final byte ELIMINAR_PROTEINA = 2;
+    private static final byte AGREGAR_INTERACCION = 3;
+    private static final byte ELIMINAR_INTERACCION = 4;
+    private static final byte ACTIVAR_INTERACCION = 5;
+    private static final byte DESACTIVAR_INTERACCION = 6;
+    private static final byte CAMBIAR_PESO = 7;
+
+    /** CSV de origen y archivo del diario; cambian con los dos cerrojos tomados al guardar */
+    private volatile File csv;
+    private volatile File archivo;
+    private final Grafo grafo;
+    private final OyenteMutaciones oyente = new Registrador();
+    private final Thread escritor;
+    private final Thread alTerminar;
+    /** Tomado mientras se compacta o se guarda: las dos operaciones cortan el diario */
+    private final ReentrantLock compactacion = new ReentrantLock();
+    private final int recuperados;
+
+    // Protegidos por el monitor del diario
+    private ByteBuffer pendientes = nuevoBuffer(4096);
+    private ByteBuffer reserva = nuevoBuffer(4096);
+    /** Bytes de registros del diario actual, incluidos los pendientes */
+    private long bytesRegistrados;
+    private long registros;
+    private long registrosDurables;
+    private boolean cerrado;
+    private boolean detenido;
+    private IOException error;
+    /** Recibe el error de escritura, o null si nadie lo espera */
+    private Consumer<IOException> alFallar;
+
+    // Protegidos por cerrojoCanal
+    private final Object cerrojoCanal = new Object();
+    /** Canal del diario en disco, o null si todavía no se escribió ningún registro */
+    private FileChannel canal;
+    /** Generación del diario; se modifica con los dos cerrojos tomados */
+    private long generacion;
+    private long tamañoCsv;
+    private long fechaCsv;
+    private long hashCsv;
+
+    private DiarioMutaciones(File csv, Grafo grafo, FileChannel canal, long generacion,
+                             long tamañoCsv, long fechaCsv, long hashCsv, int recuperados)
+            throws IOException {
+        this.csv = csv;
+        this.archivo = archivoPara(csv);
+        this.grafo = grafo;
+        this.canal = canal;
+        this.generacion = generacion;
+        this.tamañoCsv = tamañoCsv;
+        this.fechaCsv = fechaCsv;
+        this.hashCsv = hashCsv;
+        this.recuperados = recuperados;
+        this.bytesRegistrados = canal != null ? canal.size() - TAMAÑO_ENCABEZADO : 0;
+        escritor = new Thread(this::escribirPendientes, "diario-" + csv.getName());
+        escritor.setDaemon(true);
+        escritor.start();
+        alTerminar = new Thread(this::cerrarAlTerminar, "diario-cierre-" + csv.getName());
+        Runtime.getRuntime().addShutdownHook(alTerminar);
+        grafo.agregarOyente(oyente);
+    }
+
+    /**
+     * Obtiene el archivo de diario que corresponde a un CSV.
+     *
+     * @param csv Archivo CSV
+     * @return Archivo de diario junto al CSV
+     */
+    public static File archivoPara(File csv) {
+        return new File(csv.getPath() + EXTENSION);
+    }
+
+    private static File puntoDeControl(File csv, long generacion) {
+        return new File(csv.getPath() + EXTENSION + "-" + generacion + InstantaneaGrafo.EXTENSION);
+    }
+
+    /**
+     * Carga el CSV en el grafo, reaplica los cambios de su diario si lo tiene y
+     * empieza a registrar las mutaciones siguientes.
+     *
+     * Si el diario no corresponde al CSV actual (el CSV se modificó por fuera o falta
+     * su punto de control), se deja aparte con la extensión ".descartado" y se carga
+     * solo el CSV.
+     *
+     * @param csv Archivo CSV de origen
+     * @param grafo Grafo donde cargar los datos
+     * @param usarInstantanea true para cargar el CSV desde su instantánea binaria si está vigente
+     * @return Diario abierto y registrando
+     * @throws IOException si el CSV no se puede leer
+     */
+    public static DiarioMutaciones abrir(File csv, Grafo grafo, boolean usarInstantanea)
+            throws IOException {
+        return abrir(csv, grafo, usarInstantanea, FormatoInteracciones.detectar(csv));
+    }
+
+    /**
+     * Como abrir(File, Grafo, boolean), pero lee el CSV con un formato elegido.
+     * La instantánea binaria solo corresponde al formato que se reconoce por el
+     * nombre, así que con otro formato conviene no usarla.
+     *
+     * @param csv Archivo de origen
+     * @param grafo Grafo donde cargar los datos
+     * @param usarInstantanea true para cargar el CSV desde su instantánea binaria si está vigente
+     * @param formato Formato con que se lee el archivo, o null para un CSV de tres columnas
+     * @return Diario abierto y registrando
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static DiarioMutaciones abrir(File csv, Grafo grafo, boolean usarInstantanea,
+                                         FormatoInteracciones formato) throws IOException {
+        File archivo = archivoPara(csv);
+        ByteBuffer datos = null;
+        long generacion = 0;
+        boolean base = false;
+        if (archivo.isFile()) {
+            try (FileChannel lectura = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+                if (lectura.size() >= TAMAÑO_ENCABEZADO && lectura.size() <= Integer.MAX_VALUE) {
+                    datos = nuevoBuffer((int) lectura.size());
+                    while (datos.hasRemaining() && lectura.read(datos) >= 0) {
+                        // leer el diario completo
+                    }
+                    datos.flip();
+                }
+            }
+            if (datos != null && encabezadoValido(datos)) {
+                generacion = datos.getLong(16);
+                base = generacion > 0
+                    ? InstantaneaGrafo.cargar(csv, puntoDeControl(csv, generacion), grafo)
+                    : mismoCsv(csv, datos.getLong(24), datos.getLong(32), datos.getLong(40));
+            }
+            if (!base) {
+                datos = null;
+                generacion = 0;
+                Files.move(archivo.toPath(), new File(archivo.getPath() + ".descartado").toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (generacion == 0) {
+            if (usarInstantanea) {
+                InstantaneaGrafo.cargarOReconstruir(csv, grafo);
+            } else {
+                ArchivoCSV.leer(csv, grafo, formato);
+            }
+        }
+
+        FileChannel canal = null;
+        int recuperados = 0;
+        if (datos != null) {
+            int valido = TAMAÑO_ENCABEZADO;
+            CRC32C crc = new CRC32C();
+            while (valido + 8 <= datos.limit()) {
+                int largo = datos.getInt(valido);
+                if (largo < 1 || largo > datos.limit() - valido - 8) break;
+                crc.reset();
+                crc.update(datos.slice(valido + 4, largo));
+                if ((int) crc.getValue() != datos.getInt(valido + 4 + largo)) break;
+                try {
+                    aplicar(datos.slice(valido + 4, largo).order(ByteOrder.LITTLE_ENDIAN), grafo);
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    break;
+                }
+                valido += largo + 8;
+                recuperados++;
+            }
+            canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Lo que sigue al último registro válido es una escritura interrumpida
+            canal.truncate(valido);
+            canal.position(valido);
+            DiarioMutaciones diario = new DiarioMutaciones(csv, grafo, canal, generacion,
+                datos.getLong(24), datos.getLong(32), datos.getLong(40), recuperados);
+            diario.borrarPuntosDeControlViejos();
+            if (valido > UMBRAL_COMPACTACION) {
+                diario.compactarEnSegundoPlano();
+            }
+            return diario;
+        }
+        DiarioMutaciones diario = new DiarioMutaciones(csv, grafo, null, 0, csv.length(),
+            csv.lastModified(), 0, 0);
+        diario.borrarPuntosDeControlViejos();
+        return diario;
+    }
+
+    /**
+     * Empieza un diario vacío para un CSV que acaba de escribirse con el contenido
+     * actual del grafo. Borra el diario anterior de ese CSV, si lo había.
+     *
+     * @param csv Archivo CSV recién guardado
+     * @param grafo Grafo cuyo contenido es el del CSV
+     * @return Diario abierto y registrando
+     * @throws IOException si el diario anterior no se puede borrar
+     */
+    public static DiarioMutaciones crear(File csv, Grafo grafo) throws IOException {
+        Files.deleteIfExists(archivoPara(csv).toPath());
+        DiarioMutaciones diario = new DiarioMutaciones(csv, grafo, null, 0, csv.length(),
+            csv.lastModified(), 0, 0);
+        diario.borrarPuntosDeControlViejos();
+        return diario;
+    }
+
+    /**
+     * Obtiene la cantidad de cambios que se reaplicaron al abrir el diario.
+     *
+     * @return Registros recuperados
+     */
+    public int getRegistrosRecuperados() {
+        return recuperados;
+    }
+
+    /**
+     * Indica si el diario contiene cambios que el CSV no tiene.
+     *
+     * @return true si hay registros o un punto de control
+     */
+    public synchronized boolean hayCambios() {
+        return bytesRegistrados > 0 || generacion > 0;
+    }
+
+    /**
+     * Registra quién recibe el error si el diario no se puede escribir. Desde ese
+     * error los cambios siguientes ya no se registran, así que solo se conservan
+     * guardando el grafo. Si el error ya ocurrió, se avisa enseguida.
+     *
+     * @param aviso Recibe el error, en el hilo escritor del diario; null para no avisar
+     */
+    public void alFallar(Consumer<IOException> aviso) {
+        IOException ocurrido;
+        synchronized (this) {
+            alFallar = aviso;
+            ocurrido = error;
+        }
+        if (ocurrido != null && aviso != null) aviso.accept(ocurrido);
+    }
+
+    /**
+     * Obtiene el error que detuvo el registro de cambios.
+     *
+     * @return Error de escritura, o null si el diario está registrando
+     */
+    public synchronized IOException getError() {
+        return error;
+    }
+
+    /**
+     * Espera a que todos los cambios registrados hasta ahora estén escritos y sincronizados con el disco.
+     *
+     * @throws IOException si el diario no se pudo escribir
+     */
+    public synchronized void sincronizar() throws IOException {
+        long objetivo = registros;
+        try {
+            while (registrosDurables < objetivo && error == null && !detenido) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Sincronización del diario interrumpida");
+        }
+        if (error != null) throw error;
+    }
+
+    /**
+     * Escribe un punto de control con el estado actual del grafo y deja en el diario
+     * solo los registros posteriores. Normalmente se llama sola en segundo plano.
+     *
+     * @throws IOException si el punto de control o el diario nuevo no se pueden escribir
+     */
+    public void compactar() throws IOException {
+        if (!compactacion.tryLock()) return;
+        try {
+            compactarConCerrojo(false);
+        } finally {
+            compactacion.unlock();
+        }
+    }
+
+    /**
+     * Compacta con el cerrojo de compactación ya tomado.
+     *
+     * @param siempre true para escribir el punto de control aunque no haya registros que quitar
+     */
+    private void compactarConCerrojo(boolean siempre) throws IOException {
+        long[] corte = new long[1];
+        // Con el cerrojo de lectura del grafo no se registra nada: el corte coincide con la copia
+        Object[][] listas = grafo.copiarListas(() -> {
+            synchronized (this) {
+                corte[0] = bytesRegistrados;
+            }
+        });
+        if (corte[0] == 0 && !siempre) return;
+        long siguiente;
+        synchronized (cerrojoCanal) {
+            siguiente = generacion + 1;
+        }
+        File punto = puntoDeControl(csv, siguiente);
+        InstantaneaGrafo.escribir(csv, punto, listas);
+
+        synchronized (cerrojoCanal) {
+            volcar();
+            Path destino = archivo.toPath();
+            Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+            try (FileChannel nuevo = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                escribirEncabezado(nuevo, siguiente);
+                long desde = TAMAÑO_ENCABEZADO + corte[0];
+                long fin = canal.size();
+                while (desde < fin) {
+                    desde += canal.transferTo(desde, fin - desde, nuevo);
+                }
+                nuevo.force(true);
+            }
+            try {
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+            canal.close();
+            canal = FileChannel.open(destino, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            canal.position(canal.size());
+            synchronized (this) {
+                generacion = siguiente;
+                bytesRegistrados -= corte[0];
+            }
+        }
+        borrarPuntosDeControlViejos();
+    }
+
+    /**
+     * Escritura de una copia del grafo, que recibe guardar().
+     */
+    interface Escritura {
+        /**
+         * Escribe la copia.
+         *
+         * @param listas Proteínas e interacciones, como las devuelve Grafo.copiarListas
+         * @throws IOException si la copia no se puede escribir
+         */
+        void escribir(Object[][] listas) throws IOException;
+    }
+
+    /**
+     * Guarda una copia del grafo y pasa el diario al archivo guardado.
+     *
+     * La copia y el punto de corte del diario se toman juntos. Mientras se escribe,
+     * el grafo se puede seguir editando: esos cambios quedan en el diario nuevo,
+     * que empieza sobre el CSV guardado con solo los registros posteriores a la copia.
+     * El diario anterior y sus puntos de control se borran.
+     *
+     * @param destino CSV donde se guarda
+     * @param escritura Escribe la copia en destino (y, si corresponde, su instantánea)
+     * @throws IOException si la copia o el diario nuevo no se pueden escribir
+     */
+    void guardar(File destino, Escritura escritura) throws IOException {
+        compactacion.lock();
+        try {
+            long[] corte = new long[1];
+            Object[][] listas = grafo.copiarListas(() -> {
+                synchronized (this) {
+                    corte[0] = bytesRegistrados;
+                }
+            });
+            escritura.escribir(listas);
+            File csvAnterior = csv;
+            File diarioAnterior = archivo;
+            synchronized (cerrojoCanal) {
+                volcar();
+                File nuevo = archivoPara(destino);
+                long cola = canal != null ? canal.size() - TAMAÑO_ENCABEZADO - corte[0] : 0;
+                tamañoCsv = destino.length();
+                fechaCsv = destino.lastModified();
+                hashCsv = 0;
+                if (cola > 0) {
+                    hashCsv = InstantaneaGrafo.hash(destino);
+                    Path temporal = nuevo.toPath().resolveSibling(nuevo.getName() + ".tmp");
+                    try (FileChannel salida = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        escribirEncabezado(salida, 0);
+                        long desde = TAMAÑO_ENCABEZADO + corte[0];
+                        long fin = canal.size();
+                        while (desde < fin) {
+                            desde += canal.transferTo(desde, fin - desde, salida);
+                        }
+                        salida.force(true);
+                    }
+                    try {
+                        Files.move(temporal, nuevo.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(temporal, nuevo.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                if (canal != null) canal.close();
+                canal = null;
+                if (!diarioAnterior.toPath().toAbsolutePath().normalize()
+                        .equals(nuevo.toPath().toAbsolutePath().normalize())) {
+                    Files.deleteIfExists(diarioAnterior.toPath());
+                }
+                if (cola > 0) {
+                    canal = FileChannel.open(nuevo.toPath(), StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                    canal.position(canal.size());
+                } else {
+                    // Sin registros posteriores el diario se vuelve a crear con el próximo cambio
+                    Files.deleteIfExists(nuevo.toPath());
+                }
+                synchronized (this) {
+                    csv = destino;
+                    archivo = nuevo;
+                    generacion = 0;
+                    bytesRegistrados -= corte[0];
+                }
+            }
+            borrarPuntosDeControl(csvAnterior, -1);
+            borrarPuntosDeControlViejos();
+        } finally {
+            compactacion.unlock();
+        }
+    }
+
+    /**
+     * Toma como base el contenido actual del CSV, que cambió por fuera y cuyas
+     * diferencias ya se aplicaron al grafo como mutaciones (ver VigilanteArchivo).
+     * Los registros se conservan: al reaplicarlos sobre el CSV nuevo, los cambios
+     * que ya están en él no modifican nada.
+     *
+     * Si el diario parte de un punto de control, ese punto se validó contra la
+     * versión anterior del CSV y en la próxima carga ya no serviría: se compacta
+     * para escribir uno nuevo, que registra la versión actual.
+     *
+     * @throws IOException si el encabezado o el punto de control no se pueden reescribir
+     */
+    public void actualizarOrigen() throws IOException {
+        compactacion.lock();
+        try {
+            synchronized (cerrojoCanal) {
+                tamañoCsv = csv.length();
+                fechaCsv = csv.lastModified();
+                hashCsv = 0;
+                // Un diario descartado ya no tiene base que actualizar
+                if (generacion < 0) return;
+                if (generacion == 0) {
+                    // Sin canal, el encabezado se escribe con el primer registro
+                    if (canal != null) {
+                        hashCsv = InstantaneaGrafo.hash(csv);
+                        long posicion = canal.position();
+                        canal.position(0);
+                        escribirEncabezado(canal, generacion);
+                        canal.position(posicion);
+                        canal.force(false);
+                    }
+                    return;
+                }
+            }
+            compactarConCerrojo(true);
+        } finally {
+            compactacion.unlock();
+        }
+    }
+
+    /**
+     * Deja de registrar y borra el diario y sus puntos de control: los cambios
+     * que no estén en el CSV se pierden.
+     *
+     * @throws IOException si los archivos no se pueden borrar
+     */
+    public void descartar() throws IOException {
+        detener(false);
+        synchronized (cerrojoCanal) {
+            if (canal != null) canal.close();
+            Files.deleteIfExists(archivo.toPath());
+            synchronized (this) {
+                generacion = -1;
+            }
+        }
+        borrarPuntosDeControlViejos();
+    }
+
+    /**
+     * Deja de registrar, escribe los cambios pendientes y cierra el diario.
+     * Los archivos quedan en disco para reaplicarlos en la próxima carga.
+     *
+     * @throws IOException si los cambios pendientes no se pudieron escribir
+     */
+    @Override
+    public void close() throws IOException {
+        detener(true);
+        synchronized (cerrojoCanal) {
+            if (canal != null) canal.close();
+        }
+        synchronized (this) {
+            if (error != null) throw error;
+        }
+    }
+
+    /**
+     * Quita el diario del grafo y detiene el hilo escritor.
+     *
+     * @param escribir true para escribir antes los registros pendientes
+     */
+    private void detener(boolean escribir) throws IOException {
+        grafo.quitarOyente(oyente);
+        synchronized (this) {
+            if (!escribir) detenido = true;
+            cerrado = true;
+            notifyAll();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Cierre del diario interrumpido");
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(alTerminar);
+        } catch (IllegalStateException e) {
+            // Ya se está terminando la máquina virtual
+        }
+    }
+
+    private void cerrarAlTerminar() {
+        try {
+            close();
+        } catch (IOException e) {
+            // Al terminar no queda a quién avisar
+        }
+    }
+
+    /**
+     * Hilo escritor: espera registros pendientes y los vuelca al disco, todos juntos.
+     */
+    private void escribirPendientes() {
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (pendientes.position() == 0 && !cerrado) {
+                        wait();
+                    }
+                    if (detenido || (cerrado && pendientes.position() == 0)) return;
+                }
+                volcar();
+                boolean grande;
+                synchronized (this) {
+                    grande = bytesRegistrados > UMBRAL_COMPACTACION;
+                }
+                if (grande) compactarEnSegundoPlano();
+            }
+        } catch (InterruptedException e) {
+            // Terminar
+        } catch (IOException e) {
+            Consumer<IOException> aviso;
+            synchronized (this) {
+                error = e;
+                aviso = alFallar;
+                notifyAll();
+            }
+            if (aviso != null) aviso.accept(e);
+        }
+    }
+
+    /**
+     * Escribe los registros pendientes y hace fsync.
+     */
+    private void volcar() throws IOException {
+        synchronized (cerrojoCanal) {
+            ByteBuffer lote;
+            long hasta;
+            synchronized (this) {
+                if (pendientes.position() == 0) return;
+                lote = pendientes;
+                pendientes = reserva;
+                hasta = registros;
+            }
+            if (canal == null) {
+                canal = crearArchivo();
+            }
+            lote.flip();
+            while (lote.hasRemaining()) {
+                canal.write(lote);
+            }
+            canal.force(false);
+            lote.clear();
+            synchronized (this) {
+                reserva = lote;
+                registrosDurables = hasta;
+                notifyAll();
+            }
+        }
+    }
+
+    private FileChannel crearArchivo() throws IOException {
+        // Un CSV que todavía no existe es el destino de un guardado en curso, que rehace el encabezado
+        hashCsv = csv.isFile() ? InstantaneaGrafo.hash(csv) : 0;
+        FileChannel nuevo = FileChannel.open(archivo.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        escribirEncabezado(nuevo, generacion);
+        return nuevo;
+    }
+
+    private void escribirEncabezado(FileChannel destino, long generacion) throws IOException {
+        ByteBuffer e = nuevoBuffer(TAMAÑO_ENCABEZADO);
+        e.put(FIRMA);
+        e.putInt(VERSION);
+        e.putInt(0);
+        e.putLong(generacion);
+        e.putLong(tamañoCsv);
+        e.putLong(fechaCsv);
+        e.putLong(hashCsv);
+        e.flip();
+        while (e.hasRemaining()) {
+            destino.write(e);
+        }
+    }
+
+    private void compactarEnSegundoPlano() {
+        if (compactacion.isLocked()) return;
+        Thread hilo = new Thread(() -> {
+            try {
+                compactar();
+            } catch (IOException e) {
+                // El diario sigue siendo válido sin compactar; se reintenta cuando vuelva a crecer
+            }
+        }, "diario-compactacion-" + csv.getName());
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Borra los puntos de control de otras generaciones, que quedan de una
+     * compactación interrumpida o de un diario descartado.
+     */
+    private void borrarPuntosDeControlViejos() {
+        long actual;
+        synchronized (this) {
+            actual = generacion;
+        }
+        borrarPuntosDeControl(csv, actual);
+    }
+
+    /**
+     * Borra los puntos de control de un CSV salvo el de la generación indicada.
+     */
+    private static void borrarPuntosDeControl(File csv, long vigente) {
+        File carpeta = csv.getAbsoluteFile().getParentFile();
+        String prefijo = csv.getName() + EXTENSION + "-";
+        File[] archivos = carpeta != null ? carpeta.listFiles() : null;
+        if (archivos == null) return;
+        String nombreVigente = puntoDeControl(csv, vigente).getName();
+        for (File f : archivos) {
+            String nombre = f.getName();
+            if (nombre.startsWith(prefijo) && nombre.endsWith(InstantaneaGrafo.EXTENSION)
+                    && !nombre.equals(nombreVigente)) {
+                f.delete();
+            }
+        }
+    }
+
+    private static boolean encabezadoValido(ByteBuffer datos) {
+        for (int i = 0; i < FIRMA.length; i++) {
+            if (datos.get(i) != FIRMA[i]) return false;
+        }
+        return datos.getInt(8) == VERSION && datos.getLong(16) >= 0;
+    }
+
+    private static boolean mismoCsv(File csv, long tamaño, long fecha, long hash) throws IOException {
+        if (csv.length() != tamaño) return false;
+        return csv.lastModified() == fecha || InstantaneaGrafo.hash(csv) == hash;
+    }
+
+    /**
+     * Reaplica un registro sobre el grafo.
+     */
+    private static void aplicar(ByteBuffer r, Grafo grafo) {
+        byte tipo = r.get();
+        switch (tipo) {
+            case AGREGAR_PROTEINA:
+                grafo.agregarProteina(leerTexto(r));
+                break;
+            case ELIMINAR_PROTEINA:
+                grafo.eliminarProteina(leerTexto(r));
+                break;
+            case AGREGAR_INTERACCION: {
+                String origen = leerTexto(r);
+                String destino = leerTexto(r);
+                grafo.agregarInteraccion(origen, destino, r.getDouble());
+                break;
+            }
+            case ELIMINAR_INTERACCION:
+                grafo.eliminarInteraccion(leerTexto(r), leerTexto(r));
+                break;
+            case ACTIVAR_INTERACCION:
+            case DESACTIVAR_INTERACCION:
+                grafo.setActiva(leerTexto(r), leerTexto(r), tipo == ACTIVAR_INTERACCION);
+                break;
+            case CAMBIAR_PESO: {
+                String origen = leerTexto(r);
+                String destino = leerTexto(r);
+                grafo.setPeso(origen, destino, r.getDouble());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Tipo de registro desconocido: " + tipo);
+        }
+    }
+
+    private static String leerTexto(ByteBuffer r) {
+        int largo = 0;
+        int desplazamiento = 0;
+        byte b;
+        do {
+            b = r.get();
+            largo |= (b & 0x7f) << desplazamiento;
+            desplazamiento += 7;
+        } while (b < 0 && desplazamiento < 35);
+        if (largo < 0 || largo > r.remaining()) {
+            throw new IllegalArgumentException("Texto inválido en el diario");
+        }
+        byte[] texto = new byte[largo];
+        r.get(texto);
+        return new String(texto, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Codifica un registro al final de los pendientes. Se llama con el cerrojo de
+     * escritura del grafo tomado, así que el orden de los registros es el de las mutaciones.
+     * Después de un error de escritura no registra nada: el error ya se avisó y lo
+     * lanza sincronizar(), y lanzarlo aquí interrumpiría la mutación del grafo.
+     */
+    private synchronized void registrar(byte tipo, String a, String b, double peso) {
+        if (cerrado || error != null) return;
+        byte[] textoA = a.getBytes(StandardCharsets.UTF_8);
+        byte[] textoB = b != null ? b.getBytes(StandardCharsets.UTF_8) : null;
+        boolean conPeso = tipo == AGREGAR_INTERACCION || tipo == CAMBIAR_PESO;
+        int largo = 1 + 5 + textoA.length + (textoB != null ? 5 + textoB.length : 0)
+            + (conPeso ? 8 : 0);
+        if (pendientes.remaining() < largo + 8) {
+            ByteBuffer mayor = nuevoBuffer(Math.max(pendientes.capacity() * 2,
+                pendientes.position() + largo + 8));
+            pendientes.flip();
+            mayor.put(pendientes);
+            pendientes = mayor;
+        }
+        ByteBuffer p = pendientes;
+        int inicio = p.position();
+        p.putInt(0);
+        p.put(tipo);
+        escribirTexto(p, textoA);
+        if (textoB != null) escribirTexto(p, textoB);
+        if (conPeso) p.putDouble(peso);
+        int fin = p.position();
+        CRC32C crc = new CRC32C();
+        crc.update(p.array(), p.arrayOffset() + inicio + 4, fin - inicio - 4);
+        p.putInt(inicio, fin - inicio - 4);
+        p.putInt((int) crc.getValue());
+        bytesRegistrados += p.position() - inicio;
+        registros++;
+        notifyAll();
+    }
+
+    private static void escribirTexto(ByteBuffer p, byte[] texto) {
+        int largo = texto.length;
+        while ((largo & ~0x7f) != 0) {
+            p.put((byte) ((largo & 0x7f) | 0x80));
+            largo >>>= 7;
+        }
+        p.put((byte) largo);
+        p.put(texto);
+    }
+
+    private static ByteBuffer nuevoBuffer(int capacidad) {
+        return ByteBuffer.allocate(capacidad).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Oyente registrado en el grafo que convierte cada mutación en un registro.
+     */
+    private final class Registrador implements OyenteMutaciones {
+
+        @Override
+        public void proteinaAgregada(String nombre) {
+            registrar(AGREGAR_PROTEINA, nombre, null, 0);
+        }
+
+        @Override
+        public void proteinaEliminada(String nombre) {
+            registrar(ELIMINAR_PROTEINA, nombre, null, 0);
+        }
+
+        @Override
+        public void interaccionAgregada(String origen, String destino, double peso) {
+            registrar(AGREGAR_INTERACCION, origen, destino, peso);
+        }
+
+        @Override
+        public void interaccionEliminada(String origen, String destino) {
+            registrar(ELIMINAR_INTERACCION, origen, destino, 0);
+        }
+
+        @Override
+        public void interaccionActivada(String origen, String destino, boolean activa) {
+            registrar(activa ? ACTIVAR_INTERACCION : DESACTIVAR_INTERACCION, origen, destino, 0);
+        }
+
+        @Override
+        public void pesoCambiado(String origen, String destino, double peso) {
+            registrar(CAMBIAR_PESO, origen, destino, peso);
+        }
+
+        @Override
+        public void grafoReemplazado() {
+            // El grafo ya no es la base más los cambios registrados: se deja de registrar
+            // y el diario queda como estaba, sin los cambios posteriores
+            synchronized (DiarioMutaciones.this) {
+                cerrado = true;
+                DiarioMutaciones.this.notifyAll();
+            }
+        }
+    }
+}
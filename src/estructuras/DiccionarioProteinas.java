@@ -0,0 +1,238 @@
+package estructuras;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Diccionario de nombres de proteínas a identificadores enteros consecutivos.
+ * Usa direccionamiento abierto con sondeo lineal y borrado por desplazamiento,
+ * así que no deja marcas de borrado. Los identificadores no se reutilizan.
+ * Cada ranura guarda el hash junto al identificador, de modo que las colisiones
+ * se descartan sin leer el String.
+ *
+ * Un nombre se puede buscar directamente desde los bytes de un ByteBuffer: si
+ * ya está en el diccionario no se construye ningún String.
+ */
+final class DiccionarioProteinas {
+    private static final long VACIO = -1L;
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /** Ranuras de la tabla: hash en los 32 bits altos e identificador en los bajos, o VACIO */
+    private long[] ranuras;
+    /** Nombre de cada identificador, null si la proteína fue eliminada */
+    private String[] nombres;
+    private int siguienteId;
+    private int cantidad;
+    /** Copia temporal de los bytes de un nombre nuevo */
+    private byte[] auxiliar = new byte[64];
+
+    /**
+     * Constructor que crea un diccionario vacío.
+     */
+    DiccionarioProteinas() {
+        vaciar();
+    }
+
+    /**
+     * Busca el identificador de un nombre.
+     * Puede llamarse dentro de una lectura optimista: lee cada arreglo una sola vez
+     * y acota el sondeo, así que una escritura concurrente solo produce un resultado
+     * que la validación descarta o una excepción que el llamador atrapa.
+     *
+     * @param nombre Nombre de la proteína
+     * @return Identificador, o -1 si no está
+     */
+    int idDe(String nombre) {
+        long[] r = ranuras;
+        String[] n = nombres;
+        int mascara = r.length - 1;
+        int h = nombre.hashCode();
+        int i = posicion(h, mascara);
+        for (int sondeos = 0; sondeos <= mascara; sondeos++) {
+            long ranura = r[i];
+            if (ranura == VACIO) return -1;
+            if ((int) (ranura >>> 32) == h && nombre.equals(n[(int) ranura])) return (int) ranura;
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Agrega un nombre si no estaba.
+     *
+     * @param nombre Nombre de la proteína
+     * @return Identificador del nombre, nuevo o existente
+     */
+    int agregar(String nombre) {
+        int mascara = ranuras.length - 1;
+        int h = nombre.hashCode();
+        int i = posicion(h, mascara);
+        long ranura;
+        while ((ranura = ranuras[i]) != VACIO) {
+            if ((int) (ranura >>> 32) == h && nombre.equals(nombres[(int) ranura])) return (int) ranura;
+            i = (i + 1) & mascara;
+        }
+        return insertar(nombre, h, i);
+    }
+
+    /**
+     * Agrega el nombre formado por los bytes [inicio, fin) del buffer si no estaba.
+     * Los nombres ASCII se comparan byte a byte contra los existentes; los que
+     * tienen otros caracteres se decodifican como UTF-8.
+     *
+     * @param buffer Buffer con los bytes del nombre
+     * @param inicio Posición del primer byte
+     * @param fin Posición siguiente al último byte
+     * @return Identificador del nombre, nuevo o existente
+     */
+    int agregar(ByteBuffer buffer, int inicio, int fin) {
+        // Mismo hash que String.hashCode para texto ASCII
+        int h = 0;
+        for (int k = inicio; k < fin; k++) {
+            byte b = buffer.get(k);
+            if (b < 0) {
+                return agregar(new String(copiar(buffer, inicio, fin), 0, fin - inicio,
+                    StandardCharsets.UTF_8));
+            }
+            h = 31 * h + b;
+        }
+        int mascara = ranuras.length - 1;
+        int i = posicion(h, mascara);
+        long ranura;
+        while ((ranura = ranuras[i]) != VACIO) {
+            if ((int) (ranura >>> 32) == h && iguales(nombres[(int) ranura], buffer, inicio, fin)) {
+                return (int) ranura;
+            }
+            i = (i + 1) & mascara;
+        }
+        return insertar(new String(copiar(buffer, inicio, fin), 0, fin - inicio,
+            StandardCharsets.ISO_8859_1), h, i);
+    }
+
+    /**
+     * Elimina un nombre. Su identificador queda libre y no se vuelve a usar.
+     *
+     * @param nombre Nombre de la proteína
+     * @return true si estaba, false en caso contrario
+     */
+    boolean eliminar(String nombre) {
+        int mascara = ranuras.length - 1;
+        int h = nombre.hashCode();
+        int i = posicion(h, mascara);
+        long ranura;
+        while ((ranura = ranuras[i]) != VACIO) {
+            if ((int) (ranura >>> 32) == h && nombre.equals(nombres[(int) ranura])) {
+                nombres[(int) ranura] = null;
+                cantidad--;
+                // Desplazar hacia el hueco las entradas del mismo racimo que lo admiten
+                int hueco = i;
+                int j = (i + 1) & mascara;
+                while ((ranura = ranuras[j]) != VACIO) {
+                    int ideal = posicion((int) (ranura >>> 32), mascara);
+                    if (((j - ideal) & mascara) >= ((j - hueco) & mascara)) {
+                        ranuras[hueco] = ranura;
+                        hueco = j;
+                    }
+                    j = (j + 1) & mascara;
+                }
+                ranuras[hueco] = VACIO;
+                return true;
+            }
+            i = (i + 1) & mascara;
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene el nombre de un identificador.
+     *
+     * @param id Identificador
+     * @return Nombre, o null si el identificador no existe o fue eliminado
+     */
+    String nombreDe(int id) {
+        String[] n = nombres;
+        return id >= 0 && id < n.length ? n[id] : null;
+    }
+
+    /**
+     * Obtiene la cantidad de nombres en el diccionario.
+     *
+     * @return Cantidad de nombres
+     */
+    int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene el límite de los identificadores asignados hasta ahora.
+     *
+     * @return Mayor identificador asignado más uno
+     */
+    int getLimiteIds() {
+        return siguienteId;
+    }
+
+    /**
+     * Elimina todos los nombres y reinicia la numeración.
+     */
+    void vaciar() {
+        long[] r = new long[CAPACIDAD_INICIAL];
+        Arrays.fill(r, VACIO);
+        nombres = new String[CAPACIDAD_INICIAL];
+        ranuras = r;
+        siguienteId = 0;
+        cantidad = 0;
+    }
+
+    private int insertar(String nombre, int hash, int ranura) {
+        if (siguienteId == nombres.length) {
+            nombres = Arrays.copyOf(nombres, nombres.length * 2);
+        }
+        int id = siguienteId++;
+        nombres[id] = nombre;
+        ranuras[ranura] = ((long) hash << 32) | id;
+        cantidad++;
+        if (cantidad * 2 > ranuras.length) {
+            redimensionar();
+        }
+        return id;
+    }
+
+    private void redimensionar() {
+        long[] nuevas = new long[ranuras.length * 2];
+        Arrays.fill(nuevas, VACIO);
+        int mascara = nuevas.length - 1;
+        for (long ranura : ranuras) {
+            if (ranura == VACIO) continue;
+            int i = posicion((int) (ranura >>> 32), mascara);
+            while (nuevas[i] != VACIO) {
+                i = (i + 1) & mascara;
+            }
+            nuevas[i] = ranura;
+        }
+        ranuras = nuevas;
+    }
+
+    private byte[] copiar(ByteBuffer buffer, int inicio, int fin) {
+        int largo = fin - inicio;
+        if (auxiliar.length < largo) {
+            auxiliar = new byte[Math.max(largo, auxiliar.length * 2)];
+        }
+        buffer.get(inicio, auxiliar, 0, largo);
+        return auxiliar;
+    }
+
+    private static boolean iguales(String nombre, ByteBuffer buffer, int inicio, int fin) {
+        if (nombre.length() != fin - inicio) return false;
+        for (int k = 0; k < nombre.length(); k++) {
+            if (nombre.charAt(k) != buffer.get(inicio + k)) return false;
+        }
+        return true;
+    }
+
+    private static int posicion(int hash, int mascara) {
+        // Multiplicación de Fibonacci: se toman los bits altos, que dependen de todo el hash
+        return (hash * 0x9E3779B9) >>> (32 - Integer.bitCount(mascara));
+    }
+}
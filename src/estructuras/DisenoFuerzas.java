@@ -0,0 +1,782 @@
+package estructuras;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Diseño de fuerzas para dibujar la red, calculado en un hilo propio.
+ *
+ * Es un Fruchterman–Reingold: las interacciones atraen a sus proteínas, todas las
+ * proteínas se repelen y una gravedad débil mantiene juntos los componentes
+ * sueltos. La repulsión se aproxima con un árbol de Barnes–Hut (cada celda lejana
+ * cuenta como una sola masa en su centro), así cada iteración cuesta O(n log n) en
+ * vez de O(n²); las fuerzas se reparten entre varios hilos por tramos de proteínas.
+ *
+ * Solo se mueven las proteínas "móviles": las nuevas y las que ganaron o perdieron
+ * una interacción. Las demás quedan fijas, aunque siguen empujando y atrayendo.
+ * Al terminar, las posiciones se guardan junto al CSV en un archivo con la
+ * extensión {@value #EXTENSION} agregada; al volver a abrir el mismo archivo las
+ * proteínas arrancan en su posición guardada y solo se acomodan las que no tenían.
+ *
+ * Los cambios de la red se encolan desde cualquier hilo y el diseño los toma
+ * entre iteraciones. Las posiciones se publican como una copia inmutable
+ * después de cada iteración.
+ */
+public final class DisenoFuerzas implements Closeable {
+    /** Extensión que se agrega al nombre del CSV */
+    public static final String EXTENSION = ".pos";
+
+    private static final byte[] FIRMA = "BIOPOSIC".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    /** Relación tamaño/distancia por debajo de la cual una celda cuenta como una masa */
+    private static final double THETA = 0.8;
+    private static final double GRAVEDAD = 0.01;
+    private static final double ENFRIAMIENTO = 0.95;
+    private static final double TEMPERATURA_MINIMA = 0.01;
+    /** Temperatura con la que se acomodan unas pocas proteínas sobre un diseño hecho */
+    private static final double TEMPERATURA_LOCAL = 1.0;
+    private static final int MAX_ITERACIONES = 300;
+    /** Profundidad máxima del árbol; más abajo las proteínas se suman en la misma hoja */
+    private static final int MAX_PROFUNDIDAD = 40;
+    /** Proteínas por tarea al repartir las fuerzas entre hilos */
+    private static final int TAMAÑO_TRAMO = 2048;
+
+    /**
+     * Posiciones de las proteínas en un momento del diseño.
+     */
+    public static final class Posiciones {
+        private final String[] nombres;
+        private final float[] x;
+        private final float[] y;
+        private final int cantidad;
+
+        private Posiciones(String[] nombres, float[] x, float[] y, int cantidad) {
+            this.nombres = nombres;
+            this.x = x;
+            this.y = y;
+            this.cantidad = cantidad;
+        }
+
+        /**
+         * Obtiene la cantidad de proteínas con posición.
+         *
+         * @return Cantidad de proteínas
+         */
+        public int getCantidad() { return cantidad; }
+
+        /**
+         * Obtiene el nombre de una proteína.
+         *
+         * @param i Posición, entre 0 y getCantidad() - 1
+         * @return Nombre de la proteína
+         */
+        public String getNombre(int i) { return nombres[i]; }
+
+        /**
+         * Obtiene la coordenada horizontal de una proteína.
+         *
+         * @param i Posición, entre 0 y getCantidad() - 1
+         * @return Coordenada x
+         */
+        public float getX(int i) { return x[i]; }
+
+        /**
+         * Obtiene la coordenada vertical de una proteína.
+         *
+         * @param i Posición, entre 0 y getCantidad() - 1
+         * @return Coordenada y
+         */
+        public float getY(int i) { return y[i]; }
+    }
+
+    /**
+     * Cambio de la red pendiente de aplicar al diseño.
+     */
+    private static final class Cambio {
+        static final byte PROTEINA_AGREGADA = 0;
+        static final byte PROTEINA_ELIMINADA = 1;
+        static final byte INTERACCION_AGREGADA = 2;
+        static final byte INTERACCION_ELIMINADA = 3;
+        static final byte REINICIAR = 4;
+
+        final byte tipo;
+        final String origen;
+        final String destino;
+        final boolean mover;
+        final File archivo;
+
+        Cambio(byte tipo, String origen, String destino, boolean mover, File archivo) {
+            this.tipo = tipo;
+            this.origen = origen;
+            this.destino = destino;
+            this.mover = mover;
+            this.archivo = archivo;
+        }
+    }
+
+    private final ConcurrentLinkedQueue<Cambio> cambios = new ConcurrentLinkedQueue<>();
+    private final Thread hilo;
+    private final ExecutorService ayudantes;
+    private final int hilos;
+    private volatile boolean cerrado;
+    private volatile Posiciones publicadas;
+    private volatile File archivo;
+
+    // Estado del diseño: solo lo toca el hilo de diseño
+    private final HashMap<String, Integer> indice = new HashMap<>();
+    private String[] nombres = new String[16];
+    private double[] x = new double[16];
+    private double[] y = new double[16];
+    private boolean[] ubicada = new boolean[16];
+    private boolean[] movil = new boolean[16];
+    private int[][] vecinos = new int[16][];
+    private int[] grado = new int[16];
+    private int n;
+    private int moviles;
+    private double temperatura;
+    private int iteraciones;
+    private boolean sinGuardar;
+    private HashMap<String, float[]> guardadas = new HashMap<>();
+    private final Random azar = new Random(7);
+
+    // Árbol de Barnes–Hut en arreglos planos; se reconstruye en cada iteración
+    private int celdas;
+    private double[] masa = new double[64];
+    private double[] sumaX = new double[64];
+    private double[] sumaY = new double[64];
+    private double[] centroX = new double[64];
+    private double[] centroY = new double[64];
+    private double[] mitad = new double[64];
+    private int[] hijos = new int[64];
+    private int[] cuerpo = new int[64];
+
+    // Desplazamiento de cada proteína móvil en la iteración actual
+    private int[] listaMoviles = new int[16];
+    private double[] desplazamientoX = new double[16];
+    private double[] desplazamientoY = new double[16];
+
+    /**
+     * Crea el diseño y arranca su hilo.
+     *
+     * @param csv Archivo de la red, junto al que se guardan las posiciones; null para no guardarlas
+     * @param hilos Hilos entre los que se reparte el cálculo de fuerzas
+     */
+    public DisenoFuerzas(File csv, int hilos) {
+        this.hilos = Math.max(1, hilos);
+        this.ayudantes = this.hilos > 1 ? Executors.newFixedThreadPool(this.hilos, r -> {
+            Thread t = new Thread(r, "diseño-fuerzas");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+        reiniciar(csv);
+        hilo = new Thread(this::ejecutar, "diseño-grafo");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Obtiene el archivo de posiciones de un CSV.
+     *
+     * @param csv Archivo de la red
+     * @return Archivo con el mismo nombre y la extensión {@value #EXTENSION} agregada
+     */
+    public static File archivoPara(File csv) {
+        return new File(csv.getPath() + EXTENSION);
+    }
+
+    /**
+     * Olvida la red actual y empieza una nueva, tomando las posiciones guardadas
+     * junto al CSV indicado para las proteínas que se agreguen después.
+     *
+     * @param csv Archivo de la red, o null para no leer ni guardar posiciones
+     */
+    public void reiniciar(File csv) {
+        encolar(new Cambio(Cambio.REINICIAR, null, null, false, csv));
+    }
+
+    /**
+     * Cambia el archivo junto al que se guardan las posiciones, sin reiniciar el diseño.
+     *
+     * @param csv Nuevo archivo de la red, o null para no guardarlas
+     */
+    public void setArchivo(File csv) {
+        archivo = csv;
+    }
+
+    /**
+     * Agrega una proteína. Si tiene una posición guardada la conserva; si no, se
+     * acomoda con las demás.
+     *
+     * @param nombre Nombre de la proteína
+     */
+    public void agregarProteina(String nombre) {
+        encolar(new Cambio(Cambio.PROTEINA_AGREGADA, nombre, null, true, null));
+    }
+
+    /**
+     * Elimina una proteína y sus interacciones del diseño.
+     *
+     * @param nombre Nombre de la proteína
+     */
+    public void eliminarProteina(String nombre) {
+        encolar(new Cambio(Cambio.PROTEINA_ELIMINADA, nombre, null, true, null));
+    }
+
+    /**
+     * Agrega una interacción.
+     *
+     * @param origen Proteína de origen
+     * @param destino Proteína de destino
+     * @param mover true si las dos proteínas deben acomodarse; false si la
+     *              interacción es parte del contenido inicial y ya estaba cuando se
+     *              guardaron las posiciones (mueve solo a las proteínas sin posición guardada)
+     */
+    public void agregarInteraccion(String origen, String destino, boolean mover) {
+        encolar(new Cambio(Cambio.INTERACCION_AGREGADA, origen, destino, mover, null));
+    }
+
+    /**
+     * Elimina una interacción.
+     *
+     * @param origen Proteína de origen
+     * @param destino Proteína de destino
+     */
+    public void eliminarInteraccion(String origen, String destino) {
+        encolar(new Cambio(Cambio.INTERACCION_ELIMINADA, origen, destino, true, null));
+    }
+
+    /**
+     * Obtiene las últimas posiciones publicadas.
+     *
+     * @return Posiciones, o null si todavía no terminó ninguna iteración
+     */
+    public Posiciones getPosiciones() {
+        return publicadas;
+    }
+
+    /**
+     * Detiene el diseño y guarda las posiciones si cambiaron.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        synchronized (this) {
+            notifyAll();
+        }
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ayudantes != null) ayudantes.shutdownNow();
+    }
+
+    private void encolar(Cambio c) {
+        cambios.add(c);
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    private void ejecutar() {
+        try {
+            while (!cerrado) {
+                boolean hubo = aplicarCambios();
+                if (moviles == 0) {
+                    // Sin nada que acomodar, las posiciones guardadas se publican tal cual
+                    if (hubo) publicar();
+                    if (sinGuardar) guardar();
+                    synchronized (this) {
+                        while (!cerrado && cambios.isEmpty()) {
+                            wait();
+                        }
+                    }
+                    continue;
+                }
+                iterar();
+                publicar();
+            }
+            if (sinGuardar) guardar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Aplica los cambios encolados.
+     *
+     * @return true si había alguno
+     */
+    private boolean aplicarCambios() {
+        Cambio c;
+        int antes = moviles;
+        boolean hubo = false;
+        while ((c = cambios.poll()) != null) {
+            hubo = true;
+            switch (c.tipo) {
+                case Cambio.REINICIAR:
+                    if (sinGuardar) guardar();
+                    indice.clear();
+                    Arrays.fill(nombres, 0, n, null);
+                    Arrays.fill(vecinos, 0, n, null);
+                    n = 0;
+                    moviles = 0;
+                    sinGuardar = false;
+                    archivo = c.archivo;
+                    guardadas = leer(c.archivo);
+                    publicadas = null;
+                    antes = 0;
+                    break;
+                case Cambio.PROTEINA_AGREGADA:
+                    agregar(c.origen);
+                    break;
+                case Cambio.PROTEINA_ELIMINADA:
+                    quitar(c.origen);
+                    break;
+                case Cambio.INTERACCION_AGREGADA:
+                    conectar(c.origen, c.destino, c.mover);
+                    break;
+                case Cambio.INTERACCION_ELIMINADA:
+                    desconectar(c.origen, c.destino);
+                    break;
+            }
+        }
+        if (moviles > antes) {
+            // Un diseño desde cero arranca caliente; unas pocas proteínas nuevas, tibio
+            double inicial = moviles > n / 2 ? Math.max(TEMPERATURA_LOCAL, Math.sqrt(n)) : TEMPERATURA_LOCAL;
+            temperatura = Math.max(temperatura, inicial);
+            iteraciones = 0;
+        }
+        return hubo;
+    }
+
+    private void agregar(String nombre) {
+        if (indice.containsKey(nombre)) return;
+        if (n == nombres.length) crecer(n * 2);
+        int i = n++;
+        indice.put(nombre, i);
+        nombres[i] = nombre;
+        vecinos[i] = new int[4];
+        grado[i] = 0;
+        float[] p = guardadas.get(nombre);
+        if (p != null) {
+            x[i] = p[0];
+            y[i] = p[1];
+            ubicada[i] = true;
+            movil[i] = false;
+        } else {
+            ubicada[i] = false;
+            movil[i] = true;
+            moviles++;
+        }
+        sinGuardar |= p == null;
+    }
+
+    private void quitar(String nombre) {
+        Integer pos = indice.remove(nombre);
+        if (pos == null) return;
+        int i = pos;
+        for (int k = 0; k < grado[i]; k++) {
+            int v = vecinos[i][k];
+            quitarVecino(v, i);
+            marcarMovil(v);
+        }
+        if (movil[i]) moviles--;
+        // La última proteína ocupa el lugar de la eliminada
+        int ultima = --n;
+        if (i != ultima) {
+            nombres[i] = nombres[ultima];
+            x[i] = x[ultima];
+            y[i] = y[ultima];
+            ubicada[i] = ubicada[ultima];
+            movil[i] = movil[ultima];
+            vecinos[i] = vecinos[ultima];
+            grado[i] = grado[ultima];
+            indice.put(nombres[i], i);
+            for (int k = 0; k < grado[i]; k++) {
+                int[] lista = vecinos[vecinos[i][k]];
+                for (int j = 0; j < grado[vecinos[i][k]]; j++) {
+                    if (lista[j] == ultima) lista[j] = i;
+                }
+            }
+        }
+        nombres[ultima] = null;
+        vecinos[ultima] = null;
+        sinGuardar = true;
+    }
+
+    private void conectar(String origen, String destino, boolean mover) {
+        Integer a = indice.get(origen);
+        Integer b = indice.get(destino);
+        if (a == null || b == null || a.equals(b)) return;
+        agregarVecino(a, b);
+        agregarVecino(b, a);
+        // Una interacción que ya estaba al guardar no mueve a las proteínas guardadas
+        if (mover || !guardadas.containsKey(origen)) marcarMovil(a);
+        if (mover || !guardadas.containsKey(destino)) marcarMovil(b);
+    }
+
+    private void desconectar(String origen, String destino) {
+        Integer a = indice.get(origen);
+        Integer b = indice.get(destino);
+        if (a == null || b == null) return;
+        quitarVecino(a, b);
+        quitarVecino(b, a);
+        marcarMovil(a);
+        marcarMovil(b);
+    }
+
+    private void agregarVecino(int i, int v) {
+        if (grado[i] == vecinos[i].length) {
+            vecinos[i] = Arrays.copyOf(vecinos[i], grado[i] * 2);
+        }
+        vecinos[i][grado[i]++] = v;
+    }
+
+    private void quitarVecino(int i, int v) {
+        int[] lista = vecinos[i];
+        for (int k = 0; k < grado[i]; k++) {
+            if (lista[k] == v) {
+                lista[k] = lista[--grado[i]];
+                return;
+            }
+        }
+    }
+
+    private void marcarMovil(int i) {
+        if (!movil[i]) {
+            movil[i] = true;
+            moviles++;
+        }
+    }
+
+    private void crecer(int capacidad) {
+        nombres = Arrays.copyOf(nombres, capacidad);
+        x = Arrays.copyOf(x, capacidad);
+        y = Arrays.copyOf(y, capacidad);
+        ubicada = Arrays.copyOf(ubicada, capacidad);
+        movil = Arrays.copyOf(movil, capacidad);
+        vecinos = Arrays.copyOf(vecinos, capacidad);
+        grado = Arrays.copyOf(grado, capacidad);
+    }
+
+    /**
+     * Ubica las proteínas nuevas, calcula las fuerzas sobre las móviles y las
+     * desplaza como mucho la temperatura actual, que baja en cada iteración.
+     * Cuando la temperatura se apaga todas vuelven a quedar fijas.
+     */
+    private void iterar() throws InterruptedException {
+        ubicarNuevas();
+        construirArbol();
+        if (listaMoviles.length < moviles) {
+            listaMoviles = new int[n];
+            desplazamientoX = new double[n];
+            desplazamientoY = new double[n];
+        }
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (movil[i]) listaMoviles[m++] = i;
+        }
+        calcularFuerzas(m);
+        for (int k = 0; k < m; k++) {
+            int i = listaMoviles[k];
+            double dx = desplazamientoX[k];
+            double dy = desplazamientoY[k];
+            double largo = Math.sqrt(dx * dx + dy * dy);
+            if (largo > 0) {
+                double paso = Math.min(largo, temperatura) / largo;
+                x[i] += dx * paso;
+                y[i] += dy * paso;
+            }
+        }
+        sinGuardar = true;
+        temperatura *= ENFRIAMIENTO;
+        if (++iteraciones >= MAX_ITERACIONES || temperatura < TEMPERATURA_MINIMA) {
+            Arrays.fill(movil, 0, n, false);
+            moviles = 0;
+            temperatura = 0;
+        }
+    }
+
+    /**
+     * Pone cada proteína sin posición cerca del centro de sus vecinas ya ubicadas o,
+     * si no tiene, en un lugar al azar dentro del área que ocupa la red.
+     */
+    private void ubicarNuevas() {
+        double radio = Math.sqrt(n) + 1;
+        for (int i = 0; i < n; i++) {
+            if (ubicada[i]) continue;
+            double sx = 0, sy = 0;
+            int k = 0;
+            for (int j = 0; j < grado[i]; j++) {
+                int v = vecinos[i][j];
+                if (ubicada[v]) {
+                    sx += x[v];
+                    sy += y[v];
+                    k++;
+                }
+            }
+            if (k > 0) {
+                x[i] = sx / k + azar.nextDouble() - 0.5;
+                y[i] = sy / k + azar.nextDouble() - 0.5;
+            } else {
+                x[i] = (azar.nextDouble() * 2 - 1) * radio;
+                y[i] = (azar.nextDouble() * 2 - 1) * radio;
+            }
+            ubicada[i] = true;
+        }
+    }
+
+    private void construirArbol() {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        celdas = 0;
+        nuevaCelda((minX + maxX) / 2, (minY + maxY) / 2,
+            Math.max(maxX - minX, maxY - minY) / 2 + 1e-6);
+        for (int i = 0; i < n; i++) {
+            insertar(i);
+        }
+    }
+
+    private int nuevaCelda(double cx, double cy, double m) {
+        if (celdas == masa.length) {
+            int c = celdas * 2;
+            masa = Arrays.copyOf(masa, c);
+            sumaX = Arrays.copyOf(sumaX, c);
+            sumaY = Arrays.copyOf(sumaY, c);
+            centroX = Arrays.copyOf(centroX, c);
+            centroY = Arrays.copyOf(centroY, c);
+            mitad = Arrays.copyOf(mitad, c);
+            hijos = Arrays.copyOf(hijos, c);
+            cuerpo = Arrays.copyOf(cuerpo, c);
+        }
+        int c = celdas++;
+        masa[c] = 0;
+        sumaX[c] = 0;
+        sumaY[c] = 0;
+        centroX[c] = cx;
+        centroY[c] = cy;
+        mitad[c] = m;
+        hijos[c] = -1;
+        cuerpo[c] = -1;
+        return c;
+    }
+
+    /**
+     * Inserta una proteína bajando desde la raíz. Una hoja ocupada se divide en
+     * cuatro y su proteína baja al cuadrante que le corresponde.
+     */
+    private void insertar(int i) {
+        int c = 0;
+        for (int profundidad = 0; ; profundidad++) {
+            masa[c]++;
+            sumaX[c] += x[i];
+            sumaY[c] += y[i];
+            if (hijos[c] < 0) {
+                if (cuerpo[c] < 0 && masa[c] == 1) {
+                    cuerpo[c] = i;
+                    return;
+                }
+                if (profundidad >= MAX_PROFUNDIDAD) return;
+                int otro = cuerpo[c];
+                cuerpo[c] = -1;
+                double m = mitad[c] / 2;
+                int primero = nuevaCelda(centroX[c] - m, centroY[c] - m, m);
+                nuevaCelda(centroX[c] + m, centroY[c] - m, m);
+                nuevaCelda(centroX[c] - m, centroY[c] + m, m);
+                nuevaCelda(centroX[c] + m, centroY[c] + m, m);
+                hijos[c] = primero;
+                int h = primero + cuadrante(c, x[otro], y[otro]);
+                masa[h] = 1;
+                sumaX[h] = x[otro];
+                sumaY[h] = y[otro];
+                cuerpo[h] = otro;
+            }
+            c = hijos[c] + cuadrante(c, x[i], y[i]);
+        }
+    }
+
+    private int cuadrante(int c, double px, double py) {
+        return (px >= centroX[c] ? 1 : 0) + (py >= centroY[c] ? 2 : 0);
+    }
+
+    private void calcularFuerzas(int m) throws InterruptedException {
+        if (ayudantes == null || m < 2 * TAMAÑO_TRAMO) {
+            calcularTramo(0, m, new int[4 * MAX_PROFUNDIDAD + 4]);
+            return;
+        }
+        List<Callable<Void>> tareas = new ArrayList<>();
+        for (int desde = 0; desde < m; desde += TAMAÑO_TRAMO) {
+            int inicio = desde, fin = Math.min(m, desde + TAMAÑO_TRAMO);
+            tareas.add(() -> {
+                calcularTramo(inicio, fin, new int[4 * MAX_PROFUNDIDAD + 4]);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> f : ayudantes.invokeAll(tareas)) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Calcula el desplazamiento de las proteínas móviles en [desde, hasta): repulsión
+     * del árbol, atracción de sus interacciones y gravedad hacia el origen.
+     */
+    private void calcularTramo(int desde, int hasta, int[] pila) {
+        for (int k = desde; k < hasta; k++) {
+            int i = listaMoviles[k];
+            double xi = x[i], yi = y[i];
+            double fx = 0, fy = 0;
+            int tope = 0;
+            pila[tope++] = 0;
+            while (tope > 0) {
+                int c = pila[--tope];
+                double mc = masa[c];
+                if (mc == 0) continue;
+                double dx = xi - sumaX[c] / mc;
+                double dy = yi - sumaY[c] / mc;
+                double d2 = dx * dx + dy * dy;
+                if (hijos[c] < 0) {
+                    if (cuerpo[c] == i && mc == 1) continue;
+                    if (d2 < 1e-12) continue;
+                } else {
+                    double lado = 2 * mitad[c];
+                    if (lado * lado >= THETA * THETA * d2) {
+                        pila[tope++] = hijos[c];
+                        pila[tope++] = hijos[c] + 1;
+                        pila[tope++] = hijos[c] + 2;
+                        pila[tope++] = hijos[c] + 3;
+                        continue;
+                    }
+                }
+                // Repulsión k²/d con k = 1, en la dirección que aleja de la masa
+                fx += mc * dx / d2;
+                fy += mc * dy / d2;
+            }
+            for (int j = 0; j < grado[i]; j++) {
+                int v = vecinos[i][j];
+                double dx = x[v] - xi;
+                double dy = y[v] - yi;
+                double d = Math.sqrt(dx * dx + dy * dy);
+                // Atracción d²/k hacia la vecina
+                fx += dx * d;
+                fy += dy * d;
+            }
+            double d = Math.sqrt(xi * xi + yi * yi);
+            fx -= GRAVEDAD * xi * d;
+            fy -= GRAVEDAD * yi * d;
+            desplazamientoX[k] = fx;
+            desplazamientoY[k] = fy;
+        }
+    }
+
+    private void publicar() {
+        String[] ns = Arrays.copyOf(nombres, n);
+        float[] px = new float[n];
+        float[] py = new float[n];
+        for (int i = 0; i < n; i++) {
+            px[i] = (float) x[i];
+            py[i] = (float) y[i];
+        }
+        publicadas = new Posiciones(ns, px, py, n);
+    }
+
+    /**
+     * Lee las posiciones guardadas junto a un CSV. Un archivo que falta o está
+     * dañado equivale a no tener posiciones.
+     */
+    private static HashMap<String, float[]> leer(File csv) {
+        HashMap<String, float[]> posiciones = new HashMap<>();
+        if (csv == null) return posiciones;
+        File f = archivoPara(csv);
+        if (!f.isFile()) return posiciones;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(f), 1 << 16))) {
+            byte[] firma = new byte[FIRMA.length];
+            in.readFully(firma);
+            if (!Arrays.equals(firma, FIRMA) || in.readInt() != VERSION) return posiciones;
+            int cantidad = in.readInt();
+            for (int i = 0; i < cantidad; i++) {
+                String nombre = in.readUTF();
+                posiciones.put(nombre, new float[] { in.readFloat(), in.readFloat() });
+            }
+        } catch (IOException e) {
+            posiciones.clear();
+        }
+        return posiciones;
+    }
+
+    /**
+     * Guarda las posiciones de todas las proteínas ubicadas, primero en un archivo
+     * temporal que después reemplaza al anterior.
+     */
+    private void guardar() {
+        sinGuardar = false;
+        File csv = archivo;
+        if (csv == null) return;
+        File destino = archivoPara(csv);
+        File temporal = new File(destino.getPath() + ".tmp");
+        try {
+            int cantidad = 0;
+            for (int i = 0; i < n; i++) {
+                if (ubicada[i]) cantidad++;
+            }
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temporal), 1 << 16))) {
+                out.write(FIRMA);
+                out.writeInt(VERSION);
+                out.writeInt(cantidad);
+                for (int i = 0; i < n; i++) {
+                    if (!ubicada[i]) continue;
+                    out.writeUTF(nombres[i]);
+                    out.writeFloat((float) x[i]);
+                    out.writeFloat((float) y[i]);
+                }
+            }
+            Path origen = temporal.toPath();
+            try {
+                Files.move(origen, destino.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(origen, destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // Las posiciones son solo un atajo: si no se pueden guardar, la próxima vez
+            // se recalculan, así que el error no se informa
+            temporal.delete();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package estructuras;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de JDK Flight Recorder emitido por cada ejecución de un algoritmo del Grafo.
+ * Permite correlacionar en JMC las consultas lentas con la actividad del GC.
+ * Con la grabación apagada el evento no se confirma y los campos no se llenan.
+ */
+@Name("biograph.Algoritmo")
+@Label("Algoritmo del grafo")
+@Category({"BioGraph", "Algoritmos"})
+@Description("Ejecución de un algoritmo sobre el grafo de interacciones")
+public class EventoAlgoritmo extends Event {
+
+    @Label("Algoritmo")
+    String algoritmo;
+
+    @Label("Proteínas")
+    int proteinas;
+
+    @Label("Interacciones")
+    int interacciones;
+
+    @Label("Origen")
+    String origen;
+
+    @Label("Destino")
+    String destino;
+
+    @Label("Nodos visitados")
+    long nodosVisitados;
+
+    /**
+     * Termina el evento y lo confirma si la grabación lo pide.
+     *
+     * @param algoritmo Nombre del algoritmo
+     * @param proteinas Proteínas del grafo
+     * @param interacciones Interacciones del grafo
+     * @param origen Proteína de origen, o null si el algoritmo no la usa
+     * @param destino Proteína de destino, o null si el algoritmo no la usa
+     * @param nodosVisitados Nodos visitados por el algoritmo
+     */
+    void terminar(String algoritmo, int proteinas, int interacciones,
+                  String origen, String destino, long nodosVisitados) {
+        end();
+        if (shouldCommit()) {
+            this.algoritmo = algoritmo;
+            this.proteinas = proteinas;
+            this.interacciones = interacciones;
+            this.origen = origen;
+            this.destino = destino;
+            this.nodosVisitados = nodosVisitados;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package estructuras;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de JDK Flight Recorder emitido al cargar o guardar un archivo de interacciones.
+ * Con la grabación apagada el evento no se confirma y los campos no se llenan.
+ */
+@Name("biograph.Archivo")
+@Label("Archivo de interacciones")
+@Category({"BioGraph", "E/S"})
+@Description("Carga o guardado de un archivo de interacciones")
+public class EventoArchivo extends Event {
+
+    @Label("Operación")
+    String operacion;
+
+    @Label("Ruta")
+    String ruta;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Líneas")
+    long lineas;
+
+    @Label("Proteínas")
+    int proteinas;
+
+    @Label("Interacciones")
+    int interacciones;
+
+    /**
+     * Termina el evento y lo confirma si la grabación lo pide.
+     *
+     * @param operacion "carga" o "guardado"
+     * @param ruta Ruta del archivo
+     * @param bytes Bytes leídos o escritos
+     * @param lineas Líneas leídas o escritas
+     * @param grafo Grafo cargado o guardado
+     */
+    void terminar(String operacion, String ruta, long bytes, long lineas, Grafo grafo) {
+        end();
+        if (shouldCommit()) {
+            this.operacion = operacion;
+            this.ruta = ruta;
+            this.bytes = bytes;
+            this.lineas = lineas;
+            this.proteinas = grafo.getNumProteinas();
+            this.interacciones = grafo.getNumInteracciones();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package estructuras;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Descripción de un archivo de interacciones con muchas columnas: qué columnas
+ * tienen los dos interactores y el puntaje, cómo convertir el puntaje en peso y
+ * qué puntaje mínimo exigir. El lector solo examina esas columnas; las demás se
+ * saltan sin convertirlas en texto.
+ *
+ * Los formatos predefinidos cubren STRING (protein.links), BioGRID TAB3 y
+ * PSI-MITAB. Cada uno trae las posiciones estándar de sus columnas y, además,
+ * sus nombres: si el archivo tiene encabezado, las columnas se buscan por nombre,
+ * así que también sirven las variantes con más columnas (por ejemplo
+ * protein.links.detailed). Los métodos "con..." devuelven una copia modificada.
+ */
+public final class FormatoInteracciones {
+    /** Interacciones de STRING: "protein1 protein2 combined_score", puntaje de 0 a 1000 */
+    public static final FormatoInteracciones STRING = new FormatoInteracciones(
+        "STRING", (byte) ' ', 0, 1, 2, "protein1", "protein2", "combined_score",
+        1.0 / 1000, true, (byte) 0, false, null);
+    /** BioGRID TAB3: símbolos oficiales de los interactores y la columna "Score" */
+    public static final FormatoInteracciones BIOGRID_TAB3 = new FormatoInteracciones(
+        "BioGRID TAB3", (byte) '\t', 7, 8, 18, "Official Symbol Interactor A",
+        "Official Symbol Interactor B", "Score", 1.0, false, (byte) '#', false, null);
+    /** PSI-MITAB 2.5 o posterior: identificadores "base:id" y el intact-miscore como puntaje */
+    public static final FormatoInteracciones PSI_MITAB = new FormatoInteracciones(
+        "PSI-MITAB", (byte) '\t', 0, 1, 14, "ID(s) interactor A", "ID(s) interactor B",
+        "Confidence value(s)", 1.0, false, (byte) '#', true, "intact-miscore");
+
+    final String nombre;
+    final byte separador;
+    final int columnaOrigen;
+    final int columnaDestino;
+    /** Columna del puntaje, o -1 para dar peso 1.0 a todas las interacciones */
+    final int columnaPuntaje;
+    final String nombreOrigen;
+    final String nombreDestino;
+    final String nombrePuntaje;
+    /** Factor por el que se multiplica el puntaje para obtener el peso */
+    final double escala;
+    /** Puntaje mínimo, en las unidades del archivo; NaN si no hay umbral */
+    final double umbral;
+    /** Si la primera línea es siempre un encabezado */
+    final boolean encabezado;
+    /** Byte con el que empiezan los comentarios y encabezados, o 0 */
+    final byte comentario;
+    /** Si los campos tienen la forma "base:valor|base:valor" de PSI-MITAB */
+    final boolean mitab;
+    /** Etiqueta del puntaje dentro del campo de confianza de PSI-MITAB, o null */
+    final byte[] etiquetaPuntaje;
+
+    private FormatoInteracciones(String nombre, byte separador, int columnaOrigen,
+                                 int columnaDestino, int columnaPuntaje, String nombreOrigen,
+                                 String nombreDestino, String nombrePuntaje, double escala,
+                                 boolean encabezado, byte comentario, boolean mitab,
+                                 String etiquetaPuntaje) {
+        this(nombre, separador, columnaOrigen, columnaDestino, columnaPuntaje, nombreOrigen,
+            nombreDestino, nombrePuntaje, escala, Double.NaN, encabezado, comentario, mitab,
+            etiquetaPuntaje == null ? null : etiquetaPuntaje.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private FormatoInteracciones(String nombre, byte separador, int columnaOrigen,
+                                 int columnaDestino, int columnaPuntaje, String nombreOrigen,
+                                 String nombreDestino, String nombrePuntaje, double escala,
+                                 double umbral, boolean encabezado, byte comentario,
+                                 boolean mitab, byte[] etiquetaPuntaje) {
+        this.nombre = nombre;
+        this.separador = separador;
+        this.columnaOrigen = columnaOrigen;
+        this.columnaDestino = columnaDestino;
+        this.columnaPuntaje = columnaPuntaje;
+        this.nombreOrigen = nombreOrigen;
+        this.nombreDestino = nombreDestino;
+        this.nombrePuntaje = nombrePuntaje;
+        this.escala = escala;
+        this.umbral = umbral;
+        this.encabezado = encabezado;
+        this.comentario = comentario;
+        this.mitab = mitab;
+        this.etiquetaPuntaje = etiquetaPuntaje;
+    }
+
+    /**
+     * Devuelve una copia que descarta las interacciones con puntaje menor al umbral.
+     * Con umbral, las interacciones sin puntaje también se descartan.
+     *
+     * @param umbral Puntaje mínimo en las unidades del archivo (por ejemplo 700 en STRING)
+     * @return Formato con el umbral indicado
+     */
+    public FormatoInteracciones conUmbral(double umbral) {
+        return new FormatoInteracciones(nombre, separador, columnaOrigen, columnaDestino,
+            columnaPuntaje, nombreOrigen, nombreDestino, nombrePuntaje, escala, umbral,
+            encabezado, comentario, mitab, etiquetaPuntaje);
+    }
+
+    /**
+     * Devuelve una copia que toma el puntaje de otra columna.
+     *
+     * @param columna Posición de la columna, desde 0, o -1 para usar peso 1.0
+     * @param escala Factor que convierte el puntaje en peso
+     * @return Formato con la columna de puntaje indicada
+     */
+    public FormatoInteracciones conPuntaje(int columna, double escala) {
+        return new FormatoInteracciones(nombre, separador, columnaOrigen, columnaDestino,
+            columna, nombreOrigen, nombreDestino, null, escala, umbral, encabezado,
+            comentario, mitab, etiquetaPuntaje);
+    }
+
+    /**
+     * Devuelve una copia que toma el puntaje de la columna con ese nombre en el encabezado.
+     * Si el archivo no tiene encabezado se usa la columna estándar del formato.
+     *
+     * @param columna Nombre de la columna (por ejemplo "experiments" en STRING detallado)
+     * @param escala Factor que convierte el puntaje en peso
+     * @return Formato con la columna de puntaje indicada
+     */
+    public FormatoInteracciones conPuntaje(String columna, double escala) {
+        return new FormatoInteracciones(nombre, separador, columnaOrigen, columnaDestino,
+            columnaPuntaje, nombreOrigen, nombreDestino, columna, escala, umbral, encabezado,
+            comentario, mitab, etiquetaPuntaje);
+    }
+
+    /**
+     * Devuelve una copia que toma el puntaje de la columna indicada como texto, tal
+     * como se escribe en la línea de comandos o en el diálogo de carga. Conserva la
+     * escala del formato.
+     *
+     * @param columna Nombre de la columna en el encabezado, o su posición desde 0
+     * @return Formato con la columna de puntaje indicada
+     * @throws IllegalArgumentException si la columna está vacía
+     */
+    public FormatoInteracciones conPuntaje(String columna) {
+        String c = columna.trim();
+        if (c.isEmpty()) throw new IllegalArgumentException("Falta la columna de puntaje");
+        for (int i = 0; i < c.length(); i++) {
+            if (!Character.isDigit(c.charAt(i))) return conPuntaje(c, escala);
+        }
+        return conPuntaje(Integer.parseInt(c), escala);
+    }
+
+    /**
+     * Obtiene el nombre de la columna de puntaje, o su posición si no se busca por nombre.
+     *
+     * @return Nombre o posición (desde 0) de la columna, o null si no hay puntaje
+     */
+    public String getColumnaPuntaje() {
+        if (nombrePuntaje != null) return nombrePuntaje;
+        return columnaPuntaje >= 0 ? String.valueOf(columnaPuntaje) : null;
+    }
+
+    /**
+     * Obtiene el nombre del formato.
+     *
+     * @return Nombre legible
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Obtiene el puntaje mínimo.
+     *
+     * @return Umbral en las unidades del archivo, o NaN si no hay
+     */
+    public double getUmbral() {
+        return umbral;
+    }
+
+    /**
+     * Reconoce el formato por el nombre con que se distribuyen los archivos:
+     * "*.protein.links*" (STRING), "*.tab3*" (BioGRID) y "*.mitab*" (PSI-MITAB).
+     * Los nombres terminados en .csv o .tsv (con o sin .gz) son siempre de tres
+     * columnas, aunque contengan esas palabras.
+     *
+     * @param archivo Archivo de interacciones
+     * @return Formato reconocido, o null si es un CSV de tres columnas
+     */
+    public static FormatoInteracciones detectar(File archivo) {
+        String n = archivo.getName().toLowerCase();
+        if (n.endsWith(CompresionGzip.EXTENSION)) {
+            n = n.substring(0, n.length() - CompresionGzip.EXTENSION.length());
+        }
+        if (n.endsWith(".csv") || n.endsWith(".tsv")) return null;
+        if (n.contains("protein.links")) return STRING;
+        if (n.contains(".tab3")) return BIOGRID_TAB3;
+        if (n.contains("mitab")) return PSI_MITAB;
+        return null;
+    }
+
+    /**
+     * Obtiene un formato por su nombre corto.
+     *
+     * @param nombre "string", "biogrid" o "mitab"
+     * @return Formato correspondiente
+     * @throws IllegalArgumentException si el nombre no corresponde a ningún formato
+     */
+    public static FormatoInteracciones porNombre(String nombre) {
+        switch (nombre.toLowerCase()) {
+            case "string": return STRING;
+            case "biogrid": return BIOGRID_TAB3;
+            case "mitab": return PSI_MITAB;
+            default: throw new IllegalArgumentException("Formato desconocido: " + nombre);
+        }
+    }
+
+    /**
+     * Indica si alguna columna se busca por nombre y hace falta leer el encabezado.
+     */
+    boolean usaNombres() {
+        return nombreOrigen != null || nombreDestino != null || nombrePuntaje != null;
+    }
+
+    /**
+     * Devuelve una copia con las columnas ubicadas según el encabezado. Los nombres
+     * que no aparecen conservan su posición; si la línea no es un encabezado del
+     * formato, el formato se devuelve sin cambios.
+     *
+     * @param linea Primera línea del archivo
+     */
+    FormatoInteracciones resolver(String linea) {
+        if (linea == null) return this;
+        boolean esComentario = comentario != 0 && !linea.isEmpty() && linea.charAt(0) == comentario;
+        if (!encabezado && !esComentario) return this;
+        if (esComentario) linea = linea.substring(1);
+        // Igual que ParserCSV: cada separador cierra un campo, aunque quede vacío
+        String[] columnas = linea.split(Pattern.quote(String.valueOf((char) separador)), -1);
+        int origen = buscarColumna(columnas, nombreOrigen, columnaOrigen);
+        int destino = buscarColumna(columnas, nombreDestino, columnaDestino);
+        int puntaje = buscarColumna(columnas, nombrePuntaje, columnaPuntaje);
+        return new FormatoInteracciones(nombre, separador, origen, destino, puntaje, null,
+            null, null, escala, umbral, encabezado, comentario, mitab, etiquetaPuntaje);
+    }
+
+    private static int buscarColumna(String[] columnas, String nombre, int porDefecto) {
+        if (nombre == null) return porDefecto;
+        for (int i = 0; i < columnas.length; i++) {
+            if (columnas[i].trim().equalsIgnoreCase(nombre)) return i;
+        }
+        return porDefecto;
+    }
+
+    @Override
+    public String toString() {
+        return nombre + (Double.isNaN(umbral) ? "" : " (puntaje >= " + umbral + ")");
+    }
+}
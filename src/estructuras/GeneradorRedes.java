@@ -0,0 +1,406 @@
+package estructuras;
+
+import java.io.*;
+import java.util.SplittableRandom;
+
+/**
+ * Generador de redes PPI sintéticas para pruebas de carga y escalabilidad.
+ * Ofrece tres modelos: Barabási–Albert (libre de escala), duplicación-divergencia
+ * (evolución por duplicación de genes) y bloques estocásticos (complejos densos
+ * poco conectados entre sí). Los pesos siguen una distribución log-normal.
+ *
+ * Las aristas se emiten en flujo hacia un Destino a medida que se generan, de modo
+ * que un CSV de decenas de millones de aristas no se guarda nunca en memoria: solo
+ * se mantienen arreglos de enteros por proteína (y, en Barabási–Albert y
+ * duplicación-divergencia, dos enteros por arista). Con la misma semilla se
+ * obtiene exactamente la misma red.
+ *
+ * Uso: java -cp ProyectoBiograph.jar estructuras.GeneradorRedes (ba|dd|sbm) proteinas salida.csv
+ *      [--semilla s] [--m 3] [--retencion 0.4] [--enlace 0.3]
+ *      [--bloques 100] [--pIntra 0.3] [--pInter 0.0001] [--mu 0] [--sigma 0.5]
+ */
+public class GeneradorRedes {
+
+    /**
+     * Receptor de la red generada.
+     */
+    public interface Destino {
+        /**
+         * Recibe una proteína nueva, antes que cualquiera de sus interacciones.
+         *
+         * @param nombre Nombre de la proteína
+         * @throws IOException si falla la escritura
+         */
+        void proteina(String nombre) throws IOException;
+
+        /**
+         * Recibe una interacción nueva. Nunca se repite un par ni se emiten lazos.
+         *
+         * @param origen Proteína de origen
+         * @param destino Proteína de destino
+         * @param peso Peso de la interacción
+         * @throws IOException si falla la escritura
+         */
+        void interaccion(String origen, String destino, double peso) throws IOException;
+    }
+
+    private final SplittableRandom rnd;
+    private final double mu;
+    private final double sigma;
+    private final String prefijo;
+
+    /**
+     * Constructor del generador.
+     *
+     * @param semilla Semilla del generador aleatorio
+     * @param mu Media del logaritmo de los pesos
+     * @param sigma Desviación del logaritmo de los pesos
+     * @param prefijo Prefijo de los nombres de proteína (por ejemplo "P")
+     */
+    public GeneradorRedes(long semilla, double mu, double sigma, String prefijo) {
+        this.rnd = new SplittableRandom(semilla);
+        this.mu = mu;
+        this.sigma = sigma;
+        this.prefijo = prefijo;
+    }
+
+    /**
+     * Destino que agrega la red a un Grafo.
+     *
+     * @param grafo Grafo donde agregar proteínas e interacciones
+     * @return Destino hacia el grafo
+     */
+    public static Destino haciaGrafo(Grafo grafo) {
+        return new Destino() {
+            @Override
+            public void proteina(String nombre) {
+                grafo.agregarProteina(nombre);
+            }
+
+            @Override
+            public void interaccion(String origen, String destino, double peso) {
+                grafo.agregarInteraccion(origen, destino, peso);
+            }
+        };
+    }
+
+    /**
+     * Destino que escribe la red como CSV en el formato de ArchivoCSV.
+     * Escribe el encabezado de inmediato; el llamador debe cerrar el Writer.
+     *
+     * @param salida Writer de destino (se recomienda con buffer)
+     * @return Destino hacia el CSV
+     * @throws IOException si falla la escritura del encabezado
+     */
+    public static Destino haciaCSV(Writer salida) throws IOException {
+        salida.write(ArchivoCSV.ENCABEZADO);
+        salida.write('\n');
+        return new Destino() {
+            @Override
+            public void proteina(String nombre) {
+                // En el CSV las proteínas aparecen a través de sus interacciones
+            }
+
+            @Override
+            public void interaccion(String origen, String destino, double peso) throws IOException {
+                salida.write(origen);
+                salida.write(',');
+                salida.write(destino);
+                salida.write(',');
+                salida.write(Double.toString(peso));
+                salida.write('\n');
+            }
+        };
+    }
+
+    /**
+     * Modelo de Barabási–Albert: cada proteína nueva se conecta con m proteínas
+     * existentes elegidas con probabilidad proporcional a su grado.
+     *
+     * @param n Número de proteínas
+     * @param m Interacciones de cada proteína nueva
+     * @param destino Receptor de la red
+     * @return Número de interacciones generadas
+     * @throws IOException si falla el destino
+     */
+    public long barabasiAlbert(int n, int m, Destino destino) throws IOException {
+        if (m < 1 || n <= m) {
+            throw new IllegalArgumentException("Se requiere 1 <= m < n");
+        }
+        // Cada arista aparece dos veces: elegir una posición al azar es elegir por grado
+        long totalAristas = (long) m * (m + 1) / 2 + (long) (n - m - 1) * m;
+        if (2 * totalAristas > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Red demasiado grande para el modelo en memoria");
+        }
+        int[] extremos = new int[(int) (2 * totalAristas)];
+        int usados = 0;
+        long aristas = 0;
+
+        // Núcleo inicial: clique de m + 1 proteínas
+        for (int i = 0; i <= m; i++) {
+            destino.proteina(nombre(i));
+            for (int j = 0; j < i; j++) {
+                destino.interaccion(nombre(i), nombre(j), peso());
+                extremos[usados++] = i;
+                extremos[usados++] = j;
+                aristas++;
+            }
+        }
+
+        int[] elegidos = new int[m];
+        for (int v = m + 1; v < n; v++) {
+            destino.proteina(nombre(v));
+            int k = 0;
+            while (k < m) {
+                int candidato = extremos[rnd.nextInt(usados)];
+                if (!contiene(elegidos, k, candidato)) {
+                    elegidos[k++] = candidato;
+                }
+            }
+            for (int i = 0; i < m; i++) {
+                destino.interaccion(nombre(v), nombre(elegidos[i]), peso());
+                extremos[usados++] = v;
+                extremos[usados++] = elegidos[i];
+                aristas++;
+            }
+        }
+        return aristas;
+    }
+
+    /**
+     * Modelo de duplicación-divergencia: cada proteína nueva copia a una existente,
+     * conserva cada interacción de la copia con probabilidad retencion y se enlaza
+     * con la original con probabilidad enlace. Si no conserva ninguna interacción
+     * se enlaza con la original para no dejar proteínas aisladas.
+     *
+     * @param n Número de proteínas
+     * @param retencion Probabilidad de conservar cada interacción copiada
+     * @param enlace Probabilidad de enlazar la copia con la original
+     * @param destino Receptor de la red
+     * @return Número de interacciones generadas
+     * @throws IOException si falla el destino
+     */
+    public long duplicacionDivergencia(int n, double retencion, double enlace, Destino destino)
+            throws IOException {
+        if (n < 2) {
+            throw new IllegalArgumentException("Se requieren al menos 2 proteínas");
+        }
+        int[][] vecinos = new int[n][];
+        int[] grado = new int[n];
+        long aristas = 0;
+
+        destino.proteina(nombre(0));
+        destino.proteina(nombre(1));
+        vecinos[0] = new int[4];
+        vecinos[1] = new int[4];
+        conectar(vecinos, grado, 0, 1);
+        destino.interaccion(nombre(1), nombre(0), peso());
+        aristas++;
+
+        for (int v = 2; v < n; v++) {
+            destino.proteina(nombre(v));
+            int u = rnd.nextInt(v);
+            vecinos[v] = new int[4];
+            int gradoOriginal = grado[u];
+            for (int i = 0; i < gradoOriginal; i++) {
+                if (rnd.nextDouble() < retencion) {
+                    int w = vecinos[u][i];
+                    conectar(vecinos, grado, v, w);
+                    destino.interaccion(nombre(v), nombre(w), peso());
+                    aristas++;
+                }
+            }
+            if (grado[v] == 0 || rnd.nextDouble() < enlace) {
+                conectar(vecinos, grado, v, u);
+                destino.interaccion(nombre(v), nombre(u), peso());
+                aristas++;
+            }
+        }
+        return aristas;
+    }
+
+    /**
+     * Modelo de bloques estocásticos: las proteínas se dividen en bloques
+     * (complejos) y cada par se conecta con probabilidad pIntra si está en el mismo
+     * bloque o pInter si no. Los pares se recorren saltando geométricamente
+     * (Batagelj–Brandes), así que el costo es proporcional a las aristas generadas
+     * y la memoria no crece con la red.
+     *
+     * @param tamaños Tamaño de cada bloque
+     * @param pIntra Probabilidad de interacción dentro de un bloque
+     * @param pInter Probabilidad de interacción entre bloques
+     * @param destino Receptor de la red
+     * @return Número de interacciones generadas
+     * @throws IOException si falla el destino
+     */
+    public long bloquesEstocasticos(int[] tamaños, double pIntra, double pInter, Destino destino)
+            throws IOException {
+        int[] inicio = new int[tamaños.length + 1];
+        for (int b = 0; b < tamaños.length; b++) {
+            inicio[b + 1] = inicio[b] + tamaños[b];
+        }
+        for (int v = 0; v < inicio[tamaños.length]; v++) {
+            destino.proteina(nombre(v));
+        }
+
+        long aristas = 0;
+        for (int a = 0; a < tamaños.length; a++) {
+            aristas += paresDentro(inicio[a], tamaños[a], pIntra, destino);
+            for (int b = a + 1; b < tamaños.length; b++) {
+                aristas += paresEntre(inicio[a], tamaños[a], inicio[b], tamaños[b], pInter, destino);
+            }
+        }
+        return aristas;
+    }
+
+    /**
+     * Pares (i, j) con j &lt; i dentro de un bloque, recorridos por filas.
+     */
+    private long paresDentro(int base, int s, double p, Destino destino) throws IOException {
+        if (p <= 0 || s < 2) return 0;
+        long aristas = 0;
+        int i = 1;
+        long j = -1;
+        while (i < s) {
+            j += 1 + salto(p);
+            while (j >= i && i < s) {
+                j -= i;
+                i++;
+            }
+            if (i < s) {
+                destino.interaccion(nombre(base + i), nombre(base + (int) j), peso());
+                aristas++;
+            }
+        }
+        return aristas;
+    }
+
+    /**
+     * Pares (i, j) entre dos bloques distintos, recorridos como una matriz sa x sb.
+     */
+    private long paresEntre(int baseA, int sa, int baseB, int sb, double p, Destino destino)
+            throws IOException {
+        if (p <= 0 || sa == 0 || sb == 0) return 0;
+        long aristas = 0;
+        long total = (long) sa * sb;
+        long k = -1;
+        while (true) {
+            k += 1 + salto(p);
+            if (k >= total) break;
+            destino.interaccion(nombre(baseA + (int) (k / sb)), nombre(baseB + (int) (k % sb)), peso());
+            aristas++;
+        }
+        return aristas;
+    }
+
+    /**
+     * Número de pares que se omiten antes del siguiente éxito (distribución geométrica).
+     */
+    private long salto(double p) {
+        if (p >= 1) return 0;
+        double u = 1.0 - rnd.nextDouble(); // en (0, 1]
+        return (long) Math.floor(Math.log(u) / Math.log(1.0 - p));
+    }
+
+    private double peso() {
+        return Math.exp(mu + sigma * rnd.nextGaussian());
+    }
+
+    private String nombre(int id) {
+        return prefijo + id;
+    }
+
+    private static boolean contiene(int[] arreglo, int hasta, int valor) {
+        for (int i = 0; i < hasta; i++) {
+            if (arreglo[i] == valor) return true;
+        }
+        return false;
+    }
+
+    private static void conectar(int[][] vecinos, int[] grado, int a, int b) {
+        agregarVecino(vecinos, grado, a, b);
+        agregarVecino(vecinos, grado, b, a);
+    }
+
+    private static void agregarVecino(int[][] vecinos, int[] grado, int a, int b) {
+        if (grado[a] == vecinos[a].length) {
+            int[] mayor = new int[vecinos[a].length * 2];
+            System.arraycopy(vecinos[a], 0, mayor, 0, grado[a]);
+            vecinos[a] = mayor;
+        }
+        vecinos[a][grado[a]++] = b;
+    }
+
+    /**
+     * Genera una red y la escribe como CSV.
+     *
+     * @param args Argumentos de la línea de comandos (ver la documentación de la clase)
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Uso: GeneradorRedes (ba|dd|sbm) proteinas salida.csv [opciones]");
+            System.exit(1);
+        }
+        String modelo = args[0];
+        long semilla = 42;
+        int m = 3;
+        double retencion = 0.4;
+        double enlace = 0.3;
+        int bloques = 100;
+        double pIntra = 0.3;
+        double pInter = 0.0001;
+        double mu = 0;
+        double sigma = 0.5;
+
+        try {
+            int n = Integer.parseInt(args[1]);
+            File archivo = new File(args[2]);
+            for (int i = 3; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--semilla": semilla = Long.parseLong(args[++i]); break;
+                    case "--m": m = Integer.parseInt(args[++i]); break;
+                    case "--retencion": retencion = Double.parseDouble(args[++i]); break;
+                    case "--enlace": enlace = Double.parseDouble(args[++i]); break;
+                    case "--bloques": bloques = Integer.parseInt(args[++i]); break;
+                    case "--pIntra": pIntra = Double.parseDouble(args[++i]); break;
+                    case "--pInter": pInter = Double.parseDouble(args[++i]); break;
+                    case "--mu": mu = Double.parseDouble(args[++i]); break;
+                    case "--sigma": sigma = Double.parseDouble(args[++i]); break;
+                    default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                }
+            }
+
+            GeneradorRedes generador = new GeneradorRedes(semilla, mu, sigma, "P");
+            long inicio = System.nanoTime();
+            long aristas;
+            try (Writer w = new BufferedWriter(new FileWriter(archivo), 1 << 20)) {
+                Destino destino = haciaCSV(w);
+                switch (modelo) {
+                    case "ba":
+                        aristas = generador.barabasiAlbert(n, m, destino);
+                        break;
+                    case "dd":
+                        aristas = generador.duplicacionDivergencia(n, retencion, enlace, destino);
+                        break;
+                    case "sbm":
+                        int[] tamaños = new int[bloques];
+                        for (int b = 0; b < bloques; b++) {
+                            tamaños[b] = n / bloques + (b < n % bloques ? 1 : 0);
+                        }
+                        aristas = generador.bloquesEstocasticos(tamaños, pIntra, pInter, destino);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Modelo desconocido: " + modelo);
+                }
+            }
+            System.out.printf("%s: %d proteínas, %d interacciones en %.1f s%n",
+                archivo.getName(), n, aristas, (System.nanoTime() - inicio) / 1e9);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Argumentos inválidos: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+}
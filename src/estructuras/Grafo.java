@@ -4,15 +4,49 @@
  */
 package estructuras;
 
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+
 /**
  * Grafo de interacciones proteína-proteína (PPI).
  * Implementa un grafo no dirigido usando listas de adyacencia.
  * Proporciona algoritmos para análisis de redes biológicas: BFS, Dijkstra y centralidad de grado.
  * 
+ * Además de las listas, mantiene un diccionario de nombres a identificadores, un
+ * conjunto de aristas y las interacciones de cada proteína por identificador, para
+ * que verificar si una proteína o una interacción ya existe, o buscar las
+ * interacciones de una proteína, no requiera recorrer las listas.
+ * 
+ * Es seguro para uso concurrente: las mutaciones toman el cerrojo de escritura,
+ * las consultas de tiempo constante usan lecturas optimistas que se validan y
+ * reintentan, y las demás consultas se ejecutan bajo el cerrojo de lectura.
+ * 
+ * Los algoritmos revisan la interrupción del hilo que los ejecuta: si el hilo
+ * se interrumpe, abandonan el cálculo lanzando CancellationException.
+ * 
+ * Las mutaciones se avisan, en orden, a los OyenteMutaciones registrados.
  */
 public class Grafo {
+    /** Lecturas optimistas que se intentan antes de tomar el cerrojo de lectura */
+    private static final int INTENTOS_OPTIMISTAS = 3;
+    /** Distancia provisoria de vecindario para las proteínas que alcanza el salto en curso */
+    private static final int CANDIDATA = -2;
+    
     private Lista<String> proteinas;
     private Lista<Proteinas> interacciones;
+    /** Identificador de cada proteína del grafo */
+    private final DiccionarioProteinas indice = new DiccionarioProteinas();
+    /** Claves de las interacciones del grafo, por identificador de sus extremos */
+    private final ConjuntoAristas claves = new ConjuntoAristas();
+    /** Interacciones de cada proteína, por identificador */
+    private final ListasAdyacencia listas = new ListasAdyacencia();
+    /** Índice por prefijo de los nombres; null si cambiaron las proteínas desde que se armó */
+    private volatile IndicePrefijos indicePrefijos;
+    private final StampedLock cerrojo = new StampedLock();
+    /** Oyentes registrados; el arreglo se reemplaza entero al agregar o quitar uno */
+    private volatile OyenteMutaciones[] oyentes = new OyenteMutaciones[0];
     
     /**
      * Constructor que crea un grafo vacío.
@@ -30,11 +64,24 @@ public class Grafo {
      * @return true si se agregó correctamente, false si ya existía
      */
     public boolean agregarProteina(String nombre) {
-        if (!proteinas.contiene(nombre)) {
-            proteinas.agregar(nombre);
-            return true;
+        long inicio = Metricas.MUTACION.iniciar();
+        long sello = cerrojo.writeLock();
+        try {
+            if (indice.idDe(nombre) < 0) {
+                indice.agregar(nombre);
+                proteinas.agregar(nombre);
+                indicePrefijos = null;
+                Metricas.PROTEINAS_AGREGADAS.incrementar();
+                for (OyenteMutaciones oyente : oyentes) {
+                    oyente.proteinaAgregada(nombre);
+                }
+                return true;
+            }
+            return false;
+        } finally {
+            cerrojo.unlockWrite(sello);
+            Metricas.MUTACION.detener(inicio);
         }
-        return false;
     }
     
     /**
@@ -44,25 +91,38 @@ public class Grafo {
      * @return true si se eliminó correctamente, false si no existía
      */
     public boolean eliminarProteina(String nombre) {
-        if (proteinas.eliminar(nombre)) {
-            // Eliminar interacciones asociadas
-            Lista<Proteinas> aEliminar = new Lista<>();
-            for (int i = 0; i < interacciones.getTamaño(); i++) {
-                Proteinas a = interacciones.obtener(i);
-                if (a.getOrigen().equals(nombre) || a.getDestino().equals(nombre)) {
-                    aEliminar.agregar(a);
+        long inicio = Metricas.MUTACION.iniciar();
+        long sello = cerrojo.writeLock();
+        try {
+            int id = indice.idDe(nombre);
+            if (id >= 0) {
+                proteinas.eliminar(nombre);
+                // Eliminar interacciones asociadas
+                int grado = listas.grado(id);
+                for (int k = 0; k < grado; k++) {
+                    interacciones.eliminar(listas.arista(id, k));
+                    claves.eliminar(ConjuntoAristas.clave(id, listas.vecino(id, k)));
                 }
+                listas.quitarProteina(id);
+                indice.eliminar(nombre);
+                indicePrefijos = null;
+                Metricas.PROTEINAS_ELIMINADAS.incrementar();
+                Metricas.INTERACCIONES_ELIMINADAS.sumar(grado);
+                for (OyenteMutaciones oyente : oyentes) {
+                    oyente.proteinaEliminada(nombre);
+                }
+                return true;
             }
-            for (int i = 0; i < aEliminar.getTamaño(); i++) {
-                interacciones.eliminar(aEliminar.obtener(i));
-            }
-            return true;
+            return false;
+        } finally {
+            cerrojo.unlockWrite(sello);
+            Metricas.MUTACION.detener(inicio);
         }
-        return false;
     }
     
     /**
      * Obtiene la lista de todas las proteínas del grafo.
+     * La lista es la estructura interna: no debe recorrerse mientras otro hilo modifica el grafo.
      * 
      * @return Lista con los nombres de las proteínas
      */
@@ -70,6 +130,33 @@ public class Grafo {
         return proteinas; 
     }
     
+    /**
+     * Obtiene un índice por prefijo de los nombres de las proteínas.
+     * Se arma al pedirlo y se reutiliza hasta que se agrega o elimina una proteína.
+     * 
+     * @return Índice inmutable con las proteínas actuales
+     */
+    public IndicePrefijos getIndiceProteinas() {
+        IndicePrefijos actual = indicePrefijos;
+        if (actual != null) return actual;
+        long sello = cerrojo.readLock();
+        try {
+            actual = indicePrefijos;
+            if (actual == null) {
+                Object[] nombres = proteinas.toArray();
+                String[] copia = new String[nombres.length];
+                for (int i = 0; i < nombres.length; i++) {
+                    copia[i] = (String) nombres[i];
+                }
+                actual = new IndicePrefijos(copia);
+                indicePrefijos = actual;
+            }
+            return actual;
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+    
     /**
      * Verifica si una proteína existe en el grafo.
      * 
@@ -77,7 +164,22 @@ public class Grafo {
      * @return true si existe, false en caso contrario
      */
     public boolean existeProteina(String nombre) { 
-        return proteinas.contiene(nombre); 
+        for (int intento = 0; intento < INTENTOS_OPTIMISTAS; intento++) {
+            long sello = cerrojo.tryOptimisticRead();
+            if (sello == 0L) break;
+            try {
+                boolean existe = indice.idDe(nombre) >= 0;
+                if (cerrojo.validate(sello)) return existe;
+            } catch (ArrayIndexOutOfBoundsException e) {
+                // Lectura inconsistente por una escritura concurrente: se reintenta
+            }
+        }
+        long sello = cerrojo.readLock();
+        try {
+            return indice.idDe(nombre) >= 0;
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
     }
     
     /**
@@ -89,20 +191,31 @@ public class Grafo {
      * @return true si se agregó correctamente, false si ya existía o las proteínas no existen
      */
     public boolean agregarInteraccion(String origen, String destino, double peso) {
-        if (proteinas.contiene(origen) && proteinas.contiene(destino) && !origen.equals(destino)) {
-            Proteinas nueva = new Proteinas(origen, destino, peso);
-            
-            // Verificar si ya existe
-            for (int i = 0; i < interacciones.getTamaño(); i++) {
-                if (interacciones.obtener(i).equals(nueva)) {
+        long inicio = Metricas.MUTACION.iniciar();
+        long sello = cerrojo.writeLock();
+        try {
+            int idOrigen = indice.idDe(origen);
+            int idDestino = indice.idDe(destino);
+            if (idOrigen >= 0 && idDestino >= 0 && idOrigen != idDestino) {
+                // Verificar si ya existe
+                if (!claves.agregar(ConjuntoAristas.clave(idOrigen, idDestino))) {
                     return false;
                 }
+
+                Proteinas nueva = new Proteinas(origen, destino, peso);
+                interacciones.agregar(nueva);
+                listas.agregar(idOrigen, idDestino, nueva);
+                Metricas.INTERACCIONES_AGREGADAS.incrementar();
+                for (OyenteMutaciones oyente : oyentes) {
+                    oyente.interaccionAgregada(origen, destino, peso);
+                }
+                return true;
             }
-            
-            interacciones.agregar(nueva);
-            return true;
+            return false;
+        } finally {
+            cerrojo.unlockWrite(sello);
+            Metricas.MUTACION.detener(inicio);
         }
-        return false;
     }
     
     /**
@@ -113,18 +226,347 @@ public class Grafo {
      * @return true si se eliminó correctamente, false si no existía
      */
     public boolean eliminarInteraccion(String origen, String destino) {
-        for (int i = 0; i < interacciones.getTamaño(); i++) {
-            Proteinas a = interacciones.obtener(i);
-            if ((a.getOrigen().equals(origen) && a.getDestino().equals(destino)) ||
-                (a.getOrigen().equals(destino) && a.getDestino().equals(origen))) {
-                return interacciones.eliminar(a);
+        long inicio = Metricas.MUTACION.iniciar();
+        long sello = cerrojo.writeLock();
+        try {
+            int idOrigen = indice.idDe(origen);
+            int idDestino = indice.idDe(destino);
+            if (idOrigen < 0 || idDestino < 0
+                    || !claves.eliminar(ConjuntoAristas.clave(idOrigen, idDestino))) {
+                return false;
+            }
+            // Proteinas.equals ignora el orden de los extremos
+            if (interacciones.eliminar(listas.eliminar(idOrigen, idDestino))) {
+                Metricas.INTERACCIONES_ELIMINADAS.incrementar();
+                for (OyenteMutaciones oyente : oyentes) {
+                    oyente.interaccionEliminada(origen, destino);
+                }
+                return true;
+            }
+            return false;
+        } finally {
+            cerrojo.unlockWrite(sello);
+            Metricas.MUTACION.detener(inicio);
+        }
+    }
+    
+    /**
+     * Activa o desactiva una interacción.
+     * A diferencia de llamar a Proteinas.setActiva directamente, el cambio se avisa
+     * a los oyentes del grafo (y por lo tanto queda en el diario de mutaciones).
+     * 
+     * @param origen Proteína de origen
+     * @param destino Proteína de destino
+     * @param activa Nuevo estado de la interacción
+     * @return true si el estado cambió, false si la interacción no existe o ya tenía ese estado
+     */
+    public boolean setActiva(String origen, String destino, boolean activa) {
+        long inicio = Metricas.MUTACION.iniciar();
+        long sello = cerrojo.writeLock();
+        try {
+            Proteinas a = buscarSinCerrojo(origen, destino);
+            if (a == null || a.isActiva() == activa) return false;
+            a.setActiva(activa);
+            for (OyenteMutaciones oyente : oyentes) {
+                oyente.interaccionActivada(origen, destino, activa);
+            }
+            return true;
+        } finally {
+            cerrojo.unlockWrite(sello);
+            Metricas.MUTACION.detener(inicio);
+        }
+    }
+    
+    /**
+     * Cambia el peso de una interacción sin quitarla: conserva su estado activo y
+     * su lugar en la lista, y el cambio se avisa a los oyentes como una sola mutación.
+     * 
+     * @param origen Proteína de origen
+     * @param destino Proteína de destino
+     * @param peso Nuevo peso de la interacción
+     * @return true si el peso cambió, false si la interacción no existe o ya tenía ese peso
+     */
+    public boolean setPeso(String origen, String destino, double peso) {
+        long inicio = Metricas.MUTACION.iniciar();
+        long sello = cerrojo.writeLock();
+        try {
+            Proteinas a = buscarSinCerrojo(origen, destino);
+            if (a == null || Double.compare(a.getPeso(), peso) == 0) return false;
+            a.setPeso(peso);
+            for (OyenteMutaciones oyente : oyentes) {
+                oyente.pesoCambiado(a.getOrigen(), a.getDestino(), peso);
+            }
+            return true;
+        } finally {
+            cerrojo.unlockWrite(sello);
+            Metricas.MUTACION.detener(inicio);
+        }
+    }
+    
+    /**
+     * Busca la interacción entre dos proteínas en la lista del extremo con menos
+     * interacciones. Lo usan los métodos que ya tienen el cerrojo tomado.
+     */
+    private Proteinas buscarSinCerrojo(String origen, String destino) {
+        int idOrigen = indice.idDe(origen);
+        int idDestino = indice.idDe(destino);
+        if (idOrigen < 0 || idDestino < 0) return null;
+        return listas.buscar(idOrigen, idDestino);
+    }
+    
+    /**
+     * Registra un oyente que recibirá las mutaciones siguientes.
+     * 
+     * @param oyente Oyente a registrar
+     */
+    public synchronized void agregarOyente(OyenteMutaciones oyente) {
+        OyenteMutaciones[] actuales = oyentes;
+        OyenteMutaciones[] nuevos = new OyenteMutaciones[actuales.length + 1];
+        System.arraycopy(actuales, 0, nuevos, 0, actuales.length);
+        nuevos[actuales.length] = oyente;
+        oyentes = nuevos;
+    }
+    
+    /**
+     * Registra un oyente y le pasa el contenido actual como si cada proteína e
+     * interacción se acabara de agregar (y cada interacción inactiva se acabara de
+     * desactivar). El registro y el recorrido se hacen con el cerrojo de lectura
+     * tomado, así el oyente no pierde ni repite ninguna mutación.
+     * 
+     * @param oyente Oyente a registrar
+     */
+    public void agregarOyenteConContenido(OyenteMutaciones oyente) {
+        long sello = cerrojo.readLock();
+        try {
+            agregarOyente(oyente);
+            Object[] todas = proteinas.toArray();
+            for (Object p : todas) {
+                oyente.proteinaAgregada((String) p);
+            }
+            todas = interacciones.toArray();
+            for (Object o : todas) {
+                Proteinas a = (Proteinas) o;
+                oyente.interaccionAgregada(a.getOrigen(), a.getDestino(), a.getPeso());
+                if (!a.isActiva()) {
+                    oyente.interaccionActivada(a.getOrigen(), a.getDestino(), false);
+                }
+            }
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+    
+    /**
+     * Quita un oyente registrado.
+     * 
+     * @param oyente Oyente a quitar
+     * @return true si estaba registrado
+     */
+    public synchronized boolean quitarOyente(OyenteMutaciones oyente) {
+        OyenteMutaciones[] actuales = oyentes;
+        for (int i = 0; i < actuales.length; i++) {
+            if (actuales[i] == oyente) {
+                OyenteMutaciones[] nuevos = new OyenteMutaciones[actuales.length - 1];
+                System.arraycopy(actuales, 0, nuevos, 0, i);
+                System.arraycopy(actuales, i + 1, nuevos, i, nuevos.length - i);
+                oyentes = nuevos;
+                return true;
             }
         }
         return false;
     }
     
+    /**
+     * Avisa a los oyentes que el contenido cambió en bloque. Se llama con el cerrojo de escritura tomado.
+     */
+    private void avisarReemplazo() {
+        for (OyenteMutaciones oyente : oyentes) {
+            oyente.grafoReemplazado();
+        }
+    }
+    
+    /**
+     * Agrega un lote de interacciones leídas de un archivo con un solo cerrojo de escritura.
+     * Equivale a llamar, por cada interacción en orden, a agregarProteina con ambos
+     * extremos y luego a agregarInteraccion. Deja en el lote cuántas proteínas e
+     * interacciones resultaron nuevas.
+     * 
+     * @param lote Lote de interacciones
+     */
+    void agregarLote(LoteAristas lote) {
+        long inicio = Metricas.MUTACION.iniciar();
+        long sello = cerrojo.writeLock();
+        try {
+            agregarLoteSinCerrojo(lote);
+            avisarReemplazo();
+        } finally {
+            cerrojo.unlockWrite(sello);
+            Metricas.MUTACION.detener(inicio);
+        }
+    }
+    
+    /**
+     * Agrega varios lotes, en orden, con un solo cerrojo de escritura.
+     * El resultado es el mismo que leer sus interacciones una tras otra.
+     * 
+     * @param lotes Lotes de interacciones, en el orden del archivo
+     */
+    void agregarLotes(LoteAristas[] lotes) {
+        long inicio = Metricas.MUTACION.iniciar();
+        long sello = cerrojo.writeLock();
+        try {
+            for (LoteAristas lote : lotes) {
+                agregarLoteSinCerrojo(lote);
+            }
+            avisarReemplazo();
+        } finally {
+            cerrojo.unlockWrite(sello);
+            Metricas.MUTACION.detener(inicio);
+        }
+    }
+    
+    /**
+     * Agrega un lote en dos fases. Primero pasa al diccionario del grafo los nombres
+     * locales que todavía no tienen identificador global, en el orden en que
+     * aparecieron, que es el mismo orden en que agregarProteina los habría agregado.
+     * Después agrega las interacciones traduciendo sus extremos con esa tabla.
+     */
+    private void agregarLoteSinCerrojo(LoteAristas lote) {
+        DiccionarioProteinas locales = lote.getNombres();
+        int[] globales = lote.getGlobales();
+        int proteinasAntes = proteinas.getTamaño();
+        int interaccionesAntes = interacciones.getTamaño();
+        
+        int limite = locales.getLimiteIds();
+        for (int id = lote.mapeados; id < limite; id++) {
+            globales[id] = registrarProteina(locales.nombreDe(id));
+        }
+        lote.mapeados = limite;
+        
+        for (int i = 0; i < lote.getCantidad(); i++) {
+            int origen = lote.origen(i);
+            int destino = lote.destino(i);
+            int idOrigen = idVigente(locales, globales, origen);
+            int idDestino = idVigente(locales, globales, destino);
+            if (idOrigen != idDestino && claves.agregar(ConjuntoAristas.clave(idOrigen, idDestino))) {
+                Proteinas nueva = new Proteinas(locales.nombreDe(origen),
+                    locales.nombreDe(destino), lote.peso(i));
+                interacciones.agregar(nueva);
+                listas.agregar(idOrigen, idDestino, nueva);
+            }
+        }
+        
+        int proteinasNuevas = proteinas.getTamaño() - proteinasAntes;
+        int interaccionesNuevas = interacciones.getTamaño() - interaccionesAntes;
+        lote.proteinasAgregadas += proteinasNuevas;
+        lote.interaccionesAgregadas += interaccionesNuevas;
+        Metricas.PROTEINAS_AGREGADAS.sumar(proteinasNuevas);
+        Metricas.INTERACCIONES_AGREGADAS.sumar(interaccionesNuevas);
+    }
+    
+    /**
+     * Obtiene el identificador global de un nombre local. Si la proteína se eliminó
+     * desde el lote anterior, la vuelve a agregar, como haría agregarProteina.
+     */
+    private int idVigente(DiccionarioProteinas locales, int[] globales, int local) {
+        String nombre = locales.nombreDe(local);
+        String actual = indice.nombreDe(globales[local]);
+        if (actual != nombre && !nombre.equals(actual)) {
+            globales[local] = registrarProteina(nombre);
+        }
+        return globales[local];
+    }
+    
+    /**
+     * Devuelve el identificador de una proteína, agregándola si no existe.
+     */
+    private int registrarProteina(String nombre) {
+        int id = indice.idDe(nombre);
+        if (id < 0) {
+            id = indice.agregar(nombre);
+            proteinas.agregar(nombre);
+            indicePrefijos = null;
+        }
+        return id;
+    }
+    
+    /**
+     * Reemplaza el contenido del grafo por el de una instantánea binaria.
+     * 
+     * @param instantanea Instantánea abierta
+     * @throws IndexOutOfBoundsException si la instantánea tiene referencias inválidas
+     */
+    void cargarInstantanea(InstantaneaGrafo instantanea) {
+        long sello = cerrojo.writeLock();
+        try {
+            proteinas.vaciar();
+            interacciones.vaciar();
+            indice.vaciar();
+            claves.vaciar();
+            listas.vaciar();
+            indicePrefijos = null;
+            int n = instantanea.getNumProteinas();
+            for (int i = 0; i < n; i++) {
+                String nombre = instantanea.nombre(i);
+                if (indice.agregar(nombre) != i) {
+                    throw new IndexOutOfBoundsException("Proteína repetida en la instantánea: " + nombre);
+                }
+                proteinas.agregar(nombre);
+            }
+            int m = instantanea.getNumInteracciones();
+            for (int e = 0; e < m; e++) {
+                int origen = instantanea.origen(e);
+                int destino = instantanea.destino(e);
+                if (origen < 0 || origen >= n || destino < 0 || destino >= n) {
+                    throw new IndexOutOfBoundsException("Interacción inválida en la instantánea");
+                }
+                if (origen != destino && claves.agregar(ConjuntoAristas.clave(origen, destino))) {
+                    Proteinas nueva = new Proteinas(indice.nombreDe(origen), indice.nombreDe(destino),
+                        instantanea.peso(e));
+                    nueva.setActiva(instantanea.activa(e));
+                    interacciones.agregar(nueva);
+                    listas.agregar(origen, destino, nueva);
+                }
+            }
+            Metricas.PROTEINAS_AGREGADAS.sumar(proteinas.getTamaño());
+            Metricas.INTERACCIONES_AGREGADAS.sumar(interacciones.getTamaño());
+            avisarReemplazo();
+        } finally {
+            cerrojo.unlockWrite(sello);
+        }
+    }
+    
+    /**
+     * Copia las proteínas y las interacciones con el cerrojo de lectura tomado,
+     * para recorrerlas después sin bloquear a los demás hilos.
+     * 
+     * @return Arreglo con las proteínas (String) y las interacciones (Proteinas)
+     */
+    Object[][] copiarListas() {
+        return copiarListas(null);
+    }
+    
+    /**
+     * Copia las proteínas y las interacciones y, con el mismo cerrojo de lectura
+     * tomado, ejecuta una acción. Como los oyentes se avisan con el cerrojo de
+     * escritura, la acción ve a los oyentes en el mismo punto que la copia.
+     * 
+     * @param alCopiar Acción a ejecutar junto con la copia, o null
+     * @return Arreglo con las proteínas (String) y las interacciones (Proteinas)
+     */
+    Object[][] copiarListas(Runnable alCopiar) {
+        long sello = cerrojo.readLock();
+        try {
+            if (alCopiar != null) alCopiar.run();
+            return new Object[][] { proteinas.toArray(), interacciones.toArray() };
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+    
     /**
      * Obtiene todas las interacciones del grafo.
+     * La lista es la estructura interna: no debe recorrerse mientras otro hilo modifica el grafo.
      * 
      * @return Lista de interacciones
      */
@@ -133,20 +575,28 @@ public class Grafo {
     }
     
     /**
-     * Obtiene todas las interacciones de una proteína específica.
+     * Obtiene todas las interacciones de una proteína específica, en el orden en
+     * que aparecen en la lista del grafo. Copia la lista de la proteína con el
+     * cerrojo de lectura tomado, sin recorrer las demás interacciones.
      * 
      * @param proteina Nombre de la proteína
      * @return Lista de interacciones de esa proteína
      */
     public Lista<Proteinas> getInteraccionesDe(String proteina) {
-        Lista<Proteinas> resultado = new Lista<>();
-        for (int i = 0; i < interacciones.getTamaño(); i++) {
-            Proteinas a = interacciones.obtener(i);
-            if (a.getOrigen().equals(proteina) || a.getDestino().equals(proteina)) {
-                resultado.agregar(a);
+        long sello = cerrojo.readLock();
+        try {
+            Lista<Proteinas> resultado = new Lista<>();
+            int id = indice.idDe(proteina);
+            if (id >= 0) {
+                int grado = listas.grado(id);
+                for (int k = 0; k < grado; k++) {
+                    resultado.agregar(listas.arista(id, k));
+                }
             }
+            return resultado;
+        } finally {
+            cerrojo.unlockRead(sello);
         }
-        return resultado;
     }
     
     /**
@@ -156,52 +606,148 @@ public class Grafo {
      * @return Lista de complejos, donde cada complejo es una lista de nombres de proteínas
      */
     public Lista<Lista<String>> encontrarComplejos() {
+        return encontrarComplejos(ProgresoAnalisis.NINGUNO);
+    }
+    
+    /**
+     * Encuentra los complejos proteicos informando el avance.
+     * 
+     * @param progreso Receptor del avance (proteínas alcanzadas sobre el total)
+     * @return Lista de complejos, donde cada complejo es una lista de nombres de proteínas
+     * @throws CancellationException si el hilo se interrumpe durante el cálculo
+     */
+    public Lista<Lista<String>> encontrarComplejos(ProgresoAnalisis progreso) {
         Lista<Lista<String>> complejos = new Lista<>();
-        Lista<String> visitadas = new Lista<>();
-
-        int n = proteinas.getTamaño();
-
-        for (int i = 0; i < n; i++) {
-            String proteina = proteinas.obtener(i); //Obtener directamente, sin toArray()
-
-            if (!visitadas.contiene(proteina)) {
-                Lista<String> complejo = new Lista<>();
-                Lista<String> cola = new Lista<>();
-
-                cola.agregar(proteina);
-                visitadas.agregar(proteina);
-
-                while (!cola.estaVacia()) {
-                    String actual = cola.getPrimero();
-                    cola.eliminarPorIndice(0);
-                    complejo.agregar(actual);
-
-                    // Buscar vecinos
-                    for (int j = 0; j < interacciones.getTamaño(); j++) {
-                        Proteinas a = interacciones.obtener(j);
-                        if (a.isActiva()) {
-                            String vecino = null;
-                            if (a.getOrigen().equals(actual)) {
-                                vecino = a.getDestino();
-                            } else if (a.getDestino().equals(actual)) {
-                                vecino = a.getOrigen();
-                            }
+        recorrerComplejos((miembros, desde, hasta, nombres) -> {
+            Lista<String> complejo = new Lista<>();
+            for (int i = desde; i < hasta; i++) {
+                complejo.agregar(nombres.apply(miembros[i]));
+            }
+            complejos.agregar(complejo);
+            return true;
+        }, progreso);
+        return complejos;
+    }
+    
+    /**
+     * Recorre los complejos proteicos por BFS y entrega cada uno al visitante apenas
+     * se completa, en el mismo orden que encontrarComplejos. Los complejos se
+     * arman como tramos consecutivos de un único arreglo con el orden del recorrido.
+     * 
+     * @param visitante Recibe cada complejo; puede terminar el recorrido antes
+     * @param progreso Receptor del avance (proteínas alcanzadas sobre el total)
+     * @throws CancellationException si el hilo se interrumpe durante el cálculo
+     */
+    public void recorrerComplejos(VisitanteComplejos visitante, ProgresoAnalisis progreso) {
+        long inicio = System.nanoTime();
+        EventoAlgoritmo evento = new EventoAlgoritmo();
+        evento.begin();
+        long nodosVisitados = 0;
+        long aristasExaminadas = 0;
+        long sello = cerrojo.readLock();
+        try {
+            Adyacencia adyacencia = adyacenciaSinCerrojo(true);
+            IntFunction<String> nombres = indice::nombreDe;
+            Object[] todas = proteinas.toArray();
+            int n = todas.length;
+            boolean[] visitada = new boolean[indice.getLimiteIds()];
+            // Orden del BFS: cada complejo ocupa un tramo consecutivo
+            int[] orden = new int[n];
+            int alcanzadas = 0;
 
-                            if (vecino != null && !visitadas.contiene(vecino)) {
-                                visitadas.agregar(vecino);
-                                cola.agregar(vecino);
-                            }
+            for (int i = 0; i < n; i++) {
+                int id = indice.idDe((String) todas[i]);
+                if (visitada[id]) continue;
+
+                int desde = alcanzadas;
+                visitada[id] = true;
+                orden[alcanzadas++] = id;
+                for (int k = desde; k < alcanzadas; k++) {
+                    verificarCancelacion();
+                    if ((nodosVisitados & 0x3FF) == 0) {
+                        progreso.reportar(alcanzadas, n);
+                    }
+                    int actual = orden[k];
+                    nodosVisitados++;
+                    for (int e = adyacencia.inicio[actual]; e < adyacencia.inicio[actual + 1]; e++) {
+                        aristasExaminadas++;
+                        int vecino = adyacencia.vecinos[e];
+                        if (!visitada[vecino]) {
+                            visitada[vecino] = true;
+                            orden[alcanzadas++] = vecino;
                         }
                     }
                 }
 
-                if (complejo.getTamaño() > 1) {
-                    complejos.agregar(complejo);
+                if (alcanzadas - desde > 1 && !visitante.complejo(orden, desde, alcanzadas, nombres)) {
+                    return;
                 }
             }
+        } finally {
+            evento.terminar("complejos", proteinas.getTamaño(), interacciones.getTamaño(), null, null, nodosVisitados);
+            cerrojo.unlockRead(sello);
+            Metricas.COMPLEJOS.registrar(inicio, nodosVisitados, aristasExaminadas);
         }
+    }
+    
+    /**
+     * Vecinos de cada proteína en arreglos planos, indexados por identificador: los
+     * de id están en vecinos[inicio[id]] .. vecinos[inicio[id + 1] - 1], en el orden
+     * de la lista de interacciones, y pesos[e] es el peso de la interacción que
+     * lleva a vecinos[e]. Solo vale mientras se tiene el cerrojo.
+     */
+    private static final class Adyacencia {
+        final int[] inicio;
+        final int[] vecinos;
+        final double[] pesos;
 
-        return complejos;
+        Adyacencia(int[] inicio, int[] vecinos, double[] pesos) {
+            this.inicio = inicio;
+            this.vecinos = vecinos;
+            this.pesos = pesos;
+        }
+    }
+    
+    /**
+     * Arma la adyacencia del grafo. Debe llamarse con el cerrojo tomado.
+     * 
+     * @param soloActivas Si se ignoran las interacciones desactivadas
+     */
+    private Adyacencia adyacenciaSinCerrojo(boolean soloActivas) {
+        Object[] todas = interacciones.toArray();
+        int limite = indice.getLimiteIds();
+        int[] origenes = new int[todas.length];
+        int[] destinos = new int[todas.length];
+        double[] pesosAristas = new double[todas.length];
+        int[] inicio = new int[limite + 1];
+        int m = 0;
+        for (Object o : todas) {
+            Proteinas a = (Proteinas) o;
+            if (soloActivas && !a.isActiva()) continue;
+            int u = indice.idDe(a.getOrigen());
+            int v = indice.idDe(a.getDestino());
+            origenes[m] = u;
+            destinos[m] = v;
+            pesosAristas[m] = a.getPeso();
+            m++;
+            inicio[u + 1]++;
+            inicio[v + 1]++;
+        }
+        for (int i = 0; i < limite; i++) {
+            inicio[i + 1] += inicio[i];
+        }
+        int[] vecinos = new int[2 * m];
+        double[] pesos = new double[2 * m];
+        int[] siguiente = Arrays.copyOf(inicio, limite);
+        for (int e = 0; e < m; e++) {
+            int i = siguiente[origenes[e]]++;
+            vecinos[i] = destinos[e];
+            pesos[i] = pesosAristas[e];
+            int j = siguiente[destinos[e]]++;
+            vecinos[j] = origenes[e];
+            pesos[j] = pesosAristas[e];
+        }
+        return new Adyacencia(inicio, vecinos, pesos);
     }
     
     /**
@@ -212,103 +758,132 @@ public class Grafo {
      * @return ResultadoDijkstra con la distancia total y la lista de proteínas en la ruta
      */
     public ResultadoDijkstra rutaMasCorta(String origen, String destino) {
-    // Validar que las proteínas existan
-        if (!proteinas.contiene(origen) || !proteinas.contiene(destino)) {
-            return new ResultadoDijkstra(Double.MAX_VALUE, new Lista<>());
-        }
-
-        int n = proteinas.getTamaño();
-        String[] nodos = new String[n];
-        for (int i = 0; i < n; i++) {
-            nodos[i] = proteinas.obtener(i); // Obtener cada elemento como String
-        }
-
-        double[] dist = new double[n];
-        String[] prev = new String[n];
-        boolean[] visitado = new boolean[n];
+        return rutaMasCorta(origen, destino, ProgresoAnalisis.NINGUNO);
+    }
+    
+    /**
+     * Encuentra la ruta más corta entre dos proteínas informando el avance.
+     * 
+     * @param origen Proteína de inicio
+     * @param destino Proteína de destino
+     * @param progreso Receptor del avance (nodos fijados sobre el total)
+     * @return ResultadoDijkstra con la distancia total y la lista de proteínas en la ruta
+     * @throws CancellationException si el hilo se interrumpe durante el cálculo
+     */
+    public ResultadoDijkstra rutaMasCorta(String origen, String destino, ProgresoAnalisis progreso) {
+        long inicio = System.nanoTime();
+        EventoAlgoritmo evento = new EventoAlgoritmo();
+        evento.begin();
+        long nodosVisitados = 0;
+        long aristasRelajadas = 0;
+        long sello = cerrojo.readLock();
+        try {
+        // Validar que las proteínas existan
+            if (indice.idDe(origen) < 0 || indice.idDe(destino) < 0) {
+                return new ResultadoDijkstra(Double.MAX_VALUE, new Lista<>());
+            }
 
-        // Inicializar distancias
-        for (int i = 0; i < n; i++) {
-            dist[i] = Double.MAX_VALUE;
-            prev[i] = null;
-            visitado[i] = false;
-            if (nodos[i].equals(origen)) {
-                dist[i] = 0;
+            int n = proteinas.getTamaño();
+            String[] nodos = new String[n];
+            for (int i = 0; i < n; i++) {
+                nodos[i] = proteinas.obtener(i); // Obtener cada elemento como String
             }
-        }
 
-        // Algoritmo de Dijkstra
-        for (int count = 0; count < n - 1; count++) {
-            // Encontrar nodo no visitado con distancia mínima
-            double min = Double.MAX_VALUE;
-            int u = -1;
+            double[] dist = new double[n];
+            String[] prev = new String[n];
+            boolean[] visitado = new boolean[n];
+
+            // Inicializar distancias
             for (int i = 0; i < n; i++) {
-                if (!visitado[i] && dist[i] < min) {
-                    min = dist[i];
-                    u = i;
+                dist[i] = Double.MAX_VALUE;
+                prev[i] = null;
+                visitado[i] = false;
+                if (nodos[i].equals(origen)) {
+                    dist[i] = 0;
                 }
             }
 
-            if (u == -1) break;
-            visitado[u] = true;
+            // Algoritmo de Dijkstra
+            for (int count = 0; count < n - 1; count++) {
+                verificarCancelacion();
+                progreso.reportar(count, n - 1);
+                // Encontrar nodo no visitado con distancia mínima
+                double min = Double.MAX_VALUE;
+                int u = -1;
+                for (int i = 0; i < n; i++) {
+                    if (!visitado[i] && dist[i] < min) {
+                        min = dist[i];
+                        u = i;
+                    }
+                }
 
-            // Actualizar vecinos
-            for (int i = 0; i < interacciones.getTamaño(); i++) {
-                Proteinas a = interacciones.obtener(i);
-                if (!a.isActiva()) continue;
+                if (u == -1) break;
+                visitado[u] = true;
+                nodosVisitados++;
 
-                String vecino = null;
-                if (a.getOrigen().equals(nodos[u])) {
-                    vecino = a.getDestino();
-                } else if (a.getDestino().equals(nodos[u])) {
-                    vecino = a.getOrigen();
-                }
+                // Actualizar vecinos
+                for (int i = 0; i < interacciones.getTamaño(); i++) {
+                    Proteinas a = interacciones.obtener(i);
+                    if (!a.isActiva()) continue;
 
-                if (vecino != null) {
-                    int v = -1;
-                    for (int j = 0; j < n; j++) {
-                        if (nodos[j].equals(vecino)) {
-                            v = j;
-                            break;
-                        }
+                    String vecino = null;
+                    if (a.getOrigen().equals(nodos[u])) {
+                        vecino = a.getDestino();
+                    } else if (a.getDestino().equals(nodos[u])) {
+                        vecino = a.getOrigen();
                     }
 
-                    if (v != -1 && !visitado[v] && dist[u] + a.getPeso() < dist[v]) {
-                        dist[v] = dist[u] + a.getPeso();
-                        prev[v] = nodos[u];
+                    if (vecino != null) {
+                        aristasRelajadas++;
+                        int v = -1;
+                        for (int j = 0; j < n; j++) {
+                            if (nodos[j].equals(vecino)) {
+                                v = j;
+                                break;
+                            }
+                        }
+
+                        if (v != -1 && !visitado[v] && dist[u] + a.getPeso() < dist[v]) {
+                            dist[v] = dist[u] + a.getPeso();
+                            prev[v] = nodos[u];
+                        }
                     }
                 }
             }
-        }
 
-        // Construir ruta
-        int idxDestino = -1;
-        for (int i = 0; i < n; i++) {
-            if (nodos[i].equals(destino)) {
-                idxDestino = i;
-                break;
+            // Construir ruta
+            int idxDestino = -1;
+            for (int i = 0; i < n; i++) {
+                if (nodos[i].equals(destino)) {
+                    idxDestino = i;
+                    break;
+                }
             }
-        }
 
-        if (idxDestino == -1 || dist[idxDestino] == Double.MAX_VALUE) {
-            return new ResultadoDijkstra(Double.MAX_VALUE, new Lista<>());
-        }
+            if (idxDestino == -1 || dist[idxDestino] == Double.MAX_VALUE) {
+                return new ResultadoDijkstra(Double.MAX_VALUE, new Lista<>());
+            }
 
-        Lista<String> ruta = new Lista<>();
-        String actual = destino;
-        while (actual != null) {
-            ruta.agregarAlInicio(actual);
-            int idx = -1;
-            for (int i = 0; i < n; i++) {
-                if (nodos[i].equals(actual)) {
-                    idx = i;
-                    break;
+            Lista<String> ruta = new Lista<>();
+            String actual = destino;
+            while (actual != null) {
+                ruta.agregarAlInicio(actual);
+                int idx = -1;
+                for (int i = 0; i < n; i++) {
+                    if (nodos[i].equals(actual)) {
+                        idx = i;
+                        break;
+                    }
                 }
+                actual = prev[idx];
             }
-            actual = prev[idx];
-        }
 
-        return new ResultadoDijkstra(dist[idxDestino], ruta);
+            return new ResultadoDijkstra(dist[idxDestino], ruta);
+        } finally {
+            evento.terminar("dijkstra", proteinas.getTamaño(), interacciones.getTamaño(), origen, destino, nodosVisitados);
+            cerrojo.unlockRead(sello);
+            Metricas.RUTA_MAS_CORTA.registrar(inicio, nodosVisitados, aristasRelajadas);
+        }
     }
     
     /**
@@ -318,53 +893,108 @@ public class Grafo {
      * @return Lista de strings con el nombre y grado de cada hub
      */
     public Lista<String> identificarHubs(int topN) {
-        int n = proteinas.getTamaño();
-        if (n == 0) {
-            return new Lista<>(); // Lista vacía si no hay proteínas
+        return identificarHubs(topN, ProgresoAnalisis.NINGUNO);
+    }
+    
+    /**
+     * Identifica las proteínas con más conexiones informando el avance.
+     * 
+     * @param topN Número de hubs a identificar (ej: 5 para top 5)
+     * @param progreso Receptor del avance (grados calculados sobre el total)
+     * @return Lista de strings con el nombre y grado de cada hub, en el formato de Hub.toString
+     * @throws CancellationException si el hilo se interrumpe durante el cálculo
+     */
+    public Lista<String> identificarHubs(int topN, ProgresoAnalisis progreso) {
+        Lista<String> textos = new Lista<>();
+        for (Hub hub : buscarHubs(topN, progreso)) {
+            textos.agregar(hub.toString());
         }
+        return textos;
+    }
+    
+    /**
+     * Busca las proteínas con más conexiones.
+     * 
+     * @param topN Número de hubs a buscar
+     * @return Hubs de mayor a menor grado
+     */
+    public Lista<Hub> buscarHubs(int topN) {
+        return buscarHubs(topN, ProgresoAnalisis.NINGUNO);
+    }
+    
+    /**
+     * Busca las proteínas con más conexiones informando el avance.
+     * 
+     * @param topN Número de hubs a buscar
+     * @param progreso Receptor del avance (grados calculados sobre el total)
+     * @return Hubs de mayor a menor grado
+     * @throws CancellationException si el hilo se interrumpe durante el cálculo
+     */
+    public Lista<Hub> buscarHubs(int topN, ProgresoAnalisis progreso) {
+        long inicio = System.nanoTime();
+        EventoAlgoritmo evento = new EventoAlgoritmo();
+        evento.begin();
+        long nodosVisitados = 0;
+        long aristasExaminadas = 0;
+        long sello = cerrojo.readLock();
+        try {
+            int n = proteinas.getTamaño();
+            if (n == 0) {
+                return new Lista<>(); // Lista vacía si no hay proteínas
+            }
 
-        // Crear arreglo de Strings correctamente
-        String[] nodos = new String[n];
-        for (int i = 0; i < n; i++) {
-            nodos[i] = proteinas.obtener(i); // Obtener cada elemento como String
-        }
+            // Crear arreglo de Strings correctamente
+            String[] nodos = new String[n];
+            for (int i = 0; i < n; i++) {
+                nodos[i] = proteinas.obtener(i); // Obtener cada elemento como String
+            }
 
-        int[] grados = new int[n];
+            int[] grados = new int[n];
 
-        // Calcular grados
-        for (int i = 0; i < n; i++) {
-            grados[i] = 0;
-            for (int j = 0; j < interacciones.getTamaño(); j++) {
-                Proteinas a = interacciones.obtener(j);
-                if (a.getOrigen().equals(nodos[i]) || a.getDestino().equals(nodos[i])) {
-                    grados[i]++;
+            // Calcular grados
+            for (int i = 0; i < n; i++) {
+                verificarCancelacion();
+                progreso.reportar(i, n);
+                grados[i] = 0;
+                nodosVisitados++;
+                aristasExaminadas += interacciones.getTamaño();
+                for (int j = 0; j < interacciones.getTamaño(); j++) {
+                    Proteinas a = interacciones.obtener(j);
+                    if (a.getOrigen().equals(nodos[i]) || a.getDestino().equals(nodos[i])) {
+                        grados[i]++;
+                    }
                 }
             }
-        }
 
-        // Ordenar por grado (burbuja)
-        for (int i = 0; i < n - 1; i++) {
-            for (int j = 0; j < n - i - 1; j++) {
-                if (grados[j] < grados[j + 1]) {
-                    // Intercambiar grados
-                    int tempG = grados[j];
-                    grados[j] = grados[j + 1];
-                    grados[j + 1] = tempG;
+            // Ordenar por grado (burbuja)
+            for (int i = 0; i < n - 1; i++) {
+                verificarCancelacion();
+                for (int j = 0; j < n - i - 1; j++) {
+                    if (grados[j] < grados[j + 1]) {
+                        // Intercambiar grados
+                        int tempG = grados[j];
+                        grados[j] = grados[j + 1];
+                        grados[j + 1] = tempG;
 
-                    // Intercambiar nombres
-                    String tempN = nodos[j];
-                    nodos[j] = nodos[j + 1];
-                    nodos[j + 1] = tempN;
+                        // Intercambiar nombres
+                        String tempN = nodos[j];
+                        nodos[j] = nodos[j + 1];
+                        nodos[j + 1] = tempN;
+                    }
                 }
             }
-        }
 
-        Lista<String> hubs = new Lista<>();
-        int limite = Math.min(topN, n);
-        for (int i = 0; i < limite; i++) {
-            hubs.agregar(nodos[i] + " (" + grados[i] + " conexiones)");
+            Lista<Hub> hubs = new Lista<>();
+            int limite = Math.min(topN, n);
+            for (int i = 0; i < limite; i++) {
+                hubs.agregar(new Hub(nodos[i], grados[i]));
+            }
+            return hubs;
+        } finally {
+            evento.terminar("hubs", proteinas.getTamaño(), interacciones.getTamaño(), null, null, nodosVisitados);
+            cerrojo.unlockRead(sello);
+            Metricas.HUBS.registrar(inicio, nodosVisitados, aristasExaminadas);
         }
-        return hubs;
     }
     
     /**
@@ -374,73 +1004,316 @@ public class Grafo {
     * @return Lista con la ruta encontrada, o lista vacía si no hay ruta
     */
     public Lista<String> rutaDFS(String origen, String destino) {
-        // Validar que las proteínas existan
-        if (!proteinas.contiene(origen) || !proteinas.contiene(destino)) {
-            return new Lista<>();
-        }
-
-        Lista<String> visitadas = new Lista<>();
-        Lista<String> rutaActual = new Lista<>();
-        Lista<String> rutaEncontrada = new Lista<>();
-
-        // Llamar al método auxiliar recursivo
-        dfsRecursivo(origen, destino, visitadas, rutaActual, rutaEncontrada);
-
-        return rutaEncontrada;
+        return rutaDFS(origen, destino, ProgresoAnalisis.NINGUNO);
+    }
+    
+    /**
+     * Encuentra una ruta por DFS informando el avance.
+     * 
+     * @param origen Proteína de inicio
+     * @param destino Proteína de destino
+     * @param progreso Receptor del avance (proteínas visitadas sobre el total)
+     * @return Lista con la ruta encontrada, o lista vacía si no hay ruta
+     * @throws CancellationException si el hilo se interrumpe durante el cálculo
+     */
+    public Lista<String> rutaDFS(String origen, String destino, ProgresoAnalisis progreso) {
+        Lista<String> ruta = new Lista<>();
+        recorrerRutaDFS(origen, destino, (proteinas, largo, peso, nombres) -> {
+            for (int i = 0; i < largo; i++) {
+                ruta.agregar(nombres.apply(proteinas[i]));
+            }
+        }, progreso);
+        return ruta;
     }
 
     /**
-     * Método auxiliar recursivo para DFS
+     * Busca una ruta por DFS y la entrega al consumidor sin armar una Lista, junto
+     * con la suma de los pesos de sus interacciones.
+     * Explora los vecinos en el mismo orden que rutaDFS, con una pila explícita
+     * en lugar de recursión, así que la profundidad no depende de la pila del hilo.
+     * 
+     * @param origen Proteína de inicio
+     * @param destino Proteína de destino
+     * @param consumidor Recibe la ruta si se encuentra
+     * @param progreso Receptor del avance (proteínas visitadas sobre el total)
+     * @return true si se encontró una ruta
+     * @throws CancellationException si el hilo se interrumpe durante el cálculo
      */
-    private void dfsRecursivo(String actual, String destino, 
-                              Lista<String> visitadas, 
-                              Lista<String> rutaActual, 
-                              Lista<String> rutaEncontrada) {
+    public boolean recorrerRutaDFS(String origen, String destino, ConsumidorRuta consumidor,
+                                   ProgresoAnalisis progreso) {
+        long inicio = System.nanoTime();
+        EventoAlgoritmo evento = new EventoAlgoritmo();
+        evento.begin();
+        int visitadas = 0;
+        long aristasExaminadas = 0;
+        long sello = cerrojo.readLock();
+        try {
+            // Validar que las proteínas existan
+            int idOrigen = indice.idDe(origen);
+            int idDestino = indice.idDe(destino);
+            if (idOrigen < 0 || idDestino < 0) {
+                return false;
+            }
 
-        // Marcar nodo como visitado y agregar a ruta actual
-        visitadas.agregar(actual);
-        rutaActual.agregar(actual);
+            Adyacencia adyacencia = adyacenciaSinCerrojo(false);
+            int n = proteinas.getTamaño();
+            boolean[] visitada = new boolean[indice.getLimiteIds()];
+            // La pila es la ruta actual; cursor guarda el próximo vecino a probar de cada nivel
+            int[] pila = new int[n];
+            int[] cursor = new int[n];
+            int profundidad = 1;
+            pila[0] = idOrigen;
+            cursor[0] = adyacencia.inicio[idOrigen];
+            visitada[idOrigen] = true;
+            visitadas = 1;
 
-        // Si encontramos el destino, guardar la ruta
-        if (actual.equals(destino)) {
-            // Copiar la ruta actual a rutaEncontrada
-            for (int i = 0; i < rutaActual.getTamaño(); i++) {
-                rutaEncontrada.agregar(rutaActual.obtener(i));
+            if (idOrigen != idDestino) {
+                while (profundidad > 0) {
+                    verificarCancelacion();
+                    int nivel = profundidad - 1;
+                    int e = cursor[nivel];
+                    if (e == adyacencia.inicio[pila[nivel] + 1]) {
+                        // Retroceder
+                        profundidad--;
+                        continue;
+                    }
+                    cursor[nivel] = e + 1;
+                    aristasExaminadas++;
+                    int vecino = adyacencia.vecinos[e];
+                    if (visitada[vecino]) continue;
+
+                    visitada[vecino] = true;
+                    visitadas++;
+                    progreso.reportar(visitadas, n);
+                    pila[profundidad] = vecino;
+                    cursor[profundidad] = adyacencia.inicio[vecino];
+                    profundidad++;
+                    if (vecino == idDestino) break;
+                }
             }
-            return;
-        }
 
-        // Obtener todas las interacciones de la proteína actual
-        Lista<Proteinas> interaccionesActuales = getInteraccionesDe(actual);
+            if (profundidad == 0) {
+                return false;
+            }
+            // cursor[nivel] quedó una posición después de la interacción que bajó al nivel siguiente
+            double peso = 0;
+            for (int nivel = 0; nivel < profundidad - 1; nivel++) {
+                peso += adyacencia.pesos[cursor[nivel] - 1];
+            }
+            consumidor.ruta(pila, profundidad, peso, indice::nombreDe);
+            return true;
+        } finally {
+            evento.terminar("dfs", proteinas.getTamaño(), interacciones.getTamaño(), origen, destino,
+                visitadas);
+            cerrojo.unlockRead(sello);
+            Metricas.RUTA_DFS.registrar(inicio, visitadas, aristasExaminadas);
+        }
+    }
+    
+    /**
+     * Extrae el vecindario de una proteína.
+     * 
+     * @param centro Proteína central
+     * @param saltos Distancia máxima en interacciones
+     * @param maxProteinas Máximo de proteínas del resultado
+     * @param pesoMinimo Peso mínimo de las interacciones que se siguen
+     * @return Subgrafo con el vecindario, vacío si la proteína no existe
+     * @see #vecindario(Lista, int, int, double, ProgresoAnalisis)
+     */
+    public Subgrafo vecindario(String centro, int saltos, int maxProteinas, double pesoMinimo) {
+        Lista<String> semillas = new Lista<>();
+        semillas.agregar(centro);
+        return vecindario(semillas, saltos, maxProteinas, pesoMinimo, ProgresoAnalisis.NINGUNO);
+    }
+    
+    /**
+     * Extrae el vecindario de unas proteínas (por ejemplo, las de una ruta): las que
+     * están a lo sumo a {@code saltos} interacciones activas de alguna semilla,
+     * siguiendo solo interacciones con peso de al menos {@code pesoMinimo}.
+     * 
+     * Se avanza un salto por vez recorriendo solo las interacciones de la frontera
+     * (las proteínas alcanzadas en el salto anterior), con las listas de cada
+     * proteína y arreglos por identificador, así que el costo depende del tamaño
+     * del vecindario y no del grafo completo. Si un salto trae más proteínas de las
+     * que entran en {@code maxProteinas}, se quedan las unidas por la interacción de
+     * mayor peso y el recorrido termina ahí. Las semillas entran siempre, y también
+     * las interacciones entre semillas consecutivas (las de la ruta, si las semillas
+     * son una), aunque estén inactivas o pesen menos que {@code pesoMinimo}.
+     * 
+     * @param semillas Proteínas de partida; las que no existen se ignoran
+     * @param saltos Distancia máxima en interacciones
+     * @param maxProteinas Máximo de proteínas del resultado
+     * @param pesoMinimo Peso mínimo de las interacciones que se siguen
+     * @param progreso Receptor del avance (saltos completados sobre el total)
+     * @return Subgrafo con las proteínas y las interacciones activas entre ellas
+     * @throws CancellationException si el hilo se interrumpe durante el cálculo
+     */
+    public Subgrafo vecindario(Lista<String> semillas, int saltos, int maxProteinas,
+                               double pesoMinimo, ProgresoAnalisis progreso) {
+        long inicio = System.nanoTime();
+        EventoAlgoritmo evento = new EventoAlgoritmo();
+        evento.begin();
+        int n = 0;
+        long aristasExaminadas = 0;
+        long sello = cerrojo.readLock();
+        try {
+            // Salto de cada proteína incluida, -1 si todavía no se alcanzó
+            int[] distancia = new int[indice.getLimiteIds()];
+            Arrays.fill(distancia, -1);
+            int[] incluidas = new int[16];
+            Object[] semillasArr = semillas.toArray();
+            for (Object o : semillasArr) {
+                int id = indice.idDe((String) o);
+                if (id >= 0 && distancia[id] < 0) {
+                    distancia[id] = 0;
+                    if (n == incluidas.length) incluidas = Arrays.copyOf(incluidas, n * 2);
+                    incluidas[n++] = id;
+                }
+            }
+            int numSemillas = n;
+            // Mejor peso con que cada candidata se une a la frontera
+            double[] mejorPeso = new double[distancia.length];
+            int[] candidatas = new int[16];
+            boolean recortado = false;
+            int desde = 0;
+            for (int salto = 1; salto <= saltos && desde < n && !recortado; salto++) {
+                verificarCancelacion();
+                progreso.reportar(salto - 1, saltos);
+                int c = 0;
+                for (int i = desde; i < n; i++) {
+                    int u = incluidas[i];
+                    int grado = listas.grado(u);
+                    aristasExaminadas += grado;
+                    for (int k = 0; k < grado; k++) {
+                        Proteinas a = listas.arista(u, k);
+                        if (!a.isActiva() || a.getPeso() < pesoMinimo) continue;
+                        int v = listas.vecino(u, k);
+                        if (distancia[v] == -1) {
+                            distancia[v] = CANDIDATA;
+                            mejorPeso[v] = a.getPeso();
+                            if (c == candidatas.length) candidatas = Arrays.copyOf(candidatas, c * 2);
+                            candidatas[c++] = v;
+                        } else if (distancia[v] == CANDIDATA && a.getPeso() > mejorPeso[v]) {
+                            mejorPeso[v] = a.getPeso();
+                        }
+                    }
+                }
+                int cupo = Math.max(0, maxProteinas - n);
+                if (c > cupo) {
+                    Integer[] orden = new Integer[c];
+                    for (int i = 0; i < c; i++) orden[i] = candidatas[i];
+                    Arrays.sort(orden, (x, y) -> mejorPeso[x] == mejorPeso[y]
+                        ? indice.nombreDe(x).compareTo(indice.nombreDe(y))
+                        : Double.compare(mejorPeso[y], mejorPeso[x]));
+                    for (int i = 0; i < c; i++) candidatas[i] = orden[i];
+                    for (int i = cupo; i < c; i++) distancia[candidatas[i]] = -1;
+                    c = cupo;
+                    recortado = true;
+                }
+                desde = n;
+                if (n + c > incluidas.length) incluidas = Arrays.copyOf(incluidas, Math.max(n * 2, n + c));
+                for (int i = 0; i < c; i++) {
+                    distancia[candidatas[i]] = salto;
+                    incluidas[n++] = candidatas[i];
+                }
+            }
 
-        // Explorar vecinos no visitados
-        for (int i = 0; i < interaccionesActuales.getTamaño(); i++) {
-            Proteinas a = interaccionesActuales.obtener(i);
+            int[] posicion = new int[distancia.length];
+            Arrays.fill(posicion, -1);
+            for (int i = 0; i < n; i++) {
+                posicion[incluidas[i]] = i;
+            }
+            int capacidad = Math.max(16, numSemillas);
+            int[] origenes = new int[capacidad];
+            int[] destinos = new int[capacidad];
+            double[] pesos = new double[capacidad];
+            boolean[] deRuta = new boolean[capacidad];
+            int m = 0;
 
-            // Determinar el vecino (el otro extremo de la arista)
-            String vecino;
-            if (a.getOrigen().equals(actual)) {
-                vecino = a.getDestino();
-            } else {
-                vecino = a.getOrigen();
+            // Interacciones de la ruta: entre semillas consecutivas, sin filtrar
+            ConjuntoAristas ruta = new ConjuntoAristas();
+            int anterior = -1;
+            for (Object o : semillasArr) {
+                int id = indice.idDe((String) o);
+                Proteinas a = anterior >= 0 && id >= 0 ? listas.buscar(anterior, id) : null;
+                if (a != null && ruta.agregar(ConjuntoAristas.clave(anterior, id))) {
+                    origenes[m] = posicion[anterior];
+                    destinos[m] = posicion[id];
+                    pesos[m] = a.getPeso();
+                    deRuta[m++] = true;
+                }
+                anterior = id;
             }
 
-            // Si el vecino no ha sido visitado y aún no encontramos ruta
-            if (!visitadas.contiene(vecino) && rutaEncontrada.estaVacia()) {
-                dfsRecursivo(vecino, destino, visitadas, rutaActual, rutaEncontrada);
+            // Las demás interacciones activas entre las proteínas extraídas: cada
+            // una se toma desde el extremo que aparece primero en el subgrafo
+            for (int i = 0; i < n; i++) {
+                int u = incluidas[i];
+                int grado = listas.grado(u);
+                aristasExaminadas += grado;
+                for (int k = 0; k < grado; k++) {
+                    int v = listas.vecino(u, k);
+                    int j = posicion[v];
+                    if (j <= i) continue;
+                    Proteinas a = listas.arista(u, k);
+                    if (!a.isActiva() || a.getPeso() < pesoMinimo) continue;
+                    if (j < numSemillas && ruta.contiene(ConjuntoAristas.clave(u, v))) continue;
+                    if (m == origenes.length) {
+                        origenes = Arrays.copyOf(origenes, m * 2);
+                        destinos = Arrays.copyOf(destinos, m * 2);
+                        pesos = Arrays.copyOf(pesos, m * 2);
+                        deRuta = Arrays.copyOf(deRuta, m * 2);
+                    }
+                    origenes[m] = i;
+                    destinos[m] = j;
+                    pesos[m++] = a.getPeso();
+                }
+            }
+            String[] nombres = new String[n];
+            int[] saltosDe = new int[n];
+            for (int i = 0; i < n; i++) {
+                nombres[i] = indice.nombreDe(incluidas[i]);
+                saltosDe[i] = distancia[incluidas[i]];
             }
+            progreso.reportar(saltos, saltos);
+            return new Subgrafo(nombres, saltosDe, numSemillas,
+                Arrays.copyOf(origenes, m), Arrays.copyOf(destinos, m),
+                Arrays.copyOf(pesos, m), Arrays.copyOf(deRuta, m), recortado);
+        } finally {
+            evento.terminar("vecindario", proteinas.getTamaño(), interacciones.getTamaño(),
+                semillas.getPrimero(), semillas.getUltimo(), n);
+            cerrojo.unlockRead(sello);
+            Metricas.VECINDARIO.registrar(inicio, n, aristasExaminadas);
+        }
+    }
+    
+    /**
+     * Abandona el algoritmo en curso si el hilo que lo ejecuta fue interrumpido.
+     * 
+     * @throws CancellationException si el hilo está interrumpido
+     */
+    private static void verificarCancelacion() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Análisis cancelado");
         }
-
-        // Retroceder 
-        rutaActual.eliminar(actual);
     }
     
     /**
      * Elimina todas las proteínas e interacciones del grafo.
      */
     public void vaciar() {
-        proteinas.vaciar();
-        interacciones.vaciar();
+        long sello = cerrojo.writeLock();
+        try {
+            proteinas.vaciar();
+            interacciones.vaciar();
+            indice.vaciar();
+            claves.vaciar();
+            listas.vaciar();
+            indicePrefijos = null;
+            avisarReemplazo();
+        } finally {
+            cerrojo.unlockWrite(sello);
+        }
     }
     
     /**
@@ -449,7 +1322,17 @@ public class Grafo {
      * @return Cantidad de proteínas
      */
     public int getNumProteinas() { 
-        return proteinas.getTamaño(); 
+        long sello = cerrojo.tryOptimisticRead();
+        int tamaño = proteinas.getTamaño();
+        if (!cerrojo.validate(sello)) {
+            sello = cerrojo.readLock();
+            try {
+                tamaño = proteinas.getTamaño();
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+        return tamaño; 
     }
     
     /**
@@ -458,7 +1341,67 @@ public class Grafo {
      * @return Cantidad de interacciones
      */
     public int getNumInteracciones() { 
-        return interacciones.getTamaño(); 
+        long sello = cerrojo.tryOptimisticRead();
+        int tamaño = interacciones.getTamaño();
+        if (!cerrojo.validate(sello)) {
+            sello = cerrojo.readLock();
+            try {
+                tamaño = interacciones.getTamaño();
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+        return tamaño; 
+    }
+    
+    /**
+     * Proteína con muchas conexiones, tal como la devuelve buscarHubs.
+     */
+    public static class Hub {
+        /** Nombre de la proteína */
+        private final String proteina;
+        
+        /** Cantidad de interacciones de la proteína */
+        private final int conexiones;
+        
+        /**
+         * Constructor del hub.
+         * 
+         * @param proteina Nombre de la proteína
+         * @param conexiones Cantidad de interacciones de la proteína
+         */
+        public Hub(String proteina, int conexiones) {
+            this.proteina = proteina;
+            this.conexiones = conexiones;
+        }
+        
+        /**
+         * Obtiene el nombre de la proteína.
+         * 
+         * @return Nombre de la proteína
+         */
+        public String getProteina() { 
+            return proteina; 
+        }
+        
+        /**
+         * Obtiene el grado de la proteína.
+         * 
+         * @return Cantidad de interacciones
+         */
+        public int getConexiones() { 
+            return conexiones; 
+        }
+        
+        /**
+         * Retorna el hub como texto para mostrar.
+         * 
+         * @return String con formato "nombre (k conexiones)"
+         */
+        @Override
+        public String toString() {
+            return proteina + " (" + conexiones + " conexiones)";
+        }
     }
     
     /**
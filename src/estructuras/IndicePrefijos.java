@@ -0,0 +1,126 @@
+package estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Índice de nombres de proteínas para buscar por prefijo. Guarda los nombres en
+ * un arreglo ordenado sin distinguir mayúsculas, así que todos los que empiezan
+ * con un prefijo quedan en un rango contiguo que se encuentra con dos búsquedas
+ * binarias. Es inmutable: Grafo arma uno nuevo cuando cambian las proteínas.
+ */
+public final class IndicePrefijos {
+    private final String[] nombres;
+    private final String masLargo;
+
+    /**
+     * Constructor que ordena los nombres dados.
+     *
+     * @param nombres Nombres de las proteínas; el arreglo pasa a ser del índice
+     */
+    IndicePrefijos(String[] nombres) {
+        Arrays.sort(nombres, IndicePrefijos::comparar);
+        this.nombres = nombres;
+        String largo = "";
+        for (String n : nombres) {
+            if (n.length() > largo.length()) largo = n;
+        }
+        this.masLargo = largo;
+    }
+
+    /**
+     * Obtiene la cantidad de nombres del índice.
+     *
+     * @return Cantidad de proteínas
+     */
+    public int getCantidad() { return nombres.length; }
+
+    /**
+     * Obtiene el nombre en una posición del orden del índice.
+     *
+     * @param i Posición, entre 0 y getCantidad() - 1
+     * @return Nombre de la proteína
+     */
+    public String obtener(int i) { return nombres[i]; }
+
+    /**
+     * Obtiene el nombre más largo, útil para dimensionar una lista sin recorrerla.
+     *
+     * @return Nombre más largo, o "" si el índice está vacío
+     */
+    public String getMasLargo() { return masLargo; }
+
+    /**
+     * Busca la primera posición cuyo nombre empieza con el prefijo.
+     *
+     * @param prefijo Prefijo buscado, sin distinguir mayúsculas
+     * @return Inicio del rango; si no hay coincidencias es igual a finDe(prefijo)
+     */
+    public int inicioDe(String prefijo) {
+        int bajo = 0, alto = nombres.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (compararPrefijo(nombres[medio], prefijo) < 0) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    /**
+     * Busca la posición siguiente al último nombre que empieza con el prefijo.
+     *
+     * @param prefijo Prefijo buscado, sin distinguir mayúsculas
+     * @return Fin (exclusivo) del rango
+     */
+    public int finDe(String prefijo) {
+        int bajo = 0, alto = nombres.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (compararPrefijo(nombres[medio], prefijo) <= 0) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    /**
+     * Busca la posición de un nombre exacto.
+     *
+     * @param nombre Nombre de la proteína
+     * @return Posición en el índice, o -1 si no está
+     */
+    public int posicionDe(String nombre) {
+        int i = Arrays.binarySearch(nombres, nombre, IndicePrefijos::comparar);
+        return i >= 0 ? i : -1;
+    }
+
+    /**
+     * Orden del índice: sin distinguir mayúsculas y, a igualdad, el orden natural.
+     */
+    private static int comparar(String a, String b) {
+        int c = compararPrefijo(a, b);
+        if (c == 0) c = a.length() - b.length();
+        return c != 0 ? c : a.compareTo(b);
+    }
+
+    /**
+     * Compara el comienzo de un nombre con un prefijo sin distinguir mayúsculas.
+     *
+     * @return 0 si el nombre empieza con el prefijo; si no, el signo del orden
+     */
+    private static int compararPrefijo(String nombre, String prefijo) {
+        int n = Math.min(nombre.length(), prefijo.length());
+        for (int i = 0; i < n; i++) {
+            char a = nombre.charAt(i);
+            char b = prefijo.charAt(i);
+            if (a != b) {
+                a = Character.toUpperCase(a);
+                b = Character.toUpperCase(b);
+                if (a != b) {
+                    a = Character.toLowerCase(a);
+                    b = Character.toLowerCase(b);
+                    if (a != b) return a - b;
+                }
+            }
+        }
+        return nombre.length() < prefijo.length() ? -1 : 0;
+    }
+}
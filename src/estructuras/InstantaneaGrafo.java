@@ -0,0 +1,521 @@
+package estructuras;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Instantánea binaria de un grafo, guardada junto a su CSV para no tener que
+ * volver a interpretar el texto en cada arranque.
+ *
+ * El archivo se llama como el CSV con la extensión ".grafo" agregada y se lee con
+ * un MappedByteBuffer. Todos los valores están en little-endian:
+ * <pre>
+ *   Encabezado (80 bytes)
+ *     "BIOGRAFO", versión (int), proteínas n (int), interacciones m (int), reservado (int),
+ *     tamaño, fecha de modificación y hash del CSV de origen (long, long, long),
+ *     posición de las secciones de nombres, aristas y CSR (long, long, long),
+ *     tamaño total de la instantánea (long)
+ *   Nombres:  int[n + 1] posiciones dentro del bloque, bloque de nombres en UTF-8
+ *   Aristas:  int[m] origen, int[m] destino, double[m] peso, long[(m + 63) / 64] bits de activa
+ *   CSR:      int[n + 1] posiciones, int[2m] vecino, int[2m] arista
+ * </pre>
+ * Las proteínas se numeran en el orden de Grafo.getProteinas y las aristas en el de
+ * Grafo.getInteracciones, así que cargar la instantánea reproduce el grafo exacto,
+ * incluido el estado activo de cada interacción, que el CSV no guarda.
+ *
+ * La instantánea se considera vigente si el CSV tiene el tamaño y la fecha registrados.
+ * Si solo cambió la fecha (un archivo copiado o tocado) se compara el hash del contenido.
+ */
+public final class InstantaneaGrafo {
+    /** Extensión que se agrega al nombre del CSV */
+    public static final String EXTENSION = ".grafo";
+
+    private static final byte[] FIRMA = "BIOGRAFO".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int TAMAÑO_ENCABEZADO = 80;
+    private static final int POS_FECHA = 32;
+    private static final int TAMAÑO_BUFFER = 1 << 20;
+
+    private final MappedByteBuffer datos;
+    private final int numProteinas;
+    private final int numAristas;
+    private final int posNombres;
+    private final int posBloque;
+    private final int posOrigenes;
+    private final int posDestinos;
+    private final int posPesos;
+    private final int posActivas;
+    private final int posCSR;
+
+    private InstantaneaGrafo(MappedByteBuffer datos) throws IOException {
+        this.datos = datos;
+        datos.order(ByteOrder.LITTLE_ENDIAN);
+        numProteinas = datos.getInt(12);
+        numAristas = datos.getInt(16);
+        posNombres = (int) datos.getLong(48);
+        posOrigenes = (int) datos.getLong(56);
+        posCSR = (int) datos.getLong(64);
+        posBloque = posNombres + 4 * (numProteinas + 1);
+        posDestinos = posOrigenes + 4 * numAristas;
+        posPesos = alinear(posDestinos + 4 * numAristas);
+        posActivas = posPesos + 8 * numAristas;
+        if (numProteinas < 0 || numAristas < 0
+                || posNombres + 4L * (numProteinas + 1) > posOrigenes
+                || alinear(posOrigenes + 8L * numAristas) + 8L * numAristas
+                    + 8L * ((numAristas + 63) / 64) > posCSR
+                || posCSR + 4L * (numProteinas + 1) + 16L * numAristas > datos.capacity()) {
+            throw new IOException("Instantánea dañada");
+        }
+    }
+
+    /**
+     * Obtiene el archivo de instantánea que corresponde a un CSV.
+     *
+     * @param csv Archivo CSV
+     * @return Archivo de instantánea junto al CSV
+     */
+    public static File archivoPara(File csv) {
+        return new File(csv.getPath() + EXTENSION);
+    }
+
+    /**
+     * Carga el grafo desde la instantánea del CSV si existe y está vigente;
+     * si no, lee el CSV y vuelve a escribir la instantánea.
+     *
+     * @param csv Archivo CSV de origen
+     * @param grafo Grafo donde cargar los datos
+     * @return true si se cargó desde la instantánea, false si se leyó el CSV
+     * @throws IOException si el CSV no se puede leer
+     */
+    public static boolean cargarOReconstruir(File csv, Grafo grafo) throws IOException {
+        if (cargar(csv, grafo)) {
+            return true;
+        }
+        ArchivoCSV.leer(csv, grafo);
+        try {
+            escribir(csv, grafo);
+        } catch (IOException e) {
+            // La instantánea es solo un atajo: sin ella se vuelve a leer el CSV la próxima vez
+            archivoPara(csv).delete();
+        }
+        return false;
+    }
+
+    /**
+     * Carga el grafo desde la instantánea del CSV.
+     *
+     * @param csv Archivo CSV de origen
+     * @param grafo Grafo donde cargar los datos. No se toca si no hay instantánea o está
+     *              vencida; si está dañada puede quedar vacío
+     * @return true si se cargó, false si no hay instantánea, está vencida o está dañada
+     */
+    public static boolean cargar(File csv, Grafo grafo) {
+        return cargar(csv, archivoPara(csv), grafo);
+    }
+
+    /**
+     * Carga el grafo desde una instantánea guardada en otro archivo, por ejemplo
+     * un punto de control del diario de mutaciones.
+     *
+     * @param csv Archivo CSV de origen, contra el que se valida la instantánea
+     * @param archivo Archivo de la instantánea
+     * @param grafo Grafo donde cargar los datos
+     * @return true si se cargó, false si no existe, está vencida o está dañada
+     */
+    static boolean cargar(File csv, File archivo, Grafo grafo) {
+        if (!archivo.isFile() || !csv.isFile()) return false;
+        long inicio = Metricas.CARGA_INSTANTANEA.iniciar();
+        EventoArchivo evento = new EventoArchivo();
+        evento.begin();
+        long bytes = 0;
+        try {
+            if (!vigente(csv, archivo)) return false;
+            MappedByteBuffer datos;
+            try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+                if (canal.size() > Integer.MAX_VALUE) return false;
+                datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            }
+            bytes = datos.capacity();
+            grafo.cargarInstantanea(new InstantaneaGrafo(datos));
+            Metricas.CARGA_INSTANTANEA.detener(inicio);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        } finally {
+            evento.terminar("instantanea", archivo.getPath(), bytes, 0, grafo);
+        }
+    }
+
+    /**
+     * Escribe la instantánea del grafo junto al CSV del que proviene.
+     * Se escribe en un archivo temporal que luego reemplaza al anterior.
+     *
+     * @param csv Archivo CSV que contiene los mismos datos que el grafo
+     * @param grafo Grafo a guardar
+     * @throws IOException si la instantánea no se puede escribir
+     */
+    public static void escribir(File csv, Grafo grafo) throws IOException {
+        escribir(csv, archivoPara(csv), grafo.copiarListas());
+    }
+
+    /**
+     * Escribe una instantánea de las listas copiadas de un grafo en el archivo indicado.
+     *
+     * @param csv Archivo CSV cuyos datos de identificación se registran en el encabezado
+     * @param archivo Archivo de la instantánea
+     * @param listas Proteínas e interacciones, como las devuelve Grafo.copiarListas
+     * @throws IOException si la instantánea no se puede escribir
+     */
+    static void escribir(File csv, File archivo, Object[][] listas) throws IOException {
+        Object[] proteinas = listas[0];
+        Object[] interacciones = listas[1];
+        int n = proteinas.length;
+        int m = interacciones.length;
+
+        // Numeración densa en el orden de la lista de proteínas
+        DiccionarioProteinas ids = new DiccionarioProteinas();
+        byte[][] nombres = new byte[n][];
+        long tamañoBloque = 0;
+        for (int i = 0; i < n; i++) {
+            ids.agregar((String) proteinas[i]);
+            nombres[i] = ((String) proteinas[i]).getBytes(StandardCharsets.UTF_8);
+            tamañoBloque += nombres[i].length;
+        }
+        int[] origenes = new int[m];
+        int[] destinos = new int[m];
+        int[] grados = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            Proteinas a = (Proteinas) interacciones[e];
+            origenes[e] = ids.idDe(a.getOrigen());
+            destinos[e] = ids.idDe(a.getDestino());
+            grados[origenes[e] + 1]++;
+            grados[destinos[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            grados[i + 1] += grados[i];
+        }
+
+        long posNombres = TAMAÑO_ENCABEZADO;
+        long posAristas = alinear(posNombres + 4L * (n + 1) + tamañoBloque);
+        long posPesos = alinear(posAristas + 8L * m);
+        long posCSR = posPesos + 8L * m + 8L * ((m + 63) / 64);
+        long total = posCSR + 4L * (n + 1) + 16L * m;
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("El grafo es demasiado grande para una instantánea");
+        }
+
+        Path destino = archivo.toPath();
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Salida s = new Salida(canal);
+            s.bytes(FIRMA);
+            s.entero(VERSION);
+            s.entero(n);
+            s.entero(m);
+            s.entero(0);
+            s.largo(csv.length());
+            s.largo(csv.lastModified());
+            s.largo(hash(csv));
+            s.largo(posNombres);
+            s.largo(posAristas);
+            s.largo(posCSR);
+            s.largo(total);
+
+            int posicion = 0;
+            for (int i = 0; i < n; i++) {
+                s.entero(posicion);
+                posicion += nombres[i].length;
+            }
+            s.entero(posicion);
+            for (int i = 0; i < n; i++) {
+                s.bytes(nombres[i]);
+            }
+            s.rellenarHasta(posAristas);
+
+            for (int e = 0; e < m; e++) s.entero(origenes[e]);
+            for (int e = 0; e < m; e++) s.entero(destinos[e]);
+            s.rellenarHasta(posPesos);
+            for (int e = 0; e < m; e++) s.real(((Proteinas) interacciones[e]).getPeso());
+            long bits = 0;
+            for (int e = 0; e < m; e++) {
+                if (((Proteinas) interacciones[e]).isActiva()) bits |= 1L << (e & 63);
+                if ((e & 63) == 63 || e == m - 1) {
+                    s.largo(bits);
+                    bits = 0;
+                }
+            }
+
+            for (int i = 0; i <= n; i++) s.entero(grados[i]);
+            int[] vecinos = new int[2 * m];
+            int[] aristas = new int[2 * m];
+            int[] siguiente = grados;
+            for (int e = 0; e < m; e++) {
+                int k = siguiente[origenes[e]]++;
+                vecinos[k] = destinos[e];
+                aristas[k] = e;
+                k = siguiente[destinos[e]]++;
+                vecinos[k] = origenes[e];
+                aristas[k] = e;
+            }
+            for (int k = 0; k < 2 * m; k++) s.entero(vecinos[k]);
+            for (int k = 0; k < 2 * m; k++) s.entero(aristas[k]);
+            s.terminar();
+        }
+        try {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Verifica el encabezado de la instantánea contra el CSV. Si solo difiere la
+     * fecha pero el contenido es el mismo, actualiza la fecha registrada.
+     */
+    private static boolean vigente(File csv, File archivo) throws IOException {
+        ByteBuffer encabezado = ByteBuffer.allocate(TAMAÑO_ENCABEZADO).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            while (encabezado.hasRemaining() && canal.read(encabezado) > 0) {
+                // leer hasta completar el encabezado
+            }
+            if (encabezado.hasRemaining()) return false;
+            for (int i = 0; i < FIRMA.length; i++) {
+                if (encabezado.get(i) != FIRMA[i]) return false;
+            }
+            if (encabezado.getInt(8) != VERSION) return false;
+            if (encabezado.getLong(72) != canal.size()) return false;
+            if (encabezado.getLong(24) != csv.length()) return false;
+            if (encabezado.getLong(POS_FECHA) == csv.lastModified()) return true;
+            if (encabezado.getLong(40) != hash(csv)) return false;
+            ByteBuffer fecha = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            fecha.putLong(0, csv.lastModified());
+            canal.write(fecha, POS_FECHA);
+            return true;
+        }
+    }
+
+    /**
+     * Calcula un hash de 64 bits del contenido de un archivo, de a ocho bytes por paso.
+     *
+     * @param archivo Archivo a recorrer
+     * @return Hash del contenido
+     * @throws IOException si el archivo no se puede leer
+     */
+    static long hash(File archivo) throws IOException {
+        final long primo1 = 0x9E3779B185EBCA87L;
+        final long primo2 = 0xC2B2AE3D27D4EB4FL;
+        long h = 0x27D4EB2F165667C5L;
+        long total = 0;
+        ByteBuffer b = ByteBuffer.allocateDirect(TAMAÑO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            int leidos;
+            while ((leidos = canal.read(b)) >= 0) {
+                total += leidos;
+                b.flip();
+                while (b.remaining() >= 8) {
+                    h = Long.rotateLeft(h ^ b.getLong() * primo2, 31) * primo1;
+                }
+                b.compact();
+            }
+            b.flip();
+            while (b.hasRemaining()) {
+                h = Long.rotateLeft(h ^ (b.get() & 0xffL) * primo1, 11) * primo2;
+            }
+        }
+        h ^= total;
+        h ^= h >>> 33;
+        h *= primo2;
+        h ^= h >>> 29;
+        return h;
+    }
+
+    /**
+     * Obtiene el número de proteínas.
+     *
+     * @return Cantidad de proteínas
+     */
+    public int getNumProteinas() {
+        return numProteinas;
+    }
+
+    /**
+     * Obtiene el número de interacciones.
+     *
+     * @return Cantidad de interacciones
+     */
+    public int getNumInteracciones() {
+        return numAristas;
+    }
+
+    /**
+     * Obtiene el nombre de una proteína.
+     *
+     * @param id Número de la proteína (0 a getNumProteinas() - 1)
+     * @return Nombre de la proteína
+     */
+    public String nombre(int id) {
+        int inicio = datos.getInt(posNombres + 4 * id);
+        int fin = datos.getInt(posNombres + 4 * (id + 1));
+        byte[] bytes = new byte[fin - inicio];
+        datos.get(posBloque + inicio, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Obtiene la proteína de origen de una interacción.
+     *
+     * @param arista Número de la interacción
+     * @return Número de la proteína de origen
+     */
+    public int origen(int arista) {
+        return datos.getInt(posOrigenes + 4 * arista);
+    }
+
+    /**
+     * Obtiene la proteína de destino de una interacción.
+     *
+     * @param arista Número de la interacción
+     * @return Número de la proteína de destino
+     */
+    public int destino(int arista) {
+        return datos.getInt(posDestinos + 4 * arista);
+    }
+
+    /**
+     * Obtiene el peso de una interacción.
+     *
+     * @param arista Número de la interacción
+     * @return Peso
+     */
+    public double peso(int arista) {
+        return datos.getDouble(posPesos + 8 * arista);
+    }
+
+    /**
+     * Indica si una interacción está activa.
+     *
+     * @param arista Número de la interacción
+     * @return true si está activa
+     */
+    public boolean activa(int arista) {
+        return (datos.getLong(posActivas + 8 * (arista >>> 6)) & (1L << (arista & 63))) != 0;
+    }
+
+    /**
+     * Obtiene el número de vecinos de una proteína.
+     *
+     * @param id Número de la proteína
+     * @return Grado de la proteína
+     */
+    public int grado(int id) {
+        return datos.getInt(posCSR + 4 * (id + 1)) - datos.getInt(posCSR + 4 * id);
+    }
+
+    /**
+     * Obtiene un vecino de una proteína.
+     *
+     * @param id Número de la proteína
+     * @param k Posición del vecino (0 a grado(id) - 1)
+     * @return Número de la proteína vecina
+     */
+    public int vecino(int id, int k) {
+        return datos.getInt(posVecinos() + 4 * (datos.getInt(posCSR + 4 * id) + k));
+    }
+
+    /**
+     * Obtiene la interacción que une una proteína con uno de sus vecinos.
+     *
+     * @param id Número de la proteína
+     * @param k Posición del vecino (0 a grado(id) - 1)
+     * @return Número de la interacción
+     */
+    public int aristaDeVecino(int id, int k) {
+        return datos.getInt(posVecinos() + 8 * numAristas + 4 * (datos.getInt(posCSR + 4 * id) + k));
+    }
+
+    private int posVecinos() {
+        return posCSR + 4 * (numProteinas + 1);
+    }
+
+    private static int alinear(int posicion) {
+        return (posicion + 7) & ~7;
+    }
+
+    private static long alinear(long posicion) {
+        return (posicion + 7) & ~7L;
+    }
+
+    /**
+     * Escritura secuencial en little-endian sobre un buffer directo que se vacía al canal.
+     */
+    private static final class Salida {
+        private final FileChannel canal;
+        private final ByteBuffer b = ByteBuffer.allocateDirect(TAMAÑO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        private long escritos;
+
+        Salida(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        void entero(int valor) throws IOException {
+            if (b.remaining() < 4) vaciar();
+            b.putInt(valor);
+            escritos += 4;
+        }
+
+        void largo(long valor) throws IOException {
+            if (b.remaining() < 8) vaciar();
+            b.putLong(valor);
+            escritos += 8;
+        }
+
+        void real(double valor) throws IOException {
+            if (b.remaining() < 8) vaciar();
+            b.putDouble(valor);
+            escritos += 8;
+        }
+
+        void bytes(byte[] valor) throws IOException {
+            int hechos = 0;
+            while (hechos < valor.length) {
+                if (!b.hasRemaining()) vaciar();
+                int n = Math.min(b.remaining(), valor.length - hechos);
+                b.put(valor, hechos, n);
+                hechos += n;
+            }
+            escritos += valor.length;
+        }
+
+        void rellenarHasta(long posicion) throws IOException {
+            while (escritos < posicion) {
+                if (!b.hasRemaining()) vaciar();
+                b.put((byte) 0);
+                escritos++;
+            }
+        }
+
+        void terminar() throws IOException {
+            vaciar();
+        }
+
+        private void vaciar() throws IOException {
+            b.flip();
+            while (b.hasRemaining()) {
+                canal.write(b);
+            }
+            b.clear();
+        }
+    }
+}
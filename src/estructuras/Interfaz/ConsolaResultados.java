@@ -0,0 +1,378 @@
+package estructuras.Interfaz;
+
+import java.awt.BorderLayout;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+
+/**
+ * Salida de resultados de la ventana principal. El texto se junta y se agrega al
+ * área en tandas periódicas, y el área conserva solo el final de la salida (un
+ * anillo de MAX_CARACTERES), así que un listado de miles de complejos no hace
+ * crecer el documento ni re-diagrama el texto por cada línea.
+ *
+ * La salida completa se escribe a un archivo temporal con un índice de dónde
+ * empieza cada línea; desde el menú contextual del área se puede ver completa en
+ * una tabla que lee del archivo solo las páginas visibles, o exportar.
+ */
+public class ConsolaResultados {
+    private static final int PERIODO_MS = 100;
+    /** Caracteres de salida que se conservan en el área */
+    private static final int MAX_CARACTERES = 100_000;
+    /** Líneas que lee de una vez la vista completa */
+    private static final int TAMAÑO_PAGINA = 256;
+
+    private final JTextArea area;
+    private final Timer temporizador;
+    /** Texto agregado desde cualquier hilo que todavía no se volcó; protegido por sí mismo */
+    private final StringBuilder pendiente = new StringBuilder();
+    private boolean programado;
+
+    // Estado del archivo y del área; solo se usa en el hilo de eventos
+    private File archivo;
+    private OutputStream escritor;
+    /** Si no se pudo crear o escribir el archivo; entonces solo queda el área */
+    private boolean sinArchivo;
+    private long bytesEscritos;
+    /** Posición en el archivo donde empieza cada línea */
+    private long[] inicios = new long[1024];
+    private int lineas;
+    private boolean lineaAbierta;
+    /** Líneas que salieron del área por el límite */
+    private int omitidas;
+    /** Largo del aviso de líneas omitidas al comienzo del área */
+    private int largoNota;
+
+    /**
+     * Constructor que toma el control de un área de texto.
+     *
+     * @param area Área donde se muestra el final de la salida
+     */
+    public ConsolaResultados(JTextArea area) {
+        this.area = area;
+        this.temporizador = new Timer(PERIODO_MS, e -> volcar());
+        temporizador.setRepeats(false);
+
+        JPopupMenu menu = new JPopupMenu();
+        JMenuItem itemVer = new JMenuItem("Ver resultados completos...");
+        itemVer.addActionListener(e -> verCompletos());
+        JMenuItem itemExportar = new JMenuItem("Exportar resultados...");
+        itemExportar.addActionListener(e -> exportar());
+        JMenuItem itemLimpiar = new JMenuItem("Limpiar");
+        itemLimpiar.addActionListener(e -> limpiar());
+        menu.add(itemVer);
+        menu.add(itemExportar);
+        menu.addSeparator();
+        menu.add(itemLimpiar);
+        area.setComponentPopupMenu(menu);
+    }
+
+    /**
+     * Obtiene el área de texto donde se muestran los resultados.
+     *
+     * @return Área de la consola
+     */
+    public JTextArea getArea() { return area; }
+
+    /**
+     * Agrega texto a la salida. Puede llamarse desde cualquier hilo; el texto
+     * aparece en el área en la próxima tanda.
+     *
+     * @param texto Texto a agregar
+     */
+    public void agregar(String texto) {
+        synchronized (pendiente) {
+            pendiente.append(texto);
+            if (programado) return;
+            programado = true;
+        }
+        SwingUtilities.invokeLater(temporizador::restart);
+    }
+
+    /**
+     * Borra el área y la salida completa.
+     */
+    public void limpiar() {
+        synchronized (pendiente) {
+            pendiente.setLength(0);
+        }
+        area.setText("");
+        largoNota = 0;
+        omitidas = 0;
+        lineas = 0;
+        lineaAbierta = false;
+        bytesEscritos = 0;
+        if (escritor != null) {
+            try {
+                escritor.close();
+                escritor = new BufferedOutputStream(new FileOutputStream(archivo, false), 1 << 16);
+            } catch (IOException e) {
+                descartarArchivo(e);
+            }
+        }
+    }
+
+    /**
+     * Vuelca el texto pendiente al archivo y al área, recortando el área al límite.
+     */
+    private void volcar() {
+        String texto;
+        synchronized (pendiente) {
+            texto = pendiente.toString();
+            pendiente.setLength(0);
+            programado = false;
+        }
+        if (texto.isEmpty()) return;
+        escribirArchivo(texto);
+
+        Document doc = area.getDocument();
+        try {
+            if (texto.length() > MAX_CARACTERES) {
+                // La tanda sola ya excede el límite: el área se reemplaza por su final
+                int corte = texto.indexOf('\n', texto.length() - MAX_CARACTERES) + 1;
+                if (corte == 0) corte = texto.length() - MAX_CARACTERES;
+                omitidas += contarLineas(doc.getText(largoNota, doc.getLength() - largoNota))
+                    + contarLineas(texto.substring(0, corte));
+                doc.remove(0, doc.getLength());
+                largoNota = 0;
+                texto = texto.substring(corte);
+            }
+            area.append(texto);
+
+            int exceso = doc.getLength() - largoNota - MAX_CARACTERES;
+            if (exceso > 0) {
+                // Quitar líneas enteras del comienzo
+                Element raiz = doc.getDefaultRootElement();
+                Element linea = raiz.getElement(raiz.getElementIndex(largoNota + exceso));
+                int corte = Math.min(linea.getEndOffset(), doc.getLength());
+                // Una sola línea enorme se corta por la mitad
+                if (corte == doc.getLength()) corte = largoNota + exceso;
+                omitidas += contarLineas(doc.getText(largoNota, corte - largoNota));
+                doc.remove(largoNota, corte - largoNota);
+            }
+            if (omitidas > 0) {
+                String nota = "[" + omitidas + " líneas anteriores fuera de vista;"
+                    + " clic derecho para ver todo o exportar]\n";
+                doc.remove(0, largoNota);
+                doc.insertString(0, nota, null);
+                largoNota = nota.length();
+            }
+            // Seguir mostrando el final aunque la nota se haya insertado al comienzo
+            area.setCaretPosition(doc.getLength());
+        } catch (BadLocationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int contarLineas(String texto) {
+        int n = 0;
+        for (int i = texto.indexOf('\n'); i >= 0; i = texto.indexOf('\n', i + 1)) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Agrega el texto al archivo de salida completa y registra dónde empieza cada línea.
+     */
+    private void escribirArchivo(String texto) {
+        if (escritor == null && (sinArchivo || !abrirArchivo())) return;
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i++) {
+            if (!lineaAbierta) {
+                if (lineas == inicios.length) inicios = Arrays.copyOf(inicios, lineas * 2);
+                inicios[lineas++] = bytesEscritos + i;
+                lineaAbierta = true;
+            }
+            if (bytes[i] == '\n') lineaAbierta = false;
+        }
+        try {
+            escritor.write(bytes);
+            bytesEscritos += bytes.length;
+        } catch (IOException e) {
+            descartarArchivo(e);
+        }
+    }
+
+    private boolean abrirArchivo() {
+        try {
+            archivo = File.createTempFile("biograph-resultados", ".txt");
+            archivo.deleteOnExit();
+            escritor = new BufferedOutputStream(new FileOutputStream(archivo), 1 << 16);
+            return true;
+        } catch (IOException e) {
+            descartarArchivo(e);
+            return false;
+        }
+    }
+
+    /**
+     * Deja de guardar la salida completa; el área sigue funcionando.
+     */
+    private void descartarArchivo(IOException causa) {
+        if (escritor != null) {
+            try {
+                escritor.close();
+            } catch (IOException e) {
+                // Ya se informa la causa original
+            }
+        }
+        escritor = null;
+        sinArchivo = true;
+        lineas = 0;
+        area.append("No se puede guardar la salida completa: " + causa.getMessage() + "\n");
+    }
+
+    private boolean hayArchivo() {
+        if (escritor == null) return false;
+        try {
+            escritor.flush();
+            return true;
+        } catch (IOException e) {
+            descartarArchivo(e);
+            return false;
+        }
+    }
+
+    /**
+     * Exporta la salida completa (o, si no hay archivo, lo que muestra el área) a un archivo de texto.
+     */
+    public void exportar() {
+        volcar();
+        JFileChooser fileChooser = new JFileChooser(".");
+        fileChooser.setDialogTitle("Exportar resultados");
+        fileChooser.setSelectedFile(new File("resultados.txt"));
+        if (fileChooser.showSaveDialog(area) != JFileChooser.APPROVE_OPTION) return;
+        File destino = fileChooser.getSelectedFile();
+        try {
+            if (hayArchivo()) {
+                Files.copy(archivo.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.write(destino.toPath(), area.getText().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(area,
+                "Error al exportar los resultados:\n" + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Muestra la salida completa en una tabla que lee el archivo por páginas.
+     */
+    public void verCompletos() {
+        volcar();
+        if (!hayArchivo()) {
+            JOptionPane.showMessageDialog(area,
+                "La salida completa no está disponible.",
+                "Información",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        try (RandomAccessFile lector = new RandomAccessFile(archivo, "r")) {
+            ModeloLineas modelo = new ModeloLineas(lector, Arrays.copyOf(inicios, lineas), bytesEscritos);
+            JTable tabla = new JTable(modelo);
+            tabla.setFont(area.getFont());
+            tabla.setAutoResizeMode(JTable.AUTO_RESIZE_LAST_COLUMN);
+            tabla.getColumnModel().getColumn(0).setMaxWidth(80);
+            tabla.setRowHeight(tabla.getFontMetrics(tabla.getFont()).getHeight() + 2);
+
+            JDialog dialogo = new JDialog(SwingUtilities.getWindowAncestor(area),
+                "Resultados completos", JDialog.DEFAULT_MODALITY_TYPE);
+            dialogo.add(new JScrollPane(tabla), BorderLayout.CENTER);
+            dialogo.add(new JLabel(" " + lineas + " líneas"), BorderLayout.SOUTH);
+            dialogo.setSize(700, 500);
+            dialogo.setLocationRelativeTo(area);
+            dialogo.setVisible(true);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(area,
+                "Error al leer los resultados:\n" + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Filas de la vista completa: lee del archivo la página de líneas que se pide
+     * y guarda solo la última.
+     */
+    private static class ModeloLineas extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+
+        private final RandomAccessFile lector;
+        private final long[] inicios;
+        private final long fin;
+        private int paginaCargada = -1;
+        private String[] pagina;
+
+        ModeloLineas(RandomAccessFile lector, long[] inicios, long fin) {
+            this.lector = lector;
+            this.inicios = inicios;
+            this.fin = fin;
+        }
+
+        @Override
+        public int getRowCount() { return inicios.length; }
+
+        @Override
+        public int getColumnCount() { return 2; }
+
+        @Override
+        public String getColumnName(int columna) {
+            return columna == 0 ? "Línea" : "Texto";
+        }
+
+        @Override
+        public Object getValueAt(int fila, int columna) {
+            if (columna == 0) return fila + 1;
+            int numero = fila / TAMAÑO_PAGINA;
+            if (numero != paginaCargada) cargarPagina(numero);
+            return pagina[fila - numero * TAMAÑO_PAGINA];
+        }
+
+        private void cargarPagina(int numero) {
+            int primera = numero * TAMAÑO_PAGINA;
+            int cantidad = Math.min(TAMAÑO_PAGINA, inicios.length - primera);
+            long desde = inicios[primera];
+            long hasta = primera + cantidad < inicios.length ? inicios[primera + cantidad] : fin;
+            pagina = new String[cantidad];
+            try {
+                byte[] bytes = new byte[(int) (hasta - desde)];
+                lector.seek(desde);
+                lector.readFully(bytes);
+                for (int i = 0; i < cantidad; i++) {
+                    int a = (int) (inicios[primera + i] - desde);
+                    int b = i + 1 < cantidad ? (int) (inicios[primera + i + 1] - desde) : bytes.length;
+                    if (b > a && bytes[b - 1] == '\n') b--;
+                    pagina[i] = new String(bytes, a, b - a, StandardCharsets.UTF_8);
+                }
+            } catch (IOException e) {
+                Arrays.fill(pagina, "(no se pudo leer: " + e.getMessage() + ")");
+            }
+            paginaCargada = numero;
+        }
+    }
+}
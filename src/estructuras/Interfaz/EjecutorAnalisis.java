@@ -0,0 +1,208 @@
+package estructuras.Interfaz;
+
+import estructuras.ProgresoAnalisis;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.swing.*;
+
+/**
+ * Ejecuta los análisis del Grafo en un hilo de fondo para no congelar la interfaz.
+ * Publica la salida parcial y el progreso en el hilo de eventos de Swing, permite
+ * cancelar el análisis en curso y deshabilita los controles que modifican el grafo
+ * mientras el análisis se ejecuta. Al cancelar, los controles recién se habilitan
+ * cuando el hilo de fondo terminó de verdad, porque hasta entonces puede seguir
+ * teniendo el cerrojo de lectura del grafo y una edición bloquearía la interfaz.
+ */
+public class EjecutorAnalisis {
+
+    /**
+     * Cuerpo de un análisis que se ejecuta fuera del hilo de eventos.
+     *
+     * @param <T> Tipo del resultado que se entrega al terminar
+     */
+    public interface Analisis<T> {
+        /**
+         * Ejecuta el análisis.
+         *
+         * @param progreso Receptor del avance del algoritmo
+         * @param salida Recibe el texto a mostrar en los resultados a medida que se produce
+         * @return Resultado que se entrega en el hilo de eventos al terminar
+         * @throws Exception si el análisis falla
+         */
+        T ejecutar(ProgresoAnalisis progreso, Consumer<String> salida) throws Exception;
+    }
+
+    /** Estados del hilo de fondo de un análisis */
+    private static final int SIN_EMPEZAR = 0;
+    private static final int EJECUTANDO = 1;
+    private static final int TERMINADO = 2;
+
+    private final ConsolaResultados consola;
+    private final JProgressBar barraProgreso;
+    private final JButton btnCancelar;
+    private final JComponent[] bloqueados;
+    private SwingWorker<?, String> actual;
+
+    /**
+     * Constructor del ejecutor.
+     *
+     * @param consola Consola donde se publica la salida de los análisis
+     * @param barraProgreso Barra donde se muestra el avance
+     * @param btnCancelar Botón que cancela el análisis en curso
+     * @param bloqueados Controles que se deshabilitan mientras hay un análisis en curso
+     */
+    public EjecutorAnalisis(ConsolaResultados consola, JProgressBar barraProgreso,
+                            JButton btnCancelar, JComponent... bloqueados) {
+        this.consola = consola;
+        this.barraProgreso = barraProgreso;
+        this.btnCancelar = btnCancelar;
+        this.bloqueados = bloqueados;
+
+        barraProgreso.setStringPainted(true);
+        barraProgreso.setString("Listo");
+        btnCancelar.setEnabled(false);
+        btnCancelar.addActionListener(e -> cancelar());
+    }
+
+    /**
+     * Verifica si hay un análisis en ejecución.
+     *
+     * @return true si hay un análisis en curso
+     */
+    public boolean estaOcupado() {
+        return actual != null;
+    }
+
+    /**
+     * Ejecuta un análisis en segundo plano descartando su resultado.
+     *
+     * @param nombre Nombre del análisis para los mensajes
+     * @param analisis Análisis a ejecutar
+     */
+    public void ejecutar(String nombre, Analisis<?> analisis) {
+        ejecutar(nombre, analisis, null);
+    }
+
+    /**
+     * Ejecuta un análisis en segundo plano.
+     * Debe llamarse desde el hilo de eventos de Swing.
+     *
+     * @param <T> Tipo del resultado del análisis
+     * @param nombre Nombre del análisis para los mensajes
+     * @param analisis Análisis a ejecutar
+     * @param alTerminar Recibe el resultado en el hilo de eventos si el análisis termina bien (puede ser null)
+     */
+    public <T> void ejecutar(String nombre, Analisis<T> analisis, Consumer<T> alTerminar) {
+        if (estaOcupado()) {
+            JOptionPane.showMessageDialog(consola.getArea(),
+                "Ya hay un análisis en ejecución.",
+                "Análisis en curso",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        SwingWorker<T, String> worker = new SwingWorker<T, String>() {
+            private final AtomicInteger estado = new AtomicInteger(SIN_EMPEZAR);
+
+            @Override
+            protected T doInBackground() throws Exception {
+                // Si done() ya dio por terminado un análisis cancelado antes de empezar, no hacer nada
+                if (!estado.compareAndSet(SIN_EMPEZAR, EJECUTANDO)) return null;
+                try {
+                    ProgresoAnalisis progreso = (hechos, total) -> {
+                        if (total > 0) {
+                            setProgress((int) Math.min(100, hechos * 100L / total));
+                        }
+                    };
+                    return analisis.ejecutar(progreso, linea -> publish(linea));
+                } finally {
+                    estado.set(TERMINADO);
+                    SwingUtilities.invokeLater(() -> terminar(this));
+                }
+            }
+
+            @Override
+            protected void process(List<String> lineas) {
+                // La consola junta las tandas y solo re-diagrama el texto una vez por período
+                StringBuilder sb = new StringBuilder();
+                for (String linea : lineas) {
+                    sb.append(linea);
+                }
+                consola.agregar(sb.toString());
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    T resultado = get();
+                    if (alTerminar != null) {
+                        alTerminar.accept(resultado);
+                    }
+                } catch (CancellationException e) {
+                    consola.agregar("\nAnálisis cancelado: " + nombre + "\n\n");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause();
+                    if (causa instanceof CancellationException) {
+                        consola.agregar("\nAnálisis cancelado: " + nombre + "\n\n");
+                    } else {
+                        consola.agregar("\nError en " + nombre + ": " + causa + "\n\n");
+                    }
+                } finally {
+                    // Cancelado sin llegar a ejecutarse: nadie más va a restaurar los controles
+                    if (estado.compareAndSet(SIN_EMPEZAR, TERMINADO)) {
+                        terminar(this);
+                    }
+                }
+            }
+        };
+
+        worker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName()) && !worker.isCancelled()) {
+                int valor = (Integer) evt.getNewValue();
+                barraProgreso.setValue(valor);
+                barraProgreso.setString(nombre + " " + valor + "%");
+            }
+        });
+
+        actual = worker;
+        for (JComponent c : bloqueados) {
+            c.setEnabled(false);
+        }
+        btnCancelar.setEnabled(true);
+        barraProgreso.setValue(0);
+        barraProgreso.setString(nombre + "...");
+        worker.execute();
+    }
+
+    /**
+     * Cancela el análisis en curso interrumpiendo su hilo. Los controles siguen
+     * deshabilitados hasta que el hilo termine.
+     */
+    public void cancelar() {
+        if (actual != null && actual.cancel(true)) {
+            btnCancelar.setEnabled(false);
+            barraProgreso.setString("Cancelando...");
+        }
+    }
+
+    /**
+     * Restaura los controles cuando el hilo de fondo de un análisis terminó.
+     *
+     * @param worker Análisis que terminó; si ya no es el actual no se hace nada
+     */
+    private void terminar(SwingWorker<?, String> worker) {
+        if (actual != worker) return;
+        actual = null;
+        for (JComponent c : bloqueados) {
+            c.setEnabled(true);
+        }
+        btnCancelar.setEnabled(false);
+        barraProgreso.setValue(0);
+        barraProgreso.setString("Listo");
+    }
+}
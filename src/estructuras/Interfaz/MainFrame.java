@@ -5,14 +5,11 @@
 package estructuras.Interfaz;
 import estructuras.Grafo;
 import estructuras.CargadorArchivo;
+import estructuras.IndicePrefijos;
 import estructuras.Lista;
-import estructuras.Proteinas;
+import estructuras.Metricas;
+import estructuras.Subgrafo;
 import javax.swing.*;
-import org.graphstream.graph.*;
-import org.graphstream.graph.implementations.*;
-import org.graphstream.ui.swing_viewer.SwingViewer;
-import org.graphstream.ui.swing_viewer.ViewPanel;
-import org.graphstream.ui.view.Viewer;
 import java.awt.*;
 
 /**
@@ -21,8 +18,16 @@ import java.awt.*;
  */
 public class MainFrame extends javax.swing.JFrame {
     private Grafo grafo;
-    private DefaultComboBoxModel<String> modeloOrigen;
-    private DefaultComboBoxModel<String> modeloDestino;
+    private ModeloProteinas modeloOrigen;
+    private ModeloProteinas modeloDestino;
+    private EjecutorAnalisis ejecutor;
+    private ConsolaResultados consola;
+    private JProgressBar barraProgreso;
+    private JButton btnCancelar;
+    private JCheckBox chkVigilar;
+    private JButton btnVecindario;
+    private VistaGrafo vista;
+    private JTextArea txtMetricas;
 
     /**
      * Creates new form MainFrame
@@ -34,23 +39,192 @@ public class MainFrame extends javax.swing.JFrame {
     
     private void inicializar() {
         this.grafo = new Grafo();
-        // Crear modelos SEPARADOS
-        modeloOrigen = new DefaultComboBoxModel<>();
-        modeloDestino = new DefaultComboBoxModel<>();
-
-        // Asignar modelos DIFERENTES a cada ComboBox
-        cmbOrigen.setModel(modeloOrigen);
-        cmbDestino.setModel(modeloDestino);
+        // Crear modelos SEPARADOS sobre el mismo índice de proteínas
+        modeloOrigen = new ModeloProteinas(grafo.getIndiceProteinas(), null);
+        modeloDestino = new ModeloProteinas(grafo.getIndiceProteinas(), null);
+
+        // Asignar modelos DIFERENTES a cada ComboBox, con búsqueda al escribir
+        ModeloProteinas.instalar(cmbOrigen, modeloOrigen);
+        ModeloProteinas.instalar(cmbDestino, modeloDestino);
+
+        // Los análisis se ejecutan en segundo plano; mientras tanto se bloquean las ediciones
+        barraProgreso = new JProgressBar(0, 100);
+        btnCancelar = new JButton("Cancelar");
+        jPanel1.add(barraProgreso, new org.netbeans.lib.awtextra.AbsoluteConstraints(330, 40, 150, 20));
+        jPanel1.add(btnCancelar, new org.netbeans.lib.awtextra.AbsoluteConstraints(490, 38, 100, -1));
+        btnVecindario = new JButton("Ver Vecindario");
+        btnVecindario.setToolTipText("Muestra solo las proteínas cercanas al origen o a la ruta hasta el destino");
+        btnVecindario.addActionListener(e -> verVecindario());
+        jPanel3.add(btnVecindario, new org.netbeans.lib.awtextra.AbsoluteConstraints(310, 120, -1, -1));
+        consola = new ConsolaResultados(txtResultados);
+        ejecutor = new EjecutorAnalisis(consola, barraProgreso, btnCancelar,
+            btnCargar, btnComplejos, btnHubs, btnCalcular, btnDFS, btnMostrarGrafo,
+            btnVecindario, btnAgregarProteina, btnEliminarProteina, btnAgregarInteraccion);
+
+        // Vigilar el archivo cargado y aplicar lo que otro programa le agrega
+        chkVigilar = new JCheckBox("Vigilar archivo");
+        chkVigilar.setToolTipText("Aplica los cambios que otro programa hace al archivo cargado");
+        chkVigilar.addActionListener(e -> cambiarVigilancia());
+        jPanel1.add(chkVigilar, new org.netbeans.lib.awtextra.AbsoluteConstraints(330, 64, -1, -1));
+
+        inicializarPanelMetricas();
 
         // Cargar archivo por defecto si existe
         cargarArchivoInicial();
     }
     
+    /**
+     * Extrae el vecindario del origen (o de la ruta más corta hasta el destino)
+     * y lo abre en una ventana aparte, sin dibujar el grafo completo.
+     */
+    private void verVecindario() {
+        String origen = (String) cmbOrigen.getSelectedItem();
+        String destino = (String) cmbDestino.getSelectedItem();
+        if (origen == null) {
+            JOptionPane.showMessageDialog(this,
+                "Seleccione una proteína de origen.",
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        JSpinner spnSaltos = new JSpinner(new SpinnerNumberModel(1, 1, 10, 1));
+        JSpinner spnMaximo = new JSpinner(new SpinnerNumberModel(200, 1, 100000, 50));
+        JTextField txtPeso = new JTextField("0");
+        boolean hayDestino = destino != null && !destino.equals(origen);
+        JCheckBox chkRuta = new JCheckBox("Alrededor de la ruta hasta " + destino, hayDestino);
+        chkRuta.setEnabled(hayDestino);
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
+        panel.add(new JLabel("Saltos:"));
+        panel.add(spnSaltos);
+        panel.add(new JLabel("Máximo de proteínas:"));
+        panel.add(spnMaximo);
+        panel.add(new JLabel("Peso mínimo:"));
+        panel.add(txtPeso);
+        panel.add(chkRuta);
+        if (JOptionPane.showConfirmDialog(this, panel, "Vecindario de " + origen,
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        double pesoMinimo;
+        try {
+            pesoMinimo = Double.parseDouble(txtPeso.getText().trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this,
+                "El peso mínimo debe ser un número válido.",
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        int saltos = (Integer) spnSaltos.getValue();
+        int maximo = (Integer) spnMaximo.getValue();
+        boolean usarRuta = chkRuta.isSelected();
+
+        ejecutor.ejecutar("Vecindario", (progreso, salida) -> {
+            salida.accept("\nVECINDARIO\n");
+            salida.accept("\n");
+            Lista<String> semillas = null;
+            if (usarRuta) {
+                Grafo.ResultadoDijkstra resultado = grafo.rutaMasCorta(origen, destino, progreso);
+                if (resultado != null && resultado.hayRuta()) {
+                    semillas = resultado.getRuta();
+                    salida.accept("Ruta: " + semillas + "\n");
+                } else {
+                    salida.accept("No hay ruta entre " + origen + " y " + destino + ", se usa solo el origen\n");
+                }
+            }
+            if (semillas == null) {
+                semillas = new Lista<>();
+                semillas.agregar(origen);
+                salida.accept("Origen: " + origen + "\n");
+            }
+
+            Subgrafo subgrafo = grafo.vecindario(semillas, saltos, maximo, pesoMinimo, progreso);
+            salida.accept(subgrafo + "\n");
+            if (subgrafo.isRecortado()) {
+                salida.accept("Se alcanzó el máximo de " + maximo + " proteínas; se conservaron las de mayor peso\n");
+            }
+            salida.accept("\n\n");
+            return subgrafo;
+        }, subgrafo -> VistaSubgrafo.mostrar(subgrafo, "Vecindario de " + origen, this));
+    }
+
+    /**
+     * Agrega la pestaña de métricas con el volcado actual y opciones para exportarlo.
+     */
+    private void inicializarPanelMetricas() {
+        txtMetricas = new JTextArea();
+        txtMetricas.setEditable(false);
+        txtMetricas.setFont(new java.awt.Font("Monospaced", 0, 11));
+
+        JButton btnActualizar = new JButton("Actualizar");
+        btnActualizar.addActionListener(e -> actualizarMetricas());
+        JButton btnReiniciar = new JButton("Reiniciar");
+        btnReiniciar.addActionListener(e -> {
+            Metricas.reiniciar();
+            actualizarMetricas();
+        });
+        JButton btnExportar = new JButton("Exportar...");
+        btnExportar.addActionListener(e -> exportarMetricas());
+
+        JPanel botones = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        botones.add(btnActualizar);
+        botones.add(btnReiniciar);
+        botones.add(btnExportar);
+
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(new JScrollPane(txtMetricas), BorderLayout.CENTER);
+        panel.add(botones, BorderLayout.SOUTH);
+        jTabbedPane1.addTab("Métricas", panel);
+        jTabbedPane1.addChangeListener(e -> {
+            if (jTabbedPane1.getSelectedComponent() == panel) {
+                actualizarMetricas();
+            }
+        });
+    }
+
+    private void cambiarVigilancia() {
+        if (chkVigilar.isSelected()) {
+            boolean vigilando = CargadorArchivo.vigilar(grafo, mensaje -> {
+                actualizarInfo();
+                actualizarCombos();
+                consola.agregar(mensaje + "\n");
+            });
+            consola.agregar(vigilando
+                ? "Vigilando " + CargadorArchivo.getNombreUltimoArchivo() + "\n"
+                : "Se vigilará el próximo archivo que se cargue.\n");
+        } else {
+            CargadorArchivo.dejarDeVigilar();
+        }
+    }
+
+    private void actualizarMetricas() {
+        txtMetricas.setText(Metricas.volcado());
+        txtMetricas.setCaretPosition(0);
+    }
+
+    private void exportarMetricas() {
+        JFileChooser fileChooser = new JFileChooser(".");
+        fileChooser.setDialogTitle("Exportar métricas");
+        fileChooser.setSelectedFile(new java.io.File("metricas.csv"));
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            try {
+                Metricas.exportar(fileChooser.getSelectedFile());
+            } catch (java.io.IOException e) {
+                JOptionPane.showMessageDialog(this,
+                    "Error al exportar las métricas:\n" + e.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
     private void cargarArchivoInicial() {
         if (CargadorArchivo.cargarArchivoPorDefecto(grafo, this)) {
             actualizarInfo();
             actualizarCombos();
-            txtResultados.append("Archivo por defecto cargado automáticamente.\n");
+            consola.agregar("Archivo por defecto cargado automáticamente.\n");
         }
     }
     
@@ -64,19 +238,10 @@ public class MainFrame extends javax.swing.JFrame {
     }
     
     private void actualizarCombos() {
-        //Limpiar ambos modelos
-        modeloOrigen.removeAllElements();
-        modeloDestino.removeAllElements();
-        
-        // Obtener proteínas
-        Lista<String> proteinas = grafo.getProteinas();
-        
-        // Llenar AMBOS modelos 
-        for (int i = 0; i < proteinas.getTamaño(); i++) {
-            String proteina = proteinas.obtener(i);
-            modeloOrigen.addElement(proteina);
-            modeloDestino.addElement(proteina);
-        }
+        // Ambos modelos muestran rangos del mismo índice; no se copian las proteínas
+        IndicePrefijos indice = grafo.getIndiceProteinas();
+        modeloOrigen.setIndice(indice);
+        modeloDestino.setIndice(indice);
     }
     
     private void agregarInteraccionPara(String proteina) {
@@ -84,17 +249,9 @@ public class MainFrame extends javax.swing.JFrame {
 
         JPanel panel = new JPanel(new GridLayout(2, 2, 5, 5));
 
-        JComboBox<String> comboDestino = new JComboBox<>();
+        JComboBox<String> comboDestino = ModeloProteinas.crearCombo(grafo.getIndiceProteinas(), proteina);
         JTextField txtPeso = new JTextField("1.0");
 
-        Lista<String> proteinas = grafo.getProteinas();
-        for (int i = 0; i < proteinas.getTamaño(); i++) {
-            String p = proteinas.obtener(i);
-            if (!p.equals(proteina)) {
-                comboDestino.addItem(p);
-            }
-        }
-
         panel.add(new JLabel("Interacción con:"));
         panel.add(comboDestino);
         panel.add(new JLabel("Peso:"));
@@ -113,7 +270,7 @@ public class MainFrame extends javax.swing.JFrame {
                 if (grafo.agregarInteraccion(proteina, destino, peso)) {
                     CargadorArchivo.marcarCambios();
                     actualizarInfo();
-                    txtResultados.append("Interacción agregada: " + 
+                    consola.agregar("Interacción agregada: " + 
                         proteina + " - " + destino + " (" + peso + ")\n");
                 }
             } catch (NumberFormatException e) {
@@ -122,27 +279,6 @@ public class MainFrame extends javax.swing.JFrame {
         }
     }
     
-    private double calcularPesoRuta(Lista<String> ruta) {
-        double pesoTotal = 0;
-    
-        for (int i = 0; i < ruta.getTamaño() - 1; i++) {
-            String proteina1 = ruta.obtener(i);
-            String proteina2 = ruta.obtener(i + 1);
-
-            Lista<Proteinas> interacciones = grafo.getInteracciones();
-            for (int j = 0; j < interacciones.getTamaño(); j++) {
-                Proteinas a = interacciones.obtener(j);
-                if ((a.getOrigen().equals(proteina1) && a.getDestino().equals(proteina2)) ||
-                    (a.getOrigen().equals(proteina2) && a.getDestino().equals(proteina1))) {
-                    pesoTotal += a.getPeso();
-                    break;
-                }
-            }
-        }
-
-        return pesoTotal;
-    }
-
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -328,7 +464,7 @@ public class MainFrame extends javax.swing.JFrame {
         if (CargadorArchivo.cargar(grafo, this)) {
             actualizarInfo();
             actualizarCombos();
-            txtResultados.append("Archivo cargado: " + 
+            consola.agregar("Archivo cargado: " + 
             CargadorArchivo.getNombreUltimoArchivo() + "\n");
         }
     }//GEN-LAST:event_btnCargarActionPerformed
@@ -342,47 +478,58 @@ public class MainFrame extends javax.swing.JFrame {
 
     private void btnComplejosActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnComplejosActionPerformed
         // TODO add your handling code here:
-        txtResultados.append("\nDETECTANDO COMPLEJOS PROTEICOS (BFS)\n");
-        txtResultados.append("\n");
-        Lista<Lista<String>> complejos = grafo.encontrarComplejos();
-        if (complejos.getTamaño() == 0) {
-            txtResultados.append("No se encontraron complejos proteicos.\n");
-        } else {
-            txtResultados.append("Se encontraron " + complejos.getTamaño() + " complejos:\n\n");
-
-            for (int i = 0; i < complejos.getTamaño(); i++) {
-                Lista<String> complejo = complejos.obtener(i);
-                txtResultados.append("Complejo " + (i + 1) + " (" + complejo.getTamaño() + " proteínas):\n");
-
-                for (int j = 0; j < complejo.getTamaño(); j++) {
-                    txtResultados.append("  • " + complejo.obtener(j) + "\n");
+        ejecutor.ejecutar("Detección de complejos", (progreso, salida) -> {
+            salida.accept("\nDETECTANDO COMPLEJOS PROTEICOS (BFS)\n");
+            salida.accept("\n");
+            // Cada complejo se publica apenas se encuentra, en un solo texto
+            int[] total = new int[1];
+            StringBuilder sb = new StringBuilder();
+            grafo.recorrerComplejos((miembros, desde, hasta, nombres) -> {
+                total[0]++;
+                sb.setLength(0);
+                sb.append("Complejo ").append(total[0]).append(" (")
+                  .append(hasta - desde).append(" proteínas):\n");
+                for (int i = desde; i < hasta; i++) {
+                    sb.append("  • ").append(nombres.apply(miembros[i])).append('\n');
                 }
-                txtResultados.append("\n");
+                sb.append('\n');
+                salida.accept(sb.toString());
+                return true;
+            }, progreso);
+            if (total[0] == 0) {
+                salida.accept("No se encontraron complejos proteicos.\n");
+            } else {
+                salida.accept("Se encontraron " + total[0] + " complejos.\n");
             }
-        }
-        txtResultados.append("\n\n");
+            salida.accept("\n\n");
+            return null;
+        });
     }//GEN-LAST:event_btnComplejosActionPerformed
 
     private void btnHubsActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnHubsActionPerformed
         // TODO add your handling code here:
-        txtResultados.append("\nIDENTIFICANDO HUBS (TOP 5)\n");
-        txtResultados.append("\n");
+        ejecutor.ejecutar("Identificación de hubs", (progreso, salida) -> {
+            salida.accept("\nIDENTIFICANDO HUBS (TOP 5)\n");
+            salida.accept("\n");
 
-        Lista<String> hubs = grafo.identificarHubs(5);
+            Lista<Grafo.Hub> hubs = grafo.buscarHubs(5, progreso);
 
-        if (hubs.getTamaño() == 0) {
-            txtResultados.append("No hay proteínas en el grafo.\n");
-        } else {
-            for (int i = 0; i < hubs.getTamaño(); i++) {
-                txtResultados.append((i + 1) + ". " + hubs.obtener(i) + "\n");
+            if (hubs.estaVacia()) {
+                salida.accept("No hay proteínas en el grafo.\n");
+            } else {
+                int puesto = 1;
+                for (Grafo.Hub hub : hubs) {
+                    salida.accept((puesto++) + ". " + hub + "\n");
+                }
             }
-        }
-        txtResultados.append("\n\n");
+            salida.accept("\n\n");
+            return null;
+        });
     }//GEN-LAST:event_btnHubsActionPerformed
 
     private void btnLimpiarActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnLimpiarActionPerformed
         // TODO add your handling code here:
-        txtResultados.setText("");
+        consola.limpiar();
     }//GEN-LAST:event_btnLimpiarActionPerformed
 
     private void btnCalcularActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnCalcularActionPerformed
@@ -397,20 +544,23 @@ public class MainFrame extends javax.swing.JFrame {
                 javax.swing.JOptionPane.ERROR_MESSAGE);
             return;
         }
-        txtResultados.append("\nRUTA MÁS CORTA (DIJKSTRA)\n");
-        txtResultados.append("\n");
-        txtResultados.append("De: " + origen + "\n");
-        txtResultados.append("A: " + destino + "\n\n");
+        ejecutor.ejecutar("Ruta más corta", (progreso, salida) -> {
+            salida.accept("\nRUTA MÁS CORTA (DIJKSTRA)\n");
+            salida.accept("\n");
+            salida.accept("De: " + origen + "\n");
+            salida.accept("A: " + destino + "\n\n");
 
-        Grafo.ResultadoDijkstra resultado = grafo.rutaMasCorta(origen, destino);
+            Grafo.ResultadoDijkstra resultado = grafo.rutaMasCorta(origen, destino, progreso);
 
-        if (resultado != null && resultado.hayRuta()) {
-            txtResultados.append("Distancia total: " + resultado.getDistancia() + "\n");
-            txtResultados.append("Ruta: " + resultado.getRuta() + "\n");
-        } else {
-            txtResultados.append(" No hay ruta disponible entre " + origen + " y " + destino + "\n");
-        }
-        txtResultados.append("\n\n");
+            if (resultado != null && resultado.hayRuta()) {
+                salida.accept("Distancia total: " + resultado.getDistancia() + "\n");
+                salida.accept("Ruta: " + resultado.getRuta() + "\n");
+            } else {
+                salida.accept(" No hay ruta disponible entre " + origen + " y " + destino + "\n");
+            }
+            salida.accept("\n\n");
+            return null;
+        });
     }//GEN-LAST:event_btnCalcularActionPerformed
 
     private void cmbDestinoActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_cmbDestinoActionPerformed
@@ -429,7 +579,7 @@ public class MainFrame extends javax.swing.JFrame {
                 CargadorArchivo.marcarCambios();
                 actualizarCombos();
                 actualizarInfo();
-                txtResultados.append("Proteína agregada: " + nombre + "\n");
+                consola.agregar("Proteína agregada: " + nombre + "\n");
 
                 int respuesta = JOptionPane.showConfirmDialog(this,
                     "¿Desea agregar interacciones para esta proteína?",
@@ -458,11 +608,7 @@ public class MainFrame extends javax.swing.JFrame {
             return;
         }
 
-        JComboBox<String> comboProteinas = new JComboBox<>();
-        Lista<String> proteinas = grafo.getProteinas();
-        for (int i = 0; i < proteinas.getTamaño(); i++) {
-            comboProteinas.addItem(proteinas.obtener(i));
-        }
+        JComboBox<String> comboProteinas = ModeloProteinas.crearCombo(grafo.getIndiceProteinas(), null);
 
         int opcion = JOptionPane.showConfirmDialog(this,
             comboProteinas,
@@ -485,7 +631,7 @@ public class MainFrame extends javax.swing.JFrame {
                 CargadorArchivo.marcarCambios();
                 actualizarCombos();
                 actualizarInfo();
-                txtResultados.append("Proteína eliminada: " + seleccion + 
+                consola.agregar("Proteína eliminada: " + seleccion + 
                     " (" + interaccionesEliminadas + " interacciones eliminadas)\n");
             }
         }
@@ -503,17 +649,11 @@ public class MainFrame extends javax.swing.JFrame {
 
         JPanel panel = new JPanel(new GridLayout(3, 2, 5, 5));
 
-        JComboBox<String> comboOrigen = new JComboBox<>();
-        JComboBox<String> comboDestino = new JComboBox<>();
+        IndicePrefijos indice = grafo.getIndiceProteinas();
+        JComboBox<String> comboOrigen = ModeloProteinas.crearCombo(indice, null);
+        JComboBox<String> comboDestino = ModeloProteinas.crearCombo(indice, null);
         JTextField txtPeso = new JTextField("1.0");
 
-        Lista<String> proteinas = grafo.getProteinas();
-        for (int i = 0; i < proteinas.getTamaño(); i++) {
-            String p = proteinas.obtener(i);
-            comboOrigen.addItem(p);
-            comboDestino.addItem(p);
-        }
-
         panel.add(new JLabel("Proteína origen:"));
         panel.add(comboOrigen);
         panel.add(new JLabel("Proteína destino:"));
@@ -543,7 +683,7 @@ public class MainFrame extends javax.swing.JFrame {
                 if (grafo.agregarInteraccion(origen, destino, peso)) {
                     CargadorArchivo.marcarCambios();
                     actualizarInfo();
-                    txtResultados.append("Interacción agregada: " + 
+                    consola.agregar("Interacción agregada: " + 
                         origen + " - " + destino + " (" + peso + ")\n");
                 } else {
                     JOptionPane.showMessageDialog(this,
@@ -570,76 +710,11 @@ public class MainFrame extends javax.swing.JFrame {
             return;
         }
 
-        // Crear ventana para el grafo
-        JFrame frameGrafo = new JFrame("Visualización del Grafo");
-        frameGrafo.setSize(800, 600);
-        frameGrafo.setLocationRelativeTo(this);
-
-        // Configurar GraphStream
-        System.setProperty("org.graphstream.ui", "swing");
-
-        // Crear grafo
-        org.graphstream.graph.Graph graph = new MultiGraph("PPI");
-
-        // Configurar estilos
-        String styleSheet = 
-            "node {" +
-            "   size: 30px;" +
-            "   fill-color: #87CEEB;" +
-            "   text-mode: normal;" +
-            "   text-color: black;" +
-            "   text-size: 14;" +
-            "   text-style: bold;" +
-            "   text-alignment: under;" +
-            "}" +
-            "node.complejo {" +
-            "   fill-color: green;" +
-            "}" +
-            "edge {" +
-            "   shape: line;" +
-            "   fill-color: gray;" +
-            "   size: 2px;" +
-            "   text-size: 12;" +
-            "   text-color: blue;" +
-            "   text-alignment: along;" +
-            "}";
-
-        graph.setAttribute("ui.stylesheet", styleSheet);
-
-        // Identificar complejos
-        Lista<Lista<String>> complejos = grafo.encontrarComplejos();
-
-        // Agregar nodos
-        Lista<String> proteinas = grafo.getProteinas();
-        for (int i = 0; i < proteinas.getTamaño(); i++) {
-            String p = proteinas.obtener(i);
-            Node node = graph.addNode(p);
-            node.setAttribute("ui.label", p);
-
-            for (int j = 0; j < complejos.getTamaño(); j++) {
-                Lista<String> complejo = complejos.obtener(j);
-                if (complejo.contiene(p)) {
-                    node.setAttribute("ui.class", "complejo");
-                    break;
-                }
-            }
-        }
-
-        // Agregar aristas
-        Lista<Proteinas> interacciones = grafo.getInteracciones();
-        for (int i = 0; i < interacciones.getTamaño(); i++) {
-            Proteinas a = interacciones.obtener(i);
-            String id = a.getOrigen() + "-" + a.getDestino();
-            Edge edge = graph.addEdge(id, a.getOrigen(), a.getDestino(), false);
-            edge.setAttribute("ui.label", String.valueOf(a.getPeso()));
+        // Una sola vista por grafo: sigue sus mutaciones aunque la ventana esté cerrada
+        if (vista == null) {
+            vista = new VistaGrafo(grafo, CargadorArchivo::getUltimoArchivo);
         }
-
-        // Crear visor
-        Viewer viewer = new SwingViewer(graph, Viewer.ThreadingModel.GRAPH_IN_ANOTHER_THREAD);
-        ViewPanel viewPanel = (ViewPanel) viewer.addDefaultView(false);
-
-        frameGrafo.add(viewPanel);
-        frameGrafo.setVisible(true);
+        vista.mostrar(this);
     }//GEN-LAST:event_btnMostrarGrafoActionPerformed
 
     private void btnDFSActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btnDFSActionPerformed
@@ -664,34 +739,43 @@ public class MainFrame extends javax.swing.JFrame {
             return;
         }
 
-        txtResultados.append("\nRUTA POR DFS\n");
-        txtResultados.append("\n");
-        txtResultados.append("De: " + origen + "\n");
-        txtResultados.append("A: " + destino + "\n\n");
-
-        // Ejecutar DFS
-        Lista<String> ruta = grafo.rutaDFS(origen, destino);
+        ejecutor.ejecutar("Ruta por DFS", (progreso, salida) -> {
+            salida.accept("\nRUTA POR DFS\n");
+            salida.accept("\n");
+            salida.accept("De: " + origen + "\n");
+            salida.accept("A: " + destino + "\n\n");
+
+            // Ejecutar DFS; el peso se suma en el grafo, con su cerrojo tomado
+            Lista<String> ruta = new Lista<>();
+            double[] pesoTotal = new double[1];
+            grafo.recorrerRutaDFS(origen, destino, (proteinas, largo, peso, nombres) -> {
+                for (int i = 0; i < largo; i++) {
+                    ruta.agregar(nombres.apply(proteinas[i]));
+                }
+                pesoTotal[0] = peso;
+            }, progreso);
 
-        if (ruta == null || ruta.getTamaño() == 0) {
-            txtResultados.append("No hay ruta disponible entre " + origen + " y " + destino + "\n");
-        } else {
-            txtResultados.append("Ruta encontrada:\n");
-            for (int i = 0; i < ruta.getTamaño(); i++) {
-                txtResultados.append("   " + (i+1) + ". " + ruta.obtener(i) + "\n");
-            }
+            if (ruta.estaVacia()) {
+                salida.accept("No hay ruta disponible entre " + origen + " y " + destino + "\n");
+            } else {
+                salida.accept("Ruta encontrada:\n");
+                int paso = 1;
+                for (String proteina : ruta) {
+                    salida.accept("   " + (paso++) + ". " + proteina + "\n");
+                }
 
-            // Calcular el peso total
-            double pesoTotal = calcularPesoRuta(ruta);
-            txtResultados.append("\nPeso total de la ruta: " + pesoTotal + "\n");
+                salida.accept("\nPeso total de la ruta: " + pesoTotal[0] + "\n");
 
-            // Comparar con Dijkstra
-            Grafo.ResultadoDijkstra resultadoDijkstra = grafo.rutaMasCorta(origen, destino);
-            if (resultadoDijkstra != null && resultadoDijkstra.hayRuta()) {
-                txtResultados.append("ℹ️ Dijkstra: " + resultadoDijkstra.getDistancia() + " (más corto)\n");
+                // Comparar con Dijkstra
+                Grafo.ResultadoDijkstra resultadoDijkstra = grafo.rutaMasCorta(origen, destino, progreso);
+                if (resultadoDijkstra != null && resultadoDijkstra.hayRuta()) {
+                    salida.accept("ℹ️ Dijkstra: " + resultadoDijkstra.getDistancia() + " (más corto)\n");
+                }
             }
-        }
 
-        txtResultados.append("\n\n");
+            salida.accept("\n\n");
+            return null;
+        });
     }//GEN-LAST:event_btnDFSActionPerformed
 
     /**
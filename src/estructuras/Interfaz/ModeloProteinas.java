@@ -0,0 +1,231 @@
+package estructuras.Interfaz;
+
+import estructuras.IndicePrefijos;
+import javax.swing.AbstractListModel;
+import javax.swing.ComboBoxModel;
+import javax.swing.JComboBox;
+import javax.swing.JList;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+import javax.swing.plaf.basic.ComboPopup;
+import javax.swing.text.JTextComponent;
+
+/**
+ * Modelo de ComboBox sobre un IndicePrefijos. No copia los nombres: muestra el
+ * rango del índice que coincide con el texto escrito, y la lista desplegable solo
+ * pide las filas que dibuja. Opcionalmente deja afuera una proteína (por ejemplo,
+ * el otro extremo de una interacción).
+ */
+public class ModeloProteinas extends AbstractListModel<String> implements ComboBoxModel<String> {
+    private static final long serialVersionUID = 1L;
+    /** Largo máximo del texto que se usa para dimensionar el combo */
+    private static final int LARGO_PROTOTIPO = 24;
+
+    private IndicePrefijos indice;
+    private final String excluida;
+    private String prefijo = "";
+    private int inicio;
+    private int fin;
+    /** Posición de la proteína excluida en el índice, o -1 */
+    private int posicionExcluida = -1;
+    private Object seleccionado;
+
+    /**
+     * Constructor que muestra todas las proteínas del índice menos, si se indica, una.
+     *
+     * @param indice Índice de proteínas
+     * @param excluida Proteína que no se ofrece, o null
+     */
+    public ModeloProteinas(IndicePrefijos indice, String excluida) {
+        this.excluida = excluida;
+        setIndice(indice);
+    }
+
+    /**
+     * Reemplaza el índice, por ejemplo después de agregar o eliminar proteínas.
+     * Conserva la selección si la proteína sigue existiendo y, si no, elige la primera.
+     *
+     * @param indice Índice nuevo
+     */
+    public void setIndice(IndicePrefijos indice) {
+        this.indice = indice;
+        posicionExcluida = excluida == null ? -1 : indice.posicionDe(excluida);
+        if (seleccionado == null || !esValida(seleccionado.toString())) {
+            seleccionado = null;
+            int primera = posicionExcluida == 0 ? 1 : 0;
+            if (primera < indice.getCantidad()) seleccionado = indice.obtener(primera);
+        }
+        filtrar(prefijo);
+    }
+
+    /**
+     * Limita las filas a las proteínas cuyo nombre empieza con el prefijo.
+     *
+     * @param prefijo Texto escrito, sin distinguir mayúsculas ("" muestra todas)
+     */
+    public void filtrar(String prefijo) {
+        int anterior = getSize();
+        this.prefijo = prefijo;
+        inicio = indice.inicioDe(prefijo);
+        fin = indice.finDe(prefijo);
+        fireContentsChanged(this, 0, Math.max(anterior, getSize()) - 1);
+    }
+
+    /**
+     * Obtiene el texto que sirve de prototipo para dimensionar el combo.
+     *
+     * @return Nombre más largo del índice, recortado
+     */
+    public String getPrototipo() {
+        String largo = indice.getMasLargo();
+        return largo.length() > LARGO_PROTOTIPO ? largo.substring(0, LARGO_PROTOTIPO) : largo;
+    }
+
+    @Override
+    public int getSize() {
+        boolean oculta = posicionExcluida >= inicio && posicionExcluida < fin;
+        return fin - inicio - (oculta ? 1 : 0);
+    }
+
+    @Override
+    public String getElementAt(int i) {
+        int posicion = inicio + i;
+        if (posicionExcluida >= inicio && posicion >= posicionExcluida) posicion++;
+        return indice.obtener(posicion);
+    }
+
+    /**
+     * Selecciona una proteína. Un texto que no es una proteína exacta elige la
+     * primera del filtro actual si es el prefijo escrito; si no, se ignora.
+     */
+    @Override
+    public void setSelectedItem(Object item) {
+        Object nuevo = seleccionado;
+        if (item == null) {
+            nuevo = null;
+        } else if (esValida(item.toString())) {
+            nuevo = indice.obtener(indice.posicionDe(item.toString()));
+        } else if (item.toString().equals(prefijo) && getSize() > 0) {
+            nuevo = getElementAt(0);
+        }
+        seleccionado = nuevo;
+        // Como DefaultComboBoxModel, avisar siempre para que el editor muestre la selección
+        fireContentsChanged(this, -1, -1);
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return seleccionado;
+    }
+
+    private boolean esValida(String nombre) {
+        int posicion = indice.posicionDe(nombre);
+        return posicion >= 0 && posicion != posicionExcluida;
+    }
+
+    /**
+     * Crea un combo de proteínas con búsqueda al escribir.
+     *
+     * @param indice Índice de proteínas
+     * @param excluida Proteína que no se ofrece, o null
+     * @return Combo listo para usar
+     */
+    public static JComboBox<String> crearCombo(IndicePrefijos indice, String excluida) {
+        JComboBox<String> combo = new JComboBox<>();
+        instalar(combo, new ModeloProteinas(indice, excluida));
+        return combo;
+    }
+
+    /**
+     * Configura un combo existente para usar el modelo: lo hace editable para
+     * filtrar al escribir y fija el tamaño de las filas para que Swing no mida
+     * cada proteína.
+     *
+     * @param combo Combo a configurar
+     * @param modelo Modelo de proteínas
+     */
+    public static void instalar(JComboBox<String> combo, ModeloProteinas modelo) {
+        combo.setModel(modelo);
+        combo.setEditable(true);
+        combo.setMaximumRowCount(12);
+        ajustarPrototipo(combo, modelo);
+        modelo.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) { }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) { }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                if (!modelo.getPrototipo().equals(combo.getPrototypeDisplayValue())) {
+                    ajustarPrototipo(combo, modelo);
+                }
+            }
+        });
+
+        // Filtrar después del evento del documento, que no admite cambios durante el aviso
+        JTextComponent editor = (JTextComponent) combo.getEditor().getEditorComponent();
+        editor.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { SwingUtilities.invokeLater(this::filtrar); }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) { SwingUtilities.invokeLater(this::filtrar); }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) { }
+
+            private void filtrar() {
+                String texto = editor.getText();
+                // Elegir una fila muestra su nombre en el editor; eso no es un filtro nuevo
+                if (texto.equals(modelo.getSelectedItem()) || texto.equals(modelo.prefijo)) return;
+                modelo.filtrar(texto);
+                if (editor.isFocusOwner() && combo.isShowing()) {
+                    // Volver a mostrar la lista para que tome el alto del nuevo filtro
+                    combo.hidePopup();
+                    if (modelo.getSize() > 0) combo.showPopup();
+                }
+            }
+        });
+
+        // Al abrir la lista sin haber escrito nada se ofrecen todas las proteínas
+        combo.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                if (editor.getText().equals(modelo.getSelectedItem()) && !modelo.prefijo.isEmpty()) {
+                    modelo.filtrar("");
+                }
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) { }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) { }
+        });
+
+        // Un texto que no corresponde a ninguna proteína se reemplaza por la selección
+        combo.addActionListener(e -> {
+            if ("comboBoxEdited".equals(e.getActionCommand())) {
+                SwingUtilities.invokeLater(() -> combo.getEditor().setItem(modelo.getSelectedItem()));
+            }
+        });
+    }
+
+    private static void ajustarPrototipo(JComboBox<String> combo, ModeloProteinas modelo) {
+        String prototipo = modelo.getPrototipo();
+        combo.setPrototypeDisplayValue(prototipo);
+        // La lista desplegable también necesita filas de alto y ancho fijos
+        Object popup = combo.getUI().getAccessibleChild(combo, 0);
+        if (popup instanceof ComboPopup) {
+            JList<Object> lista = ((ComboPopup) popup).getList();
+            lista.setPrototypeCellValue(prototipo);
+        }
+    }
+}
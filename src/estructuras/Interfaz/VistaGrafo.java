@@ -0,0 +1,675 @@
+package estructuras.Interfaz;
+
+import estructuras.DisenoFuerzas;
+import estructuras.Grafo;
+import estructuras.OyenteMutaciones;
+import java.awt.Component;
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import javax.swing.JFrame;
+import javax.swing.Timer;
+import javax.swing.WindowConstants;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Element;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.ui.graphicGraph.GraphPosLengthUtils;
+import org.graphstream.ui.swing_viewer.SwingViewer;
+import org.graphstream.ui.view.View;
+import org.graphstream.ui.view.Viewer;
+
+/**
+ * Visualización de un Grafo que se mantiene sincronizada con él.
+ *
+ * Hay un solo grafo de GraphStream por Grafo: se construye una vez y después cada
+ * mutación (proteína o interacción agregada, eliminada o desactivada) se traduce
+ * en el evento correspondiente, así una edición aparece en la ventana sin volver a
+ * armar la vista. Las mutaciones llegan en el hilo que edita el Grafo; se encolan y
+ * el hilo de eventos de Swing las aplica cada {@value #PERIODO_MS} ms. Ese es el
+ * único hilo que toca el grafo de GraphStream; el visor lo copia desde el suyo.
+ *
+ * Las proteínas que forman parte de un complejo (componente conexo de más de una
+ * proteína por interacciones activas) llevan la clase "complejo". El componente de
+ * cada proteína se guarda en un mapa: una interacción nueva une dos componentes
+ * renombrando el menor, y solo las eliminaciones obligan a recalcularlos con un
+ * recorrido en anchura, una vez por tanda de eventos.
+ *
+ * En redes grandes el dibujo depende del zoom (nivel de detalle): las etiquetas
+ * solo se muestran de cerca, de lejos los nodos se achican, y con la red completa
+ * a la vista cada complejo se dibuja como un único nodo cuyo tamaño crece con su
+ * cantidad de proteínas. Además, si hay más de {@value #MAX_ARISTAS} interacciones
+ * solo se dibujan las de mayor peso. Cambiar de nivel reemplaza la hoja de estilo
+ * y oculta o muestra elementos; no rehace el grafo.
+ *
+ * Las posiciones las calcula un DisenoFuerzas en segundo plano y se copian a los
+ * nodos que se movieron en cada tanda. El contenido inicial no mueve proteínas que
+ * tengan posición guardada junto al archivo: al reabrir la vista, o el archivo
+ * después de editarlo, solo se acomodan las proteínas nuevas o tocadas.
+ */
+public class VistaGrafo {
+    /** Cada cuánto se aplican las mutaciones pendientes */
+    private static final int PERIODO_MS = 100;
+    /** Máximo de mutaciones aplicadas por tanda, para no congelar la interfaz */
+    private static final int MAX_POR_TANDA = 20000;
+    /** Cantidad de proteínas a partir de la cual el dibujo depende del zoom */
+    private static final int UMBRAL_DETALLE = 1000;
+    /** Máximo aproximado de interacciones dibujadas; se muestran las de mayor peso */
+    private static final int MAX_ARISTAS = 5000;
+    /** Porcentaje de la red a la vista por debajo del cual se muestran las etiquetas */
+    private static final double ZOOM_ETIQUETAS = 0.3;
+    /** Porcentaje de la red a la vista a partir del cual los complejos se agrupan */
+    private static final double ZOOM_AGRUPAR = 0.8;
+    private static final int DETALLE = 0;
+    private static final int LEJOS = 1;
+    private static final int AGRUPADO = 2;
+    private static final String CLASE_COMPLEJO = "complejo";
+    private static final String ESTILO_DETALLE =
+        "node {" +
+        "   size: 30px;" +
+        "   fill-color: #87CEEB;" +
+        "   text-mode: normal;" +
+        "   text-color: black;" +
+        "   text-size: 14;" +
+        "   text-style: bold;" +
+        "   text-alignment: under;" +
+        "}" +
+        "node.complejo {" +
+        "   fill-color: green;" +
+        "}" +
+        "edge {" +
+        "   shape: line;" +
+        "   fill-color: gray;" +
+        "   size: 2px;" +
+        "   text-size: 12;" +
+        "   text-color: blue;" +
+        "   text-alignment: along;" +
+        "}" +
+        "edge.inactiva {" +
+        "   fill-color: #D3D3D3;" +
+        "   stroke-mode: dashes;" +
+        "}";
+    private static final String ESTILO_LEJOS =
+        "node {" +
+        "   size: 6px;" +
+        "   fill-color: #87CEEB;" +
+        "   text-mode: hidden;" +
+        "}" +
+        "node.complejo {" +
+        "   fill-color: green;" +
+        "}" +
+        "node.supernodo {" +
+        "   size-mode: dyn-size;" +
+        "   fill-color: green;" +
+        "   text-mode: normal;" +
+        "   text-size: 12;" +
+        "   text-alignment: under;" +
+        "}" +
+        "edge {" +
+        "   fill-color: gray;" +
+        "   size: 1px;" +
+        "   text-mode: hidden;" +
+        "}" +
+        "edge.inactiva {" +
+        "   fill-color: #D3D3D3;" +
+        "}";
+
+    private final Grafo grafo;
+    private final Graph grafico = new MultiGraph("PPI");
+    private final Timer temporizador;
+    private Oyente oyente;
+    /** Mutaciones de la cola que son el contenido inicial y no ediciones */
+    private int contenidoPendiente;
+    private final Supplier<File> ubicacion;
+    private File archivo;
+    private final DisenoFuerzas diseno;
+    private DisenoFuerzas.Posiciones posicionesAplicadas;
+    private JFrame ventana;
+    private Viewer visor;
+    private View panel;
+    private int nivel = DETALLE;
+    /** Las interacciones nuevas se dibujan solo si superan este peso */
+    private double umbralPeso = Double.NEGATIVE_INFINITY;
+    /** Interacciones que no quedaron fuera por el máximo de aristas */
+    private int aristasDibujables;
+    /** Nodos que representan un complejo entero en el nivel agrupado */
+    private final ArrayList<String> supernodos = new ArrayList<>();
+    /** Proteínas que representa cada supernodo */
+    private final ArrayList<ArrayList<String>> gruposSupernodos = new ArrayList<>();
+    /** Si los complejos cambiaron desde que se armaron los supernodos */
+    private boolean complejosCambiaron;
+
+    /** Componente de cada proteína */
+    private final HashMap<String, Integer> componenteDe = new HashMap<>();
+    /** Proteínas de cada componente */
+    private final HashMap<Integer, ArrayList<String>> miembros = new HashMap<>();
+    private int siguienteComponente;
+    /** Si una eliminación dejó los componentes desactualizados */
+    private boolean componentesViejos;
+
+    /**
+     * Crea la vista y empieza a seguir las mutaciones del grafo. Debe llamarse en
+     * el hilo de eventos de Swing.
+     *
+     * @param grafo Grafo a visualizar
+     * @param ubicacion Da el archivo del grafo, junto al que se guardan las
+     *                  posiciones del diseño (o null si no tiene archivo)
+     */
+    public VistaGrafo(Grafo grafo, Supplier<File> ubicacion) {
+        this.grafo = grafo;
+        this.ubicacion = ubicacion;
+        System.setProperty("org.graphstream.ui", "swing");
+        grafico.setAttribute("ui.stylesheet", ESTILO_DETALLE);
+        archivo = ubicacion.get();
+        diseno = new DisenoFuerzas(archivo, Runtime.getRuntime().availableProcessors());
+        suscribir();
+        temporizador = new Timer(PERIODO_MS, e -> aplicarPendientes());
+        temporizador.start();
+    }
+
+    /**
+     * Muestra la ventana de la vista; si ya estaba abierta la trae al frente.
+     *
+     * @param padre Componente respecto del cual se ubica la ventana la primera vez
+     */
+    public void mostrar(Component padre) {
+        if (ventana == null) {
+            ventana = new JFrame("Visualización del Grafo");
+            ventana.setSize(800, 600);
+            ventana.setLocationRelativeTo(padre);
+            ventana.setDefaultCloseOperation(WindowConstants.HIDE_ON_CLOSE);
+            visor = new SwingViewer(grafico, Viewer.ThreadingModel.GRAPH_IN_ANOTHER_THREAD);
+            panel = visor.addDefaultView(false);
+            ventana.add((Component) panel);
+        }
+        aplicarPendientes();
+        ventana.setVisible(true);
+        ventana.toFront();
+    }
+
+    /**
+     * Deja de seguir el grafo y cierra la ventana.
+     */
+    public void cerrar() {
+        temporizador.stop();
+        grafo.quitarOyente(oyente);
+        diseno.close();
+        if (visor != null) visor.close();
+        if (ventana != null) ventana.dispose();
+    }
+
+    /**
+     * Registra un oyente nuevo que recibe el contenido actual del grafo y las
+     * mutaciones siguientes. Cada oyente tiene su propia cola, así los eventos que
+     * un oyente anterior todavía esté recibiendo no se mezclan con los nuevos.
+     */
+    private void suscribir() {
+        oyente = new Oyente();
+        grafo.agregarOyenteConContenido(oyente);
+        contenidoPendiente = oyente.cola.size();
+    }
+
+    /**
+     * Aplica las mutaciones encoladas al grafo de GraphStream y, si hubo
+     * eliminaciones, recalcula los complejos.
+     */
+    private void aplicarPendientes() {
+        if (oyente.reemplazado) {
+            grafo.quitarOyente(oyente);
+            grafico.clear();
+            grafico.setAttribute("ui.stylesheet", ESTILO_DETALLE);
+            nivel = DETALLE;
+            supernodos.clear();
+            gruposSupernodos.clear();
+            umbralPeso = Double.NEGATIVE_INFINITY;
+            aristasDibujables = 0;
+            componenteDe.clear();
+            miembros.clear();
+            componentesViejos = false;
+            archivo = ubicacion.get();
+            diseno.reiniciar(archivo);
+            posicionesAplicadas = null;
+            suscribir();
+        } else if (!Objects.equals(archivo, ubicacion.get())) {
+            // Guardado con otro nombre: las posiciones siguen al archivo
+            archivo = ubicacion.get();
+            diseno.setArchivo(archivo);
+        }
+        ConcurrentLinkedQueue<Mutacion> cola = oyente.cola;
+        Mutacion m;
+        int aplicadas = 0;
+        while (aplicadas < MAX_POR_TANDA && (m = cola.poll()) != null) {
+            aplicar(m, contenidoPendiente > 0);
+            if (contenidoPendiente > 0) contenidoPendiente--;
+            aplicadas++;
+        }
+        if (componentesViejos && cola.isEmpty()) {
+            recalcularComponentes();
+        }
+        aplicarPosiciones();
+        if (aristasDibujables > MAX_ARISTAS * 11 / 10
+                || (aristasDibujables < MAX_ARISTAS * 9 / 10
+                    && aristasDibujables < grafico.getEdgeCount())) {
+            recortarAristas();
+        }
+        if (panel != null && ventana.isVisible()) {
+            int nuevo = DETALLE;
+            if (grafico.getNodeCount() - supernodos.size() > UMBRAL_DETALLE) {
+                double zoom = panel.getCamera().getViewPercent();
+                nuevo = zoom < ZOOM_ETIQUETAS ? DETALLE : zoom < ZOOM_AGRUPAR ? LEJOS : AGRUPADO;
+            }
+            if (nuevo != nivel) {
+                cambiarNivel(nuevo);
+            } else if (nivel == AGRUPADO && complejosCambiaron && !componentesViejos) {
+                armarSupernodos();
+            }
+        }
+    }
+
+    /**
+     * Aplica una mutación al grafo de GraphStream y al diseño.
+     *
+     * @param contenido true si la mutación es parte del contenido inicial: sus
+     *                  interacciones no mueven proteínas que ya tengan posición guardada
+     */
+    private void aplicar(Mutacion m, boolean contenido) {
+        switch (m.tipo) {
+            case Mutacion.PROTEINA_AGREGADA: {
+                Node n = grafico.addNode(m.origen);
+                n.setAttribute("ui.label", m.origen);
+                if (nivel == AGRUPADO) n.setAttribute("ui.hide");
+                diseno.agregarProteina(m.origen);
+                if (!componentesViejos) {
+                    int c = siguienteComponente++;
+                    componenteDe.put(m.origen, c);
+                    ArrayList<String> solo = new ArrayList<>(1);
+                    solo.add(m.origen);
+                    miembros.put(c, solo);
+                }
+                break;
+            }
+            case Mutacion.PROTEINA_ELIMINADA: {
+                Node n = grafico.getNode(m.origen);
+                n.edges().forEach(e -> {
+                    if (!e.hasAttribute("recortada")) aristasDibujables--;
+                });
+                grafico.removeNode(n);
+                diseno.eliminarProteina(m.origen);
+                componentesViejos = true;
+                break;
+            }
+            case Mutacion.INTERACCION_AGREGADA: {
+                Edge e = grafico.addEdge(idArista(m.origen, m.destino), m.origen, m.destino, false);
+                e.setAttribute("ui.label", String.valueOf(m.peso));
+                e.setAttribute("peso", m.peso);
+                if (m.peso > umbralPeso) {
+                    aristasDibujables++;
+                } else {
+                    e.setAttribute("recortada");
+                }
+                if (!visible(e)) e.setAttribute("ui.hide");
+                diseno.agregarInteraccion(m.origen, m.destino, !contenido);
+                unir(m.origen, m.destino);
+                break;
+            }
+            case Mutacion.INTERACCION_ELIMINADA: {
+                Edge e = grafico.removeEdge(idArista(m.origen, m.destino));
+                if (!e.hasAttribute("recortada")) aristasDibujables--;
+                diseno.eliminarInteraccion(m.origen, m.destino);
+                componentesViejos = true;
+                break;
+            }
+            case Mutacion.INTERACCION_ACTIVADA: {
+                Edge e = grafico.getEdge(idArista(m.origen, m.destino));
+                if (e == null) break;
+                if (m.activa) {
+                    e.removeAttribute("ui.class");
+                    unir(m.origen, m.destino);
+                } else {
+                    e.setAttribute("ui.class", "inactiva");
+                    componentesViejos = true;
+                }
+                break;
+            }
+            case Mutacion.PESO_CAMBIADO: {
+                Edge e = grafico.getEdge(idArista(m.origen, m.destino));
+                if (e == null) break;
+                e.setAttribute("ui.label", String.valueOf(m.peso));
+                e.setAttribute("peso", m.peso);
+                boolean dibujable = m.peso > umbralPeso;
+                if (dibujable == e.hasAttribute("recortada")) {
+                    if (dibujable) {
+                        e.removeAttribute("recortada");
+                        aristasDibujables++;
+                    } else {
+                        e.setAttribute("recortada");
+                        aristasDibujables--;
+                    }
+                    ocultar(e, !visible(e));
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Une los componentes de dos proteínas conectadas por una interacción activa,
+     * renombrando las proteínas del componente menor. Las que estaban solas pasan a
+     * formar parte de un complejo.
+     */
+    private void unir(String a, String b) {
+        if (componentesViejos) return;
+        complejosCambiaron = true;
+        int ca = componenteDe.get(a);
+        int cb = componenteDe.get(b);
+        if (ca == cb) return;
+        ArrayList<String> ma = miembros.get(ca);
+        ArrayList<String> mb = miembros.get(cb);
+        if (ma.size() < mb.size()) {
+            ArrayList<String> t = ma; ma = mb; mb = t;
+            int tc = ca; ca = cb; cb = tc;
+        }
+        if (ma.size() == 1) marcar(ma.get(0), true);
+        if (mb.size() == 1) marcar(mb.get(0), true);
+        for (String p : mb) {
+            componenteDe.put(p, ca);
+        }
+        ma.addAll(mb);
+        miembros.remove(cb);
+    }
+
+    /**
+     * Recalcula los componentes con un recorrido en anchura por las interacciones
+     * activas y actualiza la clase de las proteínas cuya pertenencia cambió.
+     */
+    private void recalcularComponentes() {
+        componenteDe.clear();
+        miembros.clear();
+        siguienteComponente = 0;
+        ArrayDeque<Node> pendientes = new ArrayDeque<>();
+        for (Node inicio : grafico) {
+            if (inicio.hasAttribute("supernodo")) continue;
+            if (componenteDe.containsKey(inicio.getId())) continue;
+            int c = siguienteComponente++;
+            ArrayList<String> componente = new ArrayList<>();
+            componenteDe.put(inicio.getId(), c);
+            pendientes.add(inicio);
+            while (!pendientes.isEmpty()) {
+                Node n = pendientes.poll();
+                componente.add(n.getId());
+                n.edges().forEach(e -> {
+                    if (e.hasAttribute("ui.class")) return;
+                    Node otro = e.getOpposite(n);
+                    if (componenteDe.putIfAbsent(otro.getId(), c) == null) {
+                        pendientes.add(otro);
+                    }
+                });
+            }
+            miembros.put(c, componente);
+            for (String p : componente) {
+                marcar(p, componente.size() > 1);
+            }
+        }
+        componentesViejos = false;
+        complejosCambiaron = true;
+    }
+
+    /**
+     * Deja dibujables exactamente las {@value #MAX_ARISTAS} interacciones de mayor
+     * peso (entre las de igual peso, las primeras) y oculta o muestra las que
+     * cambiaron de lado. Las que llegan después se dibujan si superan el menor peso
+     * elegido; se vuelve a recortar solo cuando la cantidad dibujable se aleja más
+     * de un 10% del máximo.
+     */
+    private void recortarAristas() {
+        Edge[] aristas = grafico.edges().toArray(Edge[]::new);
+        double umbral = Double.NEGATIVE_INFINITY;
+        int empatadas = aristas.length;
+        if (aristas.length > MAX_ARISTAS) {
+            double[] pesos = new double[aristas.length];
+            for (int i = 0; i < aristas.length; i++) {
+                pesos[i] = peso(aristas[i]);
+            }
+            Arrays.sort(pesos);
+            int corte = aristas.length - MAX_ARISTAS;
+            umbral = pesos[corte];
+            // Cuántas del peso del corte entran: las que quedan a su derecha en el orden
+            int fin = corte;
+            while (fin < pesos.length && pesos[fin] == umbral) fin++;
+            empatadas = fin - corte;
+        }
+        umbralPeso = umbral;
+        aristasDibujables = 0;
+        for (Edge e : aristas) {
+            double peso = peso(e);
+            boolean dibujable = peso > umbral || (peso == umbral && empatadas-- > 0);
+            if (dibujable) {
+                aristasDibujables++;
+                if (e.hasAttribute("recortada")) e.removeAttribute("recortada");
+            } else if (!e.hasAttribute("recortada")) {
+                e.setAttribute("recortada");
+            }
+            ocultar(e, !visible(e));
+        }
+    }
+
+    /**
+     * Pasa a otro nivel de detalle: cambia la hoja de estilo y, al entrar o salir
+     * del nivel agrupado, reemplaza las proteínas por los supernodos o al revés.
+     */
+    private void cambiarNivel(int nuevo) {
+        boolean agrupar = nuevo == AGRUPADO;
+        boolean cambiaAgrupado = agrupar != (nivel == AGRUPADO);
+        nivel = nuevo;
+        grafico.setAttribute("ui.stylesheet", nuevo == DETALLE ? ESTILO_DETALLE : ESTILO_LEJOS);
+        if (!cambiaAgrupado) return;
+        quitarSupernodos();
+        for (Node n : grafico) {
+            ocultar(n, agrupar);
+        }
+        grafico.edges().forEach(e -> ocultar(e, !visible(e)));
+        if (agrupar) armarSupernodos();
+    }
+
+    /**
+     * Arma un nodo por complejo, ubicado en el centro de sus proteínas, y uno más
+     * para todas las proteínas sin interacciones activas.
+     */
+    private void armarSupernodos() {
+        if (componentesViejos) recalcularComponentes();
+        quitarSupernodos();
+        ArrayList<String> sueltas = new ArrayList<>();
+        for (HashMap.Entry<Integer, ArrayList<String>> c : miembros.entrySet()) {
+            ArrayList<String> proteinas = c.getValue();
+            if (proteinas.size() == 1) {
+                sueltas.add(proteinas.get(0));
+                continue;
+            }
+            // Los supernodos empiezan con un carácter nulo: no chocan con ninguna proteína
+            agregarSupernodo("\u0000" + c.getKey(), proteinas,
+                proteinas.size() + " proteínas");
+        }
+        if (!sueltas.isEmpty()) {
+            agregarSupernodo("\u0000sueltas", sueltas, sueltas.size() + " sin complejo");
+        }
+        complejosCambiaron = false;
+    }
+
+    private void agregarSupernodo(String id, ArrayList<String> proteinas, String etiqueta) {
+        Node n = grafico.addNode(id);
+        n.setAttribute("supernodo");
+        n.setAttribute("ui.class", "supernodo");
+        n.setAttribute("ui.label", etiqueta);
+        n.setAttribute("ui.size", Math.min(80, 8 + 4 * Math.sqrt(proteinas.size())));
+        supernodos.add(id);
+        gruposSupernodos.add(proteinas);
+        ubicarSupernodo(n, proteinas);
+    }
+
+    /**
+     * Pone un supernodo en el centro de las proteínas que ya tienen posición.
+     */
+    private static void ubicarSupernodo(Node supernodo, ArrayList<String> proteinas) {
+        Graph g = supernodo.getGraph();
+        double sx = 0, sy = 0;
+        int conPosicion = 0;
+        for (String p : proteinas) {
+            Node n = g.getNode(p);
+            if (n == null || !n.hasAttribute("xyz")) continue;
+            double[] xyz = GraphPosLengthUtils.nodePosition(n);
+            sx += xyz[0];
+            sy += xyz[1];
+            conPosicion++;
+        }
+        if (conPosicion > 0) {
+            supernodo.setAttribute("xyz", sx / conPosicion, sy / conPosicion, 0);
+        }
+    }
+
+    private void quitarSupernodos() {
+        for (String id : supernodos) {
+            grafico.removeNode(id);
+        }
+        supernodos.clear();
+        gruposSupernodos.clear();
+    }
+
+    /**
+     * Aplica al grafo de GraphStream las últimas posiciones del diseño, solo a las
+     * proteínas que se movieron, y acompaña a los supernodos.
+     */
+    private void aplicarPosiciones() {
+        DisenoFuerzas.Posiciones p = diseno.getPosiciones();
+        if (p == null || p == posicionesAplicadas) return;
+        posicionesAplicadas = p;
+        double[] actual = new double[3];
+        for (int i = 0; i < p.getCantidad(); i++) {
+            Node n = grafico.getNode(p.getNombre(i));
+            if (n == null) continue;
+            float x = p.getX(i), y = p.getY(i);
+            if (n.hasAttribute("xyz")) {
+                GraphPosLengthUtils.nodePosition(n, actual);
+                if (Math.abs(actual[0] - x) + Math.abs(actual[1] - y) < 1e-3) continue;
+            }
+            n.setAttribute("xyz", x, y, 0);
+        }
+        for (int i = 0; i < supernodos.size(); i++) {
+            ubicarSupernodo(grafico.getNode(supernodos.get(i)), gruposSupernodos.get(i));
+        }
+    }
+
+    /**
+     * Indica si una interacción se dibuja en el nivel actual.
+     */
+    private boolean visible(Edge e) {
+        return nivel != AGRUPADO && !e.hasAttribute("recortada");
+    }
+
+    private static double peso(Edge e) {
+        return (Double) e.getAttribute("peso");
+    }
+
+    private static void ocultar(Element e, boolean oculto) {
+        if (oculto == e.hasAttribute("ui.hide")) return;
+        if (oculto) {
+            e.setAttribute("ui.hide");
+        } else {
+            e.removeAttribute("ui.hide");
+        }
+    }
+
+    private void marcar(String proteina, boolean enComplejo) {
+        Node n = grafico.getNode(proteina);
+        if (enComplejo == n.hasAttribute("ui.class")) return;
+        if (enComplejo) {
+            n.setAttribute("ui.class", CLASE_COMPLEJO);
+        } else {
+            n.removeAttribute("ui.class");
+        }
+    }
+
+    /**
+     * Identificador de la arista entre dos proteínas, igual en ambos sentidos
+     * porque las interacciones no son dirigidas.
+     */
+    private static String idArista(String a, String b) {
+        return a.compareTo(b) <= 0 ? a + "\t" + b : b + "\t" + a;
+    }
+
+    /**
+     * Mutación del Grafo pendiente de aplicar a la vista.
+     */
+    private static final class Mutacion {
+        static final byte PROTEINA_AGREGADA = 0;
+        static final byte PROTEINA_ELIMINADA = 1;
+        static final byte INTERACCION_AGREGADA = 2;
+        static final byte INTERACCION_ELIMINADA = 3;
+        static final byte INTERACCION_ACTIVADA = 4;
+        static final byte PESO_CAMBIADO = 5;
+
+        final byte tipo;
+        final String origen;
+        final String destino;
+        final double peso;
+        final boolean activa;
+
+        Mutacion(byte tipo, String origen, String destino, double peso, boolean activa) {
+            this.tipo = tipo;
+            this.origen = origen;
+            this.destino = destino;
+            this.peso = peso;
+            this.activa = activa;
+        }
+    }
+
+    /**
+     * Encola las mutaciones que avisa el Grafo. Un reemplazo en bloque no trae el
+     * detalle de los cambios: la vista se vuelve a construir desde el contenido.
+     */
+    private static final class Oyente implements OyenteMutaciones {
+        final ConcurrentLinkedQueue<Mutacion> cola = new ConcurrentLinkedQueue<>();
+        volatile boolean reemplazado;
+
+        @Override
+        public void proteinaAgregada(String nombre) {
+            cola.add(new Mutacion(Mutacion.PROTEINA_AGREGADA, nombre, null, 0, true));
+        }
+
+        @Override
+        public void proteinaEliminada(String nombre) {
+            cola.add(new Mutacion(Mutacion.PROTEINA_ELIMINADA, nombre, null, 0, true));
+        }
+
+        @Override
+        public void interaccionAgregada(String origen, String destino, double peso) {
+            cola.add(new Mutacion(Mutacion.INTERACCION_AGREGADA, origen, destino, peso, true));
+        }
+
+        @Override
+        public void interaccionEliminada(String origen, String destino) {
+            cola.add(new Mutacion(Mutacion.INTERACCION_ELIMINADA, origen, destino, 0, true));
+        }
+
+        @Override
+        public void interaccionActivada(String origen, String destino, boolean activa) {
+            cola.add(new Mutacion(Mutacion.INTERACCION_ACTIVADA, origen, destino, 0, activa));
+        }
+
+        @Override
+        public void pesoCambiado(String origen, String destino, double peso) {
+            cola.add(new Mutacion(Mutacion.PESO_CAMBIADO, origen, destino, peso, true));
+        }
+
+        @Override
+        public void grafoReemplazado() {
+            reemplazado = true;
+            cola.clear();
+        }
+    }
+}
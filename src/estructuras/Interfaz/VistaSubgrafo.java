@@ -0,0 +1,112 @@
+package estructuras.Interfaz;
+
+import estructuras.DisenoFuerzas;
+import estructuras.Subgrafo;
+import java.awt.Component;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import javax.swing.JFrame;
+import javax.swing.Timer;
+import javax.swing.WindowConstants;
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.ui.swing_viewer.SwingViewer;
+import org.graphstream.ui.view.Viewer;
+
+/**
+ * Ventana que muestra solo un Subgrafo (por ejemplo el vecindario de una ruta),
+ * con las semillas y las interacciones de la ruta resaltadas. El subgrafo es
+ * chico y no cambia, así que se arma una vez; el diseño lo calcula un
+ * DisenoFuerzas propio que se detiene al cerrar la ventana.
+ */
+public final class VistaSubgrafo {
+    private static final int PERIODO_MS = 100;
+    private static final String ESTILO =
+        "node {" +
+        "   size: 20px;" +
+        "   fill-color: #87CEEB;" +
+        "   text-mode: normal;" +
+        "   text-color: black;" +
+        "   text-size: 12;" +
+        "   text-alignment: under;" +
+        "}" +
+        "node.semilla {" +
+        "   size: 28px;" +
+        "   fill-color: #E9573F;" +
+        "   text-style: bold;" +
+        "}" +
+        "edge {" +
+        "   shape: line;" +
+        "   fill-color: gray;" +
+        "   size: 1px;" +
+        "   text-size: 10;" +
+        "   text-color: blue;" +
+        "   text-alignment: along;" +
+        "}" +
+        "edge.ruta {" +
+        "   fill-color: #E9573F;" +
+        "   size: 4px;" +
+        "}";
+
+    private VistaSubgrafo() {
+    }
+
+    /**
+     * Abre una ventana con el subgrafo. Debe llamarse en el hilo de eventos de Swing.
+     *
+     * @param subgrafo Subgrafo a mostrar
+     * @param titulo Título de la ventana
+     * @param padre Componente respecto del cual se ubica la ventana
+     */
+    public static void mostrar(Subgrafo subgrafo, String titulo, Component padre) {
+        System.setProperty("org.graphstream.ui", "swing");
+        Graph grafico = new MultiGraph("Subgrafo");
+        grafico.setAttribute("ui.stylesheet", ESTILO);
+        DisenoFuerzas diseno = new DisenoFuerzas(null, Runtime.getRuntime().availableProcessors());
+        for (int i = 0; i < subgrafo.getNumProteinas(); i++) {
+            String p = subgrafo.getProteina(i);
+            Node n = grafico.addNode(p);
+            n.setAttribute("ui.label", p);
+            if (i < subgrafo.getNumSemillas()) n.setAttribute("ui.class", "semilla");
+            diseno.agregarProteina(p);
+        }
+        for (int e = 0; e < subgrafo.getNumInteracciones(); e++) {
+            String o = subgrafo.getProteina(subgrafo.getOrigen(e));
+            String d = subgrafo.getProteina(subgrafo.getDestino(e));
+            Edge arista = grafico.addEdge(String.valueOf(e), o, d, false);
+            arista.setAttribute("ui.label", String.valueOf(subgrafo.getPeso(e)));
+            if (subgrafo.esDeRuta(e)) arista.setAttribute("ui.class", "ruta");
+            diseno.agregarInteraccion(o, d, true);
+        }
+
+        // Copiar las posiciones del diseño a medida que se publican
+        DisenoFuerzas.Posiciones[] aplicadas = new DisenoFuerzas.Posiciones[1];
+        Timer temporizador = new Timer(PERIODO_MS, ev -> {
+            DisenoFuerzas.Posiciones p = diseno.getPosiciones();
+            if (p == null || p == aplicadas[0]) return;
+            aplicadas[0] = p;
+            for (int i = 0; i < p.getCantidad(); i++) {
+                grafico.getNode(p.getNombre(i)).setAttribute("xyz", p.getX(i), p.getY(i), 0);
+            }
+        });
+        temporizador.start();
+
+        JFrame ventana = new JFrame(titulo);
+        ventana.setSize(800, 600);
+        ventana.setLocationRelativeTo(padre);
+        ventana.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        Viewer visor = new SwingViewer(grafico, Viewer.ThreadingModel.GRAPH_IN_ANOTHER_THREAD);
+        ventana.add((Component) visor.addDefaultView(false));
+        ventana.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                temporizador.stop();
+                diseno.close();
+                visor.close();
+            }
+        });
+        ventana.setVisible(true);
+    }
+}
@@ -4,13 +4,25 @@
  */
 package estructuras;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
- * Implementación de una lista doblemente enlazada.
+ * Implementación de una lista doblemente enlazada desenrollada.
  * Permite operaciones de inserción, eliminación y búsqueda de elementos.
+ * Cada nodo guarda hasta Nodo.CAPACIDAD elementos seguidos, así que hay un objeto
+ * por tramo y no por elemento, y obtener(i) salta nodos enteros. Al eliminar, un
+ * nodo se une con un vecino si entre los dos entran en uno.
+ * Se puede recorrer con for-each y con streams, también en paralelo; la lista no
+ * debe modificarse mientras se la recorre.
  * 
  * @param <T> Tipo de elementos almacenados en la lista
  */
-public class Lista<T> {
+public class Lista<T> implements Iterable<T> {
     private Nodo<T> cabeza;
     private Nodo<T> cola;
     private int tamaño;
@@ -30,15 +42,17 @@ public class Lista<T> {
      * @param dato El dato a agregar
      */
     public void agregar(T dato) {
-        Nodo<T> nuevo = new Nodo<>(dato);
-        if (estaVacia()) {
-            cabeza = nuevo;
-            cola = nuevo;
-        } else {
-            cola.setSiguiente(nuevo);
-            nuevo.setAnterior(cola);
+        if (cola == null || cola.estaLleno()) {
+            Nodo<T> nuevo = new Nodo<>();
+            if (cola == null) {
+                cabeza = nuevo;
+            } else {
+                cola.setSiguiente(nuevo);
+                nuevo.setAnterior(cola);
+            }
             cola = nuevo;
         }
+        cola.insertar(cola.getCantidad(), dato);
         tamaño++;
     }
     
@@ -48,15 +62,17 @@ public class Lista<T> {
      * @param dato El dato a agregar
      */
     public void agregarAlInicio(T dato) {
-        Nodo<T> nuevo = new Nodo<>(dato);
-        if (estaVacia()) {
-            cabeza = nuevo;
-            cola = nuevo;
-        } else {
-            nuevo.setSiguiente(cabeza);
-            cabeza.setAnterior(nuevo);
+        if (cabeza == null || cabeza.estaLleno()) {
+            Nodo<T> nuevo = new Nodo<>();
+            if (cabeza == null) {
+                cola = nuevo;
+            } else {
+                nuevo.setSiguiente(cabeza);
+                cabeza.setAnterior(nuevo);
+            }
             cabeza = nuevo;
         }
+        cabeza.insertar(0, dato);
         tamaño++;
     }
     
@@ -67,26 +83,13 @@ public class Lista<T> {
      * @return true si se eliminó, false si no se encontró
      */
     public boolean eliminar(T dato) {
-        Nodo<T> actual = cabeza;
-        while (actual != null) {
-            if (actual.getDato().equals(dato)) {
-                if (actual == cabeza && actual == cola) {
-                    cabeza = null;
-                    cola = null;
-                } else if (actual == cabeza) {
-                    cabeza = cabeza.getSiguiente();
-                    cabeza.setAnterior(null);
-                } else if (actual == cola) {
-                    cola = cola.getAnterior();
-                    cola.setSiguiente(null);
-                } else {
-                    actual.getAnterior().setSiguiente(actual.getSiguiente());
-                    actual.getSiguiente().setAnterior(actual.getAnterior());
+        for (Nodo<T> actual = cabeza; actual != null; actual = actual.getSiguiente()) {
+            for (int i = 0; i < actual.getCantidad(); i++) {
+                if (actual.getDato(i).equals(dato)) {
+                    quitar(actual, i);
+                    return true;
                 }
-                tamaño--;
-                return true;
             }
-            actual = actual.getSiguiente();
         }
         return false;
     }
@@ -103,32 +106,62 @@ public class Lista<T> {
         Nodo<T> actual;
         if (indice < tamaño / 2) {
             actual = cabeza;
-            for (int i = 0; i < indice; i++) actual = actual.getSiguiente();
+            while (indice >= actual.getCantidad()) {
+                indice -= actual.getCantidad();
+                actual = actual.getSiguiente();
+            }
         } else {
             actual = cola;
-            for (int i = tamaño - 1; i > indice; i--) actual = actual.getAnterior();
+            int desdeElFinal = tamaño - 1 - indice;
+            while (desdeElFinal >= actual.getCantidad()) {
+                desdeElFinal -= actual.getCantidad();
+                actual = actual.getAnterior();
+            }
+            indice = actual.getCantidad() - 1 - desdeElFinal;
         }
+        return quitar(actual, indice);
+    }
+    
+    /**
+     * Quita un elemento de un nodo y mantiene los nodos sin huecos: un nodo vacío
+     * se desenlaza y uno que entra junto con un vecino se une a él.
+     */
+    private T quitar(Nodo<T> nodo, int posicion) {
+        T dato = nodo.eliminar(posicion);
+        tamaño--;
         
-        T dato = actual.getDato();
-        
-        if (actual == cabeza && actual == cola) {
-            cabeza = null;
-            cola = null;
-        } else if (actual == cabeza) {
-            cabeza = cabeza.getSiguiente();
-            cabeza.setAnterior(null);
-        } else if (actual == cola) {
-            cola = cola.getAnterior();
-            cola.setSiguiente(null);
-        } else {
-            actual.getAnterior().setSiguiente(actual.getSiguiente());
-            actual.getSiguiente().setAnterior(actual.getAnterior());
+        Nodo<T> siguiente = nodo.getSiguiente();
+        Nodo<T> anterior = nodo.getAnterior();
+        if (nodo.getCantidad() > 0 && siguiente != null
+                && nodo.getCantidad() + siguiente.getCantidad() <= Nodo.CAPACIDAD) {
+            nodo.absorber(siguiente);
+            desenlazar(siguiente);
+        } else if (anterior != null && nodo.getCantidad() + anterior.getCantidad() <= Nodo.CAPACIDAD) {
+            anterior.absorber(nodo);
+            desenlazar(nodo);
+        } else if (nodo.getCantidad() == 0) {
+            desenlazar(nodo);
         }
-        
-        tamaño--;
         return dato;
     }
     
+    private void desenlazar(Nodo<T> nodo) {
+        Nodo<T> anterior = nodo.getAnterior();
+        Nodo<T> siguiente = nodo.getSiguiente();
+        if (anterior == null) {
+            cabeza = siguiente;
+        } else {
+            anterior.setSiguiente(siguiente);
+        }
+        if (siguiente == null) {
+            cola = anterior;
+        } else {
+            siguiente.setAnterior(anterior);
+        }
+        nodo.setAnterior(null);
+        nodo.setSiguiente(null);
+    }
+    
     /**
      * Verifica si la lista contiene un dato específico.
      * 
@@ -136,16 +169,17 @@ public class Lista<T> {
      * @return true si el dato existe, false en caso contrario
      */
     public boolean contiene(T dato) {
-        Nodo<T> actual = cabeza;
-        while (actual != null) {
-            if (actual.getDato().equals(dato)) return true;
-            actual = actual.getSiguiente();
+        for (Nodo<T> actual = cabeza; actual != null; actual = actual.getSiguiente()) {
+            for (int i = 0; i < actual.getCantidad(); i++) {
+                if (actual.getDato(i).equals(dato)) return true;
+            }
         }
         return false;
     }
     
     /**
      * Obtiene un elemento por su posición.
+     * Recorre desde el extremo más cercano saltando nodos enteros.
      * 
      * @param indice La posición del elemento (0 = primero)
      * @return El dato en esa posición, o null si el índice es inválido
@@ -153,15 +187,21 @@ public class Lista<T> {
     public T obtener(int indice) {
         if (indice < 0 || indice >= tamaño) return null;
         
-        Nodo<T> actual;
         if (indice < tamaño / 2) {
-            actual = cabeza;
-            for (int i = 0; i < indice; i++) actual = actual.getSiguiente();
-        } else {
-            actual = cola;
-            for (int i = tamaño - 1; i > indice; i--) actual = actual.getAnterior();
+            Nodo<T> actual = cabeza;
+            while (indice >= actual.getCantidad()) {
+                indice -= actual.getCantidad();
+                actual = actual.getSiguiente();
+            }
+            return actual.getDato(indice);
+        }
+        Nodo<T> actual = cola;
+        int desdeElFinal = tamaño - 1 - indice;
+        while (desdeElFinal >= actual.getCantidad()) {
+            desdeElFinal -= actual.getCantidad();
+            actual = actual.getAnterior();
         }
-        return actual.getDato();
+        return actual.getDato(actual.getCantidad() - 1 - desdeElFinal);
     }
     
     /**
@@ -188,7 +228,7 @@ public class Lista<T> {
      * @return El primer elemento, o null si la lista está vacía
      */
     public T getPrimero() { 
-        return cabeza != null ? cabeza.getDato() : null; 
+        return cabeza != null ? cabeza.getDato(0) : null; 
     }
     
     /**
@@ -197,7 +237,7 @@ public class Lista<T> {
      * @return El último elemento, o null si la lista está vacía
      */
     public T getUltimo() { 
-        return cola != null ? cola.getDato() : null; 
+        return cola != null ? cola.getDato(cola.getCantidad() - 1) : null; 
     }
     
     /**
@@ -208,15 +248,155 @@ public class Lista<T> {
     @SuppressWarnings("unchecked")
     public T[] toArray() {
         T[] arreglo = (T[]) new Object[tamaño];
-        Nodo<T> actual = cabeza;
         int i = 0;
-        while (actual != null) {
-            arreglo[i++] = actual.getDato();
-            actual = actual.getSiguiente();
+        for (Nodo<T> actual = cabeza; actual != null; actual = actual.getSiguiente()) {
+            actual.copiar(0, arreglo, i, actual.getCantidad());
+            i += actual.getCantidad();
         }
         return arreglo;
     }
     
+    /**
+     * Obtiene un iterador que recorre la lista desde el primer elemento.
+     * 
+     * @return Iterador de los elementos
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private Nodo<T> actual = cabeza;
+            private int posicion;
+            
+            @Override
+            public boolean hasNext() {
+                return actual != null;
+            }
+            
+            @Override
+            public T next() {
+                if (actual == null) throw new NoSuchElementException();
+                T dato = actual.getDato(posicion++);
+                if (posicion == actual.getCantidad()) {
+                    actual = actual.getSiguiente();
+                    posicion = 0;
+                }
+                return dato;
+            }
+        };
+    }
+    
+    /**
+     * Obtiene un Spliterator ordenado y de tamaño conocido para usar la lista con streams.
+     * 
+     * @return Spliterator de los elementos
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new Divisor<>(cabeza, 0, tamaño);
+    }
+    
+    /**
+     * Obtiene un stream secuencial de los elementos.
+     * 
+     * @return Stream de la lista
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+    
+    /**
+     * Obtiene un stream paralelo de los elementos.
+     * 
+     * @return Stream paralelo de la lista
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+    
+    /**
+     * Spliterator sobre un tramo de la lista, sin copiar los elementos. Si el tramo
+     * ocupa varios nodos se divide en el borde de nodo más cercano a la mitad,
+     * saltando nodos enteros; dentro de un solo nodo se divide por índice.
+     */
+    private static final class Divisor<T> implements Spliterator<T> {
+        private Nodo<T> nodo;
+        private int posicion;
+        private int restantes;
+        
+        Divisor(Nodo<T> nodo, int posicion, int restantes) {
+            this.nodo = nodo;
+            this.posicion = posicion;
+            this.restantes = restantes;
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super T> accion) {
+            if (restantes <= 0) return false;
+            T dato = nodo.getDato(posicion++);
+            if (posicion == nodo.getCantidad()) {
+                nodo = nodo.getSiguiente();
+                posicion = 0;
+            }
+            restantes--;
+            accion.accept(dato);
+            return true;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super T> accion) {
+            Nodo<T> actual = nodo;
+            int i = posicion;
+            int n = restantes;
+            nodo = null;
+            restantes = 0;
+            while (n > 0) {
+                int hasta = Math.min(actual.getCantidad(), i + n);
+                n -= hasta - i;
+                for (; i < hasta; i++) {
+                    accion.accept(actual.getDato(i));
+                }
+                actual = actual.getSiguiente();
+                i = 0;
+            }
+        }
+        
+        @Override
+        public Spliterator<T> trySplit() {
+            if (restantes <= 1) return null;
+            int mitad = restantes >>> 1;
+            int enNodo = nodo.getCantidad() - posicion;
+            if (restantes <= enNodo) {
+                // Todo en un arreglo: mitades exactas por índice
+                Divisor<T> prefijo = new Divisor<>(nodo, posicion, mitad);
+                posicion += mitad;
+                restantes -= mitad;
+                return prefijo;
+            }
+            // Saltar nodos enteros hasta pasar la mitad, dejando al menos uno para el resto
+            int corte = enNodo;
+            Nodo<T> resto = nodo.getSiguiente();
+            while (corte < mitad && corte + resto.getCantidad() < restantes) {
+                corte += resto.getCantidad();
+                resto = resto.getSiguiente();
+            }
+            Divisor<T> prefijo = new Divisor<>(nodo, posicion, corte);
+            nodo = resto;
+            posicion = 0;
+            restantes -= corte;
+            return prefijo;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return restantes;
+        }
+        
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+    
     /**
      * Elimina todos los elementos de la lista.
      */
@@ -235,11 +415,9 @@ public class Lista<T> {
     public String toString() {
         if (estaVacia()) return "[]";
         StringBuilder sb = new StringBuilder("[");
-        Nodo<T> actual = cabeza;
-        while (actual != null) {
-            sb.append(actual.getDato());
-            if (actual.getSiguiente() != null) sb.append(", ");
-            actual = actual.getSiguiente();
+        for (T dato : this) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(dato);
         }
         sb.append("]");
         return sb.toString();
@@ -0,0 +1,169 @@
+package estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Interacciones de cada proteína, indexadas por el identificador que le asigna
+ * el DiccionarioProteinas del grafo. Cada interacción aparece en la lista de sus
+ * dos extremos, en el orden en que se agregó, así que recorrer la lista de una
+ * proteína da sus interacciones en el mismo orden que la lista del grafo.
+ * Las interacciones son los mismos objetos que guarda el grafo.
+ */
+final class ListasAdyacencia {
+    private static final int CAPACIDAD_INICIAL = 16;
+    private static final int GRADO_INICIAL = 4;
+
+    private int[][] vecinos;
+    private Proteinas[][] aristas;
+    private int[] grados;
+
+    /**
+     * Constructor que crea listas vacías.
+     */
+    ListasAdyacencia() {
+        vaciar();
+    }
+
+    /**
+     * Agrega una interacción a las listas de sus dos extremos.
+     *
+     * @param a Identificador de un extremo
+     * @param b Identificador del otro extremo
+     * @param arista Interacción entre ambos
+     */
+    void agregar(int a, int b, Proteinas arista) {
+        anotar(a, b, arista);
+        anotar(b, a, arista);
+    }
+
+    /**
+     * Quita una interacción de las listas de sus dos extremos, conservando el
+     * orden de las demás.
+     *
+     * @param a Identificador de un extremo
+     * @param b Identificador del otro extremo
+     * @return La interacción quitada, o null si no estaba
+     */
+    Proteinas eliminar(int a, int b) {
+        Proteinas arista = quitar(a, b);
+        if (arista != null) quitar(b, a);
+        return arista;
+    }
+
+    /**
+     * Busca la interacción entre dos proteínas recorriendo la lista más corta.
+     *
+     * @param a Identificador de un extremo
+     * @param b Identificador del otro extremo
+     * @return La interacción, o null si no existe
+     */
+    Proteinas buscar(int a, int b) {
+        if (grado(b) < grado(a)) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int k = posicion(a, b);
+        return k < 0 ? null : aristas[a][k];
+    }
+
+    /**
+     * Obtiene la cantidad de interacciones de una proteína.
+     *
+     * @param id Identificador de la proteína
+     * @return Cantidad de interacciones, 0 si no tiene
+     */
+    int grado(int id) {
+        return id < grados.length ? grados[id] : 0;
+    }
+
+    /**
+     * Obtiene el otro extremo de una interacción de la proteína.
+     *
+     * @param id Identificador de la proteína
+     * @param k Posición en su lista (menor que grado(id))
+     * @return Identificador del vecino
+     */
+    int vecino(int id, int k) {
+        return vecinos[id][k];
+    }
+
+    /**
+     * Obtiene una interacción de la proteína.
+     *
+     * @param id Identificador de la proteína
+     * @param k Posición en su lista (menor que grado(id))
+     * @return La interacción
+     */
+    Proteinas arista(int id, int k) {
+        return aristas[id][k];
+    }
+
+    /**
+     * Quita todas las interacciones de una proteína, también de las listas de sus vecinos.
+     *
+     * @param id Identificador de la proteína
+     */
+    void quitarProteina(int id) {
+        int g = grado(id);
+        for (int k = 0; k < g; k++) {
+            quitar(vecinos[id][k], id);
+        }
+        if (g > 0) {
+            vecinos[id] = null;
+            aristas[id] = null;
+            grados[id] = 0;
+        }
+    }
+
+    /**
+     * Elimina todas las interacciones.
+     */
+    void vaciar() {
+        vecinos = new int[CAPACIDAD_INICIAL][];
+        aristas = new Proteinas[CAPACIDAD_INICIAL][];
+        grados = new int[CAPACIDAD_INICIAL];
+    }
+
+    private void anotar(int id, int vecino, Proteinas arista) {
+        if (id >= grados.length) {
+            int capacidad = Math.max(grados.length * 2, id + 1);
+            vecinos = Arrays.copyOf(vecinos, capacidad);
+            aristas = Arrays.copyOf(aristas, capacidad);
+            grados = Arrays.copyOf(grados, capacidad);
+        }
+        int g = grados[id];
+        if (vecinos[id] == null) {
+            vecinos[id] = new int[GRADO_INICIAL];
+            aristas[id] = new Proteinas[GRADO_INICIAL];
+        } else if (g == vecinos[id].length) {
+            vecinos[id] = Arrays.copyOf(vecinos[id], g * 2);
+            aristas[id] = Arrays.copyOf(aristas[id], g * 2);
+        }
+        vecinos[id][g] = vecino;
+        aristas[id][g] = arista;
+        grados[id] = g + 1;
+    }
+
+    private Proteinas quitar(int id, int vecino) {
+        int k = posicion(id, vecino);
+        if (k < 0) return null;
+        Proteinas arista = aristas[id][k];
+        int resto = grados[id] - k - 1;
+        System.arraycopy(vecinos[id], k + 1, vecinos[id], k, resto);
+        System.arraycopy(aristas[id], k + 1, aristas[id], k, resto);
+        grados[id]--;
+        aristas[id][grados[id]] = null;
+        return arista;
+    }
+
+    private int posicion(int id, int vecino) {
+        int g = grado(id);
+        if (g == 0) return -1;
+        int[] v = vecinos[id];
+        for (int k = 0; k < g; k++) {
+            if (v[k] == vecino) return k;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,121 @@
+package estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Lote de interacciones leídas de un archivo y todavía no agregadas al Grafo.
+ * Los extremos se guardan como identificadores de un diccionario local, de modo
+ * que cada nombre distinto se convierte en String una sola vez.
+ *
+ * El lote recuerda el identificador que cada nombre local recibió en el Grafo,
+ * así al agregar varios lotes seguidos solo se buscan en el Grafo los nombres nuevos.
+ */
+final class LoteAristas {
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private final DiccionarioProteinas nombres = new DiccionarioProteinas();
+    private int[] origenes = new int[CAPACIDAD_INICIAL];
+    private int[] destinos = new int[CAPACIDAD_INICIAL];
+    private double[] pesos = new double[CAPACIDAD_INICIAL];
+    private int cantidad;
+    /** Identificador en el Grafo de cada identificador local, o -1 */
+    private int[] globales = new int[0];
+    /** Identificadores locales menores que este ya tienen identificador en el Grafo */
+    int mapeados;
+
+    /** Proteínas que resultaron nuevas al agregar el lote al Grafo */
+    int proteinasAgregadas;
+    /** Interacciones que resultaron nuevas al agregar el lote al Grafo */
+    int interaccionesAgregadas;
+
+    /**
+     * Obtiene el diccionario local de nombres.
+     *
+     * @return Diccionario de nombres de este lote
+     */
+    DiccionarioProteinas getNombres() {
+        return nombres;
+    }
+
+    /**
+     * Agrega una interacción al lote.
+     *
+     * @param origen Identificador local del origen
+     * @param destino Identificador local del destino
+     * @param peso Peso de la interacción
+     */
+    void agregar(int origen, int destino, double peso) {
+        if (cantidad == origenes.length) {
+            int nueva = origenes.length * 2;
+            origenes = Arrays.copyOf(origenes, nueva);
+            destinos = Arrays.copyOf(destinos, nueva);
+            pesos = Arrays.copyOf(pesos, nueva);
+        }
+        origenes[cantidad] = origen;
+        destinos[cantidad] = destino;
+        pesos[cantidad] = peso;
+        cantidad++;
+    }
+
+    /**
+     * Obtiene el número de interacciones en el lote.
+     *
+     * @return Cantidad de interacciones
+     */
+    int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene el identificador local del origen de una interacción del lote.
+     *
+     * @param i Posición de la interacción
+     * @return Identificador en el diccionario local
+     */
+    int origen(int i) {
+        return origenes[i];
+    }
+
+    /**
+     * Obtiene el identificador local del destino de una interacción del lote.
+     *
+     * @param i Posición de la interacción
+     * @return Identificador en el diccionario local
+     */
+    int destino(int i) {
+        return destinos[i];
+    }
+
+    /**
+     * Obtiene el peso de una interacción del lote.
+     *
+     * @param i Posición de la interacción
+     * @return Peso de la interacción
+     */
+    double peso(int i) {
+        return pesos[i];
+    }
+
+    /**
+     * Obtiene la tabla de identificadores en el Grafo, ampliada para cubrir
+     * todos los identificadores locales asignados hasta ahora.
+     *
+     * @return Tabla indexada por identificador local
+     */
+    int[] getGlobales() {
+        int limite = nombres.getLimiteIds();
+        if (globales.length < limite) {
+            int anterior = globales.length;
+            globales = Arrays.copyOf(globales, Math.max(limite, anterior * 2));
+            Arrays.fill(globales, anterior, globales.length, -1);
+        }
+        return globales;
+    }
+
+    /**
+     * Descarta las interacciones del lote y conserva el diccionario de nombres.
+     */
+    void vaciarAristas() {
+        cantidad = 0;
+    }
+}
@@ -0,0 +1,362 @@
+package estructuras;
+
+import java.io.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de métricas de la aplicación: contadores, temporizadores e histogramas
+ * de latencia con cubetas logarítmico-lineales (estilo HDR, error relativo menor al 3%).
+ *
+ * Las métricas son campos estáticos creados una sola vez, así que registrar un
+ * valor en un camino caliente no busca por nombre ni reserva memoria. Los
+ * algoritmos acumulan en variables locales y suman al contador una vez al final.
+ */
+public final class Metricas {
+    private static Metrica[] registradas = new Metrica[32];
+    private static int numRegistradas = 0;
+
+    // ---- Carga y guardado de archivos ----
+    public static final Contador LINEAS_LEIDAS = new Contador("carga.lineas");
+    public static final Contador ERRORES_PARSEO = new Contador("carga.errores_parseo");
+    public static final Temporizador CARGA = new Temporizador("carga.tiempo");
+    public static final Temporizador CARGA_INSTANTANEA = new Temporizador("carga.instantanea.tiempo");
+    public static final Temporizador GUARDADO = new Temporizador("guardado.tiempo");
+
+    // ---- Algoritmos del Grafo ----
+    public static final Algoritmo COMPLEJOS = new Algoritmo("complejos");
+    public static final Algoritmo RUTA_MAS_CORTA = new Algoritmo("dijkstra");
+    public static final Algoritmo RUTA_DFS = new Algoritmo("dfs");
+    public static final Algoritmo HUBS = new Algoritmo("hubs");
+    public static final Algoritmo VECINDARIO = new Algoritmo("vecindario");
+
+    // ---- Mutaciones del Grafo ----
+    public static final Contador PROTEINAS_AGREGADAS = new Contador("mutacion.proteinas_agregadas");
+    public static final Contador PROTEINAS_ELIMINADAS = new Contador("mutacion.proteinas_eliminadas");
+    public static final Contador INTERACCIONES_AGREGADAS = new Contador("mutacion.interacciones_agregadas");
+    public static final Contador INTERACCIONES_ELIMINADAS = new Contador("mutacion.interacciones_eliminadas");
+    public static final Temporizador MUTACION = new Temporizador("mutacion.tiempo");
+
+    private Metricas() {
+    }
+
+    private static synchronized void registrar(Metrica m) {
+        if (numRegistradas == registradas.length) {
+            Metrica[] mayor = new Metrica[registradas.length * 2];
+            System.arraycopy(registradas, 0, mayor, 0, numRegistradas);
+            registradas = mayor;
+        }
+        registradas[numRegistradas++] = m;
+    }
+
+    /**
+     * Métrica con nombre que sabe describirse en el volcado.
+     */
+    public abstract static class Metrica {
+        private final String nombre;
+
+        Metrica(String nombre) {
+            this.nombre = nombre;
+            registrar(this);
+        }
+
+        /**
+         * Obtiene el nombre de la métrica.
+         *
+         * @return Nombre con el formato "area.medida"
+         */
+        public String getNombre() {
+            return nombre;
+        }
+
+        abstract void volcar(StringBuilder sb);
+
+        abstract void exportar(PrintWriter pw);
+
+        abstract void reiniciar();
+    }
+
+    /**
+     * Contador monótono, barato bajo contención.
+     */
+    public static final class Contador extends Metrica {
+        private final LongAdder valor = new LongAdder();
+
+        Contador(String nombre) {
+            super(nombre);
+        }
+
+        /** Suma uno al contador. */
+        public void incrementar() {
+            valor.increment();
+        }
+
+        /**
+         * Suma una cantidad al contador.
+         *
+         * @param cantidad Cantidad a sumar
+         */
+        public void sumar(long cantidad) {
+            valor.add(cantidad);
+        }
+
+        /**
+         * Obtiene el valor actual.
+         *
+         * @return Valor acumulado
+         */
+        public long getValor() {
+            return valor.sum();
+        }
+
+        @Override
+        void volcar(StringBuilder sb) {
+            sb.append(String.format("%-36s %,14d%n", getNombre(), getValor()));
+        }
+
+        @Override
+        void exportar(PrintWriter pw) {
+            pw.println(getNombre() + ",contador," + getValor() + ",,,,,");
+        }
+
+        @Override
+        void reiniciar() {
+            valor.reset();
+        }
+    }
+
+    /**
+     * Histograma de valores no negativos con cubetas logarítmico-lineales:
+     * cada potencia de dos se divide en 32 cubetas iguales.
+     */
+    public static class Histograma extends Metrica {
+        private static final int BITS_SUB = 5;
+        private static final int SUB = 1 << BITS_SUB;
+        private static final int CUBETAS = (64 - BITS_SUB) * SUB + SUB;
+
+        private final AtomicLongArray cuentas = new AtomicLongArray(CUBETAS);
+        private final LongAdder total = new LongAdder();
+        private final LongAdder suma = new LongAdder();
+        private final AtomicLong maximo = new AtomicLong();
+
+        Histograma(String nombre) {
+            super(nombre);
+        }
+
+        /**
+         * Registra un valor.
+         *
+         * @param valor Valor a registrar (los negativos se toman como cero)
+         */
+        public void registrar(long valor) {
+            if (valor < 0) valor = 0;
+            cuentas.incrementAndGet(indice(valor));
+            total.increment();
+            suma.add(valor);
+            long max;
+            while (valor > (max = maximo.get()) && !maximo.compareAndSet(max, valor)) {
+                // reintentar
+            }
+        }
+
+        static int indice(long valor) {
+            int exponente = Math.max(0, 63 - Long.numberOfLeadingZeros(valor) - BITS_SUB);
+            return exponente * SUB + (int) (valor >>> exponente);
+        }
+
+        /** Límite inferior de los valores que caen en la cubeta. */
+        static long limiteInferior(int indice) {
+            if (indice < 2 * SUB) return indice;
+            int exponente = indice / SUB - 1;
+            return (long) (indice % SUB + SUB) << exponente;
+        }
+
+        /**
+         * Obtiene el número de valores registrados.
+         *
+         * @return Cantidad de valores
+         */
+        public long getCuenta() {
+            return total.sum();
+        }
+
+        /**
+         * Obtiene la media de los valores registrados.
+         *
+         * @return Media, o 0 si no hay valores
+         */
+        public double getMedia() {
+            long n = total.sum();
+            return n == 0 ? 0 : (double) suma.sum() / n;
+        }
+
+        /**
+         * Obtiene el valor máximo registrado.
+         *
+         * @return Máximo
+         */
+        public long getMaximo() {
+            return maximo.get();
+        }
+
+        /**
+         * Estima un percentil a partir de las cubetas.
+         *
+         * @param percentil Percentil entre 0 y 100
+         * @return Límite inferior de la cubeta que contiene el percentil
+         */
+        public long getPercentil(double percentil) {
+            long n = total.sum();
+            if (n == 0) return 0;
+            long objetivo = Math.max(1, (long) Math.ceil(n * percentil / 100.0));
+            long acumulado = 0;
+            for (int i = 0; i < CUBETAS; i++) {
+                acumulado += cuentas.get(i);
+                if (acumulado >= objetivo) {
+                    return Math.min(limiteInferior(i), getMaximo());
+                }
+            }
+            return getMaximo();
+        }
+
+        /** Escala con la que se muestran los valores (1 para valores sin unidad). */
+        double escala() {
+            return 1;
+        }
+
+        @Override
+        void volcar(StringBuilder sb) {
+            double e = escala();
+            sb.append(String.format("%-36s %,14d  media %10.3f  p50 %10.3f  p99 %10.3f  max %10.3f%n",
+                getNombre(), getCuenta(), getMedia() / e, getPercentil(50) / e,
+                getPercentil(99) / e, getMaximo() / e));
+        }
+
+        @Override
+        void exportar(PrintWriter pw) {
+            double e = escala();
+            pw.println(getNombre() + ",histograma," + getCuenta() + "," + getMedia() / e + ","
+                + getPercentil(50) / e + "," + getPercentil(90) / e + ","
+                + getPercentil(99) / e + "," + getMaximo() / e);
+        }
+
+        @Override
+        void reiniciar() {
+            for (int i = 0; i < CUBETAS; i++) {
+                cuentas.set(i, 0);
+            }
+            total.reset();
+            suma.reset();
+            maximo.set(0);
+        }
+    }
+
+    /**
+     * Histograma de duraciones medidas en nanosegundos y mostradas en milisegundos.
+     */
+    public static final class Temporizador extends Histograma {
+
+        Temporizador(String nombre) {
+            super(nombre);
+        }
+
+        /**
+         * Marca el inicio de una medición.
+         *
+         * @return Instante de inicio, para pasarlo a detener
+         */
+        public long iniciar() {
+            return System.nanoTime();
+        }
+
+        /**
+         * Registra el tiempo transcurrido desde el inicio.
+         *
+         * @param inicio Valor devuelto por iniciar
+         */
+        public void detener(long inicio) {
+            registrar(System.nanoTime() - inicio);
+        }
+
+        @Override
+        double escala() {
+            return 1e6;
+        }
+    }
+
+    /**
+     * Métricas de un algoritmo del Grafo: ejecuciones, nodos visitados,
+     * aristas examinadas o relajadas y tiempo de pared.
+     */
+    public static final class Algoritmo {
+        public final Contador nodosVisitados;
+        public final Contador aristasRelajadas;
+        public final Temporizador tiempo;
+
+        Algoritmo(String nombre) {
+            nodosVisitados = new Contador("algoritmo." + nombre + ".nodos_visitados");
+            aristasRelajadas = new Contador("algoritmo." + nombre + ".aristas_relajadas");
+            tiempo = new Temporizador("algoritmo." + nombre + ".tiempo");
+        }
+
+        /**
+         * Registra una ejecución completa del algoritmo.
+         *
+         * @param inicio Instante de inicio (System.nanoTime)
+         * @param nodos Nodos visitados en la ejecución
+         * @param aristas Aristas examinadas en la ejecución
+         */
+        public void registrar(long inicio, long nodos, long aristas) {
+            tiempo.detener(inicio);
+            nodosVisitados.sumar(nodos);
+            aristasRelajadas.sumar(aristas);
+        }
+    }
+
+    /**
+     * Genera un volcado legible de todas las métricas. Los tiempos se muestran en ms.
+     *
+     * @return Texto con una línea por métrica
+     */
+    public static synchronized String volcado() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < numRegistradas; i++) {
+            registradas[i].volcar(sb);
+        }
+        // Solo las lecturas de CSV: las instantáneas no tienen líneas y van en su propio temporizador
+        long lineas = LINEAS_LEIDAS.getValor();
+        double segundos = CARGA.getMedia() * CARGA.getCuenta() / 1e9;
+        if (segundos > 0) {
+            sb.append(String.format("%-36s %,14.0f%n", "carga.lineas_por_segundo", lineas / segundos));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Exporta todas las métricas como CSV. Los tiempos se exportan en ms.
+     *
+     * @param archivo Archivo de destino
+     * @throws IOException si el archivo no se puede escribir
+     */
+    public static synchronized void exportar(File archivo) throws IOException {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(archivo))) {
+            pw.println("Metrica,Tipo,Cuenta,Media,P50,P90,P99,Maximo");
+            for (int i = 0; i < numRegistradas; i++) {
+                registradas[i].exportar(pw);
+            }
+            if (pw.checkError()) {
+                throw new IOException("Error al escribir " + archivo.getName());
+            }
+        }
+    }
+
+    /**
+     * Pone a cero todas las métricas.
+     */
+    public static synchronized void reiniciar() {
+        for (int i = 0; i < numRegistradas; i++) {
+            registradas[i].reiniciar();
+        }
+    }
+}
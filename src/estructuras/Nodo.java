@@ -4,44 +4,121 @@
  */
 package estructuras;
 
+import java.util.Arrays;
+
 /**
- * Nodo para lista doblemente enlazada.
- * Cada nodo contiene un dato y referencias al nodo anterior y siguiente.
+ * Nodo para lista doblemente enlazada desenrollada.
+ * Cada nodo guarda hasta CAPACIDAD datos consecutivos en un arreglo, la cantidad
+ * ocupada y referencias al nodo anterior y siguiente.
  * 
  * @param <T> Tipo de dato almacenado en el nodo
  */
 public class Nodo<T> {
-    private T dato;
+    /** Cantidad máxima de datos por nodo */
+    public static final int CAPACIDAD = 32;
+    
+    private final Object[] datos;
+    private int cantidad;
     private Nodo<T> anterior;
     private Nodo<T> siguiente;
     
     /**
-     * Constructor que crea un nodo con un dato específico.
-     * 
-     * @param dato El dato a almacenar en el nodo
+     * Constructor que crea un nodo vacío.
      */
-    public Nodo(T dato) {
-        this.dato = dato;
+    public Nodo() {
+        this.datos = new Object[CAPACIDAD];
+        this.cantidad = 0;
         this.anterior = null;
         this.siguiente = null;
     }
     
     /**
-     * Obtiene el dato almacenado en el nodo.
+     * Obtiene un dato almacenado en el nodo.
      * 
-     * @return El dato del nodo
+     * @param i Posición dentro del nodo, entre 0 y getCantidad() - 1
+     * @return El dato en esa posición
      */
-    public T getDato() { 
-        return dato; 
+    @SuppressWarnings("unchecked")
+    public T getDato(int i) { 
+        return (T) datos[i]; 
     }
     
     /**
-     * Establece el dato almacenado en el nodo.
+     * Establece un dato almacenado en el nodo.
      * 
+     * @param i Posición dentro del nodo, entre 0 y getCantidad() - 1
      * @param dato El nuevo dato
      */
-    public void setDato(T dato) { 
-        this.dato = dato; 
+    public void setDato(int i, T dato) { 
+        datos[i] = dato; 
+    }
+    
+    /**
+     * Obtiene la cantidad de datos del nodo.
+     * 
+     * @return Cantidad de posiciones ocupadas
+     */
+    public int getCantidad() { 
+        return cantidad; 
+    }
+    
+    /**
+     * Verifica si el nodo no admite más datos.
+     * 
+     * @return true si el nodo tiene CAPACIDAD datos
+     */
+    public boolean estaLleno() { 
+        return cantidad == CAPACIDAD; 
+    }
+    
+    /**
+     * Inserta un dato desplazando los siguientes. El nodo no debe estar lleno.
+     * 
+     * @param i Posición del nuevo dato, entre 0 y getCantidad()
+     * @param dato El dato a insertar
+     */
+    public void insertar(int i, T dato) {
+        System.arraycopy(datos, i, datos, i + 1, cantidad - i);
+        datos[i] = dato;
+        cantidad++;
+    }
+    
+    /**
+     * Quita un dato desplazando los siguientes.
+     * 
+     * @param i Posición del dato, entre 0 y getCantidad() - 1
+     * @return El dato quitado
+     */
+    public T eliminar(int i) {
+        T dato = getDato(i);
+        System.arraycopy(datos, i + 1, datos, i, cantidad - i - 1);
+        datos[--cantidad] = null;
+        return dato;
+    }
+    
+    /**
+     * Pasa al final de este nodo todos los datos de otro, que queda vacío.
+     * Entre los dos no deben superar CAPACIDAD datos.
+     * 
+     * @param otro Nodo cuyos datos se mueven
+     */
+    public void absorber(Nodo<T> otro) {
+        System.arraycopy(otro.datos, 0, datos, cantidad, otro.cantidad);
+        cantidad += otro.cantidad;
+        Arrays.fill(otro.datos, 0, otro.cantidad, null);
+        otro.cantidad = 0;
+    }
+    
+    /**
+     * Copia los datos del nodo a un arreglo.
+     * 
+     * @param desde Primera posición del nodo a copiar
+     * @param destino Arreglo de destino
+     * @param posicion Posición del destino donde se copia el primer dato
+     * @param largo Cantidad de datos a copiar
+     */
+    public void copiar(int desde, Object[] destino, int posicion, int largo) {
+        System.arraycopy(datos, desde, destino, posicion, largo);
     }
     
     /**
@@ -83,10 +160,15 @@ public class Nodo<T> {
     /**
      * Retorna una representación en cadena del nodo.
      * 
-     * @return El dato convertido a String
+     * @return Los datos del nodo entre corchetes
      */
     @Override
     public String toString() {
-        return dato.toString();
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < cantidad; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(datos[i]);
+        }
+        return sb.append("]").toString();
     }
 }
@@ -0,0 +1,68 @@
+package estructuras;
+
+/**
+ * Recibe las mutaciones que se hacen sobre un Grafo, en el mismo orden en que ocurren.
+ *
+ * Los métodos se llaman con el cerrojo de escritura del grafo tomado, justo después
+ * de aplicar el cambio y solo si el cambio ocurrió (por ejemplo, agregar una
+ * proteína que ya existía no avisa). Deben volver rápido y no consultar el grafo:
+ * lo que tengan que hacer con calma lo delegan a otro hilo.
+ */
+public interface OyenteMutaciones {
+
+    /**
+     * Se agregó una proteína.
+     *
+     * @param nombre Nombre de la proteína
+     */
+    void proteinaAgregada(String nombre);
+
+    /**
+     * Se eliminó una proteína junto con todas sus interacciones.
+     *
+     * @param nombre Nombre de la proteína
+     */
+    void proteinaEliminada(String nombre);
+
+    /**
+     * Se agregó una interacción.
+     *
+     * @param origen Proteína de origen
+     * @param destino Proteína de destino
+     * @param peso Peso de la interacción
+     */
+    void interaccionAgregada(String origen, String destino, double peso);
+
+    /**
+     * Se eliminó una interacción.
+     *
+     * @param origen Proteína de origen
+     * @param destino Proteína de destino
+     */
+    void interaccionEliminada(String origen, String destino);
+
+    /**
+     * Cambió el estado activo de una interacción.
+     *
+     * @param origen Proteína de origen
+     * @param destino Proteína de destino
+     * @param activa Nuevo estado
+     */
+    void interaccionActivada(String origen, String destino, boolean activa);
+
+    /**
+     * Cambió el peso de una interacción; conserva su estado y su lugar.
+     *
+     * @param origen Proteína de origen
+     * @param destino Proteína de destino
+     * @param peso Nuevo peso
+     */
+    void pesoCambiado(String origen, String destino, double peso);
+
+    /**
+     * El contenido del grafo se reemplazó o se agregó en bloque (vaciar, carga de
+     * un archivo o de una instantánea) sin avisar cada cambio por separado.
+     */
+    default void grafoReemplazado() {
+    }
+}
@@ -0,0 +1,557 @@
+package estructuras;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lector de archivos de interacciones que trabaja directamente sobre bytes.
+ *
+ * Lee el canal en un buffer directo que se reutiliza entre lecturas, busca los
+ * separadores y fines de línea byte a byte, convierte los nombres en
+ * identificadores con un DiccionarioProteinas (sin crear un String por línea) y
+ * convierte los pesos a mano. Los pesos con formas poco comunes (exponentes
+ * grandes, más de 18 dígitos, "NaN", hexadecimales) se delegan a Double.parseDouble.
+ *
+ * Reproduce las reglas del lector original basado en readLine y split: se ignoran
+ * las líneas vacías y el encabezado en la primera línea, cada campo se recorta,
+ * una línea con menos de tres campos es inválida y un peso que no se puede
+ * convertir cuenta como inválido pero la interacción se agrega con peso 1.0.
+ *
+ * Con un FormatoInteracciones lee en cambio archivos de muchas columnas (STRING,
+ * BioGRID, PSI-MITAB): avanza de separador en separador hasta la última columna
+ * que necesita, solo interpreta las columnas de los interactores y del puntaje,
+ * e ignora el resto de la línea sin recorrerlo dos veces.
+ */
+final class ParserCSV {
+    private static final int TAMAÑO_BUFFER = 1 << 20;
+    /** Interacciones acumuladas antes de pasarlas al Grafo */
+    private static final int ARISTAS_POR_LOTE = 1 << 16;
+    /** Mayor mantisa que un double representa de forma exacta */
+    private static final long MANTISA_EXACTA = 1L << 53;
+    private static final double[] POTENCIAS_DE_DIEZ = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final byte[][] MARCAS_ENCABEZADO = {
+        "Proteina".getBytes(StandardCharsets.US_ASCII),
+        "Origen".getBytes(StandardCharsets.US_ASCII),
+        "Destino".getBytes(StandardCharsets.US_ASCII)
+    };
+
+    private final byte separador;
+    /** Formato con columnas, o null para el CSV de tres columnas */
+    private final FormatoInteracciones formato;
+    /** Si la primera línea puede ser un encabezado (solo al leer desde el principio) */
+    private final boolean buscarEncabezado;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(TAMAÑO_BUFFER);
+    private byte[] auxiliar = new byte[32];
+
+    private int lineasLeidas;
+    private int lineasInvalidas;
+    private int lineasFiltradas;
+    private long bytesLeidos;
+    /** Resultado de la última llamada a convertirPeso */
+    private double peso;
+    /** Rango [campoInicio, campoFin) del valor que encontró campoIdentificador o campoPuntaje */
+    private int campoInicio;
+    private int campoFin;
+
+    /**
+     * Constructor del lector.
+     *
+     * @param separador Byte que separa los campos (',' para CSV, '\t' para TSV)
+     */
+    ParserCSV(byte separador) {
+        this(separador, true);
+    }
+
+    /**
+     * Constructor del lector.
+     *
+     * @param separador Byte que separa los campos (',' para CSV, '\t' para TSV)
+     * @param buscarEncabezado false si la entrada no empieza al principio del archivo
+     */
+    ParserCSV(byte separador, boolean buscarEncabezado) {
+        this.separador = separador;
+        this.formato = null;
+        this.buscarEncabezado = buscarEncabezado;
+    }
+
+    /**
+     * Constructor del lector para un formato con columnas.
+     *
+     * @param formato Formato con las columnas ya ubicadas
+     * @param buscarEncabezado false si la entrada no empieza al principio del archivo
+     */
+    ParserCSV(FormatoInteracciones formato, boolean buscarEncabezado) {
+        this.separador = formato.separador;
+        this.formato = formato;
+        this.buscarEncabezado = buscarEncabezado;
+    }
+
+    /**
+     * Lee el canal hasta el final. Las interacciones se acumulan en el lote y,
+     * si se indica un grafo, se le pasan cada vez que el lote se llena y al terminar.
+     *
+     * @param canal Canal de lectura
+     * @param lote Lote donde acumular las interacciones
+     * @param destino Grafo que recibe los lotes, o null para dejar todo en el lote
+     * @throws IOException si falla la lectura
+     */
+    void leer(ReadableByteChannel canal, LoteAristas lote, Grafo destino) throws IOException {
+        ByteBuffer b = buffer;
+        b.clear();
+        boolean fin = false;
+        while (!fin) {
+            int leidos = canal.read(b);
+            if (leidos < 0) {
+                fin = true;
+            } else {
+                bytesLeidos += leidos;
+            }
+            int limite = b.position();
+            int inicioLinea = 0;
+            int i = 0;
+            while (i < limite) {
+                byte c = b.get(i);
+                if (c == '\n') {
+                    procesarLinea(inicioLinea, i, lote, destino);
+                    inicioLinea = ++i;
+                } else if (c == '\r') {
+                    if (i + 1 == limite && !fin) break; // puede venir un '\n' en la siguiente lectura
+                    procesarLinea(inicioLinea, i, lote, destino);
+                    i++;
+                    if (i < limite && b.get(i) == '\n') i++;
+                    inicioLinea = i;
+                } else {
+                    i++;
+                }
+            }
+            if (fin) {
+                if (inicioLinea < limite) {
+                    procesarLinea(inicioLinea, limite, lote, destino);
+                }
+            } else {
+                // Mover la línea incompleta al principio del buffer
+                b.limit(limite).position(inicioLinea);
+                b.compact();
+                if (!b.hasRemaining()) {
+                    b = ampliar(b);
+                }
+            }
+        }
+        if (destino != null && lote.getCantidad() > 0) {
+            destino.agregarLote(lote);
+            lote.vaciarAristas();
+        }
+    }
+
+    /**
+     * Lee los bytes [inicio, fin) de un archivo y deja todas las interacciones en el lote.
+     * El rango debe empezar al principio de una línea y terminar después de un fin de línea
+     * (o al final del archivo). Varios hilos pueden leer rangos del mismo canal a la vez.
+     *
+     * @param canal Canal del archivo
+     * @param inicio Posición del primer byte
+     * @param fin Posición siguiente al último byte
+     * @param lote Lote donde acumular las interacciones
+     * @throws IOException si falla la lectura
+     */
+    void leer(FileChannel canal, long inicio, long fin, LoteAristas lote) throws IOException {
+        leer(new CanalRango(canal, inicio, fin), lote, null);
+    }
+
+    /**
+     * Obtiene las líneas leídas, incluidas las vacías y el encabezado.
+     *
+     * @return Cantidad de líneas
+     */
+    int getLineasLeidas() {
+        return lineasLeidas;
+    }
+
+    /**
+     * Obtiene las líneas con menos de tres campos o con un peso inválido.
+     *
+     * @return Cantidad de líneas inválidas
+     */
+    int getLineasInvalidas() {
+        return lineasInvalidas;
+    }
+
+    /**
+     * Obtiene las líneas descartadas por no alcanzar el puntaje mínimo del formato.
+     *
+     * @return Cantidad de líneas filtradas
+     */
+    int getLineasFiltradas() {
+        return lineasFiltradas;
+    }
+
+    /**
+     * Obtiene los bytes leídos del canal.
+     *
+     * @return Cantidad de bytes
+     */
+    long getBytesLeidos() {
+        return bytesLeidos;
+    }
+
+    private ByteBuffer ampliar(ByteBuffer lleno) {
+        ByteBuffer mayor = ByteBuffer.allocateDirect(lleno.capacity() * 2);
+        lleno.flip();
+        mayor.put(lleno);
+        buffer = mayor;
+        return mayor;
+    }
+
+    private void procesarLinea(int inicio, int fin, LoteAristas lote, Grafo destino) {
+        lineasLeidas++;
+        ByteBuffer b = buffer;
+
+        int primero = recortarInicio(inicio, fin);
+        if (primero == fin) return;
+
+        if (formato != null) {
+            procesarColumnas(primero, fin, lote, destino);
+            return;
+        }
+
+        if (lineasLeidas == 1 && buscarEncabezado && esEncabezado(inicio, fin)) return;
+
+        int coma1 = buscar(separador, inicio, fin);
+        int coma2 = coma1 < fin ? buscar(separador, coma1 + 1, fin) : fin;
+        // split descarta los campos vacíos del final: hace falta algo distinto del separador
+        if (coma2 == fin || buscarDistinto(separador, coma2 + 1, fin) == fin) {
+            lineasInvalidas++;
+            return;
+        }
+        int coma3 = buscar(separador, coma2 + 1, fin);
+
+        DiccionarioProteinas nombres = lote.getNombres();
+        int a = recortarInicio(inicio, coma1);
+        int protA = nombres.agregar(b, a, recortarFin(a, coma1));
+        a = recortarInicio(coma1 + 1, coma2);
+        int protB = nombres.agregar(b, a, recortarFin(a, coma2));
+
+        a = recortarInicio(coma2 + 1, coma3);
+        if (!convertirPeso(a, recortarFin(a, coma3))) {
+            peso = 1.0;
+            lineasInvalidas++;
+        }
+
+        agregar(lote, destino, protA, protB, peso);
+    }
+
+    /**
+     * Interpreta una línea de un formato con columnas. Los campos anteriores a la
+     * última columna necesaria solo se atraviesan buscando el separador.
+     */
+    private void procesarColumnas(int inicio, int fin, LoteAristas lote, Grafo destino) {
+        FormatoInteracciones f = formato;
+        if (f.comentario != 0 && buffer.get(inicio) == f.comentario) return;
+        if (lineasLeidas == 1 && buscarEncabezado && f.encabezado) return;
+
+        int ultima = Math.max(f.columnaOrigen, Math.max(f.columnaDestino, f.columnaPuntaje));
+        int inicioOrigen = 0, finOrigen = 0;
+        int inicioDestino = 0, finDestino = 0;
+        int inicioPuntaje = 0, finPuntaje = 0;
+        int pos = inicio;
+        for (int columna = 0; columna <= ultima; columna++) {
+            if (pos > fin) {
+                lineasInvalidas++;
+                return;
+            }
+            int siguiente = buscar(separador, pos, fin);
+            if (columna == f.columnaOrigen) {
+                inicioOrigen = pos;
+                finOrigen = siguiente;
+            }
+            if (columna == f.columnaDestino) {
+                inicioDestino = pos;
+                finDestino = siguiente;
+            }
+            if (columna == f.columnaPuntaje) {
+                inicioPuntaje = pos;
+                finPuntaje = siguiente;
+            }
+            pos = siguiente + 1;
+        }
+
+        double p = 1.0;
+        if (f.columnaPuntaje >= 0) {
+            boolean conPuntaje = campoPuntaje(inicioPuntaje, finPuntaje);
+            if (conPuntaje && !convertirPeso(campoInicio, campoFin)) {
+                lineasInvalidas++;
+                conPuntaje = false;
+                if (!Double.isNaN(f.umbral)) return;
+            }
+            if (conPuntaje) {
+                if (peso < f.umbral) {
+                    lineasFiltradas++;
+                    return;
+                }
+                p = peso * f.escala;
+            } else if (!Double.isNaN(f.umbral)) {
+                lineasFiltradas++;
+                return;
+            }
+        }
+
+        if (!campoIdentificador(inicioOrigen, finOrigen)) {
+            lineasInvalidas++;
+            return;
+        }
+        int a = campoInicio;
+        int b = campoFin;
+        if (!campoIdentificador(inicioDestino, finDestino)) {
+            lineasInvalidas++;
+            return;
+        }
+        DiccionarioProteinas nombres = lote.getNombres();
+        int protA = nombres.agregar(buffer, a, b);
+        int protB = nombres.agregar(buffer, campoInicio, campoFin);
+        agregar(lote, destino, protA, protB, p);
+    }
+
+    private void agregar(LoteAristas lote, Grafo destino, int protA, int protB, double p) {
+        lote.agregar(protA, protB, p);
+        if (destino != null && lote.getCantidad() == ARISTAS_POR_LOTE) {
+            destino.agregarLote(lote);
+            lote.vaciarAristas();
+        }
+    }
+
+    /**
+     * Ubica el identificador de un interactor dentro del campo [inicio, fin).
+     * En PSI-MITAB se toma el primer identificador ("uniprotkb:P12345|...") sin la base.
+     *
+     * @return false si el campo está vacío o es "-"
+     */
+    private boolean campoIdentificador(int inicio, int fin) {
+        if (formato.mitab) {
+            fin = buscar((byte) '|', inicio, fin);
+            int dosPuntos = buscar((byte) ':', inicio, fin);
+            if (dosPuntos < fin) inicio = dosPuntos + 1;
+        }
+        return valor(inicio, fin);
+    }
+
+    /**
+     * Ubica el puntaje dentro del campo [inicio, fin). En PSI-MITAB el campo es una
+     * lista "etiqueta:valor|etiqueta:valor" y se toma el valor con la etiqueta del formato.
+     *
+     * @return false si no hay puntaje
+     */
+    private boolean campoPuntaje(int inicio, int fin) {
+        if (!formato.mitab) return valor(inicio, fin);
+        byte[] etiqueta = formato.etiquetaPuntaje;
+        int entrada = inicio;
+        while (entrada < fin) {
+            int finEntrada = buscar((byte) '|', entrada, fin);
+            int dosPuntos = buscar((byte) ':', entrada, finEntrada);
+            if (dosPuntos < finEntrada && (etiqueta == null || esEtiqueta(entrada, dosPuntos, etiqueta))) {
+                return valor(dosPuntos + 1, finEntrada);
+            }
+            entrada = finEntrada + 1;
+        }
+        return false;
+    }
+
+    private boolean esEtiqueta(int inicio, int fin, byte[] etiqueta) {
+        inicio = recortarInicio(inicio, fin);
+        fin = recortarFin(inicio, fin);
+        if (fin - inicio != etiqueta.length) return false;
+        for (int k = 0; k < etiqueta.length; k++) {
+            if (buffer.get(inicio + k) != etiqueta[k]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Recorta espacios y comillas de [inicio, fin) y deja el resultado en campoInicio y campoFin.
+     *
+     * @return false si queda vacío o es "-", la marca de dato ausente en estos formatos
+     */
+    private boolean valor(int inicio, int fin) {
+        inicio = recortarInicio(inicio, fin);
+        fin = recortarFin(inicio, fin);
+        if (fin - inicio >= 2 && buffer.get(inicio) == '"' && buffer.get(fin - 1) == '"') {
+            inicio++;
+            fin--;
+        }
+        campoInicio = inicio;
+        campoFin = fin;
+        return fin > inicio && !(fin - inicio == 1 && buffer.get(inicio) == '-');
+    }
+
+    /**
+     * Convierte los bytes [inicio, fin) a double y deja el valor en peso.
+     *
+     * @return true si el texto es un número válido para Double.parseDouble
+     */
+    private boolean convertirPeso(int inicio, int fin) {
+        ByteBuffer b = buffer;
+        int i = inicio;
+        boolean negativo = false;
+        if (i < fin && (b.get(i) == '-' || b.get(i) == '+')) {
+            negativo = b.get(i) == '-';
+            i++;
+        }
+        long mantisa = 0;
+        int digitos = 0;
+        int exponente = 0;
+        boolean hayDigitos = false;
+        int c;
+        while (i < fin && (c = b.get(i) - '0') >= 0 && c <= 9) {
+            if (mantisa != 0 || c != 0) {
+                if (++digitos > 18) return convertirLento(inicio, fin);
+                mantisa = mantisa * 10 + c;
+            }
+            hayDigitos = true;
+            i++;
+        }
+        if (i < fin && b.get(i) == '.') {
+            i++;
+            while (i < fin && (c = b.get(i) - '0') >= 0 && c <= 9) {
+                if (mantisa != 0 || c != 0) {
+                    if (++digitos > 18) return convertirLento(inicio, fin);
+                    mantisa = mantisa * 10 + c;
+                }
+                exponente--;
+                hayDigitos = true;
+                i++;
+            }
+        }
+        if (!hayDigitos) return convertirLento(inicio, fin);
+        if (i < fin && (b.get(i) == 'e' || b.get(i) == 'E')) {
+            i++;
+            boolean expNegativo = false;
+            if (i < fin && (b.get(i) == '-' || b.get(i) == '+')) {
+                expNegativo = b.get(i) == '-';
+                i++;
+            }
+            int exp = 0;
+            int inicioExp = i;
+            while (i < fin && (c = b.get(i) - '0') >= 0 && c <= 9) {
+                if (exp > 1000) return convertirLento(inicio, fin);
+                exp = exp * 10 + c;
+                i++;
+            }
+            if (i == inicioExp) return convertirLento(inicio, fin);
+            exponente += expNegativo ? -exp : exp;
+        }
+        if (i != fin) return convertirLento(inicio, fin);
+
+        double valor;
+        if (mantisa == 0) {
+            valor = 0.0;
+        } else if (mantisa < MANTISA_EXACTA && exponente >= -22 && exponente <= 22) {
+            // Mantisa y potencia exactas: una sola operación redondeada, igual que parseDouble
+            valor = exponente >= 0 ? mantisa * POTENCIAS_DE_DIEZ[exponente]
+                                   : mantisa / POTENCIAS_DE_DIEZ[-exponente];
+        } else {
+            return convertirLento(inicio, fin);
+        }
+        peso = negativo ? -valor : valor;
+        return true;
+    }
+
+    private boolean convertirLento(int inicio, int fin) {
+        int largo = fin - inicio;
+        if (auxiliar.length < largo) {
+            auxiliar = new byte[largo];
+        }
+        buffer.get(inicio, auxiliar, 0, largo);
+        try {
+            peso = Double.parseDouble(new String(auxiliar, 0, largo, StandardCharsets.ISO_8859_1));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean esEncabezado(int inicio, int fin) {
+        for (byte[] marca : MARCAS_ENCABEZADO) {
+            for (int i = inicio; i + marca.length <= fin; i++) {
+                int k = 0;
+                while (k < marca.length && buffer.get(i + k) == marca[k]) k++;
+                if (k == marca.length) return true;
+            }
+        }
+        return false;
+    }
+
+    private int buscar(byte valor, int inicio, int fin) {
+        ByteBuffer b = buffer;
+        for (int i = inicio; i < fin; i++) {
+            if (b.get(i) == valor) return i;
+        }
+        return fin;
+    }
+
+    private int buscarDistinto(byte valor, int inicio, int fin) {
+        ByteBuffer b = buffer;
+        for (int i = inicio; i < fin; i++) {
+            if (b.get(i) != valor) return i;
+        }
+        return fin;
+    }
+
+    /** Salta los bytes que String.trim considera espacio */
+    private int recortarInicio(int inicio, int fin) {
+        while (inicio < fin && (buffer.get(inicio) & 0xff) <= ' ') inicio++;
+        return inicio;
+    }
+
+    private int recortarFin(int inicio, int fin) {
+        while (fin > inicio && (buffer.get(fin - 1) & 0xff) <= ' ') fin--;
+        return fin;
+    }
+
+    /**
+     * Vista de un rango de bytes de un archivo como canal de lectura.
+     * Usa lecturas posicionales, que no mueven la posición compartida del FileChannel.
+     */
+    private static final class CanalRango implements ReadableByteChannel {
+        private final FileChannel canal;
+        private final long fin;
+        private long posicion;
+
+        CanalRango(FileChannel canal, long inicio, long fin) {
+            this.canal = canal;
+            this.posicion = inicio;
+            this.fin = fin;
+        }
+
+        @Override
+        public int read(ByteBuffer destino) throws IOException {
+            long restantes = fin - posicion;
+            if (restantes <= 0) return -1;
+            int limite = destino.limit();
+            if (destino.remaining() > restantes) {
+                destino.limit(destino.position() + (int) restantes);
+            }
+            try {
+                int leidos = canal.read(destino, posicion);
+                if (leidos > 0) posicion += leidos;
+                return leidos;
+            } finally {
+                destino.limit(limite);
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return canal.isOpen();
+        }
+
+        @Override
+        public void close() {
+            // El canal del archivo lo cierra quien lo abrió
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package estructuras;
+
+/**
+ * Receptor del avance de los algoritmos del Grafo.
+ * Permite informar el progreso cuando un análisis se ejecuta en segundo plano.
+ */
+public interface ProgresoAnalisis {
+    /** Progreso que descarta todos los avisos */
+    ProgresoAnalisis NINGUNO = (hechos, total) -> { };
+    
+    /**
+     * Informa cuántas unidades de trabajo se completaron.
+     * 
+     * @param hechos Unidades completadas
+     * @param total Unidades totales estimadas
+     */
+    void reportar(int hechos, int total);
+}
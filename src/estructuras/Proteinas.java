@@ -50,6 +50,15 @@ public class Proteinas {
         return peso; 
     }
     
+    /**
+     * Establece el peso de la interacción.
+     *
+     * @param peso Nuevo peso de la arista
+     */
+    public void setPeso(double peso) {
+        this.peso = peso;
+    }
+
     /**
      * Verifica si la arista está activa.
      * 
@@ -0,0 +1,133 @@
+package estructuras;
+
+import java.io.File;
+
+/**
+ * Resumen de la carga de un archivo de interacciones.
+ * Lo devuelve la API de lectura sin interfaz gráfica para que cada llamador
+ * (ventana, línea de comandos, servidor) decida cómo mostrarlo.
+ */
+public class ReporteCarga {
+    private final File archivo;
+    private final int lineasLeidas;
+    private final int lineasInvalidas;
+    private final int lineasFiltradas;
+    private final int proteinasAgregadas;
+    private final int interaccionesAgregadas;
+    private final long duracionNanos;
+    
+    /**
+     * Constructor del reporte.
+     * 
+     * @param archivo Archivo leído
+     * @param lineasLeidas Total de líneas leídas, incluido el encabezado
+     * @param lineasInvalidas Líneas descartadas por tener menos de tres columnas o cargadas con peso 1.0 por tener un peso no numérico
+     * @param proteinasAgregadas Proteínas nuevas agregadas al grafo
+     * @param interaccionesAgregadas Interacciones nuevas agregadas al grafo
+     * @param duracionNanos Tiempo de la carga en nanosegundos
+     */
+    public ReporteCarga(File archivo, int lineasLeidas, int lineasInvalidas,
+                        int proteinasAgregadas, int interaccionesAgregadas, long duracionNanos) {
+        this(archivo, lineasLeidas, lineasInvalidas, 0, proteinasAgregadas,
+            interaccionesAgregadas, duracionNanos);
+    }
+    
+    /**
+     * Constructor del reporte de un archivo leído con umbral de puntaje.
+     * 
+     * @param archivo Archivo leído
+     * @param lineasLeidas Total de líneas leídas, incluido el encabezado
+     * @param lineasInvalidas Líneas descartadas o cargadas con peso 1.0 por no poder interpretarse
+     * @param lineasFiltradas Líneas descartadas por tener un puntaje menor al umbral
+     * @param proteinasAgregadas Proteínas nuevas agregadas al grafo
+     * @param interaccionesAgregadas Interacciones nuevas agregadas al grafo
+     * @param duracionNanos Tiempo de la carga en nanosegundos
+     */
+    public ReporteCarga(File archivo, int lineasLeidas, int lineasInvalidas, int lineasFiltradas,
+                        int proteinasAgregadas, int interaccionesAgregadas, long duracionNanos) {
+        this.archivo = archivo;
+        this.lineasLeidas = lineasLeidas;
+        this.lineasInvalidas = lineasInvalidas;
+        this.lineasFiltradas = lineasFiltradas;
+        this.proteinasAgregadas = proteinasAgregadas;
+        this.interaccionesAgregadas = interaccionesAgregadas;
+        this.duracionNanos = duracionNanos;
+    }
+    
+    /**
+     * Obtiene el archivo leído.
+     * 
+     * @return Archivo de origen
+     */
+    public File getArchivo() { 
+        return archivo; 
+    }
+    
+    /**
+     * Obtiene el número de líneas leídas.
+     * 
+     * @return Líneas leídas
+     */
+    public int getLineasLeidas() { 
+        return lineasLeidas; 
+    }
+    
+    /**
+     * Obtiene el número de líneas que no se pudieron interpretar por completo.
+     * 
+     * @return Líneas inválidas
+     */
+    public int getLineasInvalidas() { 
+        return lineasInvalidas; 
+    }
+    
+    /**
+     * Obtiene el número de líneas descartadas por no alcanzar el puntaje mínimo.
+     * 
+     * @return Líneas filtradas
+     */
+    public int getLineasFiltradas() { 
+        return lineasFiltradas; 
+    }
+    
+    /**
+     * Obtiene el número de proteínas agregadas.
+     * 
+     * @return Proteínas agregadas
+     */
+    public int getProteinasAgregadas() { 
+        return proteinasAgregadas; 
+    }
+    
+    /**
+     * Obtiene el número de interacciones agregadas.
+     * 
+     * @return Interacciones agregadas
+     */
+    public int getInteraccionesAgregadas() { 
+        return interaccionesAgregadas; 
+    }
+    
+    /**
+     * Obtiene la duración de la carga.
+     * 
+     * @return Duración en milisegundos
+     */
+    public double getDuracionMs() { 
+        return duracionNanos / 1e6; 
+    }
+    
+    /**
+     * Retorna una representación en cadena del reporte.
+     * 
+     * @return Resumen de la carga en una línea
+     */
+    @Override
+    public String toString() {
+        return archivo.getName() + ": " + lineasLeidas + " líneas, " 
+            + proteinasAgregadas + " proteínas, " + interaccionesAgregadas + " interacciones, "
+            + lineasInvalidas + " líneas inválidas, "
+            + (lineasFiltradas > 0 ? lineasFiltradas + " bajo el umbral, " : "")
+            + String.format("%.1f ms", getDuracionMs());
+    }
+}
@@ -0,0 +1,202 @@
+package estructuras.Servidor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escritor de JSON en flujo: emite cada valor directamente al Writer sin
+ * construir el documento en memoria, de modo que las respuestas grandes
+ * (por ejemplo, todos los complejos) empiezan a enviarse de inmediato.
+ */
+public class EscritorJSON {
+    private static final int PROFUNDIDAD_MAXIMA = 64;
+
+    private final Writer salida;
+    /** Por cada nivel abierto, si todavía no se escribió ningún elemento */
+    private final boolean[] primero = new boolean[PROFUNDIDAD_MAXIMA];
+    private int nivel = 0;
+    private boolean despuesDeNombre = false;
+
+    /**
+     * Constructor del escritor.
+     *
+     * @param salida Destino del JSON
+     */
+    public EscritorJSON(Writer salida) {
+        this.salida = salida;
+        primero[0] = true;
+    }
+
+    /**
+     * Abre un objeto JSON.
+     *
+     * @return Este escritor
+     * @throws IOException si falla la escritura
+     */
+    public EscritorJSON inicioObjeto() throws IOException {
+        separar();
+        salida.write('{');
+        abrir();
+        return this;
+    }
+
+    /**
+     * Cierra el objeto JSON abierto.
+     *
+     * @return Este escritor
+     * @throws IOException si falla la escritura
+     */
+    public EscritorJSON finObjeto() throws IOException {
+        nivel--;
+        salida.write('}');
+        return this;
+    }
+
+    /**
+     * Abre un arreglo JSON.
+     *
+     * @return Este escritor
+     * @throws IOException si falla la escritura
+     */
+    public EscritorJSON inicioArreglo() throws IOException {
+        separar();
+        salida.write('[');
+        abrir();
+        return this;
+    }
+
+    /**
+     * Cierra el arreglo JSON abierto.
+     *
+     * @return Este escritor
+     * @throws IOException si falla la escritura
+     */
+    public EscritorJSON finArreglo() throws IOException {
+        nivel--;
+        salida.write(']');
+        return this;
+    }
+
+    /**
+     * Escribe el nombre de un campo dentro de un objeto.
+     *
+     * @param nombre Nombre del campo
+     * @return Este escritor
+     * @throws IOException si falla la escritura
+     */
+    public EscritorJSON nombre(String nombre) throws IOException {
+        separar();
+        cadena(nombre);
+        salida.write(':');
+        despuesDeNombre = true;
+        return this;
+    }
+
+    /**
+     * Escribe un valor de texto.
+     *
+     * @param valor Texto a escribir, o null
+     * @return Este escritor
+     * @throws IOException si falla la escritura
+     */
+    public EscritorJSON valor(String valor) throws IOException {
+        separar();
+        if (valor == null) {
+            salida.write("null");
+        } else {
+            cadena(valor);
+        }
+        return this;
+    }
+
+    /**
+     * Escribe un valor numérico. Los valores no finitos se escriben como null.
+     *
+     * @param valor Número a escribir
+     * @return Este escritor
+     * @throws IOException si falla la escritura
+     */
+    public EscritorJSON valor(double valor) throws IOException {
+        separar();
+        salida.write(Double.isFinite(valor) ? Double.toString(valor) : "null");
+        return this;
+    }
+
+    /**
+     * Escribe un valor entero.
+     *
+     * @param valor Número a escribir
+     * @return Este escritor
+     * @throws IOException si falla la escritura
+     */
+    public EscritorJSON valor(long valor) throws IOException {
+        separar();
+        salida.write(Long.toString(valor));
+        return this;
+    }
+
+    /**
+     * Escribe un valor lógico.
+     *
+     * @param valor Valor a escribir
+     * @return Este escritor
+     * @throws IOException si falla la escritura
+     */
+    public EscritorJSON valor(boolean valor) throws IOException {
+        separar();
+        salida.write(valor ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Vacía el buffer del Writer subyacente.
+     *
+     * @throws IOException si falla la escritura
+     */
+    public void vaciar() throws IOException {
+        salida.flush();
+    }
+
+    private void abrir() {
+        nivel++;
+        if (nivel >= PROFUNDIDAD_MAXIMA) {
+            throw new IllegalStateException("JSON demasiado anidado");
+        }
+        primero[nivel] = true;
+    }
+
+    /**
+     * Escribe la coma entre elementos, salvo tras un nombre de campo o en el primer elemento.
+     */
+    private void separar() throws IOException {
+        if (despuesDeNombre) {
+            despuesDeNombre = false;
+            return;
+        }
+        if (!primero[nivel]) {
+            salida.write(',');
+        }
+        primero[nivel] = false;
+    }
+
+    private void cadena(String texto) throws IOException {
+        salida.write('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char ch = texto.charAt(i);
+            switch (ch) {
+                case '"': salida.write("\\\""); break;
+                case '\\': salida.write("\\\\"); break;
+                case '\n': salida.write("\\n"); break;
+                case '\r': salida.write("\\r"); break;
+                case '\t': salida.write("\\t"); break;
+                default:
+                    if (ch < 0x20) {
+                        salida.write(String.format("\\u%04x", (int) ch));
+                    } else {
+                        salida.write(ch);
+                    }
+            }
+        }
+        salida.write('"');
+    }
+}
@@ -0,0 +1,455 @@
+package estructuras.Servidor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import estructuras.ArchivoCSV;
+import estructuras.Grafo;
+import estructuras.Lista;
+import estructuras.ProgresoAnalisis;
+import estructuras.Proteinas;
+import estructuras.ReporteCarga;
+import estructuras.VisitanteComplejos;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Servicio HTTP local de consultas sobre un único Grafo compartido en memoria.
+ * Escucha solo en la interfaz de loopback y atiende cada petición en su propio
+ * hilo virtual cuando la JVM los ofrece (Java 21 o superior); en versiones
+ * anteriores usa un grupo de hilos de plataforma.
+ *
+ * Las peticiones se admiten contra un límite de concurrencia: si todas las
+ * plazas están ocupadas durante la espera configurada, se responde 503.
+ *
+ * Endpoints (GET, respuestas JSON en flujo):
+ *   /ruta?origen=A&destino=B    Ruta más corta (Dijkstra)
+ *   /dfs?origen=A&destino=B     Ruta por DFS
+ *   /hubs?n=5                   Proteínas con más conexiones
+ *   /complejos                  Complejos proteicos
+ *   /vecinos?proteina=A         Interacciones de una proteína
+ *   /estado                     Tamaño del grafo y peticiones en curso
+ *
+ * Uso: java -cp ProyectoBiograph.jar estructuras.Servidor.ServidorConsultas archivo.csv
+ *      [--puerto 8080] [--limite N] [--espera ms]
+ */
+public class ServidorConsultas {
+    private final Grafo grafo;
+    private final HttpServer servidor;
+    private final ExecutorService ejecutor;
+    private final Semaphore plazas;
+    private final int limite;
+    private final long esperaMs;
+
+    /**
+     * Crea el servidor sin iniciarlo.
+     *
+     * @param grafo Grafo compartido que se consulta
+     * @param puerto Puerto local (0 para uno libre)
+     * @param limite Máximo de peticiones atendidas a la vez
+     * @param esperaMs Tiempo que una petición espera una plaza antes de rechazarse
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServidorConsultas(Grafo grafo, int puerto, int limite, long esperaMs) throws IOException {
+        this.grafo = grafo;
+        this.limite = limite;
+        this.esperaMs = esperaMs;
+        this.plazas = new Semaphore(limite);
+        this.ejecutor = crearEjecutor();
+        this.servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 0);
+        this.servidor.setExecutor(ejecutor);
+
+        registrar("/ruta", this::ruta);
+        registrar("/dfs", this::dfs);
+        registrar("/hubs", this::hubs);
+        registrar("/complejos", this::complejos);
+        registrar("/vecinos", this::vecinos);
+        registrar("/estado", this::estado);
+    }
+
+    /**
+     * Inicia la atención de peticiones.
+     */
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Detiene el servidor esperando como máximo un segundo a las peticiones en curso.
+     */
+    public void detener() {
+        servidor.stop(1);
+        ejecutor.shutdown();
+    }
+
+    /**
+     * Obtiene el puerto en el que escucha el servidor.
+     *
+     * @return Número de puerto
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Usa un hilo virtual por petición si la JVM lo permite.
+     */
+    private static ExecutorService crearEjecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /** Cuerpo de un endpoint: escribe la respuesta en el escritor JSON */
+    private interface Consulta {
+        void responder(Parametros parametros, EscritorJSON json) throws IOException, PeticionInvalida;
+    }
+
+    /** Error del cliente que se responde con el código indicado */
+    private static class PeticionInvalida extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final int codigo;
+
+        PeticionInvalida(int codigo, String mensaje) {
+            super(mensaje);
+            this.codigo = codigo;
+        }
+    }
+
+    private void registrar(String ruta, Consulta consulta) {
+        servidor.createContext(ruta, new Manejador(consulta));
+    }
+
+    /**
+     * Aplica la admisión, valida el método y envía la respuesta en flujo.
+     */
+    private class Manejador implements HttpHandler {
+        private final Consulta consulta;
+
+        Manejador(Consulta consulta) {
+            this.consulta = consulta;
+        }
+
+        @Override
+        public void handle(HttpExchange intercambio) throws IOException {
+            try {
+                if (!"GET".equals(intercambio.getRequestMethod())) {
+                    error(intercambio, 405, "Solo se admite GET");
+                    return;
+                }
+                if (!plazas.tryAcquire(esperaMs, TimeUnit.MILLISECONDS)) {
+                    intercambio.getResponseHeaders().set("Retry-After", "1");
+                    error(intercambio, 503, "Servidor ocupado");
+                    return;
+                }
+                SalidaDiferida salida = new SalidaDiferida(intercambio);
+                try {
+                    Parametros parametros = new Parametros(intercambio.getRequestURI().getRawQuery());
+                    consulta.responder(parametros, new EscritorJSON(salida));
+                    salida.close();
+                } catch (PeticionInvalida e) {
+                    error(intercambio, e.codigo, e.getMessage());
+                } finally {
+                    plazas.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error(intercambio, 503, "Servidor detenido");
+            } finally {
+                intercambio.close();
+            }
+        }
+    }
+
+    /**
+     * Writer que envía los encabezados 200 recién con el primer carácter escrito.
+     * Así un endpoint puede rechazar la petición mientras valida sus parámetros,
+     * y a partir de ahí la respuesta sale por trozos a medida que se escribe.
+     */
+    private static class SalidaDiferida extends Writer {
+        private final HttpExchange intercambio;
+        private Writer destino;
+
+        SalidaDiferida(HttpExchange intercambio) {
+            this.intercambio = intercambio;
+        }
+
+        private Writer destino() throws IOException {
+            if (destino == null) {
+                intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                // Longitud 0: respuesta por trozos
+                intercambio.sendResponseHeaders(200, 0);
+                destino = new BufferedWriter(new OutputStreamWriter(
+                    intercambio.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024);
+            }
+            return destino;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            destino().write(c);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            destino().write(str, off, len);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            destino().write(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            destino().flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            destino().close();
+        }
+    }
+
+    /**
+     * Responde un error con su propio cuerpo JSON.
+     */
+    private static void error(HttpExchange intercambio, int codigo, String mensaje) throws IOException {
+        StringWriter texto = new StringWriter();
+        new EscritorJSON(texto).inicioObjeto().nombre("error").valor(mensaje).finObjeto();
+        byte[] cuerpo = texto.toString().getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(codigo, cuerpo.length);
+        intercambio.getResponseBody().write(cuerpo);
+    }
+
+    // ---- Endpoints ----
+
+    private void ruta(Parametros p, EscritorJSON json) throws IOException, PeticionInvalida {
+        String origen = p.proteina("origen");
+        String destino = p.proteina("destino");
+        Grafo.ResultadoDijkstra r = grafo.rutaMasCorta(origen, destino);
+        json.inicioObjeto()
+            .nombre("origen").valor(origen)
+            .nombre("destino").valor(destino)
+            .nombre("hayRuta").valor(r.hayRuta());
+        if (r.hayRuta()) {
+            json.nombre("distancia").valor(r.getDistancia());
+        }
+        json.nombre("ruta");
+        escribirLista(json, r.getRuta());
+        json.finObjeto();
+    }
+
+    private void dfs(Parametros p, EscritorJSON json) throws IOException, PeticionInvalida {
+        String origen = p.proteina("origen");
+        String destino = p.proteina("destino");
+        Lista<String> ruta = grafo.rutaDFS(origen, destino);
+        json.inicioObjeto()
+            .nombre("origen").valor(origen)
+            .nombre("destino").valor(destino)
+            .nombre("hayRuta").valor(!ruta.estaVacia())
+            .nombre("ruta");
+        escribirLista(json, ruta);
+        json.finObjeto();
+    }
+
+    private void hubs(Parametros p, EscritorJSON json) throws IOException, PeticionInvalida {
+        int n = p.entero("n", 5);
+        Lista<Grafo.Hub> hubs = grafo.buscarHubs(n);
+        json.inicioObjeto().nombre("hubs").inicioArreglo();
+        for (Grafo.Hub hub : hubs) {
+            json.inicioObjeto()
+                .nombre("proteina").valor(hub.getProteina())
+                .nombre("conexiones").valor(hub.getConexiones())
+                .finObjeto();
+        }
+        json.finArreglo().finObjeto();
+    }
+
+    private void complejos(Parametros p, EscritorJSON json) throws IOException {
+        // Los complejos se copian a arreglos planos y se escriben después de soltar el
+        // cerrojo del grafo: un cliente lento no debe demorar las ediciones
+        Tramos complejos = new Tramos();
+        grafo.recorrerComplejos(complejos, ProgresoAnalisis.NINGUNO);
+        json.inicioObjeto()
+            .nombre("total").valor(complejos.cantidad)
+            .nombre("complejos").inicioArreglo();
+        for (int c = 0; c < complejos.cantidad; c++) {
+            json.inicioArreglo();
+            for (int i = c == 0 ? 0 : complejos.fines[c - 1]; i < complejos.fines[c]; i++) {
+                json.valor(complejos.nombres[i]);
+            }
+            json.finArreglo();
+        }
+        json.finArreglo().finObjeto();
+    }
+
+    /**
+     * Complejos guardados uno detrás de otro: los nombres del complejo c están entre
+     * fines[c - 1] (o 0) y fines[c].
+     */
+    private static class Tramos implements VisitanteComplejos {
+        String[] nombres = new String[256];
+        int[] fines = new int[16];
+        int cantidad;
+
+        @Override
+        public boolean complejo(int[] miembros, int desde, int hasta, IntFunction<String> nombresDe) {
+            int inicio = cantidad == 0 ? 0 : fines[cantidad - 1];
+            int fin = inicio + hasta - desde;
+            if (fin > nombres.length) nombres = Arrays.copyOf(nombres, Math.max(fin, nombres.length * 2));
+            if (cantidad == fines.length) fines = Arrays.copyOf(fines, cantidad * 2);
+            for (int i = desde; i < hasta; i++) {
+                nombres[inicio + i - desde] = nombresDe.apply(miembros[i]);
+            }
+            fines[cantidad++] = fin;
+            return true;
+        }
+    }
+
+    private void vecinos(Parametros p, EscritorJSON json) throws IOException, PeticionInvalida {
+        String proteina = p.proteina("proteina");
+        Lista<Proteinas> interacciones = grafo.getInteraccionesDe(proteina);
+        json.inicioObjeto()
+            .nombre("proteina").valor(proteina)
+            .nombre("vecinos").inicioArreglo();
+        for (int i = 0; i < interacciones.getTamaño(); i++) {
+            Proteinas a = interacciones.obtener(i);
+            String vecino = a.getOrigen().equals(proteina) ? a.getDestino() : a.getOrigen();
+            json.inicioObjeto()
+                .nombre("proteina").valor(vecino)
+                .nombre("peso").valor(a.getPeso())
+                .nombre("activa").valor(a.isActiva())
+                .finObjeto();
+        }
+        json.finArreglo().finObjeto();
+    }
+
+    private void estado(Parametros p, EscritorJSON json) throws IOException {
+        json.inicioObjeto()
+            .nombre("proteinas").valor(grafo.getNumProteinas())
+            .nombre("interacciones").valor(grafo.getNumInteracciones())
+            .nombre("limite").valor(limite)
+            .nombre("enCurso").valor(limite - plazas.availablePermits())
+            .finObjeto();
+    }
+
+    private static void escribirLista(EscritorJSON json, Lista<String> lista) throws IOException {
+        json.inicioArreglo();
+        for (int i = 0; i < lista.getTamaño(); i++) {
+            json.valor(lista.obtener(i));
+        }
+        json.finArreglo();
+    }
+
+    /**
+     * Parámetros de la cadena de consulta de una petición.
+     */
+    private class Parametros {
+        private final Lista<String[]> pares = new Lista<>();
+
+        Parametros(String consulta) {
+            if (consulta == null) return;
+            for (String par : consulta.split("&")) {
+                int igual = par.indexOf('=');
+                if (igual > 0) {
+                    pares.agregar(new String[] {
+                        URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8)
+                    });
+                }
+            }
+        }
+
+        String texto(String nombre) {
+            for (int i = 0; i < pares.getTamaño(); i++) {
+                if (pares.obtener(i)[0].equals(nombre)) return pares.obtener(i)[1];
+            }
+            return null;
+        }
+
+        /** Parámetro obligatorio que debe nombrar una proteína existente */
+        String proteina(String nombre) throws PeticionInvalida {
+            String valor = texto(nombre);
+            if (valor == null || valor.isEmpty()) {
+                throw new PeticionInvalida(400, "Falta el parámetro " + nombre);
+            }
+            if (!grafo.existeProteina(valor)) {
+                throw new PeticionInvalida(404, "No existe la proteína " + valor);
+            }
+            return valor;
+        }
+
+        int entero(String nombre, int porDefecto) throws PeticionInvalida {
+            String valor = texto(nombre);
+            if (valor == null) return porDefecto;
+            try {
+                int n = Integer.parseInt(valor);
+                if (n < 0) throw new NumberFormatException();
+                return n;
+            } catch (NumberFormatException e) {
+                throw new PeticionInvalida(400, "Valor inválido para " + nombre + ": " + valor);
+            }
+        }
+    }
+
+    /**
+     * Carga un CSV e inicia el servidor hasta que se detenga el proceso.
+     *
+     * @param args archivo.csv [--puerto 8080] [--limite N] [--espera ms]
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        File entrada = null;
+        int puerto = 8080;
+        int limite = Runtime.getRuntime().availableProcessors() * 4;
+        long espera = 100;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--puerto": puerto = Integer.parseInt(args[++i]); break;
+                    case "--limite": limite = Integer.parseInt(args[++i]); break;
+                    case "--espera": espera = Long.parseLong(args[++i]); break;
+                    default: entrada = new File(args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            entrada = null;
+        }
+
+        if (entrada == null || limite < 1) {
+            System.err.println("Uso: ServidorConsultas archivo.csv [--puerto 8080] [--limite N] [--espera ms]");
+            System.exit(1);
+        }
+
+        try {
+            Grafo grafo = new Grafo();
+            ReporteCarga reporte = ArchivoCSV.leer(entrada, grafo);
+            System.out.println("Carga: " + reporte);
+
+            ServidorConsultas servidor = new ServidorConsultas(grafo, puerto, limite, espera);
+            Runtime.getRuntime().addShutdownHook(new Thread(servidor::detener));
+            servidor.iniciar();
+            System.out.println("Escuchando en http://localhost:" + servidor.getPuerto()
+                + " (límite " + limite + " peticiones)");
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package estructuras;
+
+import java.util.HashMap;
+
+/**
+ * Parte de un Grafo alrededor de unas proteínas semilla, tal como la devuelve
+ * Grafo.vecindario. Guarda solo las proteínas y las interacciones extraídas, no
+ * una copia del grafo completo, y no cambia si después se edita el grafo.
+ *
+ * Las proteínas se numeran desde 0: primero las semillas, en el orden en que se
+ * pidieron, y después las demás por distancia en saltos. Si las semillas son una
+ * ruta, las interacciones entre semillas consecutivas son las de la ruta: se
+ * guardan marcadas y están aunque el filtro de peso haya dejado afuera otras.
+ */
+public final class Subgrafo {
+    private final String[] proteinas;
+    private final int[] saltos;
+    private final int numSemillas;
+    private final int[] origenes;
+    private final int[] destinos;
+    private final double[] pesos;
+    private final boolean[] deRuta;
+    private final boolean recortado;
+    private final HashMap<String, Integer> posicion;
+
+    Subgrafo(String[] proteinas, int[] saltos, int numSemillas, int[] origenes,
+             int[] destinos, double[] pesos, boolean[] deRuta, boolean recortado) {
+        this.proteinas = proteinas;
+        this.saltos = saltos;
+        this.numSemillas = numSemillas;
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        this.deRuta = deRuta;
+        this.recortado = recortado;
+        this.posicion = new HashMap<>(proteinas.length * 2);
+        for (int i = 0; i < proteinas.length; i++) {
+            posicion.put(proteinas[i], i);
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de proteínas del subgrafo.
+     *
+     * @return Cantidad de proteínas, semillas incluidas
+     */
+    public int getNumProteinas() { return proteinas.length; }
+
+    /**
+     * Obtiene el nombre de una proteína.
+     *
+     * @param i Posición, entre 0 y getNumProteinas() - 1
+     * @return Nombre de la proteína
+     */
+    public String getProteina(int i) { return proteinas[i]; }
+
+    /**
+     * Obtiene la distancia de una proteína a la semilla más cercana.
+     *
+     * @param i Posición de la proteína
+     * @return Saltos desde las semillas (0 para una semilla)
+     */
+    public int getSaltos(int i) { return saltos[i]; }
+
+    /**
+     * Obtiene la cantidad de semillas, que ocupan las primeras posiciones.
+     *
+     * @return Cantidad de semillas
+     */
+    public int getNumSemillas() { return numSemillas; }
+
+    /**
+     * Obtiene la posición de una proteína.
+     *
+     * @param nombre Nombre de la proteína
+     * @return Posición, o -1 si no está en el subgrafo
+     */
+    public int indiceDe(String nombre) {
+        Integer i = posicion.get(nombre);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Verifica si una proteína está en el subgrafo.
+     *
+     * @param nombre Nombre de la proteína
+     * @return true si está, false en caso contrario
+     */
+    public boolean contiene(String nombre) {
+        return posicion.containsKey(nombre);
+    }
+
+    /**
+     * Obtiene la cantidad de interacciones del subgrafo.
+     *
+     * @return Cantidad de interacciones
+     */
+    public int getNumInteracciones() { return origenes.length; }
+
+    /**
+     * Obtiene la proteína de origen de una interacción.
+     *
+     * @param e Posición de la interacción
+     * @return Posición de la proteína de origen
+     */
+    public int getOrigen(int e) { return origenes[e]; }
+
+    /**
+     * Obtiene la proteína de destino de una interacción.
+     *
+     * @param e Posición de la interacción
+     * @return Posición de la proteína de destino
+     */
+    public int getDestino(int e) { return destinos[e]; }
+
+    /**
+     * Obtiene el peso de una interacción.
+     *
+     * @param e Posición de la interacción
+     * @return Peso de la interacción
+     */
+    public double getPeso(int e) { return pesos[e]; }
+
+    /**
+     * Indica si una interacción une dos semillas consecutivas.
+     *
+     * @param e Posición de la interacción
+     * @return true si es parte de la ruta de semillas
+     */
+    public boolean esDeRuta(int e) { return deRuta[e]; }
+
+    /**
+     * Indica si el límite de proteínas dejó afuera parte del vecindario.
+     *
+     * @return true si faltan proteínas dentro de la distancia pedida
+     */
+    public boolean isRecortado() { return recortado; }
+
+    @Override
+    public String toString() {
+        return "Vecindario: " + proteinas.length + " proteínas, " + origenes.length
+            + " interacciones" + (recortado ? " (recortado)" : "");
+    }
+}
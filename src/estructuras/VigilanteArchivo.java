@@ -0,0 +1,532 @@
+package estructuras;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Vigila un archivo de interacciones y lleva al grafo los cambios que otro
+ * programa le hace, sin vaciarlo ni volver a cargarlo.
+ *
+ * El vigilante recuerda las interacciones de la última versión leída (claves de
+ * sus extremos ordenadas, con su peso) y hasta qué byte la leyó. Cuando el
+ * WatchService avisa un cambio:
+ * <ul>
+ *   <li>si el archivo creció y los bytes ya leídos no cambiaron (se compara el
+ *       CRC32C de todo lo leído), solo se interpretan las líneas agregadas al
+ *       final;</li>
+ *   <li>si no, el archivo se lee completo y se compara interacción por interacción
+ *       con la versión anterior.</li>
+ * </ul>
+ * Las diferencias se aplican con agregarProteina, agregarInteraccion,
+ * eliminarInteraccion y setPeso, así que cada cambio llega a los OyenteMutaciones
+ * del grafo como cualquier edición; un peso distinto se cambia en el lugar, sin
+ * reactivar ni mover la interacción. Las ediciones hechas en el grafo mientras
+ * tanto se conservan: solo se tocan las interacciones que cambiaron en el archivo,
+ * y en Cambios se cuentan solo las que el grafo aceptó. Como en una carga, si una
+ * interacción aparece repetida vale la primera.
+ */
+public final class VigilanteArchivo implements Closeable {
+    /** Espera tras el último aviso antes de leer, para no leer una escritura a medias */
+    private static final long ESPERA_MS = 300;
+    /** Tamaño de los bloques que se leen para buscar el último fin de línea y calcular la huella */
+    private static final int BLOQUE = 64 * 1024;
+
+    private final File archivo;
+    private final Grafo grafo;
+    private final Consumer<Cambios> alCambiar;
+    private final Consumer<IOException> alFallar;
+    private final FormatoInteracciones formato;
+    private final boolean comprimido;
+    private final WatchService servicio;
+    private final Thread hilo;
+
+    // Usados solo por el hilo del vigilante
+    /** Nombres de las versiones leídas; las claves se arman con estos identificadores */
+    private final DiccionarioProteinas nombres = new DiccionarioProteinas();
+    /** Claves de las interacciones de la última versión, ordenadas */
+    private long[] claves = new long[0];
+    /** Peso de cada clave de la última versión */
+    private double[] pesos = new double[0];
+    private int cantidad;
+    /** Bytes leídos, hasta el último fin de línea */
+    private long leidos;
+    /** CRC32C de los bytes [0, leidos) */
+    private long huella;
+    private long tamañoConocido = -1;
+    private long fechaConocida;
+
+    /**
+     * Empieza a vigilar un archivo cuyo contenido ya está cargado en el grafo.
+     * La versión actual del archivo se lee en el hilo del vigilante y se toma como
+     * punto de partida, sin aplicar nada.
+     *
+     * @param archivo Archivo de interacciones
+     * @param grafo Grafo que recibe los cambios
+     * @param alCambiar Recibe, en el hilo del vigilante, cada grupo de cambios aplicado
+     * @param alFallar Recibe, en el hilo del vigilante, los errores al leer el archivo
+     * @throws IOException si la carpeta del archivo no se puede vigilar
+     */
+    public VigilanteArchivo(File archivo, Grafo grafo, Consumer<Cambios> alCambiar,
+                            Consumer<IOException> alFallar) throws IOException {
+        this(archivo, grafo, FormatoInteracciones.detectar(archivo), alCambiar, alFallar);
+    }
+
+    /**
+     * Empieza a vigilar un archivo que se cargó con un formato elegido (por ejemplo,
+     * con otra columna de puntaje o con umbral), para leer sus versiones igual.
+     *
+     * @param archivo Archivo de interacciones
+     * @param grafo Grafo que recibe los cambios
+     * @param formato Formato con que se cargó, o null para un CSV de tres columnas
+     * @param alCambiar Recibe, en el hilo del vigilante, cada grupo de cambios aplicado
+     * @param alFallar Recibe, en el hilo del vigilante, los errores al leer el archivo
+     * @throws IOException si la carpeta del archivo no se puede vigilar
+     */
+    public VigilanteArchivo(File archivo, Grafo grafo, FormatoInteracciones formato,
+                            Consumer<Cambios> alCambiar, Consumer<IOException> alFallar)
+            throws IOException {
+        this.archivo = archivo.getAbsoluteFile();
+        this.grafo = grafo;
+        this.alCambiar = alCambiar;
+        this.alFallar = alFallar;
+        this.formato = ArchivoCSV.formatoPara(this.archivo, formato);
+        this.comprimido = CompresionGzip.esComprimido(archivo);
+        Path carpeta = this.archivo.getParentFile().toPath();
+        servicio = FileSystems.getDefault().newWatchService();
+        try {
+            carpeta.register(servicio, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            servicio.close();
+            throw e;
+        }
+        hilo = new Thread(this::vigilar, "vigilante-" + archivo.getName());
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Obtiene el archivo vigilado.
+     *
+     * @return Archivo, con su ruta absoluta
+     */
+    public File getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Deja de vigilar y espera a que termine de aplicarse el cambio en curso, si hay uno.
+     */
+    @Override
+    public void close() throws IOException {
+        servicio.close();
+        if (Thread.currentThread() != hilo) {
+            try {
+                hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Hilo del vigilante: lee la versión inicial y después espera avisos del archivo.
+     */
+    private void vigilar() {
+        try {
+            try {
+                revisar(false);
+            } catch (IOException e) {
+                alFallar.accept(e);
+            }
+            String nombre = archivo.getName();
+            while (true) {
+                WatchKey clave = servicio.take();
+                boolean nuestro = eventosDe(clave, nombre);
+                // Agrupar los avisos que siguen llegando mientras se escribe
+                while (true) {
+                    WatchKey otra = servicio.poll(ESPERA_MS, TimeUnit.MILLISECONDS);
+                    if (otra == null) break;
+                    nuestro |= eventosDe(otra, nombre);
+                }
+                if (nuestro) {
+                    try {
+                        revisar(true);
+                    } catch (IOException e) {
+                        alFallar.accept(e);
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Se dejó de vigilar
+        }
+    }
+
+    /**
+     * Consume los eventos de una clave e indica si alguno es del archivo vigilado.
+     */
+    private static boolean eventosDe(WatchKey clave, String nombre) {
+        boolean nuestro = false;
+        for (WatchEvent<?> evento : clave.pollEvents()) {
+            Object contexto = evento.context();
+            if (evento.kind() == StandardWatchEventKinds.OVERFLOW
+                    || (contexto instanceof Path && ((Path) contexto).getFileName().toString().equals(nombre))) {
+                nuestro = true;
+            }
+        }
+        clave.reset();
+        return nuestro;
+    }
+
+    /**
+     * Lee lo que cambió desde la última versión y, si se indica, lo aplica al grafo.
+     *
+     * @param aplicar false para solo tomar la versión actual como punto de partida
+     */
+    private void revisar(boolean aplicar) throws IOException {
+        long tamaño = archivo.length();
+        long fecha = archivo.lastModified();
+        if (!archivo.isFile() || (tamaño == tamañoConocido && fecha == fechaConocida)) return;
+
+        long inicio = System.nanoTime();
+        EventoArchivo evento = new EventoArchivo();
+        evento.begin();
+        Cambios cambios;
+        long fin = comprimido ? tamaño : finDeUltimaLinea(tamaño);
+        CRC32C crc = new CRC32C();
+        if (aplicar && !comprimido && fin >= leidos && leidos > 0
+                && acumular(crc, 0, leidos) == huella) {
+            cambios = leerAgregado(fin);
+            // La huella nueva sigue desde la ya calculada para lo leído antes
+            acumular(crc, leidos, fin);
+        } else {
+            cambios = compararVersion(aplicar);
+            if (!comprimido) {
+                crc.reset();
+                acumular(crc, 0, fin);
+            }
+        }
+        tamañoConocido = tamaño;
+        fechaConocida = fecha;
+        if (!comprimido) {
+            leidos = fin;
+            huella = crc.getValue();
+        }
+        cambios.nanos = System.nanoTime() - inicio;
+        evento.terminar("vigilancia", archivo.getPath(), cambios.bytesLeidos,
+            cambios.agregadas + cambios.eliminadas + cambios.modificadas, grafo);
+        if (aplicar && cambios.hayCambios()) {
+            alCambiar.accept(cambios);
+        }
+    }
+
+    /**
+     * Interpreta las líneas agregadas al final del archivo y agrega las interacciones nuevas.
+     */
+    private Cambios leerAgregado(long fin) throws IOException {
+        Cambios cambios = new Cambios(archivo, false);
+        cambios.bytesLeidos = fin - leidos;
+        if (fin <= leidos) return cambios;
+        LoteAristas lote = ArchivoCSV.leerLote(archivo, formato, leidos, fin);
+        DiccionarioProteinas locales = lote.getNombres();
+        int[] ids = traducir(locales);
+        long[] nuevas = new long[lote.getCantidad()];
+        double[] pesosNuevos = new double[lote.getCantidad()];
+        int n = 0;
+        ConjuntoAristas vistas = new ConjuntoAristas();
+        for (int i = 0; i < lote.getCantidad(); i++) {
+            int a = ids[lote.origen(i)];
+            int b = ids[lote.destino(i)];
+            if (a == b) continue;
+            long clave = ConjuntoAristas.clave(a, b);
+            // Una interacción que ya estaba en el archivo conserva su primer peso
+            if (Arrays.binarySearch(claves, 0, cantidad, clave) >= 0 || !vistas.agregar(clave)) continue;
+            if (agregar(locales.nombreDe(lote.origen(i)), locales.nombreDe(lote.destino(i)), lote.peso(i))) {
+                cambios.agregadas++;
+            }
+            nuevas[n] = clave;
+            pesosNuevos[n] = lote.peso(i);
+            n++;
+        }
+        if (n > 0) {
+            ordenar(nuevas, pesosNuevos, 0, n - 1);
+            mezclar(nuevas, pesosNuevos, n);
+        }
+        return cambios;
+    }
+
+    /**
+     * Lee el archivo completo y aplica las diferencias con la versión anterior.
+     */
+    private Cambios compararVersion(boolean aplicar) throws IOException {
+        Cambios cambios = new Cambios(archivo, true);
+        LoteAristas lote = ArchivoCSV.leerLote(archivo, formato);
+        cambios.bytesLeidos = archivo.length();
+        DiccionarioProteinas locales = lote.getNombres();
+        int[] ids = traducir(locales);
+        long[] nuevas = new long[lote.getCantidad()];
+        double[] pesosNuevos = new double[lote.getCantidad()];
+        int[] posiciones = new int[lote.getCantidad()];
+        int n = 0;
+        ConjuntoAristas vistas = new ConjuntoAristas();
+        for (int i = 0; i < lote.getCantidad(); i++) {
+            int a = ids[lote.origen(i)];
+            int b = ids[lote.destino(i)];
+            if (a == b) continue;
+            long clave = ConjuntoAristas.clave(a, b);
+            if (!vistas.agregar(clave)) continue;
+            nuevas[n] = clave;
+            pesosNuevos[n] = lote.peso(i);
+            posiciones[n] = i;
+            n++;
+        }
+
+        if (aplicar) {
+            // Primero las que ya no están, después las nuevas y las de peso distinto en el orden del archivo
+            for (int k = 0; k < cantidad; k++) {
+                if (!vistas.contiene(claves[k])) {
+                    if (grafo.eliminarInteraccion(nombres.nombreDe((int) (claves[k] >>> 32)),
+                            nombres.nombreDe((int) claves[k]))) {
+                        cambios.eliminadas++;
+                    }
+                }
+            }
+            for (int j = 0; j < n; j++) {
+                int k = Arrays.binarySearch(claves, 0, cantidad, nuevas[j]);
+                if (k >= 0 && Double.compare(pesos[k], pesosNuevos[j]) == 0) continue;
+                int i = posiciones[j];
+                String origen = locales.nombreDe(lote.origen(i));
+                String destino = locales.nombreDe(lote.destino(i));
+                if (k >= 0) {
+                    if (grafo.setPeso(origen, destino, pesosNuevos[j])) cambios.modificadas++;
+                } else if (agregar(origen, destino, pesosNuevos[j])) {
+                    cambios.agregadas++;
+                }
+            }
+        }
+
+        if (n > 0) ordenar(nuevas, pesosNuevos, 0, n - 1);
+        claves = nuevas;
+        pesos = pesosNuevos;
+        cantidad = n;
+        return cambios;
+    }
+
+    /**
+     * Agrega una interacción del archivo, y sus proteínas si faltan.
+     *
+     * @return true si se agregó, false si el grafo ya la tenía (por ejemplo, por una edición)
+     */
+    private boolean agregar(String origen, String destino, double peso) {
+        grafo.agregarProteina(origen);
+        grafo.agregarProteina(destino);
+        return grafo.agregarInteraccion(origen, destino, peso);
+    }
+
+    /**
+     * Traduce los identificadores locales de un lote a los del diccionario del vigilante.
+     */
+    private int[] traducir(DiccionarioProteinas locales) {
+        int[] ids = new int[locales.getLimiteIds()];
+        for (int id = 0; id < ids.length; id++) {
+            String nombre = locales.nombreDe(id);
+            ids[id] = nombre != null ? nombres.agregar(nombre) : -1;
+        }
+        return ids;
+    }
+
+    /**
+     * Incorpora a la versión actual las primeras n claves, ya ordenadas, de los arreglos dados.
+     */
+    private void mezclar(long[] nuevas, double[] pesosNuevos, int n) {
+        long[] c = new long[cantidad + n];
+        double[] p = new double[cantidad + n];
+        int i = 0, j = 0, k = 0;
+        while (i < cantidad || j < n) {
+            if (j == n || (i < cantidad && claves[i] < nuevas[j])) {
+                c[k] = claves[i];
+                p[k++] = pesos[i++];
+            } else {
+                c[k] = nuevas[j];
+                p[k++] = pesosNuevos[j++];
+            }
+        }
+        claves = c;
+        pesos = p;
+        cantidad = k;
+    }
+
+    /**
+     * Ordena por clave el tramo [desde, hasta] de dos arreglos paralelos.
+     */
+    private static void ordenar(long[] c, double[] p, int desde, int hasta) {
+        while (hasta - desde > 16) {
+            long pivote = c[(desde + hasta) >>> 1];
+            int i = desde;
+            int j = hasta;
+            while (i <= j) {
+                while (c[i] < pivote) i++;
+                while (c[j] > pivote) j--;
+                if (i <= j) {
+                    long t = c[i];
+                    c[i] = c[j];
+                    c[j] = t;
+                    double q = p[i];
+                    p[i] = p[j];
+                    p[j] = q;
+                    i++;
+                    j--;
+                }
+            }
+            // Recursión en el tramo menor para acotar la pila
+            if (j - desde < hasta - i) {
+                ordenar(c, p, desde, j);
+                desde = i;
+            } else {
+                ordenar(c, p, i, hasta);
+                hasta = j;
+            }
+        }
+        for (int i = desde + 1; i <= hasta; i++) {
+            long t = c[i];
+            double q = p[i];
+            int j = i - 1;
+            while (j >= desde && c[j] > t) {
+                c[j + 1] = c[j];
+                p[j + 1] = p[j];
+                j--;
+            }
+            c[j + 1] = t;
+            p[j + 1] = q;
+        }
+    }
+
+    /**
+     * Posición siguiente al último '\n' del archivo, o 0 si no tiene ninguno.
+     */
+    private long finDeUltimaLinea(long tamaño) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(BLOQUE);
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long fin = tamaño;
+            while (fin > 0) {
+                long desde = Math.max(0, fin - b.capacity());
+                b.clear().limit((int) (fin - desde));
+                while (b.hasRemaining() && canal.read(b, desde + b.position()) > 0) {
+                    // leer el bloque completo
+                }
+                for (int i = b.position() - 1; i >= 0; i--) {
+                    if (b.get(i) == '\n') return desde + i + 1;
+                }
+                fin = desde;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Agrega al CRC32C los bytes [desde, hasta) del archivo.
+     *
+     * @return Valor del CRC después de agregarlos
+     */
+    private long acumular(CRC32C crc, long desde, long hasta) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate((int) Math.min(BLOQUE, Math.max(1, hasta - desde)));
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long posicion = desde;
+            while (posicion < hasta) {
+                b.clear().limit((int) Math.min(b.capacity(), hasta - posicion));
+                int n = canal.read(b, posicion);
+                if (n < 0) throw new IOException("El archivo se acortó mientras se leía");
+                posicion += n;
+                b.flip();
+                crc.update(b);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Resumen de un grupo de cambios aplicados al grafo.
+     */
+    public static final class Cambios {
+        private final File archivo;
+        private final boolean completo;
+        int agregadas;
+        int eliminadas;
+        int modificadas;
+        long bytesLeidos;
+        long nanos;
+
+        Cambios(File archivo, boolean completo) {
+            this.archivo = archivo;
+            this.completo = completo;
+        }
+
+        /**
+         * Indica si el archivo se volvió a leer completo en lugar de leer solo lo agregado.
+         *
+         * @return true si se comparó el archivo completo
+         */
+        public boolean isCompleto() {
+            return completo;
+        }
+
+        /**
+         * Obtiene las interacciones nuevas.
+         *
+         * @return Cantidad de interacciones agregadas al grafo
+         */
+        public int getAgregadas() {
+            return agregadas;
+        }
+
+        /**
+         * Obtiene las interacciones que ya no están en el archivo.
+         *
+         * @return Cantidad de interacciones eliminadas del grafo
+         */
+        public int getEliminadas() {
+            return eliminadas;
+        }
+
+        /**
+         * Obtiene las interacciones cuyo peso cambió.
+         *
+         * @return Cantidad de interacciones a las que se les cambió el peso
+         */
+        public int getModificadas() {
+            return modificadas;
+        }
+
+        /**
+         * Indica si hubo alguna diferencia con la versión anterior.
+         *
+         * @return true si se agregó, eliminó o modificó alguna interacción
+         */
+        public boolean hayCambios() {
+            return agregadas + eliminadas + modificadas > 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s actualizado (%s, %d bytes leídos): %d interacciones agregadas, "
+                + "%d eliminadas, %d con otro peso, en %.1f ms", archivo.getName(),
+                completo ? "comparado completo" : "solo lo agregado al final", bytesLeidos,
+                agregadas, eliminadas, modificadas, nanos / 1e6);
+        }
+    }
+}
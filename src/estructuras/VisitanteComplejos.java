@@ -0,0 +1,26 @@
+package estructuras;
+
+import java.util.function.IntFunction;
+
+/**
+ * Recibe los complejos proteicos de un Grafo a medida que el recorrido los encuentra,
+ * sin que el grafo arme la lista completa de resultados.
+ *
+ * Cada complejo llega como un tramo de un arreglo de identificadores de proteínas.
+ * Se llama con el cerrojo de lectura del grafo tomado: el arreglo y los nombres solo
+ * valen durante la llamada, el arreglo no debe modificarse y no se debe editar ni
+ * consultar el grafo desde el visitante.
+ */
+public interface VisitanteComplejos {
+
+    /**
+     * Se encontró un complejo (un componente conexo de más de una proteína).
+     *
+     * @param miembros Identificadores de las proteínas, en el orden del recorrido
+     * @param desde Posición del primer miembro
+     * @param hasta Posición siguiente al último miembro
+     * @param nombres Devuelve el nombre de un identificador
+     * @return true para seguir buscando complejos, false para terminar el recorrido
+     */
+    boolean complejo(int[] miembros, int desde, int hasta, IntFunction<String> nombres);
+}
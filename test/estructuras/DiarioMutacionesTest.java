@@ -0,0 +1,109 @@
+package estructuras;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Pruebas de DiarioMutaciones.
+ */
+public class DiarioMutacionesTest {
+    private Path carpeta;
+    private File csv;
+
+    @Before
+    public void crearCsv() throws IOException {
+        carpeta = Files.createTempDirectory("diario");
+        csv = carpeta.resolve("red.csv").toFile();
+        Files.writeString(csv.toPath(), "A,B,1.0\nB,C,2.0\n");
+    }
+
+    @After
+    public void borrarCarpeta() {
+        File[] archivos = carpeta.toFile().listFiles();
+        if (archivos != null) {
+            for (File f : archivos) {
+                f.delete();
+            }
+        }
+        carpeta.toFile().delete();
+    }
+
+    private static Proteinas interaccion(Grafo grafo, String a, String b) {
+        for (Proteinas p : grafo.getInteraccionesDe(a)) {
+            if (p.getOrigen().equals(b) || p.getDestino().equals(b)) return p;
+        }
+        return null;
+    }
+
+    @Test
+    public void lasEdicionesSobrevivenAUnCambioDelCsvDespuesDeUnPuntoDeControl()
+            throws IOException {
+        Grafo grafo = new Grafo();
+        DiarioMutaciones diario = DiarioMutaciones.abrir(csv, grafo, false);
+        grafo.agregarProteina("D");
+        grafo.agregarInteraccion("C", "D", 3.0);
+        grafo.setActiva("A", "B", false);
+        diario.sincronizar();
+        diario.compactar();
+        assertTrue(new File(csv.getPath() + ".diario-1.grafo").isFile());
+        grafo.setPeso("B", "C", 4.0);
+
+        // Otro programa guarda el CSV y sus diferencias se aplican al grafo,
+        // como hace VigilanteArchivo
+        Files.writeString(csv.toPath(), "A,B,1.0\nB,C,2.0\nC,E,1.5\n");
+        csv.setLastModified(csv.lastModified() + 2000);
+        grafo.agregarProteina("E");
+        grafo.agregarInteraccion("C", "E", 1.5);
+        diario.actualizarOrigen();
+        diario.close();
+
+        Grafo recuperado = new Grafo();
+        DiarioMutaciones otro = DiarioMutaciones.abrir(csv, recuperado, false);
+        try {
+            assertFalse("el diario no debe descartarse",
+                new File(csv.getPath() + ".diario.descartado").exists());
+            assertTrue(recuperado.existeProteina("D"));
+            assertEquals(3.0, interaccion(recuperado, "C", "D").getPeso(), 0.0);
+            assertFalse(interaccion(recuperado, "A", "B").isActiva());
+            assertEquals(4.0, interaccion(recuperado, "B", "C").getPeso(), 0.0);
+            assertNotNull(interaccion(recuperado, "C", "E"));
+            assertEquals(grafo.getNumInteracciones(), recuperado.getNumInteracciones());
+        } finally {
+            otro.close();
+        }
+    }
+
+    @Test
+    public void lasEdicionesSobrevivenAUnCambioDelCsvSinPuntoDeControl() throws IOException {
+        Grafo grafo = new Grafo();
+        DiarioMutaciones diario = DiarioMutaciones.abrir(csv, grafo, false);
+        grafo.agregarProteina("D");
+        grafo.agregarInteraccion("C", "D", 3.0);
+        diario.sincronizar();
+
+        Files.writeString(csv.toPath(), "A,B,1.0\nB,C,2.0\nC,E,1.5\n");
+        grafo.agregarProteina("E");
+        grafo.agregarInteraccion("C", "E", 1.5);
+        diario.actualizarOrigen();
+        diario.close();
+
+        Grafo recuperado = new Grafo();
+        DiarioMutaciones otro = DiarioMutaciones.abrir(csv, recuperado, false);
+        try {
+            assertNotNull(interaccion(recuperado, "C", "D"));
+            assertNotNull(interaccion(recuperado, "C", "E"));
+        } finally {
+            otro.close();
+        }
+    }
+}
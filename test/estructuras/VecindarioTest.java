@@ -0,0 +1,93 @@
+package estructuras;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de Grafo.vecindario.
+ */
+public class VecindarioTest {
+
+    /**
+     * Arma el grafo A-B (5), B-C (1), B-D (4), A-C (1) y C-E (5).
+     */
+    private static Grafo grafo() {
+        Grafo grafo = new Grafo();
+        for (String p : new String[] {"A", "B", "C", "D", "E"}) {
+            grafo.agregarProteina(p);
+        }
+        grafo.agregarInteraccion("A", "B", 5);
+        grafo.agregarInteraccion("B", "C", 1);
+        grafo.agregarInteraccion("B", "D", 4);
+        grafo.agregarInteraccion("A", "C", 1);
+        grafo.agregarInteraccion("C", "E", 5);
+        return grafo;
+    }
+
+    private static Lista<String> ruta(String... proteinas) {
+        Lista<String> ruta = new Lista<>();
+        for (String p : proteinas) {
+            ruta.agregar(p);
+        }
+        return ruta;
+    }
+
+    /**
+     * Busca la interacción entre dos proteínas del subgrafo.
+     *
+     * @return Posición de la interacción, o -1 si no está
+     */
+    private static int interaccion(Subgrafo subgrafo, String a, String b) {
+        int i = subgrafo.indiceDe(a);
+        int j = subgrafo.indiceDe(b);
+        for (int e = 0; e < subgrafo.getNumInteracciones(); e++) {
+            int o = subgrafo.getOrigen(e);
+            int d = subgrafo.getDestino(e);
+            if ((o == i && d == j) || (o == j && d == i)) return e;
+        }
+        return -1;
+    }
+
+    @Test
+    public void conservaLaRutaAunqueUnaInteraccionNoLlegueAlPesoMinimo() {
+        Subgrafo subgrafo = grafo().vecindario(ruta("A", "B", "C"), 1, 10, 2,
+            ProgresoAnalisis.NINGUNO);
+
+        int ab = interaccion(subgrafo, "A", "B");
+        int bc = interaccion(subgrafo, "B", "C");
+        assertTrue(ab >= 0 && subgrafo.esDeRuta(ab));
+        assertTrue("B-C pesa menos que el mínimo pero es de la ruta",
+            bc >= 0 && subgrafo.esDeRuta(bc));
+        assertEquals(1.0, subgrafo.getPeso(bc), 0.0);
+
+        int bd = interaccion(subgrafo, "B", "D");
+        assertTrue(bd >= 0);
+        assertFalse(subgrafo.esDeRuta(bd));
+        assertEquals("A-C no es de la ruta y pesa menos que el mínimo",
+            -1, interaccion(subgrafo, "A", "C"));
+        assertEquals(4, subgrafo.getNumInteracciones());
+    }
+
+    @Test
+    public void laRutaNoSeRepiteEntreLasDemasInteracciones() {
+        Subgrafo subgrafo = grafo().vecindario(ruta("A", "B", "C"), 0, 10, 0,
+            ProgresoAnalisis.NINGUNO);
+
+        // A-B y B-C por la ruta, A-C por estar entre proteínas extraídas
+        assertEquals(3, subgrafo.getNumInteracciones());
+        assertFalse(subgrafo.esDeRuta(interaccion(subgrafo, "A", "C")));
+    }
+
+    @Test
+    public void soloUneSemillasConsecutivas() {
+        Subgrafo subgrafo = grafo().vecindario(ruta("A", "X", "B"), 0, 10, 0,
+            ProgresoAnalisis.NINGUNO);
+
+        // X no existe: A y B no quedan como consecutivas
+        assertEquals(2, subgrafo.getNumSemillas());
+        assertFalse(subgrafo.esDeRuta(interaccion(subgrafo, "A", "B")));
+    }
+}